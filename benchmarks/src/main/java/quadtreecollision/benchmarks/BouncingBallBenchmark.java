@@ -0,0 +1,73 @@
+/**
+ * [BouncingBallBenchmark.java]
+ * Measures BouncingBall.move over a whole population and BouncingBall.collide over neighbouring pairs
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import quadtreecollision.BouncingBall;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BouncingBallBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int balls;
+
+    @Param({"UNIFORM", "CLUSTERED"})
+    public Scenes.Distribution distribution;
+
+    private BouncingBall[] scene; //balls, sorted by x so neighbours in the array are often close by
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ArrayList<BouncingBall> list = Scenes.create(balls, distribution);
+        list.sort(Comparator.comparingDouble(BouncingBall::getPosX));
+        scene = list.toArray(new BouncingBall[0]);
+    }
+
+    /**
+     * moves every ball once
+     */
+    @Benchmark
+    public BouncingBall[] move() {
+        for (BouncingBall b : scene) {
+            b.move();
+        }
+        return scene;
+    }
+
+    /**
+     * collides every ball with its next four neighbours along x, a mix of hits and misses
+     */
+    @Benchmark
+    public BouncingBall[] collide() {
+        for (int i = 0; i < scene.length; i++) {
+            for (int j = i + 1; j < scene.length && j <= i + 4; j++) {
+                scene[i].collide(scene[j]);
+            }
+        }
+        return scene;
+    }
+}
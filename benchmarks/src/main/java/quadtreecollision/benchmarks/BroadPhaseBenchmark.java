@@ -0,0 +1,87 @@
+/**
+ * [BroadPhaseBenchmark.java]
+ * Measures building each BroadPhase and finding its candidate pairs on the same scenes, so the one to use for a
+ * workload can be picked from numbers. The regular QuadTree hands out a pair once per leaf it shares, the others once
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import quadtreecollision.BouncingBall;
+import quadtreecollision.BroadPhase;
+import quadtreecollision.World;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadPhaseBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int balls;
+
+    @Param({"UNIFORM", "CLUSTERED"})
+    public Scenes.Distribution distribution;
+
+    @Param({"quadtree", "linear", "grid", "sap"})
+    public String broadPhase;
+
+    private ArrayList<BouncingBall> scene; //balls to build from
+    private BroadPhase<BouncingBall> rebuilt; //broad phase that gets rebuilt by build()
+    private BroadPhase<BouncingBall> built; //broad phase that is built once, for findPairs
+    private long pairs; //pairs handed out, so the work can't be skipped
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scene = Scenes.create(balls, distribution);
+        int size = Scenes.worldSize(balls);
+        rebuilt = World.createBroadPhase(broadPhase, size, size, 5, 8, 0);
+        built = World.createBroadPhase(broadPhase, size, size, 5, 8, 0);
+        built.build(scene);
+    }
+
+    /**
+     * the per frame rebuild from every ball
+     */
+    @Benchmark
+    public BroadPhase<BouncingBall> build() {
+        rebuilt.build(scene);
+        return rebuilt;
+    }
+
+    /**
+     * handing out the candidate pairs of an already built broad phase, without checking them
+     */
+    @Benchmark
+    public long findPairs() {
+        built.findPairs((a, b) -> pairs++);
+        return pairs;
+    }
+
+    /**
+     * a whole broad phase step: build, then collide every pair
+     */
+    @Benchmark
+    public BroadPhase<BouncingBall> buildAndCollide() {
+        rebuilt.build(scene);
+        rebuilt.findPairs(BouncingBall::collide);
+        return rebuilt;
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * [FrameTimeHistogram.java]
+ * Counts every frame time of a soak run, however long it runs, in a fixed number of buckets so recording allocates
+ * nothing. Values below 128 get a bucket each, above that every power of two is split into 64 buckets, so a value
+ * read back (e.g. a percentile) is the top of its bucket, at most 1/64 (about 1.6%) above the real one. The largest
+ * value is kept exactly
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class FrameTimeHistogram {
+    private static final int SUB_BITS = 6; //each power of two is split into 2^SUB_BITS buckets
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int LINEAR = 2 * SUB; //values below this get a bucket each
+
+    private final long[] counts = new long[LINEAR + (63 - SUB_BITS) * SUB]; //count of each bucket
+    private long total; //values recorded
+    private long sum; //sum of the values recorded
+    private long max; //largest value recorded
+
+    /**
+     * counts one value
+     * @param value the value, e.g. nanoseconds, 0 or more
+     */
+    public void record(long value) {
+        counts[bucket(Math.max(0, value))]++;
+        total++;
+        sum += value;
+        max = Math.max(max, value);
+    }
+
+    /**
+     * @return index of the bucket a value goes in
+     */
+    static int bucket(long value) {
+        if (value < LINEAR) {
+            return (int)value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS; //keeps the top SUB_BITS + 1 bits
+        return LINEAR + (shift - 1) * SUB + (int)(value >>> shift) - SUB;
+    }
+
+    /**
+     * @return largest value that goes in a bucket
+     */
+    static long top(int bucket) {
+        if (bucket < LINEAR) {
+            return bucket;
+        }
+        int shift = (bucket - LINEAR) / SUB + 1;
+        long first = (long)((bucket - LINEAR) % SUB + SUB) << shift;
+        return first + (1L << shift) - 1;
+    }
+
+    /**
+     * @param percent percentile to find, from 0 to 100
+     * @return smallest bucket top that at least that percent of the values are at or below, never above the largest
+     *         value, 0 if nothing was recorded
+     */
+    public long percentile(double percent) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long)Math.ceil(percent / 100 * total));
+        long seen = 0;
+        for (int b = 0; b < counts.length; b++) {
+            seen += counts[b];
+            if (seen >= rank) {
+                return Math.min(max, top(b));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return every bucket that isn't empty as {top of the bucket, count}, smallest first
+     */
+    public List<long[]> buckets() {
+        List<long[]> buckets = new ArrayList<>();
+        for (int b = 0; b < counts.length; b++) {
+            if (counts[b] > 0) {
+                buckets.add(new long[] {top(b), counts[b]});
+            }
+        }
+        return buckets;
+    }
+
+    public double mean() {
+        return total == 0 ? 0 : (double)sum / total;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+}
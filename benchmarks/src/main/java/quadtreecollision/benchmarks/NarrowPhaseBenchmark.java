@@ -0,0 +1,71 @@
+/**
+ * [NarrowPhaseBenchmark.java]
+ * Measures colliding the leaves of a built QuadTree, with a collide() call for every pair of a leaf against
+ * collisionCheck()'s batched NarrowPhase, which only calls collide() for the pairs that touch.
+ * A shallow depth limit makes the leaves dense, which is where the batch pays off
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import quadtreecollision.BouncingBall;
+import quadtreecollision.QuadTree;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NarrowPhaseBenchmark {
+    @Param({"10000", "100000"})
+    public int balls;
+
+    @Param({"UNIFORM", "CLUSTERED"})
+    public Scenes.Distribution distribution;
+
+    @Param({"4", "6", "8"})
+    public int maxSubdivision;
+
+    private QuadTree<BouncingBall> tree; //tree built once, only the velocities change between calls
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int size = Scenes.worldSize(balls);
+        tree = new QuadTree<>(1, 0, 0, size, size, 5, maxSubdivision);
+        tree.build(Scenes.create(balls, distribution));
+    }
+
+    /**
+     * a collide() call for every pair of every leaf, each one testing its own distance
+     */
+    @Benchmark
+    public QuadTree<BouncingBall> perPair() {
+        tree.findPairs(BouncingBall::collide);
+        return tree;
+    }
+
+    /**
+     * each leaf's distances tested in one batch, then collide() for the touching pairs only
+     */
+    @Benchmark
+    public QuadTree<BouncingBall> batched() {
+        tree.collisionCheck();
+        return tree;
+    }
+}
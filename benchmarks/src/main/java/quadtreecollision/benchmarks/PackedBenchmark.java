@@ -0,0 +1,86 @@
+/**
+ * [PackedBenchmark.java]
+ * Measures the BallStore + IndexQuadTree path on the same scenes as QuadTreeBenchmark and BouncingBallBenchmark
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import quadtreecollision.BallStore;
+import quadtreecollision.IndexQuadTree;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackedBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int balls;
+
+    @Param({"UNIFORM", "CLUSTERED"})
+    public Scenes.Distribution distribution;
+
+    @Param({"5"})
+    public int maxObjects;
+
+    @Param({"8"})
+    public int maxSubdivision;
+
+    private BallStore store; //balls, as arrays
+    private IndexQuadTree qt; //tree that gets rebuilt by build()
+    private IndexQuadTree built; //tree that is built once, for collisionCheck
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = Scenes.pack(Scenes.create(balls, distribution));
+        int size = Scenes.worldSize(balls);
+        qt = new IndexQuadTree(store, 0, 0, size, size, maxObjects, maxSubdivision);
+        built = new IndexQuadTree(store, 0, 0, size, size, maxObjects, maxSubdivision);
+        built.insertAll();
+    }
+
+    /**
+     * the per frame rebuild: clear the tree and insert every ball
+     */
+    @Benchmark
+    public IndexQuadTree build() {
+        qt.clear();
+        qt.insertAll();
+        return qt;
+    }
+
+    /**
+     * narrow phase over every leaf of an already built tree
+     */
+    @Benchmark
+    public IndexQuadTree collisionCheck() {
+        built.collisionCheck();
+        return built;
+    }
+
+    /**
+     * moves every ball once
+     */
+    @Benchmark
+    public BallStore move() {
+        store.moveAll();
+        return store;
+    }
+}
@@ -0,0 +1,228 @@
+/**
+ * [QuadTreeBenchmark.java]
+ * Measures building the quadtree (clear + insert), updating it in place, subdividing one node, and collisionCheck (serial and parallel),
+ * and building and collisionCheck for the loose and linear quadtrees on the same scenes
+ * over populations, distributions and MAX_OBJECTS/MAX_SUBDIVISION values
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import quadtreecollision.BouncingBall;
+import quadtreecollision.LinearQuadTree;
+import quadtreecollision.LooseQuadTree;
+import quadtreecollision.QuadTree;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuadTreeBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int balls;
+
+    @Param({"UNIFORM", "CLUSTERED"})
+    public Scenes.Distribution distribution;
+
+    @Param({"2", "5", "10", "25"})
+    public int maxObjects;
+
+    @Param({"6", "8", "10"})
+    public int maxSubdivision;
+
+    private ArrayList<BouncingBall> scene; //balls to insert
+    private QuadTree<BouncingBall> qt; //tree that gets rebuilt by build()
+    private QuadTree<BouncingBall> built; //tree that is built once, for collisionCheck
+    private ArrayList<BouncingBall> moving; //balls that keep moving, for moveAndUpdate/moveAndRebuild
+    private QuadTree<BouncingBall> rebuilt; //tree that is cleared and rebuilt after every move
+    private QuadTree<BouncingBall> updated; //tree that is updated in place after every move
+    private LooseQuadTree<BouncingBall> loose; //loose tree that gets rebuilt by looseBuild()
+    private LooseQuadTree<BouncingBall> looseBuilt; //loose tree that is built once, for looseCollisionCheck
+    private LinearQuadTree<BouncingBall> linear; //linear tree that gets bulk loaded by linearBuild()
+    private LinearQuadTree<BouncingBall> linearBuilt; //linear tree that is built once, for linearCollisionCheck
+    private int size; //side of the world
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scene = Scenes.create(balls, distribution);
+        size = Scenes.worldSize(balls);
+        qt = new QuadTree<>(1, 0, 0, size, size, maxObjects, maxSubdivision);
+        built = new QuadTree<>(1, 0, 0, size, size, maxObjects, maxSubdivision);
+        for (BouncingBall b : scene) {
+            built.insert(b);
+        }
+
+        moving = Scenes.create(balls, distribution);
+        rebuilt = new QuadTree<>(1, 0, 0, size, size, maxObjects, maxSubdivision);
+        updated = new QuadTree<>(1, 0, 0, size, size, maxObjects, maxSubdivision);
+        updated.setMargin(5);
+        for (BouncingBall b : moving) {
+            updated.insert(b);
+        }
+
+        loose = new LooseQuadTree<>(1, 0, 0, size, size, maxObjects, maxSubdivision);
+        looseBuilt = new LooseQuadTree<>(1, 0, 0, size, size, maxObjects, maxSubdivision);
+        for (BouncingBall b : scene) {
+            looseBuilt.insert(b);
+        }
+
+        linear = new LinearQuadTree<>(0, 0, size, size, maxObjects, maxSubdivision);
+        linearBuilt = new LinearQuadTree<>(0, 0, size, size, maxObjects, maxSubdivision);
+        linearBuilt.build(scene);
+    }
+
+    /**
+     * the per frame rebuild: clear the tree and insert every ball
+     */
+    @Benchmark
+    public QuadTree<BouncingBall> build() {
+        qt.clear();
+        for (BouncingBall b : scene) {
+            qt.insert(b);
+        }
+        return qt;
+    }
+
+    /**
+     * one step of movement followed by a full clear and rebuild, compare with moveAndUpdate
+     */
+    @Benchmark
+    public QuadTree<BouncingBall> moveAndRebuild() {
+        for (BouncingBall b : moving) {
+            b.move();
+        }
+        rebuilt.clear();
+        for (BouncingBall b : moving) {
+            rebuilt.insert(b);
+        }
+        return rebuilt;
+    }
+
+    /**
+     * one step of movement followed by an in place update of the tree
+     */
+    @Benchmark
+    public QuadTree<BouncingBall> moveAndUpdate() {
+        for (BouncingBall b : moving) {
+            b.move();
+        }
+        updated.update();
+        return updated;
+    }
+
+    /**
+     * clearing a fully built tree (the tree is rebuilt outside the measurement)
+     */
+    @Benchmark
+    public QuadTree<BouncingBall> clear(BuiltTree tree) {
+        tree.qt.clear();
+        return tree.qt;
+    }
+
+    /**
+     * one subdivide of a full root node, including filling it with MAX_OBJECTS balls first
+     */
+    @Benchmark
+    public QuadTree<BouncingBall> subdivide() {
+        QuadTree<BouncingBall> node = new QuadTree<>(1, 0, 0, size, size, maxObjects, maxSubdivision);
+        for (int i = 0; i < maxObjects; i++) {
+            node.insert(scene.get(i));
+        }
+        node.subdivide();
+        return node;
+    }
+
+    /**
+     * narrow phase over every leaf of an already built tree, positions don't change so the tree stays valid
+     */
+    @Benchmark
+    public QuadTree<BouncingBall> collisionCheck() {
+        built.collisionCheck();
+        return built;
+    }
+
+    /**
+     * the same narrow phase with the leaves searched on the common pool, one thread per core
+     */
+    @Benchmark
+    public QuadTree<BouncingBall> parallelCollisionCheck() {
+        built.collisionCheck(ForkJoinPool.commonPool());
+        return built;
+    }
+
+    /**
+     * the per frame rebuild for the loose quadtree
+     */
+    @Benchmark
+    public LooseQuadTree<BouncingBall> looseBuild() {
+        loose.clear();
+        for (BouncingBall b : scene) {
+            loose.insert(b);
+        }
+        return loose;
+    }
+
+    /**
+     * narrow phase over an already built loose quadtree, every pair is checked once
+     */
+    @Benchmark
+    public LooseQuadTree<BouncingBall> looseCollisionCheck() {
+        looseBuilt.collisionCheck();
+        return looseBuilt;
+    }
+
+    /**
+     * the per frame bulk load of the linear quadtree: morton codes, radix sort and splitting the sorted ranges
+     */
+    @Benchmark
+    public LinearQuadTree<BouncingBall> linearBuild() {
+        linear.build(scene);
+        return linear;
+    }
+
+    /**
+     * narrow phase over an already built linear quadtree, every pair is checked once
+     */
+    @Benchmark
+    public LinearQuadTree<BouncingBall> linearCollisionCheck() {
+        linearBuilt.collisionCheck();
+        return linearBuilt;
+    }
+
+    /**
+     * a freshly built tree for every clear() invocation
+     */
+    @State(Scope.Thread)
+    public static class BuiltTree {
+        QuadTree<BouncingBall> qt;
+
+        @Setup(Level.Invocation)
+        public void build(QuadTreeBenchmark benchmark) {
+            if (qt == null) {
+                qt = new QuadTree<>(1, 0, 0, benchmark.size, benchmark.size, benchmark.maxObjects, benchmark.maxSubdivision);
+            }
+            for (BouncingBall b : benchmark.scene) {
+                qt.insert(b);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * [QueryBenchmark.java]
+ * Measures the QuadTree's spatial queries (everything in a rectangle, everything within a radius, the k nearest balls)
+ * against scanning the whole list of balls for the same answer. The query points are picked before the measurement,
+ * so every call looks somewhere different
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import quadtreecollision.BouncingBall;
+import quadtreecollision.QuadTree;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBenchmark {
+    private static final int POINTS = 1024; //query points to cycle through, a power of two
+
+    @Param({"10000", "100000"})
+    public int balls;
+
+    @Param({"UNIFORM", "CLUSTERED"})
+    public Scenes.Distribution distribution;
+
+    @Param({"50", "300"})
+    public int extent; //side of the rectangle and radius of the circle
+
+    @Param({"10"})
+    public int k; //balls wanted by nearest
+
+    private ArrayList<BouncingBall> scene; //balls in the tree
+    private QuadTree<BouncingBall> tree; //tree built once
+    private double[] px, py; //query points
+    private int next; //index of the next query point
+    private int found; //balls handed to the counter, returned so the work isn't optimised away
+    private final Consumer<BouncingBall> counter = b -> found++;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int size = Scenes.worldSize(balls);
+        scene = Scenes.create(balls, distribution);
+        tree = new QuadTree<>(1, 0, 0, size, size, 5, 8);
+        tree.build(scene);
+        Random random = new Random(Scenes.SEED);
+        px = new double[POINTS];
+        py = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            px[i] = random.nextDouble() * size;
+            py[i] = random.nextDouble() * size;
+        }
+    }
+
+    /**
+     * @return index of the next query point
+     */
+    private int point() {
+        next = (next + 1) & (POINTS - 1);
+        return next;
+    }
+
+    /**
+     * everything touching a rectangle, only visiting the nodes that overlap it
+     */
+    @Benchmark
+    public int rectangle() {
+        int i = point();
+        tree.query(px[i], py[i], px[i] + extent, py[i] + extent, counter);
+        return found;
+    }
+
+    /**
+     * everything touching a rectangle, by testing every ball
+     */
+    @Benchmark
+    public int rectangleScan() {
+        int i = point();
+        double minX = px[i], minY = py[i], maxX = px[i] + extent, maxY = py[i] + extent;
+        for (int j = 0; j < scene.size(); j++) {
+            BouncingBall b = scene.get(j);
+            double deltaX = b.getPosX() - Math.max(minX, Math.min(maxX, b.getPosX()));
+            double deltaY = b.getPosY() - Math.max(minY, Math.min(maxY, b.getPosY()));
+            if (deltaX * deltaX + deltaY * deltaY <= b.getRadius() * b.getRadius()) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * everything within a radius, only visiting the nodes that come within it
+     */
+    @Benchmark
+    public int radius() {
+        int i = point();
+        tree.queryRadius(px[i], py[i], extent, counter);
+        return found;
+    }
+
+    /**
+     * the k closest balls, best first
+     */
+    @Benchmark
+    public int nearest() {
+        int i = point();
+        return tree.nearest(px[i], py[i], k, counter);
+    }
+}
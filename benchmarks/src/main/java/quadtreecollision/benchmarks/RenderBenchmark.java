@@ -0,0 +1,85 @@
+/**
+ * [RenderBenchmark.java]
+ * Measures drawing one RenderSnapshot of a scene, with a setColor and fillOval per ball against the BallRenderer's
+ * cached ball shapes and cached tree lines. Both draw into an image in memory, so no window is needed
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import quadtreecollision.BallRenderer;
+import quadtreecollision.BouncingBall;
+import quadtreecollision.QuadTree;
+import quadtreecollision.RenderSnapshot;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Djava.awt.headless=true")
+public class RenderBenchmark {
+    private static final Color BACKGROUND = new Color(30, 30, 30);
+
+    @Param({"1000", "10000"})
+    public int balls;
+
+    @Param({"UNIFORM", "CLUSTERED"})
+    public Scenes.Distribution distribution;
+
+    private int size; //side of the scene and the image
+    private RenderSnapshot snapshot; //snapshot being drawn
+    private BufferedImage image; //image fillOval draws into
+    private BallRenderer renderer; //renderer with its own image
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        size = Scenes.worldSize(balls);
+        ArrayList<BouncingBall> scene = Scenes.create(balls, distribution);
+        QuadTree<BouncingBall> tree = new QuadTree<>(1, 0, 0, size, size, 5, 8);
+        tree.build(scene);
+        snapshot = new RenderSnapshot(0, scene, tree::outline);
+        image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        renderer = new BallRenderer(size, size, BACKGROUND);
+    }
+
+    /**
+     * clearing the image, then a drawLine per line and a setColor and fillOval per ball
+     */
+    @Benchmark
+    public BufferedImage fillOval() {
+        Graphics g = image.createGraphics();
+        g.setColor(BACKGROUND);
+        g.fillRect(0, 0, size, size);
+        snapshot.draw(g);
+        g.dispose();
+        return image;
+    }
+
+    /**
+     * copying the cached background and lines, then filling each ball's cached shape straight into the pixels
+     */
+    @Benchmark
+    public BufferedImage sprites() {
+        return renderer.render(snapshot);
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * [Scenes.java]
+ * Builds repeatable populations of balls for the benchmarks, spread either evenly or in clusters.
+ * The world grows with the population so every ball gets the same amount of room on average
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision.benchmarks;
+
+import quadtreecollision.BallStore;
+import quadtreecollision.BouncingBall;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+public final class Scenes {
+    public static final long SEED = 42; //every benchmark sees the same scene for the same parameters
+    private static final int ROOM_PER_BALL = 40; //side of the square of room each ball gets on average
+    private static final int CLUSTERS = 16; //number of clusters in a clustered scene
+
+    /**
+     * how balls are spread over the world
+     */
+    public enum Distribution {
+        UNIFORM, //evenly over the whole world
+        CLUSTERED //gaussian blobs around a few random centres, leaves most of the world empty
+    }
+
+    private Scenes() {
+    }
+
+    /**
+     * @param balls number of balls the world should hold
+     * @return side of the square world for that many balls
+     */
+    public static int worldSize(int balls) {
+        return (int)Math.ceil(Math.sqrt(balls)) * ROOM_PER_BALL;
+    }
+
+    /**
+     * creates the balls for a scene
+     * @param balls number of balls
+     * @param distribution how to spread them
+     * @return list of balls inside a world of worldSize(balls)
+     */
+    public static ArrayList<BouncingBall> create(int balls, Distribution distribution) {
+        Random random = new Random(SEED);
+        int size = worldSize(balls);
+        ArrayList<BouncingBall> list = new ArrayList<>(balls);
+
+        //centres and spread of the clusters
+        double[] cx = new double[CLUSTERS];
+        double[] cy = new double[CLUSTERS];
+        for (int i = 0; i < CLUSTERS; i++) {
+            cx[i] = random.nextDouble() * size;
+            cy[i] = random.nextDouble() * size;
+        }
+        double spread = size / 20.0;
+
+        for (int i = 0; i < balls; i++) {
+            double x, y;
+            if (distribution == Distribution.UNIFORM) {
+                x = random.nextDouble() * size;
+                y = random.nextDouble() * size;
+            } else {
+                int c = random.nextInt(CLUSTERS);
+                x = clamp(cx[c] + random.nextGaussian() * spread, size);
+                y = clamp(cy[c] + random.nextGaussian() * spread, size);
+            }
+            //same velocity range as a random ball
+            list.add(new BouncingBall(size, size, x, y, random.nextInt(11) - 5, random.nextInt(11) - 5, random.nextInt(40)));
+        }
+        return list;
+    }
+
+    /**
+     * copies a scene into a BallStore, ball i of the store is ball i of the list
+     * @param scene balls to copy
+     * @return store holding the same balls
+     */
+    public static BallStore pack(ArrayList<BouncingBall> scene) {
+        int size = worldSize(scene.size());
+        BallStore store = new BallStore(size, size, scene.size());
+        for (BouncingBall b : scene) {
+            store.add(b.getPosX(), b.getPosY(), b.getVx(), b.getVy(), b.getRadius(), b.getMass(), 0);
+        }
+        return store;
+    }
+
+    /**
+     * keeps a coordinate inside the world
+     */
+    private static double clamp(double v, int size) {
+        return Math.max(0, Math.min(size - 1, v));
+    }
+}
@@ -0,0 +1,352 @@
+/**
+ * [Soak.java]
+ * Runs one scenario's whole frame (stepping the World: updating the tree, finding and resolving collisions, moving,
+ * and then drawing what the window would show into an image) over and over for a while, and reports the frame time
+ * percentiles, how fast it allocated and how long the garbage collector paused it. The JMH benchmarks measure the
+ * parts on their own and average over their iterations, which hides an occasional long frame; this counts every frame.
+ * Prints one flat JSON object, which can be kept and handed back later as a baseline: with --baseline the run fails
+ * (exit status 1) if a gated value got worse by more than its tolerance.
+ * usage: java -cp target/benchmarks.jar quadtreecollision.benchmarks.Soak [--name NAME] [--balls N] [--distribution NAME]
+ *   [--world WIDTH:HEIGHT] [--max-objects N] [--max-subdivision N] [--radius MIN[:MAX]] [--seed N] [--rebuild]
+ *   [--seconds N] [--warmup N] [--screen WIDTH:HEIGHT] [--no-draw] [--out FILE] [--baseline FILE] [--gate KEY[=PERCENT]]...
+ * --distribution is uniform (default), clusters or ring, --seconds is how long to measure for (default 60) after
+ *   --warmup seconds that aren't measured (default 10), --screen is the size of the image drawn (default 1920:1080)
+ * --out writes the JSON to FILE as well as printing it
+ * --baseline compares against the JSON of an earlier run of the same scenario, --gate picks a key to compare and how many
+ *   percent worse it may get (default --tolerance, 10), by default frame_p50_ns, frame_p99_ns, frame_p99_9_ns and
+ *   alloc_bytes_per_frame. Any number in the JSON can be gated, e.g. --gate gc_pause_ms_per_second=50
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision.benchmarks;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.ThreadMXBean;
+import quadtreecollision.BallRenderer;
+import quadtreecollision.BouncingBall;
+import quadtreecollision.Camera;
+import quadtreecollision.Spawner;
+import quadtreecollision.World;
+
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.awt.Color;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class Soak {
+    private static final Color BACKGROUND = new Color(30, 30, 30); //same as the window's
+    private static final String[] DEFAULT_GATES = {"frame_p50_ns", "frame_p99_ns", "frame_p99_9_ns", "alloc_bytes_per_frame"};
+    private static final String[] SCENARIO = {"balls", "distribution", "world_width", "world_height", "max_objects",
+            "max_subdivision", "min_radius", "max_radius", "seed", "rebuild", "draw", "screen_width", "screen_height"}; //keys a baseline has to match
+    private static final Pattern ENTRY = Pattern.compile("\"(\\w+)\"\\s*:\\s*(\"[^\"]*\"|-?[0-9.eE+-]+|true|false)"); //a key and its plain value
+
+    //pauses the garbage collector reported while measuring, added to from its notification thread
+    private static long gcPauses;
+    private static long gcPauseMillis;
+    private static long gcLongestPause;
+    private static volatile boolean measuring;
+
+    public static void main(String[] args) throws IOException {
+        //the default scenario
+        String name = "default";
+        int balls = 10000;
+        Spawner.Distribution distribution = Spawner.Distribution.UNIFORM;
+        int worldWidth = 1920;
+        int worldHeight = 1080;
+        int maxObjects = 5;
+        int maxSubdivision = 8;
+        double minRadius = BouncingBall.DEFAULT_SIZE / 2.0;
+        double maxRadius = minRadius;
+        long seed = 42;
+        boolean rebuild = false;
+        double seconds = 60;
+        double warmup = 10;
+        int screenWidth = 1920;
+        int screenHeight = 1080;
+        boolean draw = true;
+        Path out = null;
+        Path baseline = null;
+        double tolerance = 10;
+        Map<String, Double> gates = new LinkedHashMap<>(); //key to gate and its own tolerance, NaN for --tolerance
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--name": name = args[++i]; break;
+                case "--balls": balls = Integer.parseInt(args[++i]); break;
+                case "--distribution": distribution = Spawner.Distribution.valueOf(args[++i].toUpperCase()); break;
+                case "--world":
+                    String[] world = args[++i].split(":");
+                    worldWidth = Integer.parseInt(world[0]);
+                    worldHeight = Integer.parseInt(world[1]);
+                    break;
+                case "--max-objects": maxObjects = Integer.parseInt(args[++i]); break;
+                case "--max-subdivision": maxSubdivision = Integer.parseInt(args[++i]); break;
+                case "--radius":
+                    String[] range = args[++i].split(":");
+                    minRadius = Double.parseDouble(range[0]);
+                    maxRadius = range.length > 1 ? Double.parseDouble(range[1]) : minRadius;
+                    break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                case "--rebuild": rebuild = true; break;
+                case "--seconds": seconds = Double.parseDouble(args[++i]); break;
+                case "--warmup": warmup = Double.parseDouble(args[++i]); break;
+                case "--screen":
+                    String[] screen = args[++i].split(":");
+                    screenWidth = Integer.parseInt(screen[0]);
+                    screenHeight = Integer.parseInt(screen[1]);
+                    break;
+                case "--no-draw": draw = false; break;
+                case "--out": out = Paths.get(args[++i]); break;
+                case "--baseline": baseline = Paths.get(args[++i]); break;
+                case "--tolerance": tolerance = Double.parseDouble(args[++i]); break;
+                case "--gate":
+                    String[] gate = args[++i].split("=");
+                    gates.put(gate[0], gate.length > 1 ? Double.parseDouble(gate[1]) : Double.NaN);
+                    break;
+                default: throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+
+        World world = new World(worldWidth, worldHeight, maxObjects, maxSubdivision);
+        world.setIncremental(!rebuild);
+        world.setBallRadius(minRadius, maxRadius);
+        Spawner spawner = new Spawner(worldWidth, worldHeight, seed, distribution);
+        spawner.setRadius(minRadius, maxRadius);
+        world.addBalls(spawner, balls);
+        Camera camera = Camera.fit(worldWidth, worldHeight, screenWidth, screenHeight);
+        BallRenderer renderer = draw ? new BallRenderer(screenWidth, screenHeight, BACKGROUND) : null;
+        listenForPauses();
+
+        //warm up the JIT and let the scene settle, then measure from a clean slate
+        long end = System.nanoTime() + (long)(warmup * 1e9);
+        while (System.nanoTime() < end) {
+            frame(world, renderer, camera);
+        }
+        System.gc();
+
+        ThreadMXBean threads = (ThreadMXBean)ManagementFactory.getThreadMXBean();
+        Map<Long, Long> allocatedBefore = allocated(threads);
+        long[] gcBefore = collections();
+        FrameTimeHistogram frames = new FrameTimeHistogram();
+        measuring = true;
+        long start = System.nanoTime();
+        end = start + (long)(seconds * 1e9);
+        long now = start;
+        while (now < end) {
+            frame(world, renderer, camera);
+            long after = System.nanoTime();
+            frames.record(after - now);
+            now = after;
+        }
+        measuring = false;
+        double elapsed = (now - start) / 1e9;
+        long[] gcAfter = collections();
+
+        //threads that started while measuring (e.g. a pool) allocated everything they have
+        long allocated = 0;
+        for (Map.Entry<Long, Long> thread : allocated(threads).entrySet()) {
+            allocated += thread.getValue() - allocatedBefore.getOrDefault(thread.getKey(), 0L);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("name", name);
+        result.put("balls", balls);
+        result.put("distribution", distribution.name());
+        result.put("world_width", worldWidth);
+        result.put("world_height", worldHeight);
+        result.put("max_objects", maxObjects);
+        result.put("max_subdivision", maxSubdivision);
+        result.put("min_radius", minRadius);
+        result.put("max_radius", maxRadius);
+        result.put("seed", seed);
+        result.put("rebuild", rebuild);
+        result.put("draw", draw);
+        result.put("screen_width", screenWidth);
+        result.put("screen_height", screenHeight);
+        result.put("warmup_seconds", warmup);
+        result.put("seconds", elapsed);
+        result.put("frames", frames.getTotal());
+        result.put("frames_per_second", frames.getTotal() / elapsed);
+        result.put("frame_mean_ns", Math.round(frames.mean()));
+        result.put("frame_p50_ns", frames.percentile(50));
+        result.put("frame_p90_ns", frames.percentile(90));
+        result.put("frame_p99_ns", frames.percentile(99));
+        result.put("frame_p99_9_ns", frames.percentile(99.9));
+        result.put("frame_max_ns", frames.max());
+        result.put("alloc_bytes", allocated);
+        result.put("alloc_bytes_per_second", Math.round(allocated / elapsed));
+        result.put("alloc_bytes_per_frame", frames.getTotal() == 0 ? 0 : allocated / frames.getTotal());
+        synchronized (Soak.class) {
+            result.put("gc_count", gcAfter[0] - gcBefore[0]);
+            result.put("gc_pauses", gcPauses);
+            result.put("gc_pause_ms_total", gcPauseMillis);
+            result.put("gc_pause_ms_max", gcLongestPause);
+            result.put("gc_pause_ms_per_second", gcPauseMillis / elapsed);
+        }
+        result.put("gc_time_ms", gcAfter[1] - gcBefore[1]);
+        result.put("java_version", System.getProperty("java.version"));
+        result.put("cpus", Runtime.getRuntime().availableProcessors());
+        result.put("max_heap_bytes", Runtime.getRuntime().maxMemory());
+
+        String json = toJson(result, frames.buckets());
+        System.out.println(json);
+        if (out != null) {
+            Files.writeString(out, json + System.lineSeparator());
+        }
+
+        if (baseline != null) {
+            if (gates.isEmpty()) {
+                for (String key : DEFAULT_GATES) {
+                    gates.put(key, Double.NaN);
+                }
+            }
+            if (!compare(result, parse(Files.readString(baseline)), gates, tolerance)) {
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * one whole frame: a step of the world, then a snapshot of it drawn as the window would draw it
+     */
+    private static void frame(World world, BallRenderer renderer, Camera camera) {
+        world.step();
+        if (renderer != null) {
+            renderer.render(world.snapshot(camera));
+        }
+    }
+
+    /**
+     * @return bytes every live thread has allocated so far, by thread id
+     */
+    private static Map<Long, Long> allocated(ThreadMXBean threads) {
+        long[] ids = threads.getAllThreadIds();
+        long[] bytes = threads.getThreadAllocatedBytes(ids);
+        Map<Long, Long> allocated = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            if (bytes[i] >= 0) {
+                allocated.put(ids[i], bytes[i]);
+            }
+        }
+        return allocated;
+    }
+
+    /**
+     * @return collections so far and milliseconds spent in them, over every collector
+     */
+    private static long[] collections() {
+        long[] total = new long[2];
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total[0] += Math.max(0, gc.getCollectionCount());
+            total[1] += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    /**
+     * adds up the pauses every collector reports while measuring. Collectors that mostly work alongside the program
+     * (e.g. ZGC) report their concurrent cycles separately from their pauses, and the cycles are left out
+     */
+    private static void listenForPauses() {
+        NotificationListener listener = (notification, handback) -> {
+            if (!measuring || !notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+                return;
+            }
+            GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData)notification.getUserData());
+            if (info.getGcAction().toLowerCase().contains("cycle")) {
+                return;
+            }
+            long duration = info.getGcInfo().getDuration();
+            synchronized (Soak.class) {
+                gcPauses++;
+                gcPauseMillis += duration;
+                gcLongestPause = Math.max(gcLongestPause, duration);
+            }
+        };
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter) {
+                ((NotificationEmitter)gc).addNotificationListener(listener, null, null);
+            }
+        }
+    }
+
+    /**
+     * compares a run against a baseline and prints a line per gate
+     * @param result the run
+     * @param baseline the baseline's values
+     * @param gates keys to compare, each with how many percent worse it may get, NaN for the default
+     * @param tolerance default percent
+     * @return true if nothing got worse by more than its tolerance
+     * @throws IllegalArgumentException if the baseline is a different scenario or lacks a gated key
+     */
+    private static boolean compare(Map<String, Object> result, Map<String, String> baseline, Map<String, Double> gates, double tolerance) {
+        for (String key : SCENARIO) {
+            if (!String.valueOf(result.get(key)).equals(baseline.get(key))) {
+                throw new IllegalArgumentException("baseline has " + key + " " + baseline.get(key) + ", this run has " + result.get(key));
+            }
+        }
+        boolean passed = true;
+        for (Map.Entry<String, Double> gate : gates.entrySet()) {
+            String key = gate.getKey();
+            if (!(result.get(key) instanceof Number) || !baseline.containsKey(key)) {
+                throw new IllegalArgumentException("can't gate on " + key + ", it isn't a number in both runs");
+            }
+            double percent = gate.getValue().isNaN() ? tolerance : gate.getValue();
+            double now = ((Number)result.get(key)).doubleValue();
+            double was = Double.parseDouble(baseline.get(key));
+            double limit = was * (1 + percent / 100);
+            boolean ok = now <= limit;
+            passed &= ok;
+            System.err.printf("%-4s %-24s %14.1f  baseline %14.1f  %+7.1f%%  (limit %+.1f%%)%n", ok ? "ok" : "FAIL", key, now, was,
+                    was == 0 ? (now == 0 ? 0 : Double.POSITIVE_INFINITY) : (now / was - 1) * 100, percent);
+        }
+        return passed;
+    }
+
+    /**
+     * reads the plain values of a JSON object written by toJson(), strings without their quotes
+     */
+    private static Map<String, String> parse(String json) {
+        Map<String, String> values = new HashMap<>();
+        Matcher m = ENTRY.matcher(json);
+        while (m.find()) {
+            values.put(m.group(1), m.group(2).replace("\"", ""));
+        }
+        return values;
+    }
+
+    /**
+     * @return the values, then the histogram as "frame_histogram_ns": [[top of bucket, count], ...], as one JSON object
+     */
+    private static String toJson(Map<String, Object> values, List<long[]> buckets) {
+        StringBuilder json = new StringBuilder("{");
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            json.append("\n  \"").append(entry.getKey()).append("\": ");
+            Object value = entry.getValue();
+            if (value instanceof String) {
+                json.append('"').append(((String)value).replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+            } else {
+                json.append(value);
+            }
+            json.append(',');
+        }
+        json.append("\n  \"frame_histogram_ns\": [");
+        for (int i = 0; i < buckets.size(); i++) {
+            json.append(i == 0 ? "" : ", ").append('[').append(buckets.get(i)[0]).append(", ").append(buckets.get(i)[1]).append(']');
+        }
+        return json.append("]\n}").toString();
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * [SweptBenchmark.java]
+ * Measures simulating the same stretch of time (8 of the original steps) with steps of different lengths, colliding
+ * balls that overlap after each step against a SweptSolver that bounces them where they meet on the way. Steps longer
+ * than a ball is wide let the plain steps pass balls through each other, so those only show what the time is spent on
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import quadtreecollision.BouncingBall;
+import quadtreecollision.QuadTree;
+import quadtreecollision.SweptSolver;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SweptBenchmark {
+    private static final double TIME = 8; //time simulated by each call, in original steps
+
+    @Param({"1000", "10000"})
+    public int balls;
+
+    @Param({"UNIFORM", "CLUSTERED"})
+    public Scenes.Distribution distribution;
+
+    @Param({"0.25", "1", "4", "8"})
+    public double timeStep;
+
+    @Param({"5"})
+    public int maxObjects;
+
+    @Param({"8"})
+    public int maxSubdivision;
+
+    private ArrayList<BouncingBall> plainScene; //balls moved by plain steps
+    private ArrayList<BouncingBall> sweptScene; //the same balls, moved by swept steps
+    private QuadTree<BouncingBall> qt; //tree the plain steps rebuild every step
+    private SweptSolver solver;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        plainScene = Scenes.create(balls, distribution);
+        sweptScene = Scenes.create(balls, distribution);
+        int size = Scenes.worldSize(balls);
+        qt = new QuadTree<>(1, 0, 0, size, size, maxObjects, maxSubdivision);
+        solver = new SweptSolver(size, size, maxObjects, maxSubdivision);
+    }
+
+    /**
+     * rebuild the tree, collide balls that overlap and move every ball a step, until TIME has passed
+     */
+    @Benchmark
+    public QuadTree<BouncingBall> plain() {
+        for (int s = 0; s < Math.round(TIME / timeStep); s++) {
+            qt.build(plainScene);
+            qt.collisionCheck();
+            for (int i = 0; i < plainScene.size(); i++) {
+                plainScene.get(i).move(timeStep);
+            }
+        }
+        return qt;
+    }
+
+    /**
+     * swept steps, cut into as many sub-steps as the balls need, until TIME has passed
+     */
+    @Benchmark
+    public SweptSolver swept() {
+        for (int s = 0; s < Math.round(TIME / timeStep); s++) {
+            solver.step(sweptScene, timeStep);
+        }
+        return solver;
+    }
+}
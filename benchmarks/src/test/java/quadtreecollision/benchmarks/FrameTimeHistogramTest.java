@@ -0,0 +1,61 @@
+/**
+ * [FrameTimeHistogramTest.java]
+ * Checks that a value read back from FrameTimeHistogram is never below the real one and at most 1/64 above it, at the
+ * edges of the buckets where an off by one would show, and that a percentile is never above the largest value
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision.benchmarks;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrameTimeHistogramTest {
+    //the last value with a bucket of its own, the first shared buckets, the edges of the next power of two, the largest
+    private static final long[] EDGES = {0, 1, 127, 128, 129, 130, 255, 256, 257, 1L << 40, (1L << 40) - 1,
+            Long.MAX_VALUE - 1, Long.MAX_VALUE};
+
+    @Test
+    void bucketTopIsAtMostASixtyFourthAbove() {
+        for (long v : EDGES) {
+            long top = FrameTimeHistogram.top(FrameTimeHistogram.bucket(v));
+            assertTrue(top >= v, v + " reads back as " + top);
+            assertTrue(top - v <= v / 64, v + " reads back as " + top);
+        }
+        assertEquals(127, FrameTimeHistogram.top(FrameTimeHistogram.bucket(127)));
+        assertEquals(Long.MAX_VALUE, FrameTimeHistogram.top(FrameTimeHistogram.bucket(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void everyBucketHoldsItsOwnTop() {
+        //the next bucket starts just past each top, so no value falls between two buckets
+        for (int b = 0; FrameTimeHistogram.top(b) != Long.MAX_VALUE; b++) {
+            long top = FrameTimeHistogram.top(b);
+            assertEquals(b, FrameTimeHistogram.bucket(top), "top of bucket " + b);
+            assertEquals(b + 1, FrameTimeHistogram.bucket(top + 1), "past the top of bucket " + b);
+        }
+    }
+
+    @Test
+    void percentileIsNeverAboveTheMax() {
+        for (long v : EDGES) {
+            FrameTimeHistogram histogram = new FrameTimeHistogram();
+            histogram.record(v / 2);
+            histogram.record(v);
+            for (int percent = 0; percent <= 100; percent += 5) {
+                long p = histogram.percentile(percent);
+                assertTrue(p <= histogram.max(), percent + "th percentile of " + v + " is " + p);
+                assertTrue(p >= v / 2, percent + "th percentile of " + v + " is " + p);
+            }
+            assertEquals(v, histogram.percentile(100));
+        }
+        //130 shares its bucket with 131, which was never recorded
+        FrameTimeHistogram histogram = new FrameTimeHistogram();
+        histogram.record(130);
+        assertEquals(130, histogram.percentile(50));
+        assertEquals(0, new FrameTimeHistogram().percentile(50));
+    }
+}
@@ -5,6 +5,8 @@
  * October 27 2018
  */
 
+package quadtreecollision;
+
 import java.awt.Color;
 import java.util.ArrayList;
 
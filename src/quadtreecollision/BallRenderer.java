@@ -0,0 +1,195 @@
+/**
+ * [BallRenderer.java]
+ * Draws RenderSnapshots into an image by writing pixels straight into its int array instead of calling
+ * setColor and fillOval once per ball. The shape of a ball of each diameter is rasterized once with fillOval and kept
+ * as a row by row list of spans (a sprite that can be any colour), so drawing a ball is just filling those spans.
+ * The background with the tree's lines on it is kept as a second image and only drawn again when the lines change,
+ * every frame starts as a copy of it. Gives the same picture as RenderSnapshot.draw(), apart from the odd pixel on the
+ * edge of a ball, since fillOval itself doesn't rasterize an oval quite the same way at every position.
+ * A snapshot taken for a Camera is drawn through it (moved and scaled), and its Heatmap, if it has one, is drawn
+ * as tiles that get brighter the more balls are in them instead of the balls
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.HashMap;
+
+public class BallRenderer {
+    private final int width, height; //size of the image drawn into
+    private final Color background; //colour behind everything
+    private static final Color HEAT = new Color(255, 170, 60); //colour of the most crowded heatmap tile
+
+    private final BufferedImage frame; //image each snapshot is drawn into
+    private final int[] framePixels; //frame's pixels, one int per pixel
+    private final BufferedImage base; //background and the lines of the last outline
+    private final int[] basePixels; //base's pixels
+    private RenderSnapshot baseFrom; //snapshot the lines on base came from, null if base hasn't been drawn yet
+
+    private final HashMap<Integer, int[]> sprites = new HashMap<>(); //spans of each diameter of ball, see sprite()
+
+    /**
+     * Constructor
+     * @param width width of the area to draw
+     * @param height height of the area to draw
+     * @param background colour behind the balls and lines
+     */
+    public BallRenderer(int width, int height, Color background) {
+        this.width = width;
+        this.height = height;
+        this.background = background;
+        frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        framePixels = ((DataBufferInt)frame.getRaster().getDataBuffer()).getData();
+        base = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        basePixels = ((DataBufferInt)base.getRaster().getDataBuffer()).getData();
+    }
+
+    /**
+     * draws a snapshot into the frame and then the frame onto a Graphics
+     * @param snapshot snapshot to draw
+     * @param g Graphics object to draw the frame with
+     */
+    public void render(RenderSnapshot snapshot, Graphics g) {
+        g.drawImage(render(snapshot), 0, 0, null);
+    }
+
+    /**
+     * draws a snapshot into the frame
+     * @param snapshot snapshot to draw
+     * @return the frame, only valid until the next call
+     */
+    public BufferedImage render(RenderSnapshot snapshot) {
+        //only draw the lines again when they changed
+        if (!snapshot.sameOutline(baseFrom)) {
+            Graphics g = base.createGraphics();
+            g.setColor(background);
+            g.fillRect(0, 0, width, height);
+            g.setColor(Color.WHITE);
+            Camera camera = snapshot.getCamera();
+            if (camera == null) {
+                snapshot.outline(g::drawLine);
+            } else {
+                double minX = camera.getMinX(), minY = camera.getMinY(), zoom = camera.getZoom();
+                snapshot.outline((x1, y1, x2, y2) -> g.drawLine((int)((x1 - minX) * zoom), (int)((y1 - minY) * zoom),
+                        (int)((x2 - minX) * zoom), (int)((y2 - minY) * zoom)));
+            }
+            g.dispose();
+            baseFrom = snapshot;
+        }
+        System.arraycopy(basePixels, 0, framePixels, 0, framePixels.length);
+
+        if (snapshot.getHeatmap() != null) {
+            drawHeatmap(snapshot.getHeatmap());
+            return frame;
+        }
+
+        //balls in order, so later balls cover earlier ones like they do with fillOval
+        Camera camera = snapshot.getCamera();
+        double minX = camera != null ? camera.getMinX() : 0;
+        double minY = camera != null ? camera.getMinY() : 0;
+        double zoom = camera != null ? camera.getZoom() : 1;
+        for (int i = 0; i < snapshot.getBallCount(); i++) {
+            int diameter = (int)Math.round(snapshot.getSize(i) * zoom);
+            if (diameter <= 0) {
+                continue;
+            }
+            fill(sprite(diameter), (int)((snapshot.getX(i) - minX) * zoom), (int)((snapshot.getY(i) - minY) * zoom), snapshot.getColour(i).getRGB());
+        }
+        return frame;
+    }
+
+    /**
+     * fills each tile of a heatmap that has balls in it, from the background colour for one ball to HEAT for the most
+     * crowded tile (by the square root of the count, so thin areas still show)
+     * @param heatmap heatmap to draw
+     */
+    private void drawHeatmap(Heatmap heatmap) {
+        int tile = heatmap.getTile();
+        double max = Math.sqrt(Math.max(1, heatmap.getMax()));
+        for (int row = 0; row < heatmap.getRows(); row++) {
+            for (int column = 0; column < heatmap.getColumns(); column++) {
+                int count = heatmap.getCount(column, row);
+                if (count == 0) {
+                    continue;
+                }
+                double t = Math.sqrt(count) / max;
+                int red = (int)(background.getRed() + (HEAT.getRed() - background.getRed()) * t);
+                int green = (int)(background.getGreen() + (HEAT.getGreen() - background.getGreen()) * t);
+                int blue = (int)(background.getBlue() + (HEAT.getBlue() - background.getBlue()) * t);
+                int rgb = (red << 16) | (green << 8) | blue;
+
+                int left = column * tile, right = Math.min(width, left + tile);
+                for (int y = row * tile; y < Math.min(height, row * tile + tile); y++) {
+                    for (int x = left; x < right; x++) {
+                        framePixels[y * width + x] = rgb;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * fills a sprite's spans with one colour, cut off at the edges of the frame
+     * @param spans the sprite, see sprite()
+     * @param left x coordinate of the sprite's top left corner
+     * @param top y coordinate of the sprite's top left corner
+     * @param rgb colour to fill with
+     */
+    private void fill(int[] spans, int left, int top, int rgb) {
+        for (int row = 0; row < spans.length / 2; row++) {
+            int y = top + row;
+            int from = spans[row * 2];
+            if (y < 0 || y >= height || from < 0) {
+                continue;
+            }
+            int start = Math.max(0, left + from);
+            int end = Math.min(width - 1, left + spans[row * 2 + 1]);
+            int rowStart = y * width;
+            for (int x = start; x <= end; x++) {
+                framePixels[rowStart + x] = rgb;
+            }
+        }
+    }
+
+    /**
+     * the shape of a ball of a diameter, rasterized with fillOval the first time it is needed
+     * @param diameter diameter of the ball in pixels
+     * @return the first and last pixel filled on each row, two values per row, -1 for rows with nothing filled
+     */
+    private int[] sprite(int diameter) {
+        int[] spans = sprites.get(diameter);
+        if (spans != null) {
+            return spans;
+        }
+
+        //fillOval can reach one pixel past the diameter, so leave room for it
+        int side = diameter + 1;
+        BufferedImage image = new BufferedImage(side, side, BufferedImage.TYPE_INT_ARGB);
+        Graphics g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillOval(0, 0, diameter, diameter);
+        g.dispose();
+
+        //an oval is filled in one piece on each row, so a row is just where the filled pixels start and stop
+        spans = new int[side * 2];
+        for (int row = 0; row < side; row++) {
+            spans[row * 2] = -1;
+            spans[row * 2 + 1] = -1;
+            for (int column = 0; column < side; column++) {
+                if (image.getRGB(column, row) != 0) {
+                    if (spans[row * 2] < 0) {
+                        spans[row * 2] = column;
+                    }
+                    spans[row * 2 + 1] = column;
+                }
+            }
+        }
+        sprites.put(diameter, spans);
+        return spans;
+    }
+}
@@ -0,0 +1,387 @@
+/**
+ * [BallStore.java]
+ * Every ball of a world kept in plain arrays (one array per value) instead of one BouncingBall object per ball.
+ * Ball i is the i-th entry of each array. Moves and collides the same way BouncingBall does
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class BallStore {
+    public static final int PALETTE_SIZE = 40; //colours in BallColourPalette
+
+    //boundaries, the same for every ball
+    private final int maxX;
+    private final int maxY;
+
+    private int count; //number of balls
+    private double[] posX, posY; //top left corner of each ball (drawing coordinates), like BouncingBall
+    private double[] vx, vy; //x and y components of each ball's velocity
+    private double[] size; //diameter of each ball
+    private double[] mass; //mass of each ball
+    private int[] colour; //index of each ball's colour in the palette
+    double bounceVxA, bounceVyA, bounceVxB, bounceVyB; //velocities the last resolve() worked out for its two balls
+
+    /**
+     * Constructor
+     * @param maxX width of the area the balls bounce in
+     * @param maxY height of the area the balls bounce in
+     * @param capacity number of balls to make room for up front
+     */
+    public BallStore(int maxX, int maxY, int capacity) {
+        this.maxX = maxX;
+        this.maxY = maxY;
+        capacity = Math.max(capacity, 16);
+        posX = new double[capacity];
+        posY = new double[capacity];
+        vx = new double[capacity];
+        vy = new double[capacity];
+        size = new double[capacity];
+        mass = new double[capacity];
+        colour = new int[capacity];
+    }
+
+    /**
+     * Constructor, a store that takes over arrays that already hold its balls (e.g. from a Checkpoint) without copying them
+     * @param maxX width of the area the balls bounce in
+     * @param maxY height of the area the balls bounce in
+     * @param count number of balls in the arrays
+     * @param posX top left corner of each ball
+     * @param posY top left corner of each ball
+     * @param vx x component of each ball's velocity
+     * @param vy y component of each ball's velocity
+     * @param size diameter of each ball
+     * @param mass mass of each ball
+     * @param colour index of each ball's colour in the palette
+     */
+    BallStore(int maxX, int maxY, int count, double[] posX, double[] posY, double[] vx, double[] vy, double[] size, double[] mass, int[] colour) {
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.count = count;
+        this.posX = posX;
+        this.posY = posY;
+        this.vx = vx;
+        this.vy = vy;
+        this.size = size;
+        this.mass = mass;
+        this.colour = colour;
+    }
+
+    /**
+     * adds a ball
+     * @param centreX x coordinate of the centre of the ball
+     * @param centreY y coordinate of the centre of the ball
+     * @param vx x component of velocity
+     * @param vy y component of velocity
+     * @param radius radius of the ball
+     * @param mass mass of the ball, must be more than 0
+     * @param colourIndex index of the colour in the palette, wraps around if too large
+     * @return index of the new ball
+     */
+    public int add(double centreX, double centreY, double vx, double vy, double radius, double mass, int colourIndex) {
+        int i = reserve(1);
+        set(i, centreX, centreY, vx, vy, radius, mass, colourIndex);
+        return i;
+    }
+
+    /**
+     * makes room for balls at the end of the store, to be filled in with set() (e.g. from several threads at once)
+     * @param n number of balls
+     * @return index of the first of them
+     */
+    public int reserve(int n) {
+        while (count + n > posX.length) {
+            grow();
+        }
+        int first = count;
+        count += n;
+        return first;
+    }
+
+    /**
+     * overwrites a ball
+     * @param i index of the ball
+     * @param centreX x coordinate of the centre of the ball
+     * @param centreY y coordinate of the centre of the ball
+     * @param vx x component of velocity
+     * @param vy y component of velocity
+     * @param radius radius of the ball
+     * @param mass mass of the ball, must be more than 0
+     * @param colourIndex index of the colour in the palette, wraps around if too large
+     */
+    public void set(int i, double centreX, double centreY, double vx, double vy, double radius, double mass, int colourIndex) {
+        posX[i] = centreX - radius;
+        posY[i] = centreY - radius;
+        this.vx[i] = vx;
+        this.vy[i] = vy;
+        size[i] = radius * 2;
+        this.mass[i] = mass;
+        colour[i] = Math.floorMod(colourIndex, PALETTE_SIZE);
+    }
+
+    /**
+     * adds a ball of the given size with random values, like the random BouncingBall constructor
+     * @param random random numbers to use
+     * @param radius radius of the ball
+     * @return index of the new ball
+     */
+    public int addRandom(Random random, double radius) {
+        double x = random.nextInt(maxX);
+        double y = random.nextInt(maxY);
+        return add(x + radius, y + radius, random.nextInt(11) - 5, random.nextInt(11) - 5, radius, BouncingBall.areaMass(radius), random.nextInt(PALETTE_SIZE));
+    }
+
+    /**
+     * removes a ball by moving the last ball into its place, so the last ball's index changes to i
+     * @param i index of the ball to remove
+     */
+    public void remove(int i) {
+        int last = --count;
+        posX[i] = posX[last];
+        posY[i] = posY[last];
+        vx[i] = vx[last];
+        vy[i] = vy[last];
+        size[i] = size[last];
+        mass[i] = mass[last];
+        colour[i] = colour[last];
+    }
+
+    /**
+     * copies every ball into arrays with room for at least size() balls, the same values the package private constructor takes
+     */
+    void copyTo(double[] posX, double[] posY, double[] vx, double[] vy, double[] size, double[] mass, int[] colour) {
+        System.arraycopy(this.posX, 0, posX, 0, count);
+        System.arraycopy(this.posY, 0, posY, 0, count);
+        System.arraycopy(this.vx, 0, vx, 0, count);
+        System.arraycopy(this.vy, 0, vy, 0, count);
+        System.arraycopy(this.size, 0, size, 0, count);
+        System.arraycopy(this.mass, 0, mass, 0, count);
+        System.arraycopy(this.colour, 0, colour, 0, count);
+    }
+
+    /**
+     * doubles the room in every array
+     */
+    private void grow() {
+        int capacity = Math.max(16, posX.length * 2); //arrays taken over from a checkpoint can be empty
+        posX = Arrays.copyOf(posX, capacity);
+        posY = Arrays.copyOf(posY, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        size = Arrays.copyOf(size, capacity);
+        mass = Arrays.copyOf(mass, capacity);
+        colour = Arrays.copyOf(colour, capacity);
+    }
+
+    /**
+     * moves every ball one step and bounces it off the walls, the same as BouncingBall.move()
+     */
+    public void moveAll() {
+        for (int i = 0; i < count; i++) {
+            double s = size[i];
+            if ((posX[i] + s > maxX) || posX[i] < 0) { //crashing into vertical walls
+                vx[i] *= -1;
+            }
+            if ((posY[i] + s > maxY) || posY[i] < 0) { //crashing into horizontal walls
+                vy[i] *= -1;
+            }
+
+            //brings the ball back if it went off the screen
+            if (posX[i] > maxX - s) {
+                posX[i] = maxX - s;
+            } else if (posX[i] < 0) {
+                posX[i] = 0;
+            }
+            if (posY[i] > maxY - s) {
+                posY[i] = maxY - s;
+            } else if (posY[i] < 0) {
+                posY[i] = 0;
+            }
+
+            posX[i] = vx[i] + posX[i];
+            posY[i] = vy[i] + posY[i];
+        }
+    }
+
+    /**
+     * checks for collision between two balls and if they collide, adjusts their velocities, the same as BouncingBall.collide()
+     * @param a index of one ball
+     * @param b index of the other ball
+     */
+    public void collide(int a, int b) {
+        if (resolve(a, b)) {
+            vx[a] = bounceVxA;
+            vy[a] = bounceVyA;
+            vx[b] = bounceVxB;
+            vy[b] = bounceVyB;
+        }
+    }
+
+    /**
+     * works out how two balls bounce off each other without changing them, the velocities collide() would give them
+     * end up in bounceVxA, bounceVyA, bounceVxB and bounceVyB
+     * @param a index of one ball
+     * @param b index of the other ball
+     * @return true if they touch and are moving towards each other, false if they would be left alone
+     */
+    boolean resolve(int a, int b) {
+        double ra = size[a] / 2;
+        double rb = size[b] / 2;
+        double deltaX = (posX[b] + rb) - (posX[a] + ra);
+        double deltaY = (posY[b] + rb) - (posY[a] + ra);
+
+        double reach = ra + rb;
+        if (deltaX * deltaX + deltaY * deltaY > reach * reach) {
+            return false; //return if they do not collide
+        }
+
+        double deltaVx = vx[b] - vx[a];
+        double deltaVy = vy[b] - vy[a];
+        double dotProduct = deltaX * deltaVx + deltaY * deltaVy;
+        if (dotProduct >= 0) {
+            return false; //moving apart already
+        }
+
+        double ma = mass[a];
+        double mb = mass[b];
+        if (((vx[a] == 0) && (vx[b] == 0)) || ((vy[a] == 0) && (vy[b] == 0))) { //moving parallel, see BouncingBall.collide()
+            double distanceSquared = deltaX * deltaX + deltaY * deltaY;
+            if (distanceSquared == 0) {
+                return false;
+            }
+            double cc = deltaX * deltaX / distanceSquared;
+            double cs = deltaX * deltaY / distanceSquared;
+            double ss = deltaY * deltaY / distanceSquared;
+
+            double ax = vx[a] * cc + vy[a] * cs;
+            double ay = vx[a] * cs + vy[a] * ss;
+            double bx = vx[b] * cc + vy[b] * cs;
+            double by = vx[b] * cs + vy[b] * ss;
+            double total = ma + mb;
+
+            bounceVxA = ((ma - mb) * ax + 2 * mb * bx) / total - vy[a] * cs;
+            bounceVyA = ((ma - mb) * ay + 2 * mb * by) / total + vy[a] * cc;
+            bounceVxB = ((mb - ma) * bx + 2 * ma * ax) / total - vy[b] * cs;
+            bounceVyB = ((mb - ma) * by + 2 * ma * ay) / total + vy[b] * cc;
+        } else if (ma != mb) { //different masses, push them apart along the line between their centres
+            double distanceSquared = deltaX * deltaX + deltaY * deltaY;
+            if (distanceSquared == 0) {
+                return false;
+            }
+            double impulse = 2 * dotProduct / ((ma + mb) * distanceSquared);
+            bounceVxA = vx[a] + impulse * mb * deltaX;
+            bounceVyA = vy[a] + impulse * mb * deltaY;
+            bounceVxB = vx[b] - impulse * ma * deltaX;
+            bounceVyB = vy[b] - impulse * ma * deltaY;
+        } else { //same mass, the velocities just swap
+            bounceVxA = vx[b];
+            bounceVyA = vy[b];
+            bounceVxB = vx[a];
+            bounceVyB = vy[a];
+        }
+        return true;
+    }
+
+    /**
+     * empties the store, keeping its arrays
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * adds a ball exactly as another store keeps it, without going through its centre (which could round differently)
+     * @return index of the new ball
+     */
+    int addExact(double left, double top, double vx, double vy, double size, double mass, int colourIndex) {
+        int i = reserve(1);
+        posX[i] = left;
+        posY[i] = top;
+        this.vx[i] = vx;
+        this.vy[i] = vy;
+        this.size[i] = size;
+        this.mass[i] = mass;
+        colour[i] = colourIndex;
+        return i;
+    }
+
+    /**
+     * overwrites a ball's velocity
+     */
+    void setVelocity(int i, double vx, double vy) {
+        this.vx[i] = vx;
+        this.vy[i] = vy;
+    }
+
+    /**
+     * @param i index of a ball
+     * @return x coordinate of its top left corner, exactly as the store keeps it
+     */
+    double getLeft(int i) {
+        return posX[i];
+    }
+
+    /**
+     * @param i index of a ball
+     * @return y coordinate of its top left corner, exactly as the store keeps it
+     */
+    double getTop(int i) {
+        return posY[i];
+    }
+
+    double getSize(int i) {
+        return size[i];
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @param i index of a ball
+     * @return x coordinate of the centre of the ball
+     */
+    public double getPosX(int i) {
+        return posX[i] + size[i] / 2;
+    }
+
+    /**
+     * @param i index of a ball
+     * @return y coordinate of the centre of the ball
+     */
+    public double getPosY(int i) {
+        return posY[i] + size[i] / 2;
+    }
+
+    public double getRadius(int i) {
+        return size[i] / 2;
+    }
+
+    public double getVx(int i) {
+        return vx[i];
+    }
+
+    public double getVy(int i) {
+        return vy[i];
+    }
+
+    public double getMass(int i) {
+        return mass[i];
+    }
+
+    public int getColour(int i) {
+        return colour[i];
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+}
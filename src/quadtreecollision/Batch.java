@@ -0,0 +1,496 @@
+/**
+ * [Batch.java]
+ * Runs many small independent worlds in one process, e.g. a sweep over quadtree parameters, ball counts and speeds.
+ * Each world is run from start to finish by one thread of a work-stealing ForkJoinPool, and its Result is handed out as
+ * soon as it finishes, so results come out in the order the worlds finish, not the order they were asked for. Only a
+ * few worlds more than there are threads are in flight at once, the rest are read from the scene list as threads free
+ * up, so a list of any length runs in the same memory. A world that has finished is emptied and kept for the next scene
+ * of the same size and quadtree parameters, so that scene reuses the quadtree nodes it split into (see World.clear())
+ *
+ * A scene list has one scene per line, written with Main's options: --balls, --steps, --world, --max-objects,
+ * --max-subdivision, --radius, --seed, --distribution, --sleep, --timestep (which scales every ball's speed),
+ * --swept, --substeps, --rebuild and --loose. A value can be a list, "2,4,8", and a whole number can be a range, "1..100",
+ * and a line with lists stands for every combination of their values, the last option changing fastest.
+ * Blank lines and lines starting with # are skipped
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+public class Batch implements AutoCloseable {
+    private static final int IN_FLIGHT_PER_THREAD = 2; //worlds queued or running per thread, enough to keep every thread busy
+
+    /**
+     * one world to run: its size, quadtree parameters, balls and how long to run it for
+     */
+    public static class Scene {
+        private final int index; //position in the scene list, counting every combination of a line
+        private final int line; //line of the scene list it came from
+        private final String options; //the options it was made from
+        private int width = 1920, height = 1080; //size of the world
+        private int maxObjects = 5; //objects in a node before it splits
+        private int maxSubdivision = 8; //levels the quadtree can split into
+        private int balls = 100; //balls to start with
+        private long steps = 1000; //steps to run for
+        private long seed; //seed of the starting balls
+        private Spawner.Distribution distribution = Spawner.Distribution.UNIFORM;
+        private double minRadius = BouncingBall.DEFAULT_SIZE / 2.0, maxRadius = minRadius;
+        private double sleepSpeed = -1; //see World.setSleepSpeed()
+        private double timeStep = 1; //see World.setTimeStep()
+        private boolean swept; //see World.setSwept()
+        private int subSteps = SweptSolver.DEFAULT_MAX_SUB_STEPS;
+        private boolean rebuild; //true to rebuild the quadtree every step
+        private boolean loose; //true to use the loose quadtree
+
+        /**
+         * Constructor
+         * @param index position in the scene list
+         * @param line line of the scene list it came from
+         * @param names options, without their values
+         * @param values value of each option, null for one that doesn't take a value
+         */
+        Scene(int index, int line, List<String> names, List<String> values) {
+            this.index = index;
+            this.line = line;
+            StringBuilder options = new StringBuilder();
+            for (int i = 0; i < names.size(); i++) {
+                String name = names.get(i), value = values.get(i);
+                options.append(i == 0 ? "" : " ").append(name).append(value == null ? "" : " " + value);
+                switch (name) {
+                    case "--balls": balls = Integer.parseInt(value); break;
+                    case "--steps": steps = Long.parseLong(value); break;
+                    case "--world":
+                        String[] size = value.split(":");
+                        width = Integer.parseInt(size[0]);
+                        height = Integer.parseInt(size[size.length - 1]);
+                        break;
+                    case "--max-objects": maxObjects = Integer.parseInt(value); break;
+                    case "--max-subdivision": maxSubdivision = Integer.parseInt(value); break;
+                    case "--radius":
+                        String[] range = value.split(":");
+                        minRadius = Double.parseDouble(range[0]);
+                        maxRadius = Double.parseDouble(range[range.length - 1]);
+                        break;
+                    case "--seed": seed = Long.parseLong(value); break;
+                    case "--distribution": distribution = Spawner.Distribution.valueOf(value.toUpperCase()); break;
+                    case "--sleep": sleepSpeed = Double.parseDouble(value); break;
+                    case "--timestep": timeStep = Double.parseDouble(value); break;
+                    case "--swept": swept = true; break;
+                    case "--substeps": subSteps = Integer.parseInt(value); break;
+                    case "--rebuild": rebuild = true; break;
+                    case "--loose": loose = true; break;
+                    default: throw new IllegalArgumentException("unknown option " + name + " on line " + line);
+                }
+            }
+            if (swept && loose) {
+                throw new IllegalArgumentException("--swept doesn't work with --loose, on line " + line);
+            }
+            this.options = options.toString();
+        }
+
+        /**
+         * @return true if a world can be emptied and reused for this scene
+         */
+        boolean fits(World world) {
+            return world.getWidth() == width && world.getHeight() == height
+                    && world.getMaxObjects() == maxObjects && world.getMaxSubdivision() == maxSubdivision;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public String getOptions() {
+            return options;
+        }
+    }
+
+    /**
+     * what running a scene came to
+     */
+    public static class Result {
+        private final Scene scene;
+        private final int balls; //balls in the world at the end
+        private final long steps; //steps taken
+        private final long nanos; //time the steps took, not counting making the balls
+        private final double energy; //kinetic energy of the balls at the end
+        private final int sleeping; //balls asleep at the end
+        private final int nodes; //nodes of the regular quadtree at the end, -1 if it wasn't used
+        private final int depth; //deepest level of the regular quadtree at the end, -1 if it wasn't used
+        private final long candidatePairs; //pairs the regular quadtree checked in the last step, -1 if it wasn't used
+
+        /**
+         * Constructor, reads what it needs from the world the scene ran in
+         */
+        Result(Scene scene, World world, long nanos) {
+            this.scene = scene;
+            this.nanos = nanos;
+            balls = world.getBallCount();
+            steps = world.getSteps();
+            sleeping = world.getSleepingCount();
+            double energy = 0;
+            for (BouncingBall b : world.getBalls()) {
+                energy += b.getMass() * (b.getVx() * b.getVx() + b.getVy() * b.getVy()) / 2;
+            }
+            this.energy = energy;
+            boolean tree = !scene.loose && !scene.swept;
+            nodes = tree ? world.getQuadTree().getNodeCount() : -1;
+            depth = tree ? world.getQuadTree().getMaxDepth() : -1;
+            candidatePairs = tree ? world.getQuadTree().getCandidatePairs() : -1;
+        }
+
+        /**
+         * @return the result as one line of JSON, the quadtree's numbers are left out if it wasn't used
+         */
+        public String toJson() {
+            StringBuilder json = new StringBuilder("{");
+            json.append("\"scene\": ").append(scene.index);
+            json.append(", \"line\": ").append(scene.line);
+            json.append(", \"options\": \"").append(scene.options.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+            json.append(", \"balls\": ").append(balls);
+            json.append(", \"steps\": ").append(steps);
+            json.append(", \"seconds\": ").append(nanos / 1e9);
+            json.append(", \"steps_per_second\": ").append(nanos > 0 ? steps * 1e9 / nanos : 0);
+            json.append(", \"energy\": ").append(energy);
+            json.append(", \"sleeping\": ").append(sleeping);
+            if (nodes >= 0) {
+                json.append(", \"tree_nodes\": ").append(nodes);
+                json.append(", \"tree_depth\": ").append(depth);
+                json.append(", \"candidate_pairs\": ").append(candidatePairs);
+            }
+            return json.append('}').toString();
+        }
+
+        public Scene getScene() {
+            return scene;
+        }
+
+        public long getSteps() {
+            return steps;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public double getEnergy() {
+            return energy;
+        }
+    }
+
+    private final ForkJoinPool pool; //steals queued worlds between its threads
+    private final int inFlight; //most worlds queued or running at once
+    private final ArrayDeque<World> spares = new ArrayDeque<>(); //emptied worlds to reuse, the last one put back first
+    private final Object resultLock = new Object(); //held while a result is handed out, so the consumer is called by one thread at a time
+    private long reused; //scenes that ran in a spare world
+    private volatile Throwable failure; //what the first scene that failed threw, stops the rest from being started
+
+    /**
+     * Constructor
+     * @param threads worlds to run at once, 0 or less for one per core
+     */
+    public Batch(int threads) {
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        pool = new ForkJoinPool(threads);
+        inFlight = threads * IN_FLIGHT_PER_THREAD;
+    }
+
+    /**
+     * runs every scene and hands out each result as soon as its world finishes, returns once all have finished
+     * @param scenes scenes to run, only read as threads free up
+     * @param results where to hand the results, called by one thread at a time in the order the worlds finish
+     * @return number of scenes run
+     * @throws InterruptedException if interrupted while waiting for a thread to free up
+     * @throws RuntimeException or Error, what the first scene that failed threw, once the worlds still running finish
+     */
+    public long run(Iterator<Scene> scenes, Consumer<Result> results) throws InterruptedException {
+        Semaphore slots = new Semaphore(inFlight);
+        long count = 0;
+        try {
+            while (failure == null && scenes.hasNext()) {
+                Scene scene = scenes.next();
+                slots.acquire();
+                pool.execute(() -> {
+                    try {
+                        Result result = run(scene);
+                        synchronized (resultLock) {
+                            results.accept(result);
+                        }
+                    } catch (Throwable e) {
+                        //an Error too (e.g. out of memory), or the scene's result would just be missing
+                        if (failure == null) {
+                            failure = e;
+                        }
+                    } finally {
+                        slots.release();
+                    }
+                });
+                count++;
+            }
+        } finally {
+            //wait for the worlds still running, even if the scene list couldn't be read
+            slots.acquire(inFlight);
+            slots.release(inFlight);
+        }
+        Throwable f = failure;
+        if (f instanceof RuntimeException) {
+            throw (RuntimeException)f;
+        } else if (f instanceof Error) {
+            throw (Error)f;
+        } else if (f != null) {
+            throw new IllegalStateException("a scene failed", f);
+        }
+        return count;
+    }
+
+    /**
+     * runs one scene in a spare world that fits it, or a new one, and puts the world back once it is done
+     */
+    private Result run(Scene scene) {
+        World world = take(scene);
+        world.setIncremental(!scene.rebuild);
+        world.setLoose(scene.loose);
+        world.setBallRadius(scene.minRadius, scene.maxRadius);
+        world.setSleepSpeed(scene.sleepSpeed);
+        world.setTimeStep(scene.timeStep);
+        world.setSwept(scene.swept);
+        if (scene.swept) {
+            world.getSweptSolver().setMaxSubSteps(scene.subSteps);
+        }
+        Spawner spawner = new Spawner(scene.width, scene.height, scene.seed, scene.distribution);
+        spawner.setRadius(scene.minRadius, scene.maxRadius);
+        world.addBalls(spawner, scene.balls);
+
+        long start = System.nanoTime();
+        for (long s = 0; s < scene.steps; s++) {
+            world.step();
+        }
+        Result result = new Result(scene, world, System.nanoTime() - start);
+        give(world);
+        return result;
+    }
+
+    /**
+     * @return a spare world that fits a scene, emptied, or a new world if none does
+     */
+    private World take(Scene scene) {
+        synchronized (spares) {
+            for (Iterator<World> it = spares.iterator(); it.hasNext(); ) {
+                World world = it.next();
+                if (scene.fits(world)) {
+                    it.remove();
+                    reused++;
+                    return world;
+                }
+            }
+        }
+        return new World(scene.width, scene.height, scene.maxObjects, scene.maxSubdivision);
+    }
+
+    /**
+     * empties a world and keeps it for a later scene, only as many are kept as there are threads
+     */
+    private void give(World world) {
+        world.clear();
+        synchronized (spares) {
+            spares.addFirst(world);
+            if (spares.size() > pool.getParallelism()) {
+                spares.removeLast();
+            }
+        }
+    }
+
+    /**
+     * @return scenes that ran in a world kept from an earlier scene instead of a new one
+     */
+    public long getReused() {
+        synchronized (spares) {
+            return reused;
+        }
+    }
+
+    public int getThreads() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * stops the threads, call once every run() has returned
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * reads a scene list one line at a time, a line with lists is only expanded into its scenes as they are asked for
+     * @param in the scene list
+     * @return the scenes, reading them throws an UncheckedIOException if the list can't be read
+     */
+    public static Iterator<Scene> read(BufferedReader in) {
+        return new Iterator<Scene>() {
+            private final List<String> names = new ArrayList<>(); //options of the current line
+            private final List<Values> values = new ArrayList<>(); //every value of each option, Values.FLAG for a flag
+            private long[] chosen; //which value of each option the next scene gets, null once the line is used up
+            private int line; //number of the current line
+            private int index; //index of the next scene
+
+            @Override
+            public boolean hasNext() {
+                while (chosen == null) {
+                    String text;
+                    try {
+                        text = in.readLine();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    if (text == null) {
+                        return false;
+                    }
+                    line++;
+                    text = text.trim();
+                    if (!text.isEmpty() && !text.startsWith("#")) {
+                        split(text);
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public Scene next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<String> picked = new ArrayList<>(names.size());
+                for (int i = 0; i < names.size(); i++) {
+                    picked.add(values.get(i).get(chosen[i]));
+                }
+                Scene scene = new Scene(index++, line, names, picked);
+
+                //count through the combinations like an odometer, the last option turning fastest
+                int i = names.size() - 1;
+                while (i >= 0 && ++chosen[i] == values.get(i).getSize()) {
+                    chosen[i] = 0;
+                    i--;
+                }
+                if (i < 0) {
+                    chosen = null;
+                }
+                return scene;
+            }
+
+            /**
+             * reads the options of a line and every value each of them takes
+             */
+            private void split(String text) {
+                names.clear();
+                values.clear();
+                String[] tokens = text.split("\\s+");
+                for (int t = 0; t < tokens.length; t++) {
+                    String name = tokens[t];
+                    names.add(name);
+                    if (name.equals("--swept") || name.equals("--rebuild") || name.equals("--loose")) {
+                        values.add(Values.FLAG);
+                    } else if (t + 1 < tokens.length) {
+                        values.add(new Values(tokens[++t], line));
+                    } else {
+                        throw new IllegalArgumentException(name + " needs a value on line " + line);
+                    }
+                }
+                chosen = new long[names.size()];
+            }
+        };
+    }
+
+    /**
+     * every value of one option of a scene list line, from a list like "1,4..6" (1, 4, 5, 6). A range is kept as its two
+     * ends and each number is only written out when a scene asks for it, so "1..100000000" takes no more room than "1"
+     */
+    private static final class Values {
+        static final Values FLAG = new Values(); //the one value, null, of an option that doesn't take one
+
+        private final String[] items; //each item of the list as written
+        private final boolean[] range; //true for an item that is a range
+        private final long[] from, to; //first and last number of each range
+        private final long size; //values the whole list stands for
+
+        private Values() {
+            items = new String[1];
+            range = new boolean[1];
+            from = new long[1];
+            to = new long[1];
+            size = 1;
+        }
+
+        /**
+         * Constructor
+         * @param list the values as written, items separated by commas, whole numbers a..b standing for a to b
+         * @param line line of the scene list, for the error if a range is empty
+         */
+        Values(String list, int line) {
+            items = list.split(",");
+            range = new boolean[items.length];
+            from = new long[items.length];
+            to = new long[items.length];
+            long size = 0;
+            for (int i = 0; i < items.length; i++) {
+                int dots = items[i].indexOf("..");
+                if (dots < 0) {
+                    size++;
+                    continue;
+                }
+                from[i] = Long.parseLong(items[i].substring(0, dots));
+                to[i] = Long.parseLong(items[i].substring(dots + 2));
+                if (to[i] < from[i]) {
+                    throw new IllegalArgumentException("empty range " + items[i] + " on line " + line);
+                }
+                range[i] = true;
+                size += to[i] - from[i] + 1;
+            }
+            this.size = size;
+        }
+
+        /**
+         * @param k index of the value, from 0 to getSize() - 1
+         * @return the value, written out
+         */
+        String get(long k) {
+            for (int i = 0; i < items.length; i++) {
+                if (!range[i]) {
+                    if (k == 0) {
+                        return items[i];
+                    }
+                    k--;
+                } else if (k <= to[i] - from[i]) {
+                    return Long.toString(from[i] + k);
+                } else {
+                    k -= to[i] - from[i] + 1;
+                }
+            }
+            throw new IndexOutOfBoundsException("value " + k + " past the end of the list");
+        }
+
+        long getSize() {
+            return size;
+        }
+    }
+}
+
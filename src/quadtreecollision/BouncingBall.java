@@ -0,0 +1,471 @@
+/**
+ * [BouncingBall.java]
+ * Bouncing ball that moves around and bounces off the walls
+ * @author Dora Su
+ * October 25 2018
+ */
+
+package quadtreecollision;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.util.ArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class BouncingBall extends Object { //extends Object (required to make it generic)
+    //boundaries
+    private int maxX;
+    private int maxY;
+
+    private double posX, posY; //top left corner coordinate values of the smallest square that can contain the ball (drawing coordinates), doubles to maintain precise values
+    public static final int DEFAULT_SIZE = 20; //diameter of a ball when no size is given
+    private final double size; //diameter of the ball, constant
+    private final double mass; //mass of the ball, constant, a ball of the default size has a mass of 1
+    private double vx, vy; //x and y components of velocity
+    private Color color; //color of the ball
+    private int colourIndex; //index of the colour in the palette, so the ball can be saved
+    private boolean asleep; //true while the ball is resting: it isn't moved, and isn't collided with other resting balls
+    private int slowSteps; //steps in a row the ball has been slower than the speed it falls asleep at
+    private static ArrayList<Color> colors = new BallColourPalette().getColors(); //colour palette to choose colours from 
+
+    /**
+     * Constructor, creates new ball of the default size and generates random values
+     */
+    public BouncingBall(int maxX, int maxY) {
+        this(maxX, maxY, DEFAULT_SIZE / 2.0);
+    }
+
+    /**
+     * Constructor, creates new ball of the given size and generates random values, its mass goes with its area
+     * @param maxX width of the area the ball bounces in
+     * @param maxY height of the area the ball bounces in
+     * @param radius radius of the ball
+     */
+    public BouncingBall(int maxX, int maxY, double radius) {
+        //sets boundaries
+        this.maxX = maxX;
+        this.maxY = maxY;
+
+        size = radius * 2;
+        mass = areaMass(radius);
+
+        //sets variables to random numbers, from the thread's own generator instead of a new Random for each
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        posX = random.nextInt(maxX);
+        posY = random.nextInt(maxY);
+
+        vx = random.nextInt(11) - 5;
+        vy = random.nextInt(11) - 5;
+
+        //sets colours to random colour from the ArrayList
+        colourIndex = random.nextInt(colors.size());
+        color = colors.get(colourIndex);
+    }
+
+    /**
+     * Constructor, creates a new ball with the given values instead of random ones (e.g. for repeatable scenes)
+     * @param maxX width of the area the ball bounces in
+     * @param maxY height of the area the ball bounces in
+     * @param centreX x coordinate of the centre of the ball
+     * @param centreY y coordinate of the centre of the ball
+     * @param vx x component of velocity
+     * @param vy y component of velocity
+     * @param colourIndex index of the colour in the palette, wraps around if too large
+     */
+    public BouncingBall(int maxX, int maxY, double centreX, double centreY, double vx, double vy, int colourIndex) {
+        this(maxX, maxY, centreX, centreY, vx, vy, DEFAULT_SIZE / 2.0, 1, colourIndex);
+    }
+
+    /**
+     * Constructor, creates a new ball with the given values, including its size and mass
+     * @param maxX width of the area the ball bounces in
+     * @param maxY height of the area the ball bounces in
+     * @param centreX x coordinate of the centre of the ball
+     * @param centreY y coordinate of the centre of the ball
+     * @param vx x component of velocity
+     * @param vy y component of velocity
+     * @param radius radius of the ball
+     * @param mass mass of the ball, must be more than 0
+     * @param colourIndex index of the colour in the palette, wraps around if too large
+     */
+    public BouncingBall(int maxX, int maxY, double centreX, double centreY, double vx, double vy, double radius, double mass, int colourIndex) {
+        //sets boundaries
+        this.maxX = maxX;
+        this.maxY = maxY;
+
+        size = radius * 2;
+        this.mass = mass;
+
+        //stores the top left corner, like the random constructor
+        posX = centreX - getRadius();
+        posY = centreY - getRadius();
+
+        this.vx = vx;
+        this.vy = vy;
+
+        this.colourIndex = Math.floorMod(colourIndex, colors.size());
+        color = colors.get(this.colourIndex);
+    }
+
+    /**
+     * makes a ball exactly as it was saved by a Checkpoint, including whether it was asleep
+     * @param maxX width of the area the ball bounces in
+     * @param maxY height of the area the ball bounces in
+     * @param left x coordinate of the top left corner, as getLeft() gave it
+     * @param top y coordinate of the top left corner, as getTop() gave it
+     * @param vx x component of velocity
+     * @param vy y component of velocity
+     * @param size diameter of the ball
+     * @param mass mass of the ball
+     * @param colourIndex index of the colour in the palette
+     * @param asleep true if the ball was asleep
+     * @param slowSteps steps in a row the ball had been slow for
+     * @return the ball
+     */
+    static BouncingBall restore(int maxX, int maxY, double left, double top, double vx, double vy, double size, double mass,
+                                int colourIndex, boolean asleep, int slowSteps) {
+        BouncingBall b = new BouncingBall(maxX, maxY, 0, 0, vx, vy, size / 2, mass, colourIndex);
+        //the corner is set as it was instead of from the centre, which could round differently
+        b.posX = left;
+        b.posY = top;
+        b.asleep = asleep;
+        b.slowSteps = slowSteps;
+        return b;
+    }
+
+    /**
+     * mass of a ball that is as dense as a ball of the default size with a mass of 1
+     * @param radius radius of the ball
+     * @return its mass
+     */
+    public static double areaMass(double radius) {
+        double r = radius / (DEFAULT_SIZE / 2.0);
+        return r * r;
+    }
+
+    /**
+     * A method for a ball to update its position and move
+     */
+    public void move() {
+        move(1);
+    }
+
+    /**
+     * moves the ball by its velocity over a length of time, bouncing off a wall it is past first. Only walls are
+     * checked, a ball that moves further than it is wide can pass through another (see SweptSolver)
+     * @param dt time to move for, 1 is one step
+     */
+    public void move(double dt) {
+        if ((posX + size > maxX) || posX < 0) { //crashing into vertical walls
+            vx *= -1; //bounce off the wall
+        }
+        if ((posY + size > maxY) || posY < 0) { //crashing into horizontal walls
+            vy *= -1; //bounce off the wall
+        }
+
+        //preventing balls from going off the screen, brings them back if they went off the screen
+        if (posX > maxX - size) {
+            posX = maxX - size;
+        } else if (posX < 0) {
+            posX = 0;
+        }
+        if (posY > maxY - size) {
+            posY = maxY - size;
+        } else if (posY < 0) {
+            posY = 0;
+        }
+
+        //update the positions
+        posX  = vx * dt +posX;
+        posY =  vy * dt +posY;
+    }
+
+    /**
+     * moves the ball in a straight line without looking at the walls, e.g. back and forth to the moment it hits another
+     * @param t time to move for, less than 0 to move back
+     */
+    void fly(double t) {
+        posX += vx * t;
+        posY += vy * t;
+    }
+
+    /**
+     * moves the ball by its velocity over a length of time, bouncing off a wall it reaches on the way at the moment
+     * it reaches it instead of after it has gone past
+     * @param dt time to move for
+     */
+    void sweep(double dt) {
+        posX += vx * dt;
+        posY += vy * dt;
+        //a ball that went past a wall carries on as far back from it as it went past it
+        if (posX < 0) {
+            if (vx < 0) {
+                posX = -posX;
+                vx = -vx;
+            }
+        } else if (posX > maxX - size && vx > 0) {
+            posX = 2 * (maxX - size) - posX;
+            vx = -vx;
+        }
+        if (posY < 0) {
+            if (vy < 0) {
+                posY = -posY;
+                vy = -vy;
+            }
+        } else if (posY > maxY - size && vy > 0) {
+            posY = 2 * (maxY - size) - posY;
+            vy = -vy;
+        }
+        //too fast to have come back inside in the time it had
+        posX = Math.max(0, Math.min(posX, maxX - size));
+        posY = Math.max(0, Math.min(posY, maxY - size));
+    }
+
+    /**
+     * puts the ball to sleep once it has been slow for a number of steps in a row, call after move()
+     * a sleeping ball stops completely and stays asleep until a collision wakes it
+     * @param sleepSpeed speed the ball has to stay at or below, 0 to only let balls that have stopped sleep
+     * @param steps steps in a row it has to be that slow
+     */
+    public void settle(double sleepSpeed, int steps) {
+        if (vx * vx + vy * vy > sleepSpeed * sleepSpeed) {
+            slowSteps = 0;
+            return;
+        }
+        if (++slowSteps >= steps) {
+            asleep = true;
+            vx = 0;
+            vy = 0;
+        }
+    }
+
+    /**
+     * wakes the ball up, it moves again from the next step
+     */
+    public void wake() {
+        asleep = false;
+        slowSteps = 0;
+    }
+
+    public boolean isAsleep() {
+        return asleep;
+    }
+
+    /**
+     * Draws a ball onto the screen
+     * @param g Graphics to draw the balls
+     */
+    public void draw(Graphics g) {
+        //set the colour of the ball
+        g.setColor(color);
+        //draws the ball
+        g.fillOval((int)posX, (int)posY, (int)Math.round(size), (int)Math.round(size));
+    }
+
+
+    public double getPosX() {
+        return posX + getRadius();
+    }
+
+    public double getPosY() {
+        return posY + getRadius();
+    }
+
+    /**
+     * @return x coordinate of the top left corner, exactly as the ball keeps it
+     */
+    double getLeft() {
+        return posX;
+    }
+
+    /**
+     * @return y coordinate of the top left corner, exactly as the ball keeps it
+     */
+    double getTop() {
+        return posY;
+    }
+
+    double getSize() {
+        return size;
+    }
+
+    int getColourIndex() {
+        return colourIndex;
+    }
+
+    int getSlowSteps() {
+        return slowSteps;
+    }
+
+    public double getRadius() {
+        return size / 2;
+    }
+
+    public double getMass() {
+        return mass;
+    }
+
+    public double getVx() {
+        return vx;
+    }
+
+    public double getVy() {
+        return vy;
+    }
+
+    public Color getColor() {
+        return color;
+    }
+
+    /**
+     * Checks whether two balls touch, with exactly the same test collide() uses, without changing either of them
+     * @param b Ball to check against
+     * @return true if the balls overlap or touch
+     */
+    public boolean touches(BouncingBall b) {
+        double deltaX = b.getPosX() - getPosX();
+        double deltaY = b.getPosY() - getPosY();
+        double reach = getRadius() + b.getRadius();
+        return deltaX * deltaX + deltaY * deltaY <= reach * reach;
+    }
+
+    /**
+     * finds when two balls moving in straight lines first touch while heading towards each other
+     * @param b Ball to check against
+     * @param from earliest time to look at, 0 is where the balls are now
+     * @param to latest time to look at
+     * @return time they touch, from if they already overlap and are getting closer, NaN if they don't touch in time
+     */
+    double timeOfImpact(BouncingBall b, double from, double to) {
+        //where b is from this ball at the earliest time, and how fast that changes
+        double deltaVx = b.vx - vx;
+        double deltaVy = b.vy - vy;
+        double deltaX = b.getPosX() - getPosX() + deltaVx * from;
+        double deltaY = b.getPosY() - getPosY() + deltaVy * from;
+        double dotProduct = deltaX * deltaVx + deltaY * deltaVy;
+        if (dotProduct >= 0) {
+            return Double.NaN; //not getting any closer
+        }
+        double reach = getRadius() + b.getRadius();
+        double gap = deltaX * deltaX + deltaY * deltaY - reach * reach; //squared distance apart, minus the squared reach
+        if (gap <= 0) {
+            return from; //touching already
+        }
+        //the squared distance is a quadratic in time, its first root is when they touch
+        double speedSquared = deltaVx * deltaVx + deltaVy * deltaVy;
+        double discriminant = dotProduct * dotProduct - speedSquared * gap;
+        if (discriminant < 0) {
+            return Double.NaN; //they pass each other
+        }
+        double t = from + gap / (Math.sqrt(discriminant) - dotProduct); //the first root, without cancelling out digits
+        return t <= to ? t : Double.NaN;
+    }
+
+    /**
+     * Checks for collision between two balls and if they collide, adjust the positions and velocities
+     * @param b Ball to check collision with (and collide with)
+     */
+    public void collide(BouncingBall b) {
+        //two resting balls have no velocity to exchange
+        if (asleep && b.asleep) {
+            return;
+        }
+
+        //calculate differences
+        double deltaX = b.getPosX() - getPosX(); //between the centres, since the balls can be different sizes
+        double deltaY = b.getPosY() - getPosY();
+
+        //balls are colliding if the distance between them is smaller than the sum of their radii, compared squared so no square root is needed
+        double reach = getRadius() + b.getRadius();
+        if (deltaX * deltaX + deltaY * deltaY <= reach * reach) {//Apply TLAP,  use math as a tool
+            bounce(b, deltaX, deltaY);
+        } else {
+            return; //return if they do not collide
+        }
+    }
+
+    /**
+     * bounces two balls off each other as collide() does, without checking that they touch, for balls that were found
+     * to touch at this moment by timeOfImpact() (rounding can leave them a hair apart)
+     * @param b Ball to bounce off
+     */
+    void bounceOff(BouncingBall b) {
+        if (asleep && b.asleep) {
+            return;
+        }
+        bounce(b, b.getPosX() - getPosX(), b.getPosY() - getPosY());
+    }
+
+    /**
+     * exchanges velocity with a ball this one touches, if they are heading towards each other
+     * @param b Ball to bounce off
+     * @param deltaX x distance from the centre of this ball to the centre of b
+     * @param deltaY y distance from the centre of this ball to the centre of b
+     */
+    private void bounce(BouncingBall b, double deltaX, double deltaY) {
+        // calculate the dot product
+        double deltaVx = b.vx - vx;
+        double deltaVy = b.vy - vy;
+        double dotProduct = deltaX * deltaVx + deltaY * deltaVy;
+
+        if (dotProduct < 0) { //if dot product is negative, they are moving towards each other
+            //whatever they do next, both are moving now
+            wake();
+            b.wake();
+            if(((vx == 0) && (b.vx == 0)) || ((vy == 0) && (b.vy == 0))) { //if the objects are moving parallel to one another, this is a very special situation!
+                //in this special case that the balls are moving parallel, it requires more calculation than regular cases
+                //by using only this calculation method for this specific situation, it is more efficient
+
+                //the cos and sin of the angle of collision (between the centres) only ever appear multiplied together,
+                //so the products can come straight from the differences without finding the angle
+                double distanceSquared = deltaX * deltaX + deltaY * deltaY;
+                if (distanceSquared == 0) {
+                    return; //same centre, there is no angle of collision
+                }
+                double cc = deltaX * deltaX / distanceSquared; //cos * cos
+                double cs = deltaX * deltaY / distanceSquared; //cos * sin
+                double ss = deltaY * deltaY / distanceSquared; //sin * sin
+
+                //velocity of each ball along the line between the centres, back in x and y components
+                double ax = vx * cc + vy * cs;
+                double ay = vx * cs + vy * ss;
+                double bx = b.vx * cc + b.vy * cs;
+                double by = b.vx * cs + b.vy * ss;
+
+                //1d elastic collision along the line (for equal masses the velocities just swap), and the rest of vy is kept
+                double total = mass + b.mass;
+                double vxf = ((mass - b.mass) * ax + 2 * b.mass * bx) / total - vy * cs;
+                double vyf = ((mass - b.mass) * ay + 2 * b.mass * by) / total + vy * cc;
+                double vbxf = ((b.mass - mass) * bx + 2 * mass * ax) / total - b.vy * cs;
+                double vbyf = ((b.mass - mass) * by + 2 * mass * ay) / total + b.vy * cc;
+
+                //set new velocities
+                vx = vxf;
+                vy = vyf;
+                b.vx = vbxf;
+                b.vy = vbyf;
+            } else if (mass != b.mass) {
+                //different masses, so push the balls apart along the line between their centres, keeping momentum and energy
+                double distanceSquared = deltaX * deltaX + deltaY * deltaY;
+                if (distanceSquared == 0) {
+                    return; //same centre, no direction to push them in
+                }
+                double impulse = 2 * dotProduct / ((mass + b.mass) * distanceSquared);
+                vx += impulse * b.mass * deltaX;
+                vy += impulse * b.mass * deltaY;
+                b.vx -= impulse * mass * deltaX;
+                b.vy -= impulse * mass * deltaY;
+            } else {
+                // if the dotProduct is smaller than zero, then the objects are moving towards each other, prevents objects from sticking together
+                //Apply more TLAP formulas based on perfectly elastic collisions, since the masses are the same, the velocities just swap
+                //swap + set new velocities
+                double temp = vx;
+                vx = b.vx;
+                b.vx = temp;
+                temp = vy;
+                vy = b.vy;
+                b.vy = temp;
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * [Bounds.java]
+ * Tells a broad phase where an item is and how big it is, so the broad phase doesn't have to know what the items are.
+ * Items are treated as circles: a centre and a radius
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+public interface Bounds<T> {
+    /**
+     * reads the position and size straight from a BouncingBall
+     */
+    Bounds<BouncingBall> BALLS = new Bounds<BouncingBall>() {
+        @Override
+        public double getPosX(BouncingBall b) {
+            return b.getPosX();
+        }
+
+        @Override
+        public double getPosY(BouncingBall b) {
+            return b.getPosY();
+        }
+
+        @Override
+        public double getRadius(BouncingBall b) {
+            return b.getRadius();
+        }
+
+        @Override
+        public boolean isResting(BouncingBall b) {
+            return b.isAsleep();
+        }
+    };
+
+    /**
+     * @param item item to measure
+     * @return x coordinate of the centre of the item
+     */
+    double getPosX(T item);
+
+    /**
+     * @param item item to measure
+     * @return y coordinate of the centre of the item
+     */
+    double getPosY(T item);
+
+    /**
+     * @param item item to measure
+     * @return radius of the item
+     */
+    double getRadius(T item);
+
+    /**
+     * @param item item to look at
+     * @return true if the item is resting (e.g. a sleeping ball), a pair of two resting items is never handed out
+     */
+    default boolean isResting(T item) {
+        return false;
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * [BroadPhase.java]
+ * Something that narrows down which pairs of items could be touching, so only those pairs have to be checked exactly.
+ * It is built from the items' current positions and then hands out candidate pairs, it never changes the items itself.
+ * Every pair of touching items is handed out at least once, except that QuadTree leaves out items entirely outside its root,
+ * and a pair of two items that are resting (see Bounds.isResting) when it would be handed out is left out.
+ * Some broad phases (QuadTree, which puts a straddling item in every leaf it overlaps) can hand out the same pair
+ * more than once, so the check done on each pair has to allow for that
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+public interface BroadPhase<T> {
+    /**
+     * throws away what the broad phase held and builds it again from the items' current positions
+     * @param items items to build from
+     */
+    void build(List<? extends T> items);
+
+    /**
+     * hands every pair of items that could be touching, as of the last build(), to a consumer
+     * @param pairs consumer to hand the pairs to
+     */
+    void findPairs(BiConsumer<? super T, ? super T> pairs);
+
+    /**
+     * hands out the lines of how the broad phase divided up the world as of the last build(), if it did
+     * @param lines where to send the lines
+     */
+    void outline(LineDrawer lines);
+
+    /**
+     * draws the outline in white
+     * @param g Graphics object to draw with
+     */
+    default void draw(Graphics g) {
+        g.setColor(Color.WHITE);
+        outline(g::drawLine);
+    }
+}
@@ -0,0 +1,163 @@
+/**
+ * [Camera.java]
+ * Which part of a world is on the screen: the world point at the centre of the screen, how many pixels one unit of
+ * the world takes up, and how big the screen is. A camera never changes, panning or zooming makes a new one, so one can
+ * be handed between the window's threads and kept in a snapshot without copying it
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+public final class Camera {
+    public static final double MIN_ZOOM = 1 / 256.0; //furthest out a camera can zoom
+    public static final double MAX_ZOOM = 32; //furthest in a camera can zoom
+
+    private final double centreX, centreY; //world point at the centre of the screen
+    private final double zoom; //pixels per unit of the world
+    private final int screenWidth, screenHeight; //size of the screen in pixels
+
+    /**
+     * Constructor
+     * @param centreX x coordinate of the world point at the centre of the screen
+     * @param centreY y coordinate of the world point at the centre of the screen
+     * @param zoom pixels per unit of the world, kept between MIN_ZOOM and MAX_ZOOM
+     * @param screenWidth width of the screen in pixels
+     * @param screenHeight height of the screen in pixels
+     */
+    public Camera(double centreX, double centreY, double zoom, int screenWidth, int screenHeight) {
+        this.centreX = centreX;
+        this.centreY = centreY;
+        this.zoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom));
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
+    }
+
+    /**
+     * a camera that shows all of a world as big as it fits on the screen, with the world's corner in the screen's corner
+     * if they are the same size
+     * @param worldWidth width of the world
+     * @param worldHeight height of the world
+     * @param screenWidth width of the screen in pixels
+     * @param screenHeight height of the screen in pixels
+     * @return the camera
+     */
+    public static Camera fit(int worldWidth, int worldHeight, int screenWidth, int screenHeight) {
+        double zoom = Math.min((double)screenWidth / worldWidth, (double)screenHeight / worldHeight);
+        return new Camera(worldWidth / 2.0, worldHeight / 2.0, zoom, screenWidth, screenHeight);
+    }
+
+    /**
+     * @param dx pixels to move the view right
+     * @param dy pixels to move the view down
+     * @return a camera looking at a point that far away on the screen
+     */
+    public Camera pan(double dx, double dy) {
+        return new Camera(centreX + dx / zoom, centreY + dy / zoom, zoom, screenWidth, screenHeight);
+    }
+
+    /**
+     * @param factor how much bigger everything should look, less than 1 to zoom out
+     * @param screenX x coordinate of the pixel that should stay over the same world point (e.g. under the mouse)
+     * @param screenY y coordinate of that pixel
+     * @return a zoomed camera
+     */
+    public Camera zoom(double factor, double screenX, double screenY) {
+        double newZoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom * factor));
+        double worldX = toWorldX(screenX), worldY = toWorldY(screenY);
+        return new Camera(worldX - (screenX - screenWidth / 2.0) / newZoom, worldY - (screenY - screenHeight / 2.0) / newZoom,
+                newZoom, screenWidth, screenHeight);
+    }
+
+    /**
+     * @return x coordinate of the world at the left edge of the screen
+     */
+    public double getMinX() {
+        return centreX - screenWidth / (2 * zoom);
+    }
+
+    /**
+     * @return y coordinate of the world at the top edge of the screen
+     */
+    public double getMinY() {
+        return centreY - screenHeight / (2 * zoom);
+    }
+
+    /**
+     * @return x coordinate of the world at the right edge of the screen
+     */
+    public double getMaxX() {
+        return centreX + screenWidth / (2 * zoom);
+    }
+
+    /**
+     * @return y coordinate of the world at the bottom edge of the screen
+     */
+    public double getMaxY() {
+        return centreY + screenHeight / (2 * zoom);
+    }
+
+    /**
+     * @param x x coordinate in the world
+     * @return x coordinate on the screen
+     */
+    public double toScreenX(double x) {
+        return (x - getMinX()) * zoom;
+    }
+
+    /**
+     * @param y y coordinate in the world
+     * @return y coordinate on the screen
+     */
+    public double toScreenY(double y) {
+        return (y - getMinY()) * zoom;
+    }
+
+    /**
+     * @param x x coordinate on the screen
+     * @return x coordinate in the world
+     */
+    public double toWorldX(double x) {
+        return getMinX() + x / zoom;
+    }
+
+    /**
+     * @param y y coordinate on the screen
+     * @return y coordinate in the world
+     */
+    public double toWorldY(double y) {
+        return getMinY() + y / zoom;
+    }
+
+    public double getZoom() {
+        return zoom;
+    }
+
+    public int getScreenWidth() {
+        return screenWidth;
+    }
+
+    public int getScreenHeight() {
+        return screenHeight;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Camera)) {
+            return false;
+        }
+        Camera other = (Camera)o;
+        return centreX == other.centreX && centreY == other.centreY && zoom == other.zoom
+                && screenWidth == other.screenWidth && screenHeight == other.screenHeight;
+    }
+
+    @Override
+    public int hashCode() {
+        return Double.hashCode(centreX) * 31 * 31 + Double.hashCode(centreY) * 31 + Double.hashCode(zoom);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(%.0f, %.0f) x%.3f", centreX, centreY, zoom);
+    }
+}
@@ -0,0 +1,202 @@
+/**
+ * [Checkpoint.java]
+ * Everything needed to carry on a world later: its size, its quadtree parameters, how many steps it has taken, and every
+ * ball's position, velocity, size, mass, colour and sleep state. A checkpoint is taken as a copy of plain arrays,
+ * which is quick enough to do between two steps, and can then be written on another thread while the world keeps going.
+ * Once written, a checkpoint's arrays can be filled again by the next one instead of allocating new ones.
+ * The file is a short header and then one column per value, written and read through memory mapped files, so a column
+ * goes between the file and its array in one bulk copy:
+ *   int magic "QTCW", int version, int width, int height, int maxObjects, int maxSubdivision, long steps, int count,
+ *   padding up to HEADER bytes, then count doubles each of left, top, vx, vy, size and mass, count ints each of colour
+ *   and slow steps, and count bytes of asleep (1) or awake (0), everything little endian
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class Checkpoint {
+    public static final int MAGIC = 0x51544357; //"QTCW" at the start of every checkpoint file
+    public static final int VERSION = 1; //version of the file layout, bumped whenever it changes
+    private static final int HEADER = 64; //bytes before the first column, keeps the columns 8 byte aligned
+    private static final int BALL_BYTES = 6 * 8 + 2 * 4 + 1; //bytes each ball takes up across the columns
+
+    //the world
+    private int width, height; //size of the world
+    private int maxObjects, maxSubdivision; //quadtree parameters
+    private long steps; //steps the world had taken
+
+    //the balls, ball i is the i-th entry of each array, which can be longer than the number of balls
+    private int count; //number of balls
+    final double[] left, top; //top left corner of each ball, exactly as the ball keeps it
+    final double[] vx, vy; //velocity of each ball
+    final double[] size; //diameter of each ball
+    final double[] mass; //mass of each ball
+    final int[] colour; //index of each ball's colour in the palette
+    final int[] slowSteps; //steps in a row each ball had been slow for
+    final byte[] asleep; //1 if the ball was asleep
+
+    /**
+     * Constructor, an empty checkpoint with room for every ball, filled in by World.checkpoint() or PackedWorld.checkpoint()
+     * @param width width of the world
+     * @param height height of the world
+     * @param maxObjects max objects a quadtree node holds before subdividing
+     * @param maxSubdivision max levels of subdivision
+     * @param steps steps the world has taken
+     * @param count number of balls
+     */
+    Checkpoint(int width, int height, int maxObjects, int maxSubdivision, long steps, int count) {
+        this.width = width;
+        this.height = height;
+        this.maxObjects = maxObjects;
+        this.maxSubdivision = maxSubdivision;
+        this.steps = steps;
+        this.count = count;
+        left = new double[count];
+        top = new double[count];
+        vx = new double[count];
+        vy = new double[count];
+        size = new double[count];
+        mass = new double[count];
+        colour = new int[count];
+        slowSteps = new int[count];
+        asleep = new byte[count];
+    }
+
+    /**
+     * an empty checkpoint for a world, filled in by World.checkpoint() or PackedWorld.checkpoint()
+     * @param reuse checkpoint that is no longer needed whose arrays are filled again if they have room, or null
+     * @return reuse with the new values, or a new checkpoint if reuse was null or too small
+     */
+    static Checkpoint reuse(Checkpoint reuse, int width, int height, int maxObjects, int maxSubdivision, long steps, int count) {
+        if (reuse == null || reuse.left.length < count) {
+            return new Checkpoint(width, height, maxObjects, maxSubdivision, steps, count);
+        }
+        reuse.width = width;
+        reuse.height = height;
+        reuse.maxObjects = maxObjects;
+        reuse.maxSubdivision = maxSubdivision;
+        reuse.steps = steps;
+        reuse.count = count;
+        return reuse;
+    }
+
+    /**
+     * writes the checkpoint to a file, replacing whatever was there, and waits for it to reach the disk so a file moved
+     * over an older checkpoint afterwards is never a half-written one after a crash
+     * @param path file to write
+     * @throws IOException if the file can't be written
+     */
+    public void write(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer header = map(channel, FileChannel.MapMode.READ_WRITE, 0, HEADER);
+            header.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(height).putInt(maxObjects).putInt(maxSubdivision);
+            header.putLong(steps).putInt(count);
+            header.force();
+
+            //each column is mapped on its own, so a column can be up to 2 GB however many columns there are
+            long position = HEADER;
+            for (double[] column : new double[][] {left, top, vx, vy, size, mass}) {
+                MappedByteBuffer mapped = map(channel, FileChannel.MapMode.READ_WRITE, position, 8L * count);
+                mapped.asDoubleBuffer().put(column, 0, count);
+                mapped.force();
+                position += 8L * count;
+            }
+            for (int[] column : new int[][] {colour, slowSteps}) {
+                MappedByteBuffer mapped = map(channel, FileChannel.MapMode.READ_WRITE, position, 4L * count);
+                mapped.asIntBuffer().put(column, 0, count);
+                mapped.force();
+                position += 4L * count;
+            }
+            MappedByteBuffer flags = map(channel, FileChannel.MapMode.READ_WRITE, position, count);
+            flags.put(asleep, 0, count);
+            flags.force();
+
+            //the mapped pages are on the disk, this also writes the file's new length
+            channel.force(true);
+        }
+    }
+
+    /**
+     * reads a checkpoint written by write()
+     * @param path file to read
+     * @return the checkpoint
+     * @throws IOException if the file can't be read, isn't a checkpoint, or is a version this can't read
+     */
+    public static Checkpoint read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER) {
+                throw new IOException(path + " is too short to be a checkpoint");
+            }
+            MappedByteBuffer header = map(channel, FileChannel.MapMode.READ_ONLY, 0, HEADER);
+            if (header.getInt() != MAGIC) {
+                throw new IOException(path + " is not a checkpoint");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException(path + " is checkpoint version " + version + ", only version " + VERSION + " can be read");
+            }
+            int width = header.getInt(), height = header.getInt();
+            int maxObjects = header.getInt(), maxSubdivision = header.getInt();
+            long steps = header.getLong();
+            int count = header.getInt();
+            if (count < 0 || channel.size() != HEADER + (long)BALL_BYTES * count) {
+                throw new IOException(path + " is cut short or has the wrong number of balls");
+            }
+
+            Checkpoint c = new Checkpoint(width, height, maxObjects, maxSubdivision, steps, count);
+            long position = HEADER;
+            for (double[] column : new double[][] {c.left, c.top, c.vx, c.vy, c.size, c.mass}) {
+                map(channel, FileChannel.MapMode.READ_ONLY, position, 8L * count).asDoubleBuffer().get(column, 0, count);
+                position += 8L * count;
+            }
+            for (int[] column : new int[][] {c.colour, c.slowSteps}) {
+                map(channel, FileChannel.MapMode.READ_ONLY, position, 4L * count).asIntBuffer().get(column, 0, count);
+                position += 4L * count;
+            }
+            map(channel, FileChannel.MapMode.READ_ONLY, position, count).get(c.asleep, 0, count);
+            return c;
+        }
+    }
+
+    /**
+     * maps part of a file, little endian
+     */
+    private static MappedByteBuffer map(FileChannel channel, FileChannel.MapMode mode, long position, long length) throws IOException {
+        MappedByteBuffer buffer = channel.map(mode, position, length);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getMaxObjects() {
+        return maxObjects;
+    }
+
+    public int getMaxSubdivision() {
+        return maxSubdivision;
+    }
+
+    public long getSteps() {
+        return steps;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
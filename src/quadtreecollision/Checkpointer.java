@@ -0,0 +1,160 @@
+/**
+ * [Checkpointer.java]
+ * Saves a running world to a file every so many steps. Run it on the simulation thread after each batch of steps (e.g. as
+ * part of the Simulation's viewer): it only copies the world there, and writes the copy on a thread of its own, so the
+ * simulation isn't held up by the disk. Once a checkpoint has been written, the next one is copied into its arrays
+ * instead of new ones. The file is written next to the old one and then moved over it, so the last complete checkpoint
+ * is never lost halfway through a write. If a write fails, no more checkpoints are taken and close() throws why
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.UnaryOperator;
+
+public class Checkpointer implements Runnable {
+    private final Steppable world; //world being saved
+    private final UnaryOperator<Checkpoint> capture; //copies the world into a checkpoint it may reuse, e.g. World::checkpoint
+    private final Path path; //file to save to
+    private final long every; //steps between checkpoints
+    private final ExecutorService writer; //the thread the files are written on
+    private long lastSaved; //world's step count at the last checkpoint
+    private Future<?> writing; //the write in progress, null before the first
+    private Checkpoint last; //the checkpoint being written, whose arrays the next one reuses once it is written
+    private int saved; //checkpoints taken
+    private long longestPause; //longest time the simulation thread spent copying the world, in nanoseconds
+    private volatile IOException failure; //why a write failed, null while every write has worked
+
+    /**
+     * Constructor
+     * @param world world to save
+     * @param capture copies the world into a checkpoint, reusing the one it is given if it isn't null
+     * @param path file to save to
+     * @param every steps between checkpoints
+     */
+    public Checkpointer(Steppable world, UnaryOperator<Checkpoint> capture, Path path, long every) {
+        this.world = world;
+        this.capture = capture;
+        this.path = path;
+        this.every = every;
+        lastSaved = world.getSteps();
+        writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "checkpoint writer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * takes a checkpoint if enough steps have passed since the last one and the last one has been written,
+     * otherwise tries again after the next batch
+     */
+    @Override
+    public synchronized void run() {
+        if (world.getSteps() - lastSaved >= every && written() && failure == null) {
+            save();
+        }
+    }
+
+    /**
+     * checks whether the last write has finished, and keeps why it failed if it did
+     * @return true if no write is in progress
+     */
+    private boolean written() {
+        if (writing == null) {
+            return true;
+        }
+        if (!writing.isDone()) {
+            return false;
+        }
+        try {
+            writing.get();
+        } catch (ExecutionException e) {
+            if (failure == null) {
+                failure = new IOException("writing a checkpoint to " + path + " failed", e.getCause());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); //can't happen, it is done
+        }
+        return true;
+    }
+
+    /**
+     * takes a checkpoint now, it is written in the background. Does nothing once a write has failed
+     */
+    public synchronized void save() {
+        long start = System.nanoTime();
+        boolean written = written();
+        if (failure != null) {
+            return;
+        }
+        Checkpoint c = capture.apply(written ? last : null); //the last one's arrays are still being read while it is written
+        last = c;
+        longestPause = Math.max(longestPause, System.nanoTime() - start);
+        lastSaved = c.getSteps();
+        saved++;
+        writing = writer.submit(() -> {
+            try {
+                Path partial = path.resolveSibling(path.getFileName() + ".partial");
+                c.write(partial);
+                Files.move(partial, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        });
+    }
+
+    /**
+     * waits for the last checkpoint to be written and stops the writing thread
+     * @throws IOException if writing any checkpoint failed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void close() throws IOException, InterruptedException {
+        Future<?> last;
+        synchronized (this) {
+            last = writing;
+        }
+        writer.shutdown();
+        if (last != null) {
+            try {
+                last.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = new IOException("writing a checkpoint to " + path + " failed", e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * @return why a write failed, null if none has
+     */
+    public IOException getFailure() {
+        return failure;
+    }
+
+    public synchronized int getSaved() {
+        return saved;
+    }
+
+    /**
+     * @return longest time the simulation thread spent copying the world for a checkpoint, in milliseconds
+     */
+    public synchronized double getLongestPause() {
+        return longestPause / 1e6;
+    }
+}
@@ -0,0 +1,317 @@
+/**
+ * [ContactCache.java]
+ * A broad phase that remembers each ball's neighbours from one step to the next instead of finding every pair from
+ * scratch every step. Each ball keeps the list of balls that were within a skin distance of touching it when its list
+ * was last refreshed, and where it was then. Until a ball has moved half the skin from there, no ball missing from its
+ * list can have closed the gap, so only balls that have moved that far refresh their list: they look at the 3x3 cells
+ * around them in a grid of those positions, which also drops the neighbours that have drifted away. Every step only
+ * goes through the lists, skipping pairs that are clearly apart and pairs of two sleeping balls, so balls that rest
+ * (or move slowly next to the skin) cost almost nothing. The lists are kept by the balls themselves: if balls are
+ * added, removed or reordered, every list is found again
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+public class ContactCache<T extends BouncingBall> implements BroadPhase<T> {
+    public static final double DEFAULT_SKIN = 2; //distance past touching a pair is kept for, in pixels
+
+    private final double x, y, w, h; //area covered by the grid, balls outside it are filed under the nearest edge cell
+    private final double skin; //distance past touching a pair is kept for
+
+    //balls in the order of the list, with their radii and where each one's neighbours were last found from
+    private int count;
+    private Object[] items = new Object[0];
+    private double[] r = new double[0], refX = new double[0], refY = new double[0];
+    private double[] px = new double[0], py = new double[0]; //centres as of the last build, collisions don't move balls so they stay right until then
+    private boolean[] asleep = new boolean[0]; //true if a ball was asleep at the last build
+
+    //each ball's neighbours (indices into items), a pair is in both lists
+    private int[][] neighbours = new int[0][];
+    private int[] neighbourCount = new int[0];
+
+    //grid of the positions the lists were found from, each cell a linked list of balls
+    private double size; //side of a cell, at least the widest pair distance
+    private int columns, rows;
+    private int[] head = new int[0]; //first ball of each cell, -1 if empty
+    private int[] next = new int[0], previous = new int[0]; //next and previous ball in the same cell, -1 at the ends
+    private int[] cellOf = new int[0]; //cell of each ball
+
+    private long refreshes; //neighbour lists found again since the cache was created
+
+    /**
+     * Constructor
+     * @param x x coordinate of the area's top-left corner
+     * @param y y coordinate of the area's top-left corner
+     * @param w width of the area
+     * @param h height of the area
+     * @param skin distance past touching a pair is kept for, larger means fewer refreshes but longer lists
+     */
+    public ContactCache(double x, double y, double w, double h, double skin) {
+        this.x = x;
+        this.y = y;
+        this.w = w;
+        this.h = h;
+        this.skin = skin;
+    }
+
+    /**
+     * refreshes the lists of the balls that have moved half the skin, or every list if the balls changed
+     * @param list balls to find the pairs of
+     */
+    @Override
+    public void build(List<? extends T> list) {
+        if (!sameBalls(list)) {
+            rebuild(list);
+            return;
+        }
+        double limit = skin * skin / 4;
+        for (int i = 0; i < count; i++) {
+            T b = list.get(i);
+            px[i] = b.getPosX();
+            py[i] = b.getPosY();
+            asleep[i] = b.isAsleep();
+            double dx = px[i] - refX[i];
+            double dy = py[i] - refY[i];
+            if (dx * dx + dy * dy >= limit) {
+                refresh(i);
+            }
+        }
+    }
+
+    /**
+     * @return true if the list holds the same balls in the same order as the cache
+     */
+    private boolean sameBalls(List<? extends T> list) {
+        if (list.size() != count) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            if (items[i] != list.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * throws every list away and finds them all again
+     */
+    private void rebuild(List<? extends T> list) {
+        count = list.size();
+        if (items.length < count) {
+            int capacity = Math.max(count, items.length * 2);
+            items = new Object[capacity];
+            r = new double[capacity];
+            refX = new double[capacity];
+            refY = new double[capacity];
+            px = new double[capacity];
+            py = new double[capacity];
+            asleep = new boolean[capacity];
+            neighbours = Arrays.copyOf(neighbours, capacity);
+            neighbourCount = new int[capacity];
+            next = new int[capacity];
+            previous = new int[capacity];
+            cellOf = new int[capacity];
+        }
+        Arrays.fill(items, count, items.length, null);
+
+        //cells as wide as the widest pair can be apart, so a ball's neighbours are all in the 3x3 cells around it
+        double largest = 0;
+        for (int i = 0; i < count; i++) {
+            largest = Math.max(largest, list.get(i).getRadius());
+        }
+        size = Math.max(1, largest * 2 + skin);
+        columns = Math.max(1, (int)Math.ceil(w / size));
+        rows = Math.max(1, (int)Math.ceil(h / size));
+        if (head.length < columns * rows) {
+            head = new int[columns * rows];
+        }
+        Arrays.fill(head, 0, columns * rows, -1);
+
+        for (int i = 0; i < count; i++) {
+            T b = list.get(i);
+            items[i] = b;
+            r[i] = b.getRadius();
+            px[i] = refX[i] = b.getPosX();
+            py[i] = refY[i] = b.getPosY();
+            asleep[i] = b.isAsleep();
+            neighbourCount[i] = 0;
+            if (neighbours[i] == null) {
+                neighbours[i] = new int[8];
+            }
+            link(i, cell(refX[i], refY[i]));
+        }
+
+        //every pair once, from the ball that comes first
+        for (int i = 0; i < count; i++) {
+            findNeighbours(i, true);
+        }
+        refreshes += count;
+    }
+
+    /**
+     * finds one ball's neighbours again from where it is now
+     * @param i index of the ball
+     */
+    private void refresh(int i) {
+        //drop every pair it was in
+        for (int n = 0; n < neighbourCount[i]; n++) {
+            removeNeighbour(neighbours[i][n], i);
+        }
+        neighbourCount[i] = 0;
+
+        refX[i] = px[i];
+        refY[i] = py[i];
+        int cell = cell(refX[i], refY[i]);
+        if (cell != cellOf[i]) {
+            unlink(i);
+            link(i, cell);
+        }
+        findNeighbours(i, false);
+        refreshes++;
+    }
+
+    /**
+     * adds every ball within the skin of touching a ball to both of their lists
+     * @param i index of the ball
+     * @param later true to only look at balls after it in the list (when every ball is being done)
+     */
+    private void findNeighbours(int i, boolean later) {
+        int column = cellOf[i] % columns, row = cellOf[i] / columns;
+        for (int cy = Math.max(0, row - 1); cy <= Math.min(rows - 1, row + 1); cy++) {
+            for (int cx = Math.max(0, column - 1); cx <= Math.min(columns - 1, column + 1); cx++) {
+                for (int j = head[cy * columns + cx]; j >= 0; j = next[j]) {
+                    if (j == i || (later && j < i)) {
+                        continue;
+                    }
+                    double reach = r[i] + r[j] + skin;
+                    double dx = refX[j] - refX[i];
+                    double dy = refY[j] - refY[i];
+                    if (dx * dx + dy * dy <= reach * reach) {
+                        addNeighbour(i, j);
+                        addNeighbour(j, i);
+                    }
+                }
+            }
+        }
+    }
+
+    private void addNeighbour(int i, int j) {
+        if (neighbourCount[i] == neighbours[i].length) {
+            neighbours[i] = Arrays.copyOf(neighbours[i], neighbours[i].length * 2);
+        }
+        neighbours[i][neighbourCount[i]++] = j;
+    }
+
+    private void removeNeighbour(int i, int j) {
+        int[] list = neighbours[i];
+        for (int n = 0; n < neighbourCount[i]; n++) {
+            if (list[n] == j) {
+                list[n] = list[--neighbourCount[i]];
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return cell a position is in, positions outside the grid are moved to its edge
+     */
+    private int cell(double px, double py) {
+        int column = Math.max(0, Math.min(columns - 1, (int)((px - x) / size)));
+        int row = Math.max(0, Math.min(rows - 1, (int)((py - y) / size)));
+        return row * columns + column;
+    }
+
+    /**
+     * puts a ball at the front of a cell's list
+     */
+    private void link(int i, int cell) {
+        cellOf[i] = cell;
+        previous[i] = -1;
+        next[i] = head[cell];
+        if (head[cell] >= 0) {
+            previous[head[cell]] = i;
+        }
+        head[cell] = i;
+    }
+
+    /**
+     * takes a ball out of its cell's list
+     */
+    private void unlink(int i) {
+        if (previous[i] >= 0) {
+            next[previous[i]] = next[i];
+        } else {
+            head[cellOf[i]] = next[i];
+        }
+        if (next[i] >= 0) {
+            previous[next[i]] = previous[i];
+        }
+    }
+
+    /**
+     * hands out each cached pair whose boxes overlap now exactly once, from the ball that comes first in the list,
+     * except pairs of two sleeping balls
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void findPairs(BiConsumer<? super T, ? super T> pairs) {
+        for (int i = 0; i < count; i++) {
+            int[] list = neighbours[i];
+            for (int n = 0; n < neighbourCount[i]; n++) {
+                int j = list[n];
+                double reach = r[i] + r[j];
+                if (j < i || Math.abs(px[j] - px[i]) > reach || Math.abs(py[j] - py[i]) > reach) {
+                    continue;
+                }
+                //a collision earlier in this pass can have woken either of them
+                T a = (T)items[i];
+                T b = (T)items[j];
+                if (asleep[i] && asleep[j] && a.isAsleep() && b.isAsleep()) {
+                    continue;
+                }
+                pairs.accept(a, b);
+            }
+        }
+    }
+
+    /**
+     * hands out the lines between the cells of the grid
+     * @param lines where to send the lines
+     */
+    @Override
+    public void outline(LineDrawer lines) {
+        for (int column = 1; column < columns; column++) {
+            int lineX = (int)(x + column * size);
+            lines.drawLine(lineX, (int)y, lineX, (int)(y + h));
+        }
+        for (int row = 1; row < rows; row++) {
+            int lineY = (int)(y + row * size);
+            lines.drawLine((int)x, lineY, (int)(x + w), lineY);
+        }
+    }
+
+    /**
+     * @return number of pairs in the cache
+     */
+    public int getPairCount() {
+        int pairs = 0;
+        for (int i = 0; i < count; i++) {
+            pairs += neighbourCount[i];
+        }
+        return pairs / 2;
+    }
+
+    /**
+     * @return number of times a ball's neighbours have been found, counting every ball of a full rebuild
+     */
+    public long getRefreshes() {
+        return refreshes;
+    }
+}
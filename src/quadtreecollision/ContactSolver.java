@@ -0,0 +1,135 @@
+/**
+ * [ContactSolver.java]
+ * Collides the touching pairs of a step in an order that only depends on which pairs touch. collisionCheck() bounces
+ * each pair off the velocities the pairs before it left behind, in the order the tree hands the pairs out in, so a
+ * world cut into tiles (see ShardedWorld) could never match one that isn't. Here the pairs are bounced in rounds: in
+ * each round every ball picks the lowest of its pairs, by the indices of the two balls, that is still heading
+ * together, and the pairs both balls picked bounce, exactly as BallStore.collide() bounces them. No ball is in two of
+ * them, so they can bounce in any order, and each is an elastic bounce of two balls, so momentum and energy are kept
+ * just as collisionCheck() keeps them. What a ball ends up with only depends on the balls up to two pairs away from it
+ * for each round, so a tile that holds every ball that close gets the same answer as the whole world
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.util.Arrays;
+
+public class ContactSolver {
+    static final int ROUNDS = 2; //rounds of bounces each step, a pair left heading together bounces in the next step
+
+    private int[] lower = new int[64], higher = new int[64]; //the two balls of each touching pair, by index
+    private int pairCount; //pairs found, some more than once, then the pairs in order, each once
+    private int[] start = new int[17]; //where each ball's higher partners start in partners, by its index
+    private int[] partners = new int[64]; //higher partners of every ball, grouped by the ball
+    private int[] picked = new int[16]; //lowest pair heading together each ball is in this round, -1 for none
+    private final IndexQuadTree.Pairs collector = this::add; //adds the pairs the tree finds
+
+    /**
+     * finds every touching pair in a tree and bounces them. Every ball in the store may change, a tile's copies of its
+     * neighbours' balls too, so a ball is only right if every ball within 2 * ROUNDS of the largest diameters of it is
+     * in the store
+     * @param balls the balls, the tree must have been built over them
+     * @param qt the tree
+     */
+    public void solve(BallStore balls, IndexQuadTree qt) {
+        int n = balls.size();
+        if (picked.length < n) {
+            picked = new int[Math.max(n, picked.length * 2)];
+        }
+
+        pairCount = 0;
+        qt.findContacts(collector);
+        group(n);
+        int found = 0;
+        for (int a = 0; a < n; a++) {
+            int last = -1;
+            for (int p = start[a]; p < start[a + 1]; p++) {
+                if (partners[p] != last) { //a pair that shares several leaves is found once per leaf
+                    lower[found] = a; //the pairs are in partners now, so lower and higher can take them back in order
+                    higher[found++] = partners[p];
+                }
+                last = partners[p];
+            }
+        }
+        pairCount = found;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            Arrays.fill(picked, 0, n, -1);
+            boolean any = false;
+            for (int p = 0; p < pairCount; p++) { //lowest first, so the first pair a ball gets is the one it picks
+                int a = lower[p], b = higher[p];
+                if ((picked[a] < 0 || picked[b] < 0) && balls.resolve(a, b)) {
+                    if (picked[a] < 0) {
+                        picked[a] = p;
+                    }
+                    if (picked[b] < 0) {
+                        picked[b] = p;
+                    }
+                    any = true;
+                }
+            }
+            if (!any) {
+                break; //everything is moving apart already
+            }
+            for (int p = 0; p < pairCount; p++) {
+                int a = lower[p], b = higher[p];
+                if (picked[a] == p && picked[b] == p) {
+                    balls.collide(a, b);
+                }
+            }
+        }
+    }
+
+    /**
+     * sorts the pairs found by their lower and then their higher index, with a counting sort on the lower index
+     * (the pairs of a ball are few, so sorting each ball's partners after that is quick)
+     * @param n number of balls
+     */
+    private void group(int n) {
+        if (start.length < n + 1) {
+            start = new int[Math.max(n + 1, start.length * 2)];
+        }
+        if (partners.length < pairCount) {
+            partners = new int[Math.max(pairCount, partners.length * 2)];
+        }
+        Arrays.fill(start, 0, n, 0);
+        for (int p = 0; p < pairCount; p++) {
+            start[lower[p]]++;
+        }
+        int sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += start[i];
+            start[i] = sum; //where ball i's run ends for now
+        }
+        start[n] = sum;
+        //fill each ball's run from its end, which leaves start[i] where it begins and start[i + 1] where it ends
+        for (int p = 0; p < pairCount; p++) {
+            partners[--start[lower[p]]] = higher[p];
+        }
+        for (int i = 0; i < n; i++) {
+            int from = start[i], to = start[i + 1];
+            for (int p = from + 1; p < to; p++) { //insertion sort, a ball rarely touches more than a handful of others
+                int b = partners[p], q = p - 1;
+                while (q >= from && partners[q] > b) {
+                    partners[q + 1] = partners[q];
+                    q--;
+                }
+                partners[q + 1] = b;
+            }
+        }
+    }
+
+    /**
+     * keeps a touching pair the tree found
+     */
+    private void add(int a, int b) {
+        if (pairCount == lower.length) {
+            lower = Arrays.copyOf(lower, pairCount * 2);
+            higher = Arrays.copyOf(higher, pairCount * 2);
+        }
+        lower[pairCount] = Math.min(a, b);
+        higher[pairCount++] = Math.max(a, b);
+    }
+}
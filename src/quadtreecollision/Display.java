@@ -0,0 +1,386 @@
+/**
+ * [Display.java]
+ * A display to display BouncingBalls and the quadtrees, it only views a World, the World is stepped by a Simulation.
+ * The simulation hands it a RenderSnapshot after it steps (only when the last one has been picked up), and a render
+ * thread of its own draws the newest snapshot with page flipping at a steady frame rate. A slow draw never holds up
+ * the simulation and a slow step never stops the window from being drawn, it just shows the last snapshot again.
+ * F3 shows the world's FrameStats over the balls (and starts measuring if nothing was).
+ * The window can be any size, it looks at the world through a Camera: the arrow keys or dragging with the mouse pan,
+ * + and - or the mouse wheel zoom, and home shows the whole world again.
+ * It can show a Replay instead of a live world: then space pauses, comma and period go back or on by a frame,
+ * and page up and page down jump back or on by a second (Recorder.KEY_INTERVAL frames)
+ * @author Dora Su
+ * October 27 2018
+ */
+
+package quadtreecollision;
+
+import javax.swing.JFrame;
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Toolkit;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class Display extends JFrame implements Runnable {
+    //constants
+    private final int WINDOW_WIDTH; //width of frame
+    private final int WINDOW_HEIGHT; //height of frame
+    private static final int FRAMES_PER_SECOND = 60; //frames the render thread aims to draw every second
+    private static final Color BACKGROUND = new Color(30, 30, 30); //colour behind the balls
+    private static final Color HUD_BACKGROUND = new Color(0, 0, 0, 180); //colour behind the stats overlay
+    private static final int HUD_WIDTH = 360; //width of the stats overlay
+    private static final int GRAPH_HEIGHT = 60; //height of the step time graph in the stats overlay
+    private static final double PAN_STEP = 0.125; //part of the window an arrow key pans by
+    private static final double ZOOM_STEP = 1.25; //how much one key press or notch of the mouse wheel zooms by
+
+    private Viewable viewable; //what is being viewed
+    private World world; //world being viewed, null when showing a replay
+    private Replay replay; //replay being viewed, null when showing a live world
+    private Canvas canvas; //canvas to draw the balls on
+    private MyKeyListener keyListener; //keylistener to allow for adding on keypress
+    private BallRenderer renderer; //draws the snapshots, only used on the render thread
+
+    private final AtomicReference<RenderSnapshot> pending = new AtomicReference<>(); //newest snapshot the render thread hasn't picked up yet
+    private volatile boolean rendering; //true while the render thread should keep drawing
+    private volatile Runnable onClose; //run when the window is closed with esc, null if nothing is attached
+    private volatile boolean showStats; //true to draw the stats overlay
+    private volatile Camera camera; //what part of the world is on the screen
+    private volatile boolean moved; //true if the camera has moved since the render thread last copied the world for it
+    private final AtomicInteger seeking = new AtomicInteger(); //frames the replay still has to move by, the render thread seeks
+    private Thread renderThread; //thread that draws the snapshots
+
+    /**
+     *
+     * @param world world to view, the window is the size of the world
+     */
+    public Display(World world) {
+        this(world, world.getWidth(), world.getHeight());
+    }
+
+    /**
+     * @param world world to view, all of it is shown at first
+     * @param width width of the window
+     * @param height height of the window
+     */
+    public Display(World world, int width, int height) {
+        this(world, world, null, width, height);
+    }
+
+    /**
+     * @param replay replay to view, all of it is shown at first
+     * @param width width of the window
+     * @param height height of the window
+     */
+    public Display(Replay replay, int width, int height) {
+        this(replay, null, replay, width, height);
+    }
+
+    /**
+     * @param viewable what to view
+     * @param world viewable if it is a live world, otherwise null
+     * @param replay viewable if it is a replay, otherwise null
+     * @param width width of the window
+     * @param height height of the window
+     */
+    private Display(Viewable viewable, World world, Replay replay, int width, int height) {
+        //initialize variables
+        this.viewable = viewable;
+        this.world = world;
+        this.replay = replay;
+        this.WINDOW_WIDTH = width;
+        this.WINDOW_HEIGHT = height;
+        camera = Camera.fit(viewable.getWidth(), viewable.getHeight(), width, height);
+        canvas = new Canvas();
+        keyListener = new MyKeyListener();
+        renderer = new BallRenderer(WINDOW_WIDTH, WINDOW_HEIGHT, BACKGROUND);
+
+        //the render thread does all of the drawing, so the canvas ignores repaints from the system
+        canvas.setSize(WINDOW_WIDTH, WINDOW_HEIGHT);
+        canvas.setBackground(BACKGROUND);
+        canvas.setIgnoreRepaint(true);
+        canvas.addKeyListener(keyListener); //the canvas has the focus, so it gets the key presses
+        MyMouseListener mouseListener = new MyMouseListener();
+        canvas.addMouseListener(mouseListener);
+        canvas.addMouseMotionListener(mouseListener);
+        canvas.addMouseWheelListener(mouseListener);
+
+        //add components + modify appearance of the frame
+        this.add(canvas); //adds the canvas
+        this.addKeyListener(keyListener); //adds the keylistener
+        this.setDefaultCloseOperation(EXIT_ON_CLOSE); //makes sure the program is aborted when the frame is closed
+        this.setSize(WINDOW_WIDTH, WINDOW_HEIGHT); //set size of frame to sc
+        this.setBackground(BACKGROUND); //set background colour
+        this.setIgnoreRepaint(true);
+        this.setUndecorated(true); //removes the bar at the top to prevent miscalculations
+        this.setLocationRelativeTo(null); //makes it appear in the centre of the screen
+        this.setVisible(true); //makes it visible
+
+        //two buffers: one on screen, one being drawn
+        canvas.createBufferStrategy(2);
+        canvas.requestFocus();
+
+        rendering = true;
+        renderThread = new Thread(this, "render");
+        renderThread.setDaemon(true);
+        renderThread.start();
+    }
+
+    /**
+     * called on the simulation thread after it steps, copies what the camera sees if the render thread has picked up
+     * the last copy, so the simulation never copies more often than the window is drawn
+     */
+    public void publish() {
+        if (pending.get() == null) {
+            pending.set(viewable.snapshot(camera));
+        }
+    }
+
+    /**
+     * moves the camera, the render thread copies the world again for it on its next frame, so the view moves even if
+     * the simulation has stopped and the event thread never waits for a step to finish
+     * @param view the new camera
+     */
+    private void setCamera(Camera view) {
+        camera = view;
+        moved = true;
+    }
+
+    /**
+     * moves the replay by some frames, the render thread seeks and shows the frame on its next frame, even while paused
+     * @param frames frames to move by, less than 0 to go back
+     */
+    private void seek(int frames) {
+        seeking.addAndGet(frames);
+    }
+
+    /**
+     * attaches something to run when the window is closed with esc (e.g. stopping the simulation)
+     * @param onClose callback, or null to detach
+     */
+    public void setOnClose(Runnable onClose) {
+        this.onClose = onClose;
+    }
+
+    /**
+     * the render loop, draws the newest snapshot (or the last one again if there is no newer one) at a steady rate
+     */
+    @Override
+    public void run() {
+        long frameNanos = 1_000_000_000L / FRAMES_PER_SECOND;
+        RenderSnapshot current = null;
+        BufferStrategy strategy = canvas.getBufferStrategy();
+
+        while (rendering) {
+            long start = System.nanoTime();
+            //seeks and camera moves since the last frame, done here so the event thread doesn't wait on the world
+            int frames = seeking.getAndSet(0);
+            if (frames != 0) {
+                replay.seek((int)replay.getSteps() + frames);
+            }
+            if (frames != 0 || moved) {
+                moved = false;
+                pending.set(viewable.snapshot(camera));
+            }
+            RenderSnapshot next = pending.getAndSet(null);
+            if (next != null) {
+                current = next;
+            }
+            if (current != null) {
+                render(strategy, current);
+            }
+
+            //wait until the next frame is due
+            long wait = frameNanos - (System.nanoTime() - start);
+            if (wait > 0) {
+                try {
+                    Thread.sleep(wait / 1_000_000L, (int)(wait % 1_000_000L));
+                } catch (InterruptedException e) {
+                    rendering = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * draws a snapshot into the back buffer and flips it onto the screen, again if the buffer was lost on the way
+     * @param strategy the canvas's buffers
+     * @param snapshot snapshot to draw
+     */
+    private void render(BufferStrategy strategy, RenderSnapshot snapshot) {
+        do {
+            do {
+                Graphics g = strategy.getDrawGraphics();
+                FrameStats stats = world != null ? world.getStats() : null;
+                long start = System.nanoTime();
+                renderer.render(snapshot, g); //covers the whole buffer, so there is nothing to clear first
+                if (stats != null) {
+                    stats.record(FrameStats.Metric.DRAW, System.nanoTime() - start);
+                    if (showStats) {
+                        drawStats(g, stats);
+                    }
+                }
+                g.dispose();
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync(); //push the frame out now on systems that buffer drawing
+    }
+
+    /**
+     * draws the stats overlay in the top left corner: a line per metric and a graph of the time of the recent steps
+     * @param g Graphics object to draw with
+     * @param stats stats to show
+     */
+    private void drawStats(Graphics g, FrameStats stats) {
+        FrameStats.Metric[] metrics = FrameStats.Metric.values();
+        int lineHeight = g.getFontMetrics().getHeight();
+        int height = lineHeight * (metrics.length + 1) + GRAPH_HEIGHT + 20;
+        g.setColor(HUD_BACKGROUND);
+        g.fillRect(0, 0, HUD_WIDTH, height);
+
+        g.setColor(Color.WHITE);
+        int y = lineHeight + 5;
+        g.drawString(String.format("step %d  (mean  p99  max)", stats.getSteps()), 10, y);
+        for (FrameStats.Metric metric : metrics) {
+            y += lineHeight;
+            RollingHistogram histogram = stats.get(metric);
+            if (metric.isTime()) {
+                g.drawString(String.format("%-10s %7.3f %7.3f %7.3f ms", metric.name().toLowerCase(),
+                        histogram.mean() / 1e6, histogram.percentile(99) / 1e6, histogram.max() / 1e6), 10, y);
+            } else {
+                g.drawString(String.format("%-10s %9.1f %8d %8d", metric.name().toLowerCase(),
+                        histogram.mean(), histogram.percentile(99), histogram.max()), 10, y);
+            }
+        }
+
+        //a bar per step of build + search + collide + move, scaled to the slowest step shown
+        long[] build = stats.get(FrameStats.Metric.BUILD).values();
+        long[] search = stats.get(FrameStats.Metric.SEARCH).values();
+        long[] collide = stats.get(FrameStats.Metric.COLLIDE).values();
+        long[] move = stats.get(FrameStats.Metric.MOVE).values();
+        int bars = Math.min(Math.min(build.length, search.length), Math.min(collide.length, move.length));
+        bars = Math.min(bars, HUD_WIDTH - 20);
+        long[] total = new long[bars];
+        long slowest = 1;
+        for (int i = 0; i < bars; i++) {
+            total[i] = build[build.length - bars + i] + search[search.length - bars + i]
+                    + collide[collide.length - bars + i] + move[move.length - bars + i];
+            slowest = Math.max(slowest, total[i]);
+        }
+        int bottom = height - 10;
+        for (int i = 0; i < bars; i++) {
+            int bar = (int)(total[i] * GRAPH_HEIGHT / slowest);
+            g.drawLine(10 + i, bottom, 10 + i, bottom - bar);
+        }
+    }
+
+    /**
+     * stops the render thread and closes the window
+     */
+    private void close() {
+        rendering = false;
+        dispose();
+        Runnable callback = onClose;
+        if (callback != null) {
+            callback.run();
+        }
+    }
+
+    //----------------------------- INNER CLASSES ------------------------------
+
+    /**
+     * private class for the keylistener to check for key presses
+     */
+    private class MyKeyListener implements KeyListener {
+        @Override
+        public void keyTyped(KeyEvent e) {
+        }
+        @Override
+        /**
+         * check for key presses
+         * use presses instead of typed to make adding 10000 balls simpler
+         */
+        public void keyPressed(KeyEvent e) {
+            if (replay != null) {
+                //pause, go back or on a frame, or jump a second
+                switch (e.getKeyCode()) {
+                    case KeyEvent.VK_SPACE: replay.togglePaused(); break;
+                    case KeyEvent.VK_COMMA: seek(-1); break;
+                    case KeyEvent.VK_PERIOD: seek(1); break;
+                    case KeyEvent.VK_PAGE_UP: seek(-Recorder.KEY_INTERVAL); break;
+                    case KeyEvent.VK_PAGE_DOWN: seek(Recorder.KEY_INTERVAL); break;
+                    default: break;
+                }
+            }
+            //add a new ball when space is pressed
+            if (e.getKeyCode() == KeyEvent.VK_SPACE && world != null) {
+                world.addBall();
+            }
+            //show or hide the stats, measuring from now on if the world wasn't being measured
+            if (e.getKeyCode() == KeyEvent.VK_F3 && world != null) {
+                if (world.getStats() == null) {
+                    world.setStats(new FrameStats());
+                }
+                showStats = !showStats;
+            }
+            //pan with the arrow keys, zoom around the middle of the window with + and -, and show everything again with home
+            Camera view = camera;
+            switch (e.getKeyCode()) {
+                case KeyEvent.VK_LEFT: setCamera(view.pan(-WINDOW_WIDTH * PAN_STEP, 0)); break;
+                case KeyEvent.VK_RIGHT: setCamera(view.pan(WINDOW_WIDTH * PAN_STEP, 0)); break;
+                case KeyEvent.VK_UP: setCamera(view.pan(0, -WINDOW_HEIGHT * PAN_STEP)); break;
+                case KeyEvent.VK_DOWN: setCamera(view.pan(0, WINDOW_HEIGHT * PAN_STEP)); break;
+                case KeyEvent.VK_EQUALS:
+                case KeyEvent.VK_PLUS:
+                case KeyEvent.VK_ADD: setCamera(view.zoom(ZOOM_STEP, WINDOW_WIDTH / 2.0, WINDOW_HEIGHT / 2.0)); break;
+                case KeyEvent.VK_MINUS:
+                case KeyEvent.VK_SUBTRACT: setCamera(view.zoom(1 / ZOOM_STEP, WINDOW_WIDTH / 2.0, WINDOW_HEIGHT / 2.0)); break;
+                case KeyEvent.VK_HOME: setCamera(Camera.fit(viewable.getWidth(), viewable.getHeight(), WINDOW_WIDTH, WINDOW_HEIGHT)); break;
+                default: break;
+            }
+            //exit if esc is pressed
+            if (e.getKeyCode() == KeyEvent.VK_ESCAPE) {
+                close();
+            }
+        }
+
+        @Override
+        public void keyReleased(KeyEvent e) {
+        }
+    }
+
+    /**
+     * private class for the mouse, dragging pans the view and the wheel zooms around the pointer
+     */
+    private class MyMouseListener extends MouseAdapter {
+        private int lastX, lastY; //where the pointer was the last time it was pressed or dragged
+
+        @Override
+        public void mousePressed(MouseEvent e) {
+            lastX = e.getX();
+            lastY = e.getY();
+        }
+
+        @Override
+        public void mouseDragged(MouseEvent e) {
+            //the world follows the pointer, so the camera moves the other way
+            setCamera(camera.pan(lastX - e.getX(), lastY - e.getY()));
+            lastX = e.getX();
+            lastY = e.getY();
+        }
+
+        @Override
+        public void mouseWheelMoved(MouseWheelEvent e) {
+            setCamera(camera.zoom(Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation()), e.getX(), e.getY()));
+        }
+    }
+
+}
@@ -0,0 +1,191 @@
+/**
+ * [FrameStats.java]
+ * Measurements of the last few hundred steps of a World: nanoseconds spent in each phase of a step (and drawing it),
+ * how many pairs the broad phase handed out against how many actually touched, how many extra copies of straddling
+ * balls the quadtree holds, and the shape of the tree. Each is kept in a RollingHistogram.
+ * Readable from JConsole (or anything else JMX) once registered, and shown by Display's overlay
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.EnumMap;
+
+public class FrameStats implements FrameStatsMBean {
+    public static final int WINDOW = 600; //steps kept, 10 seconds at 60 steps per second
+    public static final String OBJECT_NAME = "quadtreecollision:type=FrameStats"; //name the stats are registered under
+
+    /**
+     * everything measured, the first five are nanoseconds
+     */
+    public enum Metric {
+        BUILD, //bringing the tree or broad phase up to date: clear, insert and subdivide, or update
+        SEARCH, //finding the pairs that touch
+        COLLIDE, //resolving the pairs that touch
+        MOVE, //moving every ball
+        DRAW, //drawing a snapshot, measured by the Display
+        CANDIDATES, //pairs the broad phase handed out
+        COLLISIONS, //pairs that touched and were collided
+        DUPLICATES, //extra copies of balls stored because they straddle a line
+        NODES, //nodes in the tree
+        DEPTH; //level of the deepest node
+
+        /**
+         * @return true if the metric is measured in nanoseconds
+         */
+        public boolean isTime() {
+            return ordinal() <= DRAW.ordinal();
+        }
+    }
+
+    private final EnumMap<Metric, RollingHistogram> histograms = new EnumMap<>(Metric.class);
+
+    /**
+     * Constructor
+     */
+    public FrameStats() {
+        for (Metric metric : Metric.values()) {
+            histograms.put(metric, new RollingHistogram(WINDOW));
+        }
+    }
+
+    /**
+     * adds one step's value of a metric
+     * @param metric what was measured
+     * @param value the value, nanoseconds for times
+     */
+    public void record(Metric metric, long value) {
+        histograms.get(metric).add(value);
+    }
+
+    /**
+     * @param metric what was measured
+     * @return the newest values of the metric
+     */
+    public RollingHistogram get(Metric metric) {
+        return histograms.get(metric);
+    }
+
+    /**
+     * registers the stats with the platform MBean server so they can be read over JMX
+     * @throws IllegalStateException if stats are already registered under the same name
+     */
+    public void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            throw new IllegalStateException("could not register " + OBJECT_NAME, e);
+        }
+    }
+
+    /**
+     * a line per metric with its mean, 99th percentile and largest value over the window, times in milliseconds
+     * @return the summary
+     */
+    @Override
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder();
+        for (Metric metric : Metric.values()) {
+            RollingHistogram histogram = histograms.get(metric);
+            if (metric.isTime()) {
+                summary.append(String.format("%-10s mean %8.3f ms  p99 %8.3f ms  max %8.3f ms%n", metric.name().toLowerCase(),
+                        histogram.mean() / 1e6, histogram.percentile(99) / 1e6, histogram.max() / 1e6));
+            } else {
+                summary.append(String.format("%-10s mean %11.1f  p99 %11d  max %11d%n", metric.name().toLowerCase(),
+                        histogram.mean(), histogram.percentile(99), histogram.max()));
+            }
+        }
+        return summary.toString();
+    }
+
+    @Override
+    public long getSteps() {
+        return histograms.get(Metric.MOVE).getTotal();
+    }
+
+    @Override
+    public double getMean(String metric) {
+        return histograms.get(metric(metric)).mean();
+    }
+
+    @Override
+    public long getPercentile(String metric, double percent) {
+        return histograms.get(metric(metric)).percentile(percent);
+    }
+
+    @Override
+    public String getHistogram(String metric) {
+        return Arrays.toString(histograms.get(metric(metric)).buckets());
+    }
+
+    @Override
+    public void reset() {
+        for (RollingHistogram histogram : histograms.values()) {
+            histogram.clear();
+        }
+    }
+
+    @Override
+    public double getBuildMillis() {
+        return histograms.get(Metric.BUILD).mean() / 1e6;
+    }
+
+    @Override
+    public double getSearchMillis() {
+        return histograms.get(Metric.SEARCH).mean() / 1e6;
+    }
+
+    @Override
+    public double getCollideMillis() {
+        return histograms.get(Metric.COLLIDE).mean() / 1e6;
+    }
+
+    @Override
+    public double getMoveMillis() {
+        return histograms.get(Metric.MOVE).mean() / 1e6;
+    }
+
+    @Override
+    public double getDrawMillis() {
+        return histograms.get(Metric.DRAW).mean() / 1e6;
+    }
+
+    @Override
+    public double getCandidatePairs() {
+        return histograms.get(Metric.CANDIDATES).mean();
+    }
+
+    @Override
+    public double getCollisions() {
+        return histograms.get(Metric.COLLISIONS).mean();
+    }
+
+    @Override
+    public double getDuplicateInsertions() {
+        return histograms.get(Metric.DUPLICATES).mean();
+    }
+
+    @Override
+    public long getNodeCount() {
+        return histograms.get(Metric.NODES).last();
+    }
+
+    @Override
+    public long getMaxDepth() {
+        return histograms.get(Metric.DEPTH).last();
+    }
+
+    /**
+     * @param name name of a metric in any case, e.g. build or CANDIDATES
+     * @return the metric
+     * @throws IllegalArgumentException if there is no metric with that name
+     */
+    private static Metric metric(String name) {
+        return Metric.valueOf(name.toUpperCase());
+    }
+}
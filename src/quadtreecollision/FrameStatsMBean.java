@@ -0,0 +1,65 @@
+/**
+ * [FrameStatsMBean.java]
+ * What FrameStats shows over JMX. Times are means over the last FrameStats.WINDOW steps in milliseconds,
+ * counts are means per step over the same window, the tree's shape is as of the last step
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+public interface FrameStatsMBean {
+    /**
+     * @return number of steps measured since the stats were created or reset
+     */
+    long getSteps();
+
+    double getBuildMillis();
+
+    double getSearchMillis();
+
+    double getCollideMillis();
+
+    double getMoveMillis();
+
+    double getDrawMillis();
+
+    double getCandidatePairs();
+
+    double getCollisions();
+
+    double getDuplicateInsertions();
+
+    long getNodeCount();
+
+    long getMaxDepth();
+
+    /**
+     * @return every metric's mean, 99th percentile and largest value, one per line
+     */
+    String getSummary();
+
+    /**
+     * @param metric name of a metric, e.g. build or candidates
+     * @return mean of the metric over the window, nanoseconds for times
+     */
+    double getMean(String metric);
+
+    /**
+     * @param metric name of a metric, e.g. build or candidates
+     * @param percent percentile to find, from 0 to 100
+     * @return the percentile of the metric over the window, nanoseconds for times
+     */
+    long getPercentile(String metric, double percent);
+
+    /**
+     * @param metric name of a metric, e.g. build or candidates
+     * @return counts of the metric's values in power of two buckets, see RollingHistogram.buckets()
+     */
+    String getHistogram(String metric);
+
+    /**
+     * forgets every value measured so far
+     */
+    void reset();
+}
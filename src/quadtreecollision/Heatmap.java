@@ -0,0 +1,73 @@
+/**
+ * [Heatmap.java]
+ * How many balls are in each square tile of the screen, for drawing a world that is zoomed out so far that the balls
+ * would only be a pixel or two across. Drawing it costs the same however many balls there are
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+public class Heatmap {
+    private final Camera camera; //camera the tiles line up with
+    private final int tile; //side of a tile in pixels
+    private final int columns, rows; //tiles across and down the screen
+    private final int[] counts; //balls whose centre is in each tile, row by row
+    private int max; //most balls in one tile
+
+    /**
+     * Constructor, an empty heatmap
+     * @param camera camera to line the tiles up with
+     * @param tile side of a tile in pixels
+     */
+    public Heatmap(Camera camera, int tile) {
+        this.camera = camera;
+        this.tile = tile;
+        columns = (camera.getScreenWidth() + tile - 1) / tile;
+        rows = (camera.getScreenHeight() + tile - 1) / tile;
+        counts = new int[columns * rows];
+    }
+
+    /**
+     * counts a ball in the tile its centre is in, balls off the screen are left out
+     * @param x x coordinate of the centre in the world
+     * @param y y coordinate of the centre in the world
+     */
+    public void add(double x, double y) {
+        double sx = camera.toScreenX(x), sy = camera.toScreenY(y);
+        if (sx < 0 || sy < 0) {
+            return;
+        }
+        int column = (int)(sx / tile), row = (int)(sy / tile);
+        if (column >= columns || row >= rows) {
+            return;
+        }
+        int count = ++counts[row * columns + column];
+        max = Math.max(max, count);
+    }
+
+    /**
+     * @param column column of a tile
+     * @param row row of a tile
+     * @return balls counted in it
+     */
+    public int getCount(int column, int row) {
+        return counts[row * columns + column];
+    }
+
+    public int getTile() {
+        return tile;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getMax() {
+        return max;
+    }
+}
@@ -0,0 +1,291 @@
+/**
+ * [IndexQuadTree.java]
+ * A quad tree over the balls of a BallStore that stores ball indices instead of objects.
+ * Nodes are rows in flat arrays and each node's balls are kept in an int array, all of which is reused when the tree
+ * is cleared, so rebuilding it every step allocates nothing once it has grown to size.
+ * Splits and collides exactly like QuadTree, a ball that straddles a line is put in every node it overlaps
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.util.Arrays;
+
+public class IndexQuadTree {
+    //max value of balls in one node and max subdivisions, it is constant
+    private final int MAX_OBJECTS;
+    private final int MAX_SUBDIVISION;
+
+    private final BallStore balls; //balls the indices refer to
+
+    //one entry per node, node 0 is the root and the four children of a node are next to each other
+    private int nodeCount; //number of nodes in use
+    private int[] x, y, w, h; //boundaries of each node
+    private int[] level; //level of subdivision of each node
+    private int[] firstChild; //index of each node's first child, -1 if it is not subdivided
+    private int[][] buckets; //indices of the balls in each node
+    private int[] bucketSize; //number of balls in each node
+    private final NarrowPhase narrow = new NarrowPhase(); //finds the touching pairs of a leaf
+    private final Pairs collider; //collides the pairs collisionCheck() finds
+
+    /**
+     * Constructor
+     * @param balls balls the tree holds the indices of
+     * @param x x coordinate of the root's top-left corner
+     * @param y y coordinate of the root's top-left corner
+     * @param w width of the root
+     * @param h height of the root
+     * @param MAX_OBJECTS maximum amount of balls that can be stored in a node before it subdivides
+     * @param MAX_SUBDIVISION maximum amount of levels that the entire root tree can divide into
+     */
+    public IndexQuadTree(BallStore balls, int x, int y, int w, int h, int MAX_OBJECTS, int MAX_SUBDIVISION) {
+        this.balls = balls;
+        collider = balls::collide;
+        this.MAX_OBJECTS = MAX_OBJECTS;
+        this.MAX_SUBDIVISION = MAX_SUBDIVISION;
+
+        int capacity = 64;
+        this.x = new int[capacity];
+        this.y = new int[capacity];
+        this.w = new int[capacity];
+        this.h = new int[capacity];
+        level = new int[capacity];
+        firstChild = new int[capacity];
+        buckets = new int[capacity][];
+        bucketSize = new int[capacity];
+
+        //the root
+        this.x[0] = x;
+        this.y[0] = y;
+        this.w[0] = w;
+        this.h[0] = h;
+        level[0] = 1;
+        firstChild[0] = -1;
+        buckets[0] = new int[MAX_OBJECTS + 1];
+        nodeCount = 1;
+    }
+
+    /**
+     * empties the tree, keeping the arrays for the next build
+     */
+    public void clear() {
+        for (int i = 0; i < nodeCount; i++) {
+            bucketSize[i] = 0;
+        }
+        firstChild[0] = -1;
+        nodeCount = 1;
+    }
+
+    /**
+     * inserts every ball of the store, in index order
+     */
+    public void insertAll() {
+        for (int i = 0; i < balls.size(); i++) {
+            insert(i);
+        }
+    }
+
+    /**
+     * inserts one ball into every leaf it overlaps
+     * @param ball index of the ball
+     */
+    public void insert(int ball) {
+        double r = balls.getRadius(ball);
+        double cx = balls.getPosX(ball);
+        double cy = balls.getPosY(ball);
+        //if ball is not in the boundaries of the root, don't insert it
+        if (overlaps(0, cx - r, cy - r, cx + r, cy + r)) {
+            insert(0, ball, cx - r, cy - r, cx + r, cy + r);
+        }
+    }
+
+    /**
+     * recursive method to insert a ball below a node it overlaps
+     * the ball's box is worked out once and passed down, and children it doesn't overlap are skipped before
+     * calling into them, which keeps the recursion to the nodes the ball actually ends up in
+     * @param node index of the node
+     * @param ball index of the ball
+     * @param minX left edge of the ball
+     * @param minY top edge of the ball
+     * @param maxX right edge of the ball
+     * @param maxY bottom edge of the ball
+     */
+    private void insert(int node, int ball, double minX, double minY, double maxX, double maxY) {
+        if (firstChild[node] < 0) {
+            //room left, or it can't subdivide any further
+            if (bucketSize[node] < MAX_OBJECTS || level[node] == MAX_SUBDIVISION) {
+                add(node, ball);
+                return;
+            }
+            subdivide(node);
+        }
+
+        int child = firstChild[node];
+        for (int i = child; i < child + 4; i++) {
+            if (overlaps(i, minX, minY, maxX, maxY)) {
+                insert(i, ball, minX, minY, maxX, maxY);
+            }
+        }
+    }
+
+    /**
+     * @return true if a box overlaps the boundaries of a node (edges included, like QuadTree)
+     */
+    private boolean overlaps(int node, double minX, double minY, double maxX, double maxY) {
+        return maxX >= x[node] && minX <= x[node] + w[node] && maxY >= y[node] && minY <= y[node] + h[node];
+    }
+
+    /**
+     * adds a ball to a node's bucket
+     */
+    private void add(int node, int ball) {
+        int[] bucket = buckets[node];
+        if (bucketSize[node] == bucket.length) {
+            bucket = Arrays.copyOf(bucket, bucket.length * 2);
+            buckets[node] = bucket;
+        }
+        bucket[bucketSize[node]++] = ball;
+    }
+
+    /**
+     * splits a node into four and hands its balls to them, the same order and halving as QuadTree.subdivide()
+     * @param node index of the node
+     */
+    private void subdivide(int node) {
+        if (nodeCount + 4 > x.length) {
+            grow();
+        }
+        int child = nodeCount;
+        nodeCount += 4;
+        firstChild[node] = child;
+
+        //the east and south halves get the odd pixel, like QuadTree
+        int nx = x[node], ny = y[node], hw = w[node] / 2, hh = h[node] / 2, ew = w[node] - hw, sh = h[node] - hh;
+        setNode(child, nx + hw, ny, ew, hh, level[node] + 1); //northeast corner
+        setNode(child + 1, nx, ny, hw, hh, level[node] + 1); //northwest corner
+        setNode(child + 2, nx, ny + hh, hw, sh, level[node] + 1); //southwest corner
+        setNode(child + 3, nx + hw, ny + hh, ew, sh, level[node] + 1); //southeast corner
+
+        //distribute the balls of this node to its children, then empty it
+        int[] bucket = buckets[node];
+        int size = bucketSize[node];
+        bucketSize[node] = 0;
+        for (int i = 0; i < size; i++) {
+            int ball = bucket[i];
+            double r = balls.getRadius(ball);
+            double cx = balls.getPosX(ball);
+            double cy = balls.getPosY(ball);
+            for (int c = child; c < child + 4; c++) {
+                if (overlaps(c, cx - r, cy - r, cx + r, cy + r)) {
+                    insert(c, ball, cx - r, cy - r, cx + r, cy + r);
+                }
+            }
+        }
+    }
+
+    /**
+     * fills in a node's row, reusing its bucket if it had one before
+     */
+    private void setNode(int node, int nx, int ny, int nw, int nh, int nodeLevel) {
+        x[node] = nx;
+        y[node] = ny;
+        w[node] = nw;
+        h[node] = nh;
+        level[node] = nodeLevel;
+        firstChild[node] = -1;
+        bucketSize[node] = 0;
+        if (buckets[node] == null) {
+            buckets[node] = new int[MAX_OBJECTS + 1];
+        }
+    }
+
+    /**
+     * doubles the room for nodes
+     */
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        w = Arrays.copyOf(w, capacity);
+        h = Arrays.copyOf(h, capacity);
+        level = Arrays.copyOf(level, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        buckets = Arrays.copyOf(buckets, capacity);
+        bucketSize = Arrays.copyOf(bucketSize, capacity);
+    }
+
+    /**
+     * something that is handed pairs of balls
+     */
+    public interface Pairs {
+        /**
+         * @param a index of one ball
+         * @param b index of the other ball, a ball the leaf got after a
+         */
+        void accept(int a, int b);
+    }
+
+    /**
+     * checks every pair of balls that share a leaf, leaves are visited in the same order as QuadTree.collisionCheck()
+     */
+    public void collisionCheck() {
+        findContacts(0, collider);
+    }
+
+    /**
+     * hands every pair of touching balls that share a leaf to a consumer, in the order collisionCheck() collides them.
+     * A pair that shares more than one leaf is handed out once per leaf
+     * @param pairs consumer to hand the pairs to
+     */
+    public void findContacts(Pairs pairs) {
+        findContacts(0, pairs);
+    }
+
+    /**
+     * recursive method to find the touching pairs below a node
+     * @param node index of the node
+     * @param pairs consumer to hand the pairs to
+     */
+    private void findContacts(int node, Pairs pairs) {
+        int child = firstChild[node];
+        if (child >= 0) {
+            for (int i = 0; i < 4; i++) {
+                findContacts(child + i, pairs);
+            }
+            return;
+        }
+        int[] bucket = buckets[node];
+        int size = bucketSize[node];
+        if (size < 2) {
+            return;
+        }
+        //find the touching pairs of the leaf in a batch, then hand out only those, in the same order
+        narrow.clear();
+        for (int i = 0; i < size; i++) {
+            narrow.add(balls.getPosX(bucket[i]), balls.getPosY(bucket[i]), balls.getRadius(bucket[i]));
+        }
+        int touching = narrow.findPairs();
+        for (int p = 0; p < touching; p++) {
+            pairs.accept(bucket[narrow.getFirst(p)], bucket[narrow.getSecond(p)]);
+        }
+    }
+
+    /**
+     * draws the lines of every node except the root
+     * @param g Graphics object to draw with
+     */
+    public void draw(Graphics g) {
+        g.setColor(Color.WHITE);
+        for (int i = 1; i < nodeCount; i++) {
+            g.drawLine(x[i], y[i], x[i] + w[i], y[i]);
+            g.drawLine(x[i], y[i], x[i], y[i] + h[i]);
+        }
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+}
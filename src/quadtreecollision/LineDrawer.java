@@ -0,0 +1,20 @@
+/**
+ * [LineDrawer.java]
+ * Something that takes straight lines, used by the trees and grids to hand out their outlines without needing a screen.
+ * Graphics::drawLine is one, RenderSnapshot records them to draw later
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+public interface LineDrawer {
+    /**
+     * takes a line between two points
+     * @param x1 x coordinate of the first point
+     * @param y1 y coordinate of the first point
+     * @param x2 x coordinate of the second point
+     * @param y2 y coordinate of the second point
+     */
+    void drawLine(int x1, int y1, int x2, int y2);
+}
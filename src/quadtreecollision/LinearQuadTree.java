@@ -0,0 +1,354 @@
+/**
+ * [LinearQuadTree.java]
+ * A quad tree that is bulk loaded from a list of balls every step instead of having balls inserted one at a time.
+ * Each ball's centre is turned into a Z-order (Morton) code, the codes are radix sorted, and every node is a
+ * contiguous range of the sorted balls, so a node splits by finding where the next two bits of the code change.
+ * Nodes are rows in flat arrays (no node objects) and the centres and radii are copied next to each other in sorted
+ * order, so finding collisions is a scan over arrays. Each ball is in exactly one leaf, and neighbours in other
+ * leaves are found by checking leaves whose balls could reach it, so each touching pair is collided exactly once
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+public class LinearQuadTree<T extends BouncingBall> implements BroadPhase<T> {
+    private static final int BITS = 16; //bits of each coordinate in a morton code, so at most BITS + 1 levels
+    private static final int RADIX = 8; //bits sorted in each pass of the radix sort
+
+    //max value of balls in one leaf and max subdivisions, it is constant
+    private final int MAX_OBJECTS;
+    private final int MAX_SUBDIVISION;
+
+    //boundaries of the root, the codes are worked out relative to it
+    private final double x, y, w, h;
+
+    //balls in morton order, and their centres and radii in the same order
+    private int count;
+    private Object[] sorted = new Object[0];
+    private double[] cx = new double[0], cy = new double[0], r = new double[0];
+    private long[] keys = new long[0], scratch = new long[0]; //morton code in the high 32 bits, index in the list in the low 32 bits
+    private final int[] counts = new int[1 << RADIX]; //keys per digit in a pass of the radix sort
+
+    //one entry per node, node 0 is the root and the four children of a node are next to each other in Z order (nw, ne, sw, se)
+    private int nodeCount;
+    private int[] lo = new int[64], hi = new int[64]; //range of sorted balls below each node
+    private int[] level = new int[64]; //level of subdivision of each node
+    private int[] firstChild = new int[64]; //index of each node's first child, -1 if it is a leaf
+    private double[] minX = new double[64], minY = new double[64], maxX = new double[64], maxY = new double[64]; //box around the centres below each node
+    private double[] maxR = new double[64]; //largest radius below each node
+    private double[] cellX = new double[64], cellY = new double[64], cellW = new double[64], cellH = new double[64]; //area each node covers, for drawing
+
+    /**
+     * Constructor
+     * @param x x coordinate of the root's top-left corner
+     * @param y y coordinate of the root's top-left corner
+     * @param w width of the root
+     * @param h height of the root
+     * @param MAX_OBJECTS maximum amount of balls in a leaf before it is split
+     * @param MAX_SUBDIVISION maximum amount of levels the tree can have, at most 17
+     */
+    public LinearQuadTree(double x, double y, double w, double h, int MAX_OBJECTS, int MAX_SUBDIVISION) {
+        this.x = x;
+        this.y = y;
+        this.w = w;
+        this.h = h;
+        this.MAX_OBJECTS = MAX_OBJECTS;
+        this.MAX_SUBDIVISION = MAX_SUBDIVISION;
+    }
+
+    /**
+     * throws away the old tree and builds a new one holding every ball in the list
+     * balls outside the root are put in the nearest edge cell, so none are left out
+     * @param balls balls to build the tree from
+     */
+    @Override
+    public void build(List<? extends T> balls) {
+        count = balls.size();
+        if (keys.length < count) {
+            int capacity = Math.max(count, keys.length * 2);
+            keys = new long[capacity];
+            scratch = new long[capacity];
+            sorted = new Object[capacity];
+            cx = new double[capacity];
+            cy = new double[capacity];
+            r = new double[capacity];
+        }
+
+        for (int i = 0; i < count; i++) {
+            BouncingBall b = balls.get(i);
+            keys[i] = morton(b.getPosX(), b.getPosY()) << 32 | i;
+        }
+        radixSort();
+
+        //copy the balls out in sorted order, the old ones past count are let go
+        for (int i = 0; i < count; i++) {
+            T b = balls.get((int)keys[i]);
+            sorted[i] = b;
+            cx[i] = b.getPosX();
+            cy[i] = b.getPosY();
+            r[i] = b.getRadius();
+        }
+        Arrays.fill(sorted, count, sorted.length, null);
+
+        nodeCount = 1;
+        build(0, 0, count, 1, x, y, w, h);
+    }
+
+    /**
+     * @return the Z order code of a point, the bits of its column and row in a 2^BITS by 2^BITS grid interleaved
+     */
+    private long morton(double px, double py) {
+        return spread(cell((px - x) / w)) | spread(cell((py - y) / h)) << 1;
+    }
+
+    /**
+     * @return the column (or row) of a fraction of the root's width (or height), clamped to the grid
+     */
+    private static int cell(double fraction) {
+        int c = (int)(fraction * (1 << BITS));
+        return Math.max(0, Math.min((1 << BITS) - 1, c));
+    }
+
+    /**
+     * @return the bits of a 16 bit number spread out so there is a zero between each of them
+     */
+    private static long spread(int v) {
+        long s = v & 0xFFFF;
+        s = (s | (s << 8)) & 0x00FF00FFL;
+        s = (s | (s << 4)) & 0x0F0F0F0FL;
+        s = (s | (s << 2)) & 0x33333333L;
+        s = (s | (s << 1)) & 0x55555555L;
+        return s;
+    }
+
+    /**
+     * sorts the keys by their code, least significant digit first. Each pass is stable and the indices start out in
+     * order, so balls with the same code stay in list order and only the code half of the key needs sorting
+     */
+    private void radixSort() {
+        long[] from = keys, to = scratch;
+        for (int shift = 32; shift < 64; shift += RADIX) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < count; i++) {
+                counts[(int)(from[i] >>> shift) & ((1 << RADIX) - 1)]++;
+            }
+            //every key has the same digit, nothing to move
+            if (count == 0 || counts[(int)(from[0] >>> shift) & ((1 << RADIX) - 1)] == count) {
+                continue;
+            }
+            int total = 0;
+            for (int d = 0; d < counts.length; d++) {
+                int c = counts[d];
+                counts[d] = total;
+                total += c;
+            }
+            for (int i = 0; i < count; i++) {
+                to[counts[(int)(from[i] >>> shift) & ((1 << RADIX) - 1)]++] = from[i];
+            }
+            long[] temp = from;
+            from = to;
+            to = temp;
+        }
+        keys = from;
+        scratch = to;
+    }
+
+    /**
+     * recursive method to build a node over a range of sorted balls, splitting it while it holds too many
+     * @param node index of the node
+     * @param start first sorted ball in the node
+     * @param end one past the last sorted ball in the node
+     * @param nodeLevel level of subdivision of the node
+     */
+    private void build(int node, int start, int end, int nodeLevel, double nx, double ny, double nw, double nh) {
+        lo[node] = start;
+        hi[node] = end;
+        level[node] = nodeLevel;
+        cellX[node] = nx;
+        cellY[node] = ny;
+        cellW[node] = nw;
+        cellH[node] = nh;
+
+        //few enough balls, or it can't subdivide any further
+        if (end - start <= MAX_OBJECTS || nodeLevel >= MAX_SUBDIVISION || nodeLevel > BITS) {
+            firstChild[node] = -1;
+            fitLeaf(node);
+            return;
+        }
+
+        if (nodeCount + 4 > lo.length) {
+            grow();
+        }
+        int child = nodeCount;
+        nodeCount += 4;
+        firstChild[node] = child;
+
+        //the children's ranges follow each other, each one ends where the next two bits of the code change
+        int shift = 32 + 2 * (BITS - nodeLevel);
+        double hw = nw / 2, hh = nh / 2;
+        int from = start;
+        for (int q = 0; q < 4; q++) {
+            int to = from;
+            while (to < end && ((keys[to] >>> shift) & 3) == q) {
+                to++;
+            }
+            build(child + q, from, to, nodeLevel + 1, nx + (q & 1) * hw, ny + (q >> 1) * hh, hw, hh);
+            from = to;
+        }
+
+        //a parent's box covers its children's boxes
+        minX[node] = Double.POSITIVE_INFINITY;
+        minY[node] = Double.POSITIVE_INFINITY;
+        maxX[node] = Double.NEGATIVE_INFINITY;
+        maxY[node] = Double.NEGATIVE_INFINITY;
+        maxR[node] = 0;
+        for (int c = child; c < child + 4; c++) {
+            minX[node] = Math.min(minX[node], minX[c]);
+            minY[node] = Math.min(minY[node], minY[c]);
+            maxX[node] = Math.max(maxX[node], maxX[c]);
+            maxY[node] = Math.max(maxY[node], maxY[c]);
+            maxR[node] = Math.max(maxR[node], maxR[c]);
+        }
+    }
+
+    /**
+     * works out the box around the centres of a leaf's balls and its largest radius, empty leaves get an empty box
+     * the box is measured from the balls, not the cell, so balls outside the root are still found
+     */
+    private void fitLeaf(int node) {
+        double x0 = Double.POSITIVE_INFINITY, y0 = Double.POSITIVE_INFINITY;
+        double x1 = Double.NEGATIVE_INFINITY, y1 = Double.NEGATIVE_INFINITY;
+        double radius = 0;
+        for (int i = lo[node]; i < hi[node]; i++) {
+            x0 = Math.min(x0, cx[i]);
+            y0 = Math.min(y0, cy[i]);
+            x1 = Math.max(x1, cx[i]);
+            y1 = Math.max(y1, cy[i]);
+            radius = Math.max(radius, r[i]);
+        }
+        minX[node] = x0;
+        minY[node] = y0;
+        maxX[node] = x1;
+        maxY[node] = y1;
+        maxR[node] = radius;
+    }
+
+    /**
+     * doubles the room for nodes
+     */
+    private void grow() {
+        int capacity = lo.length * 2;
+        lo = Arrays.copyOf(lo, capacity);
+        hi = Arrays.copyOf(hi, capacity);
+        level = Arrays.copyOf(level, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        minX = Arrays.copyOf(minX, capacity);
+        minY = Arrays.copyOf(minY, capacity);
+        maxX = Arrays.copyOf(maxX, capacity);
+        maxY = Arrays.copyOf(maxY, capacity);
+        maxR = Arrays.copyOf(maxR, capacity);
+        cellX = Arrays.copyOf(cellX, capacity);
+        cellY = Arrays.copyOf(cellY, capacity);
+        cellW = Arrays.copyOf(cellW, capacity);
+        cellH = Arrays.copyOf(cellH, capacity);
+    }
+
+    /**
+     * collides every pair of touching balls once
+     */
+    public void collisionCheck() {
+        findPairs(BouncingBall::collide);
+    }
+
+    /**
+     * hands out each pair of balls whose boxes overlap exactly once. Each leaf is checked against itself and against the
+     * leaves after it in Z order that its balls could reach, so a pair is only ever found from the leaf of the ball that sorts first
+     * @param pairs consumer to hand the pairs to
+     */
+    @Override
+    public void findPairs(BiConsumer<? super T, ? super T> pairs) {
+        for (int node = 0; node < nodeCount; node++) {
+            if (firstChild[node] < 0 && hi[node] > lo[node]) {
+                findPairs(node, 0, pairs);
+            }
+        }
+    }
+
+    /**
+     * recursive method to check one leaf against the leaves below a node
+     * @param leaf index of the leaf whose balls are checked
+     * @param node index of the node to look below
+     * @param pairs consumer to hand the pairs to
+     */
+    @SuppressWarnings("unchecked")
+    private void findPairs(int leaf, int node, BiConsumer<? super T, ? super T> pairs) {
+        //empty, or every ball below it sorts before the leaf's balls
+        if (hi[node] <= lo[leaf] || hi[node] == lo[node]) {
+            return;
+        }
+        //too far away for any of the balls to touch
+        double reach = maxR[leaf] + maxR[node];
+        if (minX[node] - reach > maxX[leaf] || maxX[node] + reach < minX[leaf]
+                || minY[node] - reach > maxY[leaf] || maxY[node] + reach < minY[leaf]) {
+            return;
+        }
+
+        int child = firstChild[node];
+        if (child >= 0) {
+            for (int c = child; c < child + 4; c++) {
+                findPairs(leaf, c, pairs);
+            }
+            return;
+        }
+
+        for (int i = lo[leaf]; i < hi[leaf]; i++) {
+            //within the leaf only pairs after i, any other leaf here sorts entirely after the leaf
+            for (int j = node == leaf ? i + 1 : lo[node]; j < hi[node]; j++) {
+                double touching = r[i] + r[j];
+                if (Math.abs(cx[j] - cx[i]) <= touching && Math.abs(cy[j] - cy[i]) <= touching) {
+                    pairs.accept((T)sorted[i], (T)sorted[j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * hands out the lines of every node except the root
+     * @param lines where to send the lines
+     */
+    @Override
+    public void outline(LineDrawer lines) {
+        for (int i = 1; i < nodeCount; i++) {
+            int nx = (int)cellX[i], ny = (int)cellY[i];
+            lines.drawLine(nx, ny, (int)(cellX[i] + cellW[i]), ny);
+            lines.drawLine(nx, ny, nx, (int)(cellY[i] + cellH[i]));
+        }
+    }
+
+    /**
+     * @return number of balls in the tree
+     */
+    public int size() {
+        return count;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return level of the deepest node
+     */
+    public int getMaxDepth() {
+        int depth = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            depth = Math.max(depth, level[i]);
+        }
+        return depth;
+    }
+}
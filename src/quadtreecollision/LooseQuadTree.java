@@ -0,0 +1,546 @@
+/**
+ * [LooseQuadTree.java]
+ * A loose quad tree: each node's boundaries are stretched by half its size on every side, so every ball can be stored
+ * in exactly one node, picked by its centre and its radius. Unlike QuadTree a ball that straddles a line is never copied
+ * into several nodes, so no pair of balls is checked twice, and balls of very different sizes can share the tree
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.util.ArrayList;
+import java.util.function.BiConsumer;
+
+public class LooseQuadTree<T extends BouncingBall> {
+    //max value of objects in one node and max subdivisions, it is constant
+    private final int MAX_OBJECTS;
+    private final int MAX_SUBDIVISION;
+
+    private ArrayList<T> objects; //arraylist that stores the balls that belong to this node
+    private LooseQuadTree<T>[] nodes; //array that represents the quadtree's nodes (children), kept (empty) when it stops being subdivided
+    private LooseQuadTree<T> parent; //node this one was subdivided from, null for the root
+
+    private boolean isSubdivided; //true if the quad is subdivided
+    private int count; //number of balls in this node and every node below it
+
+    private int level; //level of subdivision
+    private double w, h; //width and height of the (tight) rectangle
+    private double x, y; //coordinates of the (tight) rectangle's top-left corner
+
+    //lists update() and clearMoving() fill in every step, kept on the root so they are only allocated once
+    private ArrayList<T> moved;
+    private ArrayList<LooseQuadTree<T>> movedFrom;
+
+    /**
+     * Constructor
+     * @param level level of subdivision (depth)
+     * @param x x coordinate of the quad's top-left corner
+     * @param y y coordinate of the quad's top-left corner
+     * @param w width of the quad
+     * @param h height of the quad
+     * @param MAX_OBJECTS maximum amount of objects that can be stored in a node before it subdivides
+     * @param MAX_SUBDIVISION maximum amount of levels that the entire root tree can divide into
+     */
+    @SuppressWarnings("unchecked")
+    public LooseQuadTree(int level, double x, double y, double w, double h, int MAX_OBJECTS, int MAX_SUBDIVISION) {
+        //initialize variables
+        this.MAX_OBJECTS = MAX_OBJECTS;
+        this.MAX_SUBDIVISION = MAX_SUBDIVISION;
+        this.level = level;
+        this.x = x;
+        this.y = y;
+        this.w = w;
+        this.h = h;
+        nodes = (LooseQuadTree<T>[])new LooseQuadTree<?>[4];
+        objects = new ArrayList<>();
+    }
+
+    /**
+     * a recursive method to clear the quadtree, its nodes are emptied but kept for the next subdivide()
+     */
+    public void clear() {
+        objects.clear();
+        releaseChildren();
+        count = 0;
+    }
+
+    /**
+     * empties the children and leaves this node as a leaf, the children are kept for the next subdivide()
+     * the children of a node that isn't subdivided are already empty
+     */
+    private void releaseChildren() {
+        if (isSubdivided) {
+            for (LooseQuadTree<T> node : nodes) {
+                node.clear();
+            }
+        }
+        isSubdivided = false;
+    }
+
+    /**
+     * a method to insert a ball into the one node it belongs to
+     * a ball whose centre is outside the root stays in the root, so nothing is ever dropped
+     * inserting the same ball twice stores it twice, there is no check for it
+     * @param b ball to be inserted
+     */
+    public void insert(T b) {
+        count++;
+
+        //go down to the child that fits the ball if there is one, otherwise it belongs here
+        if (isSubdivided) {
+            LooseQuadTree<T> node = childFor(b);
+            if (node != null) {
+                node.insert(b);
+                return;
+            }
+        }
+        objects.add(b);
+
+        //too many balls here, so split and push down the ones that fit
+        if (!isSubdivided && objects.size() > MAX_OBJECTS && level < MAX_SUBDIVISION) {
+            subdivide();
+        }
+    }
+
+    /**
+     * a method to subdivide the tree into more quads and push each ball down into the child that fits it, if any
+     */
+    public void subdivide() {
+        //initialize each of the new nodes, each has dimensions of half the height and half the width
+        //the nodes from an earlier subdivide() are reused, they cover the same quads and were emptied when this node was cleared or merged
+        if (nodes[0] == null) {
+            nodes[0] = new LooseQuadTree<>(level + 1, x + w / 2, y, w / 2, h / 2, MAX_OBJECTS, MAX_SUBDIVISION); //northeast corner
+            nodes[1] = new LooseQuadTree<>(level + 1, x, y, w / 2, h / 2, MAX_OBJECTS, MAX_SUBDIVISION); //northwest corner
+            nodes[2] = new LooseQuadTree<>(level + 1, x, y + h / 2, w / 2, h / 2, MAX_OBJECTS, MAX_SUBDIVISION); //southwest corner
+            nodes[3] = new LooseQuadTree<>(level + 1, x + w / 2, y + h / 2, w / 2, h / 2, MAX_OBJECTS, MAX_SUBDIVISION); //southeast corner
+            for (LooseQuadTree<T> node : nodes) {
+                node.parent = this;
+            }
+        }
+        isSubdivided = true;
+
+        //balls that are too big for the children stay here, packed to the front of the list
+        int staying = 0;
+        for (int i = 0; i < objects.size(); i++) {
+            T o = objects.get(i);
+            LooseQuadTree<T> node = childFor(o);
+            if (node != null) {
+                node.insert(o);
+            } else {
+                objects.set(staying++, o);
+            }
+        }
+        while (objects.size() > staying) {
+            objects.remove(objects.size() - 1);
+        }
+    }
+
+    /**
+     * a method to remove a ball from the tree
+     * looks where the ball is now first, and searches the whole tree if it has moved since it was inserted
+     * @param b ball to be removed
+     * @return true if the ball was found (and removed)
+     */
+    public boolean remove(T b) {
+        //follow the path the ball would be inserted along
+        LooseQuadTree<T> node = this;
+        while (true) {
+            if (node.objects.remove(b)) {
+                node.removed();
+                return true;
+            }
+            LooseQuadTree<T> next = node.isSubdivided ? node.childFor(b) : null;
+            if (next == null) {
+                break;
+            }
+            node = next;
+        }
+        return removeAnywhere(b);
+    }
+
+    /**
+     * recursive method to remove a ball from wherever it is in the tree
+     * @param b ball to be removed
+     * @return true if the ball was found (and removed)
+     */
+    private boolean removeAnywhere(T b) {
+        if (count == 0) {
+            return false;
+        }
+        if (objects.remove(b)) {
+            removed();
+            return true;
+        }
+        if (isSubdivided) {
+            for (LooseQuadTree<T> node : nodes) {
+                if (node.removeAnywhere(b)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * lowers the ball count of this node and every node above it after a ball was taken out
+     */
+    private void removed() {
+        for (LooseQuadTree<T> node = this; node != null; node = node.parent) {
+            node.count--;
+        }
+    }
+
+    /**
+     * brings the tree up to date after the balls in it have moved, only balls that no longer belong in their node are moved
+     * subdivided nodes left with half of MAX_OBJECTS balls or fewer below them are merged back
+     * should only be called on the root
+     */
+    public void update() {
+        if (moved == null) {
+            moved = new ArrayList<>();
+            movedFrom = new ArrayList<>();
+        }
+
+        //collect everything that has to be put somewhere new before changing the structure of the tree
+        collectMoved(moved, movedFrom);
+
+        //insert each ball again, from the closest node above it that it still fits in
+        for (int i = 0; i < moved.size(); i++) {
+            movedFrom.get(i).insert(moved.get(i));
+        }
+        moved.clear();
+        movedFrom.clear();
+
+        merge();
+    }
+
+    /**
+     * empties the tree for rebuilding it, except for the sleeping balls, which stay in the nodes they are in. Only the
+     * balls that are awake have to be inserted again afterwards, and a ball that wakes is dropped by the next call and
+     * inserted again with them. A sleeping ball that no longer fits its node (it moved in the step it fell asleep) is
+     * inserted again here. Nodes left with few balls are merged like update() merges them, should only be called on the root
+     */
+    public void clearMoving() {
+        if (moved == null) {
+            moved = new ArrayList<>();
+            movedFrom = new ArrayList<>();
+        }
+
+        dropMoving(moved);
+        merge();
+        for (int i = 0; i < moved.size(); i++) {
+            insert(moved.get(i));
+        }
+        moved.clear();
+    }
+
+    /**
+     * recursive method to take every ball out of the tree except sleeping ones that still fit their node
+     * @param asleep list to add the sleeping balls that no longer fit to
+     * @return number of balls left in this node and below it
+     */
+    private int dropMoving(ArrayList<T> asleep) {
+        //keep the balls that stay at the front of the list
+        int kept = 0;
+        for (int i = 0; i < objects.size(); i++) {
+            T o = objects.get(i);
+            if (!o.isAsleep()) {
+                continue;
+            }
+            if (parent == null || fits(o)) {
+                objects.set(kept++, o);
+            } else {
+                asleep.add(o);
+            }
+        }
+        while (objects.size() > kept) {
+            objects.remove(objects.size() - 1);
+        }
+
+        count = kept;
+        if (isSubdivided) {
+            for (LooseQuadTree<T> node : nodes) {
+                count += node.dropMoving(asleep);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * recursive method to find the balls that no longer belong in their node and take them out of it
+     * @param moved list to add the balls that have to be inserted again to
+     * @param from list to add the node each ball should be inserted again from to
+     */
+    private void collectMoved(ArrayList<T> moved, ArrayList<LooseQuadTree<T>> from) {
+        if (count == 0) {
+            return;
+        }
+        for (int i = objects.size() - 1; i >= 0; i--) {
+            T o = objects.get(i);
+            //still belongs here if it fits here, and can't go any further down
+            if (fits(o) && (!isSubdivided || childFor(o) == null)) {
+                continue;
+            }
+            objects.remove(i);
+
+            //climb up to a node it fits in (or the root), the counts on the way no longer include it
+            //(the node it is inserted again from counts it again)
+            LooseQuadTree<T> node = this;
+            node.count--;
+            while (node.parent != null && !node.fits(o)) {
+                node = node.parent;
+                node.count--;
+            }
+            moved.add(o);
+            from.add(node);
+        }
+        if (isSubdivided) {
+            for (LooseQuadTree<T> node : nodes) {
+                node.collectMoved(moved, from);
+            }
+        }
+    }
+
+    /**
+     * recursive method to merge subdivided nodes that only have a few balls below them
+     * merges at half of MAX_OBJECTS, so a ball going back and forth doesn't keep splitting and merging the same node
+     */
+    private void merge() {
+        if (!isSubdivided) {
+            return;
+        }
+        if (count <= MAX_OBJECTS / 2) {
+            for (LooseQuadTree<T> node : nodes) {
+                node.collectAll(objects);
+            }
+            releaseChildren();
+            return;
+        }
+        for (LooseQuadTree<T> node : nodes) {
+            node.merge();
+        }
+    }
+
+    /**
+     * recursive method to add every ball in this node and below it to a list
+     * @param list list to add the balls to
+     */
+    private void collectAll(ArrayList<T> list) {
+        for (int i = 0; i < objects.size(); i++) {
+            list.add(objects.get(i));
+        }
+        if (isSubdivided) {
+            for (LooseQuadTree<T> node : nodes) {
+                node.collectAll(list);
+            }
+        }
+    }
+
+    /**
+     * draws the entire quadtree (including all its nodes) in white, only the tight boundaries are drawn
+     * @param g Graphics object to draw with
+     */
+    public void draw(Graphics g) {
+        g.setColor(Color.WHITE);
+        outline(g::drawLine);
+    }
+
+    /**
+     * a recursive method to hand out the lines of the entire quadtree (including all its nodes), only the tight boundaries
+     * @param lines where to send the lines
+     */
+    public void outline(LineDrawer lines) {
+        if (level != 1) { //do not draw if it is the first level (results in weird border)
+            //draw the lines
+            lines.drawLine((int)x, (int)y, (int)(x + w), (int)y);
+            lines.drawLine((int)x, (int)y, (int)x, (int)(y + h));
+        }
+
+        //draw recursively for each of the trees subnodes
+        if (isSubdivided) {
+            for (LooseQuadTree<T> node : nodes) {
+                node.outline(lines);
+            }
+        }
+    }
+
+    /**
+     * checks for collisions, every pair of balls that could touch is collided exactly once
+     */
+    public void collisionCheck() {
+        findPairs(BouncingBall::collide);
+    }
+
+    /**
+     * recursive method to hand out every pair of balls that could touch exactly once, except pairs of two sleeping balls:
+     * the balls in this node with each other and with everything below, then each child on its own,
+     * then every pair of children against each other (their loose boundaries overlap)
+     * @param pairs consumer to hand the pairs to
+     */
+    public void findPairs(BiConsumer<? super T, ? super T> pairs) {
+        if (count == 0) {
+            return;
+        }
+        //balls in this node with each other
+        for (int i = 0; i < objects.size(); i++) {
+            for (int j = i + 1; j < objects.size(); j++) {
+                handOut(objects.get(i), objects.get(j), pairs);
+            }
+        }
+        if (!isSubdivided) {
+            return;
+        }
+        //balls in this node with the balls below it
+        for (int i = 0; i < objects.size(); i++) {
+            for (LooseQuadTree<T> node : nodes) {
+                node.findPairs(objects.get(i), pairs);
+            }
+        }
+        //each child on its own, then each pair of children
+        for (LooseQuadTree<T> node : nodes) {
+            node.findPairs(pairs);
+        }
+        for (int i = 0; i < nodes.length; i++) {
+            for (int j = i + 1; j < nodes.length; j++) {
+                nodes[i].findPairs(nodes[j], pairs);
+            }
+        }
+    }
+
+    /**
+     * recursive method to pair every ball in this subtree with every ball in another subtree that does not overlap it
+     * @param other root of the other subtree
+     * @param pairs consumer to hand the pairs to
+     */
+    private void findPairs(LooseQuadTree<T> other, BiConsumer<? super T, ? super T> pairs) {
+        if (count == 0 || other.count == 0 || !looseOverlaps(other)) {
+            return;
+        }
+        for (int i = 0; i < objects.size(); i++) {
+            other.findPairs(objects.get(i), pairs);
+        }
+        if (isSubdivided) {
+            for (LooseQuadTree<T> node : nodes) {
+                node.findPairs(other, pairs);
+            }
+        }
+    }
+
+    /**
+     * hands a pair to a consumer unless both balls are asleep, looked at as each pair is handed out since a pair
+     * handed out before may have woken one of them
+     */
+    private static <T extends BouncingBall> void handOut(T a, T b, BiConsumer<? super T, ? super T> pairs) {
+        if (!a.isAsleep() || !b.isAsleep()) {
+            pairs.accept(a, b);
+        }
+    }
+
+    /**
+     * recursive method to pair one ball with every ball in this node and below it that it could touch, the ball first
+     * @param b ball to pair
+     * @param pairs consumer to hand the pairs to
+     */
+    private void findPairs(T b, BiConsumer<? super T, ? super T> pairs) {
+        double r = b.getRadius();
+        if (count == 0 || !looseOverlaps(b.getPosX() - r, b.getPosY() - r, b.getPosX() + r, b.getPosY() + r)) {
+            return;
+        }
+        for (int i = 0; i < objects.size(); i++) {
+            handOut(b, objects.get(i), pairs);
+        }
+        if (isSubdivided) {
+            for (LooseQuadTree<T> node : nodes) {
+                node.findPairs(b, pairs);
+            }
+        }
+    }
+
+    /**
+     * @param b ball to find a child for
+     * @return the child of this node that the ball fits in, or null if it is too big for the children or outside this node
+     */
+    private LooseQuadTree<T> childFor(T b) {
+        double cx = b.getPosX();
+        double cy = b.getPosY();
+        //a child's loose boundaries reach half of its size past its edges, so a ball with a radius up to that fits
+        if (b.getRadius() > Math.min(w, h) / 4 || cx < x || cx > x + w || cy < y || cy > y + h) {
+            return null;
+        }
+        boolean east = cx >= x + w / 2;
+        boolean south = cy >= y + h / 2;
+        if (south) {
+            return east ? nodes[3] : nodes[2];
+        }
+        return east ? nodes[0] : nodes[1];
+    }
+
+    /**
+     * @param b ball to check
+     * @return true if the ball's centre is in this node and it is small enough to stay inside the loose boundaries,
+     * the root takes every ball
+     */
+    private boolean fits(T b) {
+        if (parent == null) {
+            return true;
+        }
+        double cx = b.getPosX();
+        double cy = b.getPosY();
+        return b.getRadius() <= Math.min(w, h) / 2 && cx >= x && cx <= x + w && cy >= y && cy <= y + h;
+    }
+
+    /**
+     * @return true if a box overlaps the loose boundaries of this node (the root's are unlimited)
+     */
+    private boolean looseOverlaps(double minX, double minY, double maxX, double maxY) {
+        if (parent == null) {
+            return true;
+        }
+        return maxX >= x - w / 2 && minX <= x + w * 1.5 && maxY >= y - h / 2 && minY <= y + h * 1.5;
+    }
+
+    /**
+     * @return true if the loose boundaries of this node and another node overlap
+     */
+    private boolean looseOverlaps(LooseQuadTree<T> other) {
+        return other.looseOverlaps(x - w / 2, y - h / 2, x + w * 1.5, y + h * 1.5);
+    }
+
+    /**
+     * @return number of balls in the tree
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * recursive method to count the nodes in use
+     * @return number of nodes in this subtree, including this one
+     */
+    public int getNodeCount() {
+        int nodeCount = 1;
+        if (isSubdivided) {
+            for (LooseQuadTree<T> node : nodes) {
+                nodeCount += node.getNodeCount();
+            }
+        }
+        return nodeCount;
+    }
+
+    /**
+     * recursive method to find the deepest node in use
+     * @return level of the deepest node in this subtree
+     */
+    public int getMaxDepth() {
+        int depth = level;
+        if (isSubdivided) {
+            for (LooseQuadTree<T> node : nodes) {
+                depth = Math.max(depth, node.getMaxDepth());
+            }
+        }
+        return depth;
+    }
+}
@@ -0,0 +1,410 @@
+/**
+ * [Main.java]
+ * A class that tests everything
+ * usage: Main [--headless] [--balls N] [--steps N] [--tps N] [--width N] [--height N] [--world WIDTH:HEIGHT] [--max-objects N] [--max-subdivision N] [--rebuild] [--loose] [--radius MIN[:MAX]] [--packed] [--threads N] [--broadphase NAME] [--cell N] [--stats] [--adaptive]  [--sleep SPEED] [--seed N] [--distribution NAME] [--restore FILE] [--checkpoint FILE] [--checkpoint-every N] [--record FILE] [--replay FILE] [--simultaneous] [--shards COLUMNSxROWS] [--shard-workers NAME] [--shard-port N] [--timestep N] [--swept] [--substeps N] [--batch FILE]
+ * --width and --height set the size of the window (default: the screen), --world sets the size of the world when it
+ *   should be bigger or smaller than the window (default: the window). The window shows it through a camera that can be
+ *   panned (arrow keys, dragging) and zoomed (+ and -, the mouse wheel), home shows the whole world
+ * --rebuild clears and rebuilds the quadtree every step instead of updating it as balls move
+ * --loose uses a loose quadtree that keeps every ball in exactly one node
+ * --radius gives new balls a random radius between MIN and MAX (default 10), their mass goes with their area
+ * --packed keeps the balls in plain arrays (BallStore) with an index based quadtree, only with --headless
+ * --threads searches the quadtree leaves for collisions on N threads, the results are the same as with one (with --batch
+ *   it is how many worlds run at once instead)
+ * --broadphase builds one of these from every ball each step instead of keeping a quadtree up to date:
+ *   quadtree (the regular QuadTree), linear (morton ordered LinearQuadTree), grid (UniformGrid), sap (SweepAndPrune),
+ *   cache (ContactCache, keeps each ball's neighbours between steps until it has moved far enough)
+ * --linear is short for --broadphase linear
+ * --cell sets the side of the grid's cells (default: the largest ball's diameter)
+ * --stats measures every step (see FrameStats) and publishes the measurements over JMX, with --headless a summary is
+ *   printed at the end. In the window F3 shows them
+ * --adaptive tunes the quadtree's split threshold of each level and its depth limit from what it measurably costs,
+ *   starting from --max-objects and --max-subdivision (only the regular quadtree, not --loose or --broadphase)
+ * --sleep lets balls at or below SPEED for a while fall asleep until something hits them, 0 for only stopped balls
+ * --seed makes the starting balls from this seed, the same seed gives the same balls (default: a new seed every run,
+ *   printed with --headless). They are made in parallel, so millions of balls start quickly
+ * --distribution spreads the starting balls: uniform (default), clusters (gaussian blobs) or ring
+ * --restore carries on from a checkpoint file, with its world size and quadtree parameters, --balls adds more balls to it
+ *   and --steps counts the steps taken after it
+ * --checkpoint saves the world to FILE every --checkpoint-every steps (default 1000) without holding up the simulation,
+ *   and once more at the end with --headless
+ * --record writes where every ball is after every batch of steps to FILE (see Recorder), off the simulation thread
+ * --replay plays a recording back in the window at --tps (default 60) without running the world: space pauses,
+ *   comma and period step a frame, page up and page down jump a second. With --headless it is decoded as fast as possible
+ * --simultaneous with --packed bounces the touching pairs in rounds of pairs with no ball in common, in an order that
+ *   only depends on which pairs touch (see ContactSolver)
+ * --shards cuts the world into a grid of tiles, each run by its own worker with its own quadtree, which pass the balls
+ *   near and across their edges to each other every step (see ShardedWorld), only with --headless. The result is
+ *   exactly that of --packed --simultaneous, for any grid. --shard-workers runs the workers as threads (default),
+ *   processes (a JVM each), or wait (for workers started by hand, on any host, with ShardWorker HOST PORT) on
+ *   --shard-port (default any free port)
+ * --timestep moves the balls N of their velocities in each step instead of 1 (default 1), so fewer steps simulate the
+ *   same time. Balls that move further than they are wide in a step can pass through each other unless --swept is given
+ * --swept finds when balls meet on the way through each step and bounces them there (see SweptSolver), cutting steps
+ *   into sub-steps no ball moves further than the smallest ball's diameter in, up to --substeps of them (default 8).
+ *   Not with --packed, --shards, --loose, --broadphase, --adaptive or --stats
+ * --batch runs every scene listed in FILE (- for standard input) as a world of its own, up to --threads of them at once
+ *   (default one per core), and prints what each came to as a line of JSON as soon as it finishes (see Batch).
+ *   Each line of FILE is a scene written with the options above, e.g. "--balls 100,200 --max-objects 2..8 --seed 1..50"
+ *   for every combination of the values
+ * with --headless no window is opened, the world runs unthrottled (unless --tps is given) and steps per second are printed
+ * @author Dora Su
+ * October 27 2018
+ */
+
+package quadtreecollision;
+
+import java.awt.Toolkit;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public class Main {
+    public static void main(String[] args) throws InterruptedException, IOException {
+        //defaults, the window is the size of the screen
+        boolean headless = false;
+        int balls = 0;
+        long steps = 0;
+        int tps = -1;
+        int width = -1;
+        int height = -1;
+        int worldWidth = -1;
+        int worldHeight = -1;
+        int maxObjects = 5;
+        int maxSubdivision = 8;
+        boolean rebuild = false;
+        boolean loose = false;
+        boolean packed = false;
+        int threads = 0;
+        String broadPhase = null;
+        double cell = 0;
+        boolean measure = false;
+        boolean adaptive = false;
+        double sleepSpeed = -1;
+        double minRadius = BouncingBall.DEFAULT_SIZE / 2.0;
+        double maxRadius = minRadius;
+        long seed = System.nanoTime();
+        Spawner.Distribution distribution = Spawner.Distribution.UNIFORM;
+        Path restore = null;
+        Path checkpoint = null;
+        long checkpointEvery = 1000;
+        Path record = null;
+        Path replayFrom = null;
+        boolean simultaneous = false;
+        int shardColumns = 0;
+        int shardRows = 0;
+        ShardedWorld.Workers shardWorkers = ShardedWorld.Workers.THREADS;
+        int shardPort = 0;
+        double timeStep = 1;
+        boolean swept = false;
+        int subSteps = SweptSolver.DEFAULT_MAX_SUB_STEPS;
+        Path batch = null;
+
+        //read the options
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--headless": headless = true; break;
+                case "--balls": balls = Integer.parseInt(args[++i]); break;
+                case "--steps": steps = Long.parseLong(args[++i]); break;
+                case "--tps": tps = Integer.parseInt(args[++i]); break;
+                case "--width": width = Integer.parseInt(args[++i]); break;
+                case "--height": height = Integer.parseInt(args[++i]); break;
+                case "--world":
+                    String[] worldSize = args[++i].split(":");
+                    worldWidth = Integer.parseInt(worldSize[0]);
+                    worldHeight = Integer.parseInt(worldSize[worldSize.length - 1]);
+                    break;
+                case "--max-objects": maxObjects = Integer.parseInt(args[++i]); break;
+                case "--max-subdivision": maxSubdivision = Integer.parseInt(args[++i]); break;
+                case "--rebuild": rebuild = true; break;
+                case "--loose": loose = true; break;
+                case "--packed": packed = true; break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--linear": broadPhase = "linear"; break;
+                case "--broadphase": broadPhase = args[++i]; break;
+                case "--cell": cell = Double.parseDouble(args[++i]); break;
+                case "--stats": measure = true; break;
+                case "--adaptive": adaptive = true; break;
+                case "--sleep": sleepSpeed = Double.parseDouble(args[++i]); break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                case "--distribution": distribution = Spawner.Distribution.valueOf(args[++i].toUpperCase()); break;
+                case "--restore": restore = Paths.get(args[++i]); break;
+                case "--checkpoint": checkpoint = Paths.get(args[++i]); break;
+                case "--checkpoint-every": checkpointEvery = Long.parseLong(args[++i]); break;
+                case "--record": record = Paths.get(args[++i]); break;
+                case "--replay": replayFrom = Paths.get(args[++i]); break;
+                case "--simultaneous": simultaneous = true; break;
+                case "--shards":
+                    String[] grid = args[++i].split("x");
+                    shardColumns = Integer.parseInt(grid[0]);
+                    shardRows = Integer.parseInt(grid[1]);
+                    break;
+                case "--shard-workers": shardWorkers = ShardedWorld.Workers.valueOf(args[++i].toUpperCase()); break;
+                case "--shard-port": shardPort = Integer.parseInt(args[++i]); break;
+                case "--timestep": timeStep = Double.parseDouble(args[++i]); break;
+                case "--swept": swept = true; break;
+                case "--substeps": subSteps = Integer.parseInt(args[++i]); break;
+                case "--batch": batch = Paths.get(args[++i]); break;
+                case "--radius":
+                    String[] range = args[++i].split(":");
+                    minRadius = Double.parseDouble(range[0]);
+                    maxRadius = Double.parseDouble(range[range.length - 1]);
+                    break;
+                default: throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+
+        if (packed && !headless) {
+            throw new IllegalArgumentException("--packed only runs with --headless");
+        }
+        if (packed && measure) {
+            throw new IllegalArgumentException("--stats doesn't work with --packed");
+        }
+        if (shardColumns > 0 && (!headless || packed || measure || record != null)) {
+            throw new IllegalArgumentException("--shards only runs with --headless, and not with --packed, --stats or --record");
+        }
+        if (simultaneous && !packed) {
+            throw new IllegalArgumentException("--simultaneous only works with --packed");
+        }
+        if ((timeStep != 1 || swept) && (packed || shardColumns > 0)) {
+            throw new IllegalArgumentException("--timestep and --swept don't work with --packed or --shards");
+        }
+        if (swept && (loose || broadPhase != null || adaptive || measure)) {
+            throw new IllegalArgumentException("--swept doesn't work with --loose, --broadphase, --adaptive or --stats");
+        }
+        if (shardWorkers == ShardedWorld.Workers.WAIT && shardPort <= 0) {
+            throw new IllegalArgumentException("--shard-workers wait needs a --shard-port for the workers to connect to");
+        }
+        if (batch != null) {
+            batch(batch, threads);
+            return;
+        }
+        if (replayFrom != null) {
+            replay(replayFrom, headless, width, height, tps);
+            return;
+        }
+        //a restored world keeps its own size and quadtree parameters
+        Checkpoint restored = null;
+        if (restore != null) {
+            restored = Checkpoint.read(restore);
+            worldWidth = restored.getWidth();
+            worldHeight = restored.getHeight();
+            maxObjects = restored.getMaxObjects();
+            maxSubdivision = restored.getMaxSubdivision();
+        }
+        FrameStats stats = null;
+        if (measure) {
+            stats = new FrameStats();
+            stats.register();
+        }
+
+        if (headless) {
+            //no screen to measure, so fall back to a 1080p sized world
+            if (worldWidth <= 0) {
+                worldWidth = width > 0 ? width : 1920;
+                worldHeight = height > 0 ? height : 1080;
+            }
+            Spawner spawner = new Spawner(worldWidth, worldHeight, seed, distribution);
+            spawner.setRadius(minRadius, maxRadius);
+            System.out.println("seed " + seed);
+            Steppable world;
+            Checkpointer checkpointer = null;
+            Recorder recorder = null;
+            int ballCount;
+            ShardedWorld shardedWorld = null;
+            if (shardColumns > 0) {
+                BallStore start = restored != null ? PackedWorld.restore(restored).getBalls() : new BallStore(worldWidth, worldHeight, balls);
+                spawner.spawn(start, balls);
+                if (shardWorkers == ShardedWorld.Workers.WAIT) {
+                    System.out.printf("waiting for %d workers: java -cp CLASSPATH %s HOST %d%n", shardColumns * shardRows, ShardWorker.class.getName(), shardPort);
+                }
+                shardedWorld = new ShardedWorld(start, restored != null ? restored.getSteps() : 0, maxObjects, maxSubdivision,
+                        shardColumns, shardRows, shardWorkers, shardPort);
+                if (checkpoint != null) {
+                    checkpointer = new Checkpointer(shardedWorld, shardedWorld::checkpoint, checkpoint, checkpointEvery);
+                }
+                ballCount = shardedWorld.getBallCount();
+                world = shardedWorld;
+            } else if (packed) {
+                PackedWorld packedWorld = restored != null ? PackedWorld.restore(restored)
+                        : new PackedWorld(worldWidth, worldHeight, maxObjects, maxSubdivision, balls);
+                packedWorld.addBalls(spawner, balls);
+                packedWorld.setSimultaneous(simultaneous);
+                if (checkpoint != null) {
+                    checkpointer = new Checkpointer(packedWorld, packedWorld::checkpoint, checkpoint, checkpointEvery);
+                }
+                if (record != null) {
+                    recorder = new Recorder(packedWorld, packedWorld::record, worldWidth, worldHeight, record);
+                }
+                ballCount = packedWorld.getBallCount();
+                world = packedWorld;
+            } else {
+                World objectWorld = restored != null ? World.restore(restored) : new World(worldWidth, worldHeight, maxObjects, maxSubdivision);
+                objectWorld.setIncremental(!rebuild);
+                objectWorld.setLoose(loose);
+                objectWorld.setThreads(threads);
+                objectWorld.setBroadPhase(World.createBroadPhase(broadPhase, worldWidth, worldHeight, maxObjects, maxSubdivision, cell));
+                objectWorld.setBallRadius(minRadius, maxRadius);
+                objectWorld.setStats(stats);
+                objectWorld.setAdaptive(adaptive);
+                objectWorld.setSleepSpeed(sleepSpeed);
+                objectWorld.setTimeStep(timeStep);
+                objectWorld.setSwept(swept);
+                if (swept) {
+                    objectWorld.getSweptSolver().setMaxSubSteps(subSteps);
+                }
+                objectWorld.addBalls(spawner, balls);
+                if (checkpoint != null) {
+                    checkpointer = new Checkpointer(objectWorld, objectWorld::checkpoint, checkpoint, checkpointEvery);
+                }
+                if (record != null) {
+                    recorder = new Recorder(objectWorld, objectWorld::record, worldWidth, worldHeight, record);
+                }
+                ballCount = objectWorld.getBallCount();
+                world = objectWorld;
+            }
+            Simulation simulation = new Simulation(world, tps > 0 ? tps : 0); //unthrottled unless a tick rate is given
+            long firstStep = world.getSteps();
+            simulation.setMaxSteps(firstStep + (steps > 0 ? steps : 1000));
+            simulation.setViewer(both(checkpointer, recorder));
+
+            long start = System.nanoTime();
+            simulation.start();
+            simulation.join();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long taken = world.getSteps() - firstStep;
+            System.out.printf("%d balls, %d steps in %.3f s, %.1f steps/s%n", ballCount, taken, seconds, taken / seconds);
+            if (checkpointer != null) {
+                checkpointer.save();
+                checkpointer.close();
+                System.out.printf("%d checkpoints to %s, longest pause %.2f ms%n", checkpointer.getSaved(), checkpoint, checkpointer.getLongestPause());
+            }
+            if (recorder != null) {
+                recorder.close();
+                System.out.printf("%d frames to %s, %.1f MB, %d dropped%n", recorder.getWritten(), record, recorder.getBytes() / 1e6, recorder.getDropped());
+            }
+            if (shardedWorld != null) {
+                System.out.printf("%d tiles, %d ghosts and %.2f MB passed between tiles in the last step%n",
+                        shardedWorld.getTiles(), shardedWorld.getGhostCount(), shardedWorld.getExchanged() / 1e6);
+                shardedWorld.close();
+            }
+            if (stats != null) {
+                System.out.print(stats.getSummary());
+            }
+            if (world instanceof World && ((World)world).getSweptSolver() != null) {
+                SweptSolver solver = ((World)world).getSweptSolver();
+                System.out.printf("%d sub-steps and %d bounces in the last step%n", solver.getSubSteps(), solver.getBounces());
+            }
+            if (world instanceof World && ((World)world).getTuner() != null) {
+                System.out.println("thresholds " + ((World)world).getTuner());
+            }
+            return;
+        }
+
+        //calculate screen width and height
+        int screenWidth = width > 0 ? width : (int)Toolkit.getDefaultToolkit().getScreenSize().getWidth();
+        int screenHeight = height > 0 ? height : (int)Toolkit.getDefaultToolkit().getScreenSize().getHeight();
+        if (worldWidth <= 0) {
+            worldWidth = screenWidth;
+            worldHeight = screenHeight;
+        }
+        World world = restored != null ? World.restore(restored) : new World(worldWidth, worldHeight, maxObjects, maxSubdivision);
+        world.setIncremental(!rebuild);
+        world.setLoose(loose);
+        world.setThreads(threads);
+        world.setBroadPhase(World.createBroadPhase(broadPhase, worldWidth, worldHeight, maxObjects, maxSubdivision, cell));
+        world.setBallRadius(minRadius, maxRadius);
+        world.setStats(stats);
+        world.setAdaptive(adaptive);
+        world.setSleepSpeed(sleepSpeed);
+        world.setTimeStep(timeStep);
+        world.setSwept(swept);
+        if (swept) {
+            world.getSweptSolver().setMaxSubSteps(subSteps);
+        }
+        Spawner spawner = new Spawner(worldWidth, worldHeight, seed, distribution);
+        spawner.setRadius(minRadius, maxRadius);
+        world.addBalls(spawner, balls);
+        Display display = new Display(world, screenWidth, screenHeight);//creates new display, size of screen of user
+        Simulation simulation = new Simulation(world, tps > 0 ? tps : 60); //runs forever unless esc is pressed
+        simulation.setMaxSteps(steps > 0 ? world.getSteps() + steps : 0);
+        Checkpointer checkpointer = checkpoint != null ? new Checkpointer(world, world::checkpoint, checkpoint, checkpointEvery) : null;
+        Recorder recorder = record != null ? new Recorder(world, world::record, worldWidth, worldHeight, record) : null;
+        //hand the display a snapshot after every batch of steps, and save and record the world if asked to
+        simulation.setViewer(both(display::publish, both(checkpointer, recorder)));
+        display.setOnClose(simulation::stop); //esc stops the simulation too
+        simulation.start();
+
+        //the writers' threads don't keep the program alive, so wait to finish the recording once esc is pressed
+        if (recorder != null) {
+            simulation.join();
+            recorder.close();
+        }
+    }
+
+    /**
+     * runs a list of scenes, printing each result as it comes and how long they all took at the end
+     * @param path the scene list, - for standard input
+     * @param threads worlds to run at once, 0 or less for one per core
+     */
+    private static void batch(Path path, int threads) throws IOException, InterruptedException {
+        BufferedReader in = path.toString().equals("-") ? new BufferedReader(new InputStreamReader(System.in)) : Files.newBufferedReader(path);
+        try (Batch runner = new Batch(threads); in) {
+            long start = System.nanoTime();
+            long[] steps = {0};
+            long count = runner.run(Batch.read(in), result -> {
+                System.out.println(result.toJson());
+                steps[0] += result.getSteps();
+            });
+            double seconds = (System.nanoTime() - start) / 1e9;
+            //the results are the only thing on standard output, so it can be read as JSON lines
+            System.err.printf("%d worlds, %d steps in %.3f s on %d threads, %.1f worlds/s, %d reused an earlier world's quadtree%n",
+                    count, steps[0], seconds, runner.getThreads(), count / seconds, runner.getReused());
+        }
+    }
+
+    /**
+     * plays a recording back
+     * @param path recording to play
+     * @param headless true to decode every frame as fast as possible and print how long it took, false to show it in a window
+     * @param width width of the window, 0 or less for the screen's
+     * @param height height of the window, 0 or less for the screen's
+     * @param tps frames per second to play at in the window, 0 or less for 60
+     */
+    private static void replay(Path path, boolean headless, int width, int height, int tps) throws IOException, InterruptedException {
+        Replay replay = new Replay(path);
+        if (headless) {
+            long start = System.nanoTime();
+            for (int i = 1; i < replay.getFrames(); i++) {
+                replay.step();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d frames of %d balls in %.3f s, %.1f frames/s%n", replay.getFrames(), replay.getBallCount(), seconds, replay.getFrames() / seconds);
+            replay.close();
+            return;
+        }
+        int screenWidth = width > 0 ? width : (int)Toolkit.getDefaultToolkit().getScreenSize().getWidth();
+        int screenHeight = height > 0 ? height : (int)Toolkit.getDefaultToolkit().getScreenSize().getHeight();
+        Display display = new Display(replay, screenWidth, screenHeight);
+        Simulation simulation = new Simulation(replay, tps > 0 ? tps : 60); //stays on the last frame until esc is pressed
+        simulation.setViewer(display::publish);
+        display.setOnClose(simulation::stop);
+        simulation.start();
+    }
+
+    /**
+     * @return a callback that runs first and then second, skipping whichever is null
+     */
+    private static Runnable both(Runnable first, Runnable second) {
+        if (first == null || second == null) {
+            return first != null ? first : second;
+        }
+        return () -> {
+            first.run();
+            second.run();
+        };
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * [NarrowPhase.java]
+ * Finds the touching pairs of one bucket of balls (e.g. a quad tree leaf) in a batch instead of one collide() call per pair.
+ * The centres and radii of the bucket are copied next to each other into flat arrays, then each ball is tested against
+ * all the balls after it in one straight loop with no calls or branches, which the JIT can turn into SIMD instructions.
+ * Only the pairs that touch are handed back, in the same order the pairs of the bucket would be collided one by one,
+ * and with exactly the test collide() uses, so colliding them gives the same results as colliding every pair.
+ * Keeps its arrays between buckets, so one instance per thread allocates nothing once it has grown to size
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.util.Arrays;
+
+public class NarrowPhase {
+    private int count; //balls in the bucket
+    private double[] cx = new double[16], cy = new double[16], r = new double[16]; //centre and radius of each ball
+    private double[] gap = new double[16]; //squared distance minus squared reach of the ball being tested and each ball after it
+    private int[] pairs = new int[32]; //indices of the touching pairs (i, j with i < j), two per pair
+    private int pairCount; //touching pairs found
+
+    /**
+     * empties the bucket
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * adds a ball to the end of the bucket
+     * @param centreX x coordinate of the centre of the ball
+     * @param centreY y coordinate of the centre of the ball
+     * @param radius radius of the ball
+     */
+    public void add(double centreX, double centreY, double radius) {
+        if (count == cx.length) {
+            int capacity = count * 2;
+            cx = Arrays.copyOf(cx, capacity);
+            cy = Arrays.copyOf(cy, capacity);
+            r = Arrays.copyOf(r, capacity);
+            gap = new double[capacity];
+        }
+        cx[count] = centreX;
+        cy[count] = centreY;
+        r[count] = radius;
+        count++;
+    }
+
+    /**
+     * adds a ball to the end of the bucket
+     * @param b ball to add
+     */
+    public void add(BouncingBall b) {
+        add(b.getPosX(), b.getPosY(), b.getRadius());
+    }
+
+    /**
+     * finds every pair of balls in the bucket that touch, get them with getFirst() and getSecond()
+     * @return number of touching pairs
+     */
+    public int findPairs() {
+        pairCount = 0;
+        for (int i = 0; i < count - 1; i++) {
+            double x = cx[i], y = cy[i], radius = r[i];
+            //the whole row at once, a pair touches if the squared distance between the centres is at most the squared sum of the radii
+            for (int j = i + 1; j < count; j++) {
+                double deltaX = cx[j] - x;
+                double deltaY = cy[j] - y;
+                double reach = radius + r[j];
+                gap[j] = deltaX * deltaX + deltaY * deltaY - reach * reach;
+            }
+            //then pick out the few that touch
+            for (int j = i + 1; j < count; j++) {
+                if (gap[j] <= 0) {
+                    if (2 * pairCount + 2 > pairs.length) {
+                        pairs = Arrays.copyOf(pairs, pairs.length * 2);
+                    }
+                    pairs[2 * pairCount] = i;
+                    pairs[2 * pairCount + 1] = j;
+                    pairCount++;
+                }
+            }
+        }
+        return pairCount;
+    }
+
+    /**
+     * @param pair index of a pair found by the last findPairs()
+     * @return index in the bucket of the pair's first ball
+     */
+    public int getFirst(int pair) {
+        return pairs[2 * pair];
+    }
+
+    /**
+     * @param pair index of a pair found by the last findPairs()
+     * @return index in the bucket of the pair's second ball, always after the first
+     */
+    public int getSecond(int pair) {
+        return pairs[2 * pair + 1];
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * [PackedWorld.java]
+ * A World that keeps its balls in a BallStore and finds collisions with an IndexQuadTree, for very large populations.
+ * No object is created per ball, and rebuilding the tree every step reuses the same arrays
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.util.Random;
+
+public class PackedWorld implements Steppable {
+    //constants
+    private final int WIDTH; //width of the world
+    private final int HEIGHT; //height of the world
+    private final int MAX_OBJECTS; //max balls a node of the quadtree should contain before subdividing
+    private final int MAX_SUBDIVISION; //max levels of subdivision
+
+    private BallStore balls; //every ball in the world
+    private IndexQuadTree qt; //quadtree over the ball indices
+    private Random random = new Random(); //random numbers for new balls
+    private long steps; //number of steps taken since the world was created
+    private ContactSolver solver; //collides the pairs in an order the tree has no say in, null to collide them as the tree finds them
+
+    /**
+     * Constructor
+     * @param WIDTH width of the world
+     * @param HEIGHT height of the world
+     * @param MAX_OBJECTS max balls a node of the quadtree should contain before subdividing
+     * @param MAX_SUBDIVISION max levels of subdivision
+     * @param capacity number of balls to make room for up front
+     */
+    public PackedWorld(int WIDTH, int HEIGHT, int MAX_OBJECTS, int MAX_SUBDIVISION, int capacity) {
+        this.WIDTH = WIDTH;
+        this.HEIGHT = HEIGHT;
+        this.MAX_OBJECTS = MAX_OBJECTS;
+        this.MAX_SUBDIVISION = MAX_SUBDIVISION;
+        balls = new BallStore(WIDTH, HEIGHT, capacity);
+        qt = new IndexQuadTree(balls, 0, 0, WIDTH, HEIGHT, MAX_OBJECTS, MAX_SUBDIVISION);
+    }
+
+    /**
+     * adds a number of randomly placed balls to the world
+     * @param count number of balls to add
+     * @param minRadius smallest radius
+     * @param maxRadius largest radius
+     */
+    public synchronized void addBalls(int count, double minRadius, double maxRadius) {
+        for (int i = 0; i < count; i++) {
+            balls.addRandom(random, minRadius + (maxRadius - minRadius) * random.nextDouble());
+        }
+    }
+
+    /**
+     * adds a number of balls made by a spawner, made in parallel and the same every time for the same seed
+     * @param spawner spawner to make the balls with
+     * @param count number of balls to add
+     */
+    public synchronized void addBalls(Spawner spawner, int count) {
+        spawner.spawn(balls, count);
+    }
+
+    /**
+     * chooses how collisions are resolved
+     * @param simultaneous true to bounce the touching pairs in rounds of pairs with no ball in common (see
+     *                     ContactSolver), which a ShardedWorld with the same balls matches exactly, false to collide
+     *                     the pairs one after another in the order the tree finds them, like every other world
+     */
+    public synchronized void setSimultaneous(boolean simultaneous) {
+        solver = simultaneous ? new ContactSolver() : null;
+    }
+
+    /**
+     * copies the world so it can be saved, a handful of array copies, so it can be called between steps
+     * @return a checkpoint of the world as it is now
+     */
+    public Checkpoint checkpoint() {
+        return checkpoint(null);
+    }
+
+    /**
+     * copies the world so it can be saved, into an old checkpoint's arrays if they have room
+     * @param reuse checkpoint that is no longer needed (e.g. already written), or null
+     * @return a checkpoint of the world as it is now
+     */
+    public synchronized Checkpoint checkpoint(Checkpoint reuse) {
+        Checkpoint c = Checkpoint.reuse(reuse, WIDTH, HEIGHT, MAX_OBJECTS, MAX_SUBDIVISION, steps, balls.size());
+        balls.copyTo(c.left, c.top, c.vx, c.vy, c.size, c.mass, c.colour);
+        return c;
+    }
+
+    /**
+     * copies where every ball is into a frame for a Recorder, quick enough to call after every step
+     * @param frame frame to fill
+     */
+    public synchronized void record(Recorder.Frame frame) {
+        frame.start(steps, balls.size());
+        for (int i = 0; i < balls.size(); i++) {
+            frame.set(i, balls.getPosX(i), balls.getPosY(i), balls.getRadius(i) * 2, balls.getColour(i));
+        }
+    }
+
+    /**
+     * makes a world from a checkpoint, with the same balls in the same order and the same number of steps taken.
+     * The quadtree is rebuilt every step anyway, so it carries on exactly as the saved world would have.
+     * Balls have no sleep state here, so sleeping balls are restored awake with the zero velocity they had
+     * @param c checkpoint to carry on from
+     * @return the world
+     */
+    public static PackedWorld restore(Checkpoint c) {
+        PackedWorld world = new PackedWorld(c.getWidth(), c.getHeight(), c.getMaxObjects(), c.getMaxSubdivision(), 0);
+        world.balls = new BallStore(c.getWidth(), c.getHeight(), c.getCount(), c.left, c.top, c.vx, c.vy, c.size, c.mass, c.colour);
+        world.qt = new IndexQuadTree(world.balls, 0, 0, c.getWidth(), c.getHeight(), c.getMaxObjects(), c.getMaxSubdivision());
+        world.steps = c.getSteps();
+        return world;
+    }
+
+    /**
+     * advances the world by one fixed step: rebuilds the quadtree, resolves collisions and moves every ball
+     */
+    @Override
+    public synchronized void step() {
+        qt.clear();
+        qt.insertAll();
+        if (solver != null) {
+            solver.solve(balls, qt);
+        } else {
+            qt.collisionCheck();
+        }
+        balls.moveAll();
+        steps++;
+    }
+
+    @Override
+    public synchronized long getSteps() {
+        return steps;
+    }
+
+    /**
+     * the balls in the world, callers that are not on the simulation thread must hold the world's lock while reading it
+     * @return the ball store
+     */
+    public BallStore getBalls() {
+        return balls;
+    }
+
+    /**
+     * the quadtree as built by the last step, callers that are not on the simulation thread must hold the world's lock
+     * @return the quadtree
+     */
+    public IndexQuadTree getQuadTree() {
+        return qt;
+    }
+
+    public synchronized int getBallCount() {
+        return balls.size();
+    }
+
+    public int getWidth() {
+        return WIDTH;
+    }
+
+    public int getHeight() {
+        return HEIGHT;
+    }
+}
@@ -0,0 +1,1210 @@
+/**
+ * [QuadTree.java]
+ * A quad tree data structure that splits into 4 nodes once a certain number of objects has been reached,
+ * continues to split until the maximum number of divisions has been reached
+ * Besides finding collisions it answers what touches a rectangle, what is within a radius of a point and which objects are
+ * nearest to a point, only looking at the nodes that could hold an answer
+ * @author Dora Su
+ * October 26 2018
+ */
+
+package quadtreecollision;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+public class QuadTree<T> implements BroadPhase<T> {
+    //max value of objects in one node and max subdivisions, it is constant
+    private final int MAX_OBJECTS;
+    private final int MAX_SUBDIVISION;
+
+    private ArrayList<T> objects; //arraylist that stores the balls
+    private double[] boxes; //box each ball was inserted with (minX, minY, maxX, maxY), four values per ball in objects
+    private QuadTree<T>[] nodes; //array that represents the quadtree's nodes (children), kept (empty) when it stops being subdivided
+
+    private boolean canTakeObjects; //boolean to determine whether a certain quad can contain more balls
+    private boolean isSubdivided; //true if the quad is subdivided
+    private boolean dirty; //true if objects were removed somewhere below this quad since the last merge
+
+    private QuadTree<T> parent; //quad this one was subdivided from, null for the root
+    private final Bounds<? super T> bounds; //where each object is and how big it is
+    private double margin; //how far past its edges a ball's box reaches, so small moves don't have to be relocated by update()
+    private SplitTuner tuner; //picks the split threshold and depth limit instead of MAX_OBJECTS and MAX_SUBDIVISION, null to use those
+    private NarrowPhase narrow; //finds the touching pairs of each leaf in collisionCheck(), kept on the root so it is only allocated once
+    private SearchQueue queue; //nodes and objects nearest() still has to look at, kept on the root so it is only allocated once
+    private ParallelSearch search; //leaves, buffers and tasks collisionCheck(pool) uses, kept on the root so they are only allocated once
+
+    private int level; //level of subdivision
+    private int w,h; //width and height of rectangle
+    private int x,y; //coordinates of quad's top-left corner
+
+    //lists update() and clearMoving() fill in every step, kept on the root so they are only allocated once
+    private ArrayList<T> moved;
+    private ArrayList<QuadTree<T>> movedFrom;
+    private Set<T> seen;
+
+    /**
+     * Constructor
+     * @param level, level of subdivision (depth)
+     * the objects must be BouncingBalls
+     * @param bound, rectangle that represents the boundaries of the quadtree
+     * @param MAX_OBJECTS maximum amount of objects that can be stored in the quadtree
+     * @param MAX_SUBDIVISION maximum amount of levels that the entire root tree can divide into
+     */
+    public QuadTree(int level, Rectangle bound, int MAX_OBJECTS, int MAX_SUBDIVISION){
+        this(level, (int)bound.getX(), (int)bound.getY(), (int)bound.getWidth(), (int)bound.getHeight(), MAX_OBJECTS, MAX_SUBDIVISION);
+    }
+
+    /**
+     * Constructor that takes the boundaries as plain coordinates, so no Rectangle is needed (e.g. when running headless)
+     * the objects must be BouncingBalls
+     * @param level, level of subdivision (depth)
+     * @param x x coordinate of the quad's top-left corner
+     * @param y y coordinate of the quad's top-left corner
+     * @param w width of the quad
+     * @param h height of the quad
+     * @param MAX_OBJECTS maximum amount of objects that can be stored in the quadtree
+     * @param MAX_SUBDIVISION maximum amount of levels that the entire root tree can divide into
+     */
+    @SuppressWarnings("unchecked")
+    public QuadTree(int level, int x, int y, int w, int h, int MAX_OBJECTS, int MAX_SUBDIVISION){
+        this(level, x, y, w, h, MAX_OBJECTS, MAX_SUBDIVISION, (Bounds<? super T>)Bounds.BALLS);
+    }
+
+    /**
+     * Constructor for a quadtree of any kind of object
+     * collisionCheck() still collides the objects as BouncingBalls, use findPairs() for anything else
+     * @param level, level of subdivision (depth)
+     * @param x x coordinate of the quad's top-left corner
+     * @param y y coordinate of the quad's top-left corner
+     * @param w width of the quad
+     * @param h height of the quad
+     * @param MAX_OBJECTS maximum amount of objects that can be stored in the quadtree
+     * @param MAX_SUBDIVISION maximum amount of levels that the entire root tree can divide into
+     * @param bounds where each object is and how big it is
+     */
+    public QuadTree(int level, int x, int y, int w, int h, int MAX_OBJECTS, int MAX_SUBDIVISION, Bounds<? super T> bounds){
+        //initialize variables
+        this.bounds = bounds;
+        this.MAX_OBJECTS = MAX_OBJECTS;
+        this.MAX_SUBDIVISION = MAX_SUBDIVISION;
+        this.level = level;
+        nodes = new QuadTree[4];
+        objects = new ArrayList<T>();
+        boxes = new double[4 * (MAX_OBJECTS + 1)];
+
+        //the x, y, width, and heights of the rectangle
+        this.w = w;
+        this.h = h;
+        this.x = x;
+        this.y = y;
+
+        //a new quadtree can take balls, and is not subdivided
+        canTakeObjects = true;
+        isSubdivided = false;
+    }
+
+    /**
+     * a recursive method to clear the quadtree and its nodes + arraylist of balls
+     * the nodes are emptied but kept for the next subdivide(), so rebuilding the tree every step doesn't allocate new ones
+     */
+    public void clear(){
+        objects.clear(); //clears the arraylist of balls
+        //clears each of the nodes, recursively, the nodes of a quad that isn't subdivided are already empty
+        if(isSubdivided) {
+            for(QuadTree<T> node:nodes){
+                node.clear();
+            }
+        }
+        //an empty tree is not subdivided and can take more balls
+        isSubdivided = false;
+        canTakeObjects =true;
+        dirty = false;
+    }
+
+    /**
+     * sets how far past its edges each ball's box reaches when it is inserted. A ball is put in every node its box touches,
+     * so update() only has to relocate it once it moves out of that box. Larger margins mean fewer relocations but more
+     * balls per node. Only affects balls inserted afterwards, should be set on the root
+     * @param margin distance in pixels, 0 to use the exact bounds of the ball
+     */
+    public void setMargin(double margin) {
+        this.margin = margin;
+    }
+
+    /**
+     * lets a SplitTuner pick how many objects a node holds before it splits and how deep the tree goes, instead of
+     * MAX_OBJECTS and MAX_SUBDIVISION. Nodes split and merge by the new limits as objects are inserted and removed,
+     * should be set on the root
+     * @param tuner tuner to ask, null to go back to the constants
+     */
+    public void setTuner(SplitTuner tuner) {
+        this.tuner = tuner;
+        for (QuadTree<T> node : nodes) {
+            if (node != null) {
+                node.setTuner(tuner);
+            }
+        }
+    }
+
+    /**
+     * @return objects this node holds before it splits
+     */
+    private int maxObjects() {
+        return tuner != null ? tuner.getMaxObjects(level) : MAX_OBJECTS;
+    }
+
+    /**
+     * @return deepest level a node can be at
+     */
+    private int maxSubdivision() {
+        return tuner != null ? tuner.getMaxDepth() : MAX_SUBDIVISION;
+    }
+
+    /**
+     * a method to insert an object into the quadtree
+     * @param b object to be inserted
+     */
+    public void insert(T b) {
+        double r = bounds.getRadius(b) + margin;
+        double cx = bounds.getPosX(b), cy = bounds.getPosY(b);
+        insert(b, cx - r, cy - r, cx + r, cy + r);
+    }
+
+    /**
+     * recursive method to insert a ball into every node its box touches
+     * @param b BouncingBall to be inserted
+     * @param minX left edge of the ball's box
+     * @param minY top edge of the ball's box
+     * @param maxX right edge of the ball's box
+     * @param maxY bottom edge of the ball's box
+     */
+    private void insert(T b, double minX, double minY, double maxX, double maxY) {
+        //if ball is not in the boundaries of the quadtree, don't insert it
+        if (!inBounds(minX, minY, maxX, maxY)) {
+            return ;
+        }
+
+        //if the ball has already been added, do not insert it again
+        if (objects.contains(b)) {
+            return ;
+        }
+
+        //if the quadtree is not full and can take more balls, then add it to the arraylist of balls
+        int maxObjects = maxObjects();
+        if (objects.size() < maxObjects && canTakeObjects) {
+            add(b, minX, minY, maxX, maxY);
+            return;
+        }
+
+        //if the quadtree is at the level equal to the threshold, just add it to the arraylist since the quadtree cannot subdivide further
+        //(a tuner can lower the limit below a leaf that is already deeper, then it just keeps its balls)
+        if (level >= maxSubdivision() && !isSubdivided) {
+            add(b, minX, minY, maxX, maxY);
+            return;
+        }
+
+        //if the quadtree is full, then subdivide
+        if (objects.size() >= maxObjects) {
+            if(!isSubdivided) {
+                subdivide();
+            }
+        }
+
+        //once it is subdivided, recursively run this method on each of the nodes so it can be added into the right node(s)
+        if (isSubdivided) {
+            for(QuadTree<T> node: nodes){
+                node.insert(b, minX, minY, maxX, maxY);
+            }
+            return ;
+        }
+    }
+
+    /**
+     * adds a ball and the box it was inserted with to this node's arraylist
+     */
+    private void add(T b, double minX, double minY, double maxX, double maxY) {
+        int i = objects.size() * 4;
+        if (i + 4 > boxes.length) {
+            boxes = Arrays.copyOf(boxes, boxes.length * 2);
+        }
+        boxes[i] = minX;
+        boxes[i + 1] = minY;
+        boxes[i + 2] = maxX;
+        boxes[i + 3] = maxY;
+        objects.add(b);
+    }
+
+    /**
+     * removes the ball at an index from this node's arraylist, along with its box
+     */
+    private void removeAt(int index) {
+        objects.remove(index);
+        System.arraycopy(boxes, (index + 1) * 4, boxes, index * 4, (objects.size() - index) * 4);
+    }
+
+    /**
+     * a method to remove an object from every node of the quadtree that holds it
+     * searches the whole tree, so it still works if the object has moved since it was inserted
+     * underfull nodes are not merged straight away, that is left for the next update()
+     * @param b object to be removed
+     * @return true if the object was found (and removed)
+     */
+    public boolean remove(T b) {
+        //if it isn't subdivided, just check its own array of balls
+        if (!isSubdivided) {
+            int index = objects.indexOf(b);
+            if (index >= 0) {
+                removeAt(index);
+                markDirty();
+                return true;
+            }
+            return false;
+        }
+
+        //otherwise remove it from each of the nodes, a straddling ball can be in several of them
+        boolean removed = false;
+        for (QuadTree<T> node : nodes) {
+            if (node.remove(b)) {
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * brings the quadtree up to date after the objects in it have moved, instead of clearing and rebuilding it
+     * a ball is only touched once it has moved out of the box it was inserted with (see setMargin): it is taken out of
+     * every node it was in and inserted again from the smallest node that holds all of its new box. Nodes whose children
+     * have become underfull are merged back afterwards. Balls that have left the root completely are dropped, like insert()
+     * should only be called on the root
+     */
+    public void update() {
+        if (moved == null) {
+            moved = new ArrayList<>();
+            movedFrom = new ArrayList<>();
+            seen = Collections.newSetFromMap(new IdentityHashMap<>()); //a straddling ball is found once per leaf it is in
+        }
+
+        //collect everything that has to be put somewhere new before changing the structure of the tree
+        collectMoved(moved, movedFrom, seen);
+
+        //insert each ball again, from the smallest node that can hold its new box
+        for (int i = 0; i < moved.size(); i++) {
+            T o = moved.get(i);
+            double r = bounds.getRadius(o) + margin;
+            double cx = bounds.getPosX(o), cy = bounds.getPosY(o);
+            movedFrom.get(i).insert(o, cx - r, cy - r, cx + r, cy + r);
+        }
+        moved.clear();
+        movedFrom.clear();
+        seen.clear();
+
+        //merge nodes that have become underfull
+        merge();
+    }
+
+    /**
+     * empties the quadtree for rebuilding it, except for the resting objects (see Bounds.isResting), which stay in the
+     * nodes they are in. Only the objects that aren't resting have to be inserted again afterwards, and an object that
+     * wakes is dropped by the next call and inserted again with them. A resting object that has left the box it was
+     * inserted with (it moved in the step it fell asleep) is inserted again here. Nodes left underfull are merged like
+     * update() merges them, should only be called on the root
+     */
+    public void clearMoving() {
+        if (moved == null) {
+            moved = new ArrayList<>();
+            movedFrom = new ArrayList<>();
+            seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        }
+
+        dropMoving(moved, seen);
+        merge();
+        for (int i = 0; i < moved.size(); i++) {
+            insert(moved.get(i));
+        }
+        moved.clear();
+        seen.clear();
+    }
+
+    /**
+     * recursive method to take every object out of the leaves except resting ones that are still inside their box
+     * @param resting list to add the resting objects that have left their box to, once each
+     * @param seen objects that have already been added to resting
+     */
+    private void dropMoving(ArrayList<T> resting, Set<T> seen) {
+        if (isSubdivided) {
+            for (QuadTree<T> node : nodes) {
+                node.dropMoving(resting, seen);
+            }
+            return;
+        }
+
+        //keep the objects that stay at the front, along with their boxes
+        int kept = 0;
+        for (int i = 0; i < objects.size(); i++) {
+            T o = objects.get(i);
+            if (!bounds.isResting(o)) {
+                continue;
+            }
+            double r = bounds.getRadius(o);
+            double cx = bounds.getPosX(o), cy = bounds.getPosY(o);
+            if (cx - r >= boxes[i * 4] && cy - r >= boxes[i * 4 + 1] &&
+                    cx + r <= boxes[i * 4 + 2] && cy + r <= boxes[i * 4 + 3]) {
+                objects.set(kept, o);
+                System.arraycopy(boxes, i * 4, boxes, kept * 4, 4);
+                kept++;
+            } else if (seen.add(o)) {
+                resting.add(o);
+            }
+        }
+        if (kept < objects.size()) {
+            objects.subList(kept, objects.size()).clear();
+            markDirty();
+        }
+    }
+
+    /**
+     * recursive method to find the balls that have moved out of the box they were inserted with
+     * they are removed from every leaf they are in, and added to moved once
+     * @param moved list to add the objects that need to be inserted again to
+     * @param from list to add the node each object should be inserted again from to
+     * @param seen objects that have already been added to moved
+     */
+    private void collectMoved(ArrayList<T> moved, ArrayList<QuadTree<T>> from, Set<T> seen) {
+        if (isSubdivided) {
+            for (QuadTree<T> node : nodes) {
+                node.collectMoved(moved, from, seen);
+            }
+            return;
+        }
+
+        for (int i = objects.size() - 1; i >= 0; i--) {
+            T o = objects.get(i);
+            double r = bounds.getRadius(o);
+            double cx = bounds.getPosX(o), cy = bounds.getPosY(o);
+            //still inside its box, so it is still in every leaf it touches
+            if (cx - r >= boxes[i * 4] && cy - r >= boxes[i * 4 + 1] &&
+                    cx + r <= boxes[i * 4 + 2] && cy + r <= boxes[i * 4 + 3]) {
+                continue;
+            }
+            //every leaf it is in finds it (they all hold the same box), so each one takes it out
+            removeAt(i);
+            markDirty();
+            if (!seen.add(o)) {
+                continue;
+            }
+            //climb up to the smallest node that holds all of its new box (or the root)
+            QuadTree<T> node = this;
+            while (node.parent != null && !node.fullyInBounds(cx, cy, r + margin)) {
+                node = node.parent;
+            }
+            moved.add(o);
+            from.add(node);
+        }
+    }
+
+    /**
+     * recursive method to merge subdivided nodes whose children only hold a few objects between them
+     * only visits the parts of the tree that objects were removed from
+     */
+    private void merge() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        if (!isSubdivided) {
+            return;
+        }
+
+        //merge from the bottom up, and only merge children that are leaves
+        for (QuadTree<T> node : nodes) {
+            node.merge();
+        }
+        for (QuadTree<T> node : nodes) {
+            if (node.isSubdivided) {
+                return;
+            }
+        }
+
+        //gather the children's objects (straddling balls are in several children) as long as there are few enough
+        //merges at half of MAX_OBJECTS, so a ball going back and forth doesn't keep splitting and merging the same node
+        for (QuadTree<T> node : nodes) {
+            for (int i = 0; i < node.objects.size(); i++) {
+                T o = node.objects.get(i);
+                if (!objects.contains(o)) {
+                    if (objects.size() >= maxObjects() / 2) {
+                        objects.clear();
+                        return;
+                    }
+                    add(o, node.boxes[i * 4], node.boxes[i * 4 + 1], node.boxes[i * 4 + 2], node.boxes[i * 4 + 3]);
+                }
+            }
+        }
+
+        //the objects now live in this node, so its children are emptied (and kept for the next subdivide())
+        for (QuadTree<T> node : nodes) {
+            node.clear();
+        }
+        isSubdivided = false;
+        canTakeObjects = true;
+    }
+
+    /**
+     * marks this node and all of the nodes above it as having had objects removed
+     */
+    private void markDirty() {
+        QuadTree<T> node = this;
+        while (node != null && !node.dirty) {
+            node.dirty = true;
+            node = node.parent;
+        }
+    }
+
+    /**
+     * a method to subdivide the tree into more quads
+     */
+    public void subdivide() {
+        //initialize each of the new nodes, each has dimensions of half the height and half the width
+        //the nodes from an earlier subdivide() are reused, they cover the same quads and were emptied when this quad was cleared or merged
+        if (nodes[0] == null) {
+            //the east and south halves get the odd pixel, so the children cover all of this quad
+            int hw = w / 2, hh = h / 2;
+            nodes[0] = new QuadTree<T>(level + 1, x + hw, y, w - hw, hh, this.MAX_OBJECTS, this.MAX_SUBDIVISION, bounds); //northeast corner
+            nodes[1] = new QuadTree<T>(level + 1, x, y, hw, hh, this.MAX_OBJECTS, this.MAX_SUBDIVISION, bounds); //northwest corner
+            nodes[2] = new QuadTree<T>(level + 1, x, y + hh, hw, h - hh, this.MAX_OBJECTS, this.MAX_SUBDIVISION, bounds); //southwest corner
+            nodes[3] = new QuadTree<T>(level + 1, x + hw, y + hh, w - hw, h - hh, this.MAX_OBJECTS, this.MAX_SUBDIVISION, bounds); //southeast corner
+        }
+
+        for (QuadTree<T> node : nodes) {
+            node.parent = this;
+            node.margin = margin;
+            node.tuner = tuner;
+        }
+
+        //distribute the balls of this current tree to its subnodes, each keeps the box it was inserted with
+        for (int i = 0; i < objects.size(); i++) {
+            for (QuadTree<T> node : nodes) {
+                node.insert(objects.get(i), boxes[i * 4], boxes[i * 4 + 1], boxes[i * 4 + 2], boxes[i * 4 + 3]);
+            }
+        }
+
+        //tell the tuner how many children each ball ended up in, unless a child split straight away
+        if (tuner != null && objects.size() > 0) {
+            int entries = 0;
+            for (QuadTree<T> node : nodes) {
+                if (node.isSubdivided) {
+                    entries = -1;
+                    break;
+                }
+                entries += node.objects.size();
+            }
+            if (entries >= 0) {
+                tuner.recordSplit(level, objects.size(), entries);
+            }
+        }
+
+        //clear this current trees list of ball since they have all been distributed to subnodes
+        objects.clear();
+
+        //a subdivided tree cannot take more balls, and it is now subdivided
+        canTakeObjects = false;
+        isSubdivided = true;
+    }
+
+    /**
+     * a recursive method to hand out the lines of the entire quadtree (including all its nodes), draw() draws them
+     * @param lines where to send the lines
+     */
+    @Override
+    public void outline(LineDrawer lines){
+        if(level!=1) { //do not draw if it is the first level (results in weird border)
+            //draw the lines
+            lines.drawLine(x, y, x + w, y);
+            lines.drawLine(x, y, x, y + h);
+        }
+
+        //draw recursively for each of the trees subnodes
+        if(isSubdivided) {
+            for(QuadTree<T> node: nodes){
+                node.outline(lines);
+            }
+        }
+
+    }
+
+    /**
+     * hands out the lines of the nodes that overlap a rectangle (e.g. what is on the screen), without going into nodes
+     * smaller than a size, so a zoomed out view doesn't get more lines than it has pixels
+     * @param minX left edge of the rectangle
+     * @param minY top edge of the rectangle
+     * @param maxX right edge of the rectangle
+     * @param maxY bottom edge of the rectangle
+     * @param minSize narrowest node to go into, 0 for all of them
+     * @param lines where to send the lines
+     */
+    public void outline(double minX, double minY, double maxX, double maxY, double minSize, LineDrawer lines) {
+        if (!inBounds(minX, minY, maxX, maxY)) {
+            return;
+        }
+        if (level != 1) {
+            lines.drawLine(x, y, x + w, y);
+            lines.drawLine(x, y, x, y + h);
+        }
+        if (isSubdivided && Math.min(w, h) / 2 >= minSize) {
+            for (QuadTree<T> node : nodes) {
+                node.outline(minX, minY, maxX, maxY, minSize, lines);
+            }
+        }
+    }
+
+    /**
+     * clears the quadtree and inserts every object again, for using it as a BroadPhase
+     * @param items objects to insert
+     */
+    @Override
+    public void build(List<? extends T> items) {
+        clear();
+        for (int i = 0; i < items.size(); i++) {
+            insert(items.get(i));
+        }
+    }
+
+    /**
+     * hands every pair of objects that share a leaf to a consumer, in the same order collisionCheck() checks them,
+     * except pairs of two resting objects (see Bounds.isResting)
+     * a straddling object is in several leaves, so a pair that shares more than one leaf is handed out once per leaf
+     * @param pairs consumer to hand the pairs to
+     */
+    @Override
+    public void findPairs(BiConsumer<? super T, ? super T> pairs) {
+        if (!isSubdivided) {
+            for (int i = 0; i < objects.size(); i++) {
+                for (int j = i + 1; j < objects.size(); j++) {
+                    //looked at as each pair is handed out, a pair handed out before may have woken one of them
+                    if (!bounds.isResting(objects.get(i)) || !bounds.isResting(objects.get(j))) {
+                        pairs.accept(objects.get(i), objects.get(j));
+                    }
+                }
+            }
+            return;
+        }
+        for (QuadTree<T> node : nodes) {
+            node.findPairs(pairs);
+        }
+    }
+
+    /**
+     * checks for collisions in every leaf, the objects must be BouncingBalls
+     */
+    public void collisionCheck(){
+        collisionCheck(narrow());
+    }
+
+    /**
+     * @return the narrow phase collisionCheck() uses on the calling thread, made the first time it is needed
+     */
+    private NarrowPhase narrow() {
+        if (narrow == null) {
+            narrow = new NarrowPhase();
+        }
+        return narrow;
+    }
+
+    /**
+     * recursive method to check for collisions
+     * @param narrow finds the touching pairs of a leaf, the same pairs in the same order as colliding every pair would
+     */
+    private void collisionCheck(NarrowPhase narrow){
+        //if it isn't subdivided, just check its own array of balls since there are no further levels to check
+        if(!isSubdivided){
+            //a leaf of sleeping balls has nothing to collide, and nothing in it can wake until it is done
+            if (objects.size() < 2 || isResting()) {
+                return;
+            }
+            collide(narrow);
+        }else{ //otherwise, check for collisions in each of its nodes
+            for(QuadTree<T> node:nodes){
+                node.collisionCheck(narrow);
+            }
+        }
+    }
+
+    /**
+     * collides the touching pairs of this leaf, in the order of objects
+     * @param narrow narrow phase to find the pairs with
+     * @return number of touching pairs
+     */
+    private int collide(NarrowPhase narrow) {
+        fill(narrow);
+        int touching = narrow.findPairs();
+        for (int p = 0; p < touching; p++) {
+            ((BouncingBall)objects.get(narrow.getFirst(p))).collide((BouncingBall)objects.get(narrow.getSecond(p)));
+        }
+        return touching;
+    }
+
+    /**
+     * @return true if every object in this quad is resting (see Bounds.isResting)
+     */
+    private boolean isResting() {
+        for (int i = 0; i < objects.size(); i++) {
+            if (!bounds.isResting(objects.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * puts the balls of this quad into a narrow phase, in the order of objects
+     * @param narrow narrow phase to fill
+     */
+    private void fill(NarrowPhase narrow) {
+        narrow.clear();
+        for (int i = 0; i < objects.size(); i++) {
+            narrow.add((BouncingBall)objects.get(i));
+        }
+    }
+
+    /**
+     * checks for collisions like collisionCheck(), but searches the leaves for touching pairs on several threads
+     * the search only reads positions (which collisions don't change), so leaves can be searched in any order by any thread,
+     * even when a straddling ball is in leaves searched by different threads. The touching pairs are then resolved on
+     * the calling thread in exactly the order collisionCheck() would resolve them, so the results are identical to it.
+     * A leaf whose balls were all asleep when it was searched is looked at again when its turn comes, as a ball straddling
+     * into it may have been woken by then
+     * @param pool pool to search the leaves on
+     * @return number of touching pairs that were collided
+     */
+    public int collisionCheck(ForkJoinPool pool) {
+        if (search == null || search.pool != pool) {
+            search = new ParallelSearch(pool);
+        }
+
+        //leaves in the same order collisionCheck() visits them
+        search.leaves.clear();
+        collectLeaves(search.leaves);
+
+        //find the touching pairs of every leaf in parallel
+        search.run();
+
+        //resolve them one chunk at a time, pairs that don't touch would have been left alone by collide() anyway
+        int resolved = 0;
+        for (LeafChunk chunk : search.chunks) {
+            int[] pairs = chunk.pairs;
+            for (int p = 0; p < chunk.count * 3; p += 3) {
+                QuadTree<?> leaf = search.leaves.get(pairs[p]);
+                if (pairs[p + 1] < 0) {
+                    //skipped while every ball in it was asleep, a straddling ball may have been woken in a leaf before it
+                    if (!leaf.isResting()) {
+                        resolved += leaf.collide(narrow());
+                    }
+                    continue;
+                }
+                ((BouncingBall)leaf.objects.get(pairs[p + 1])).collide((BouncingBall)leaf.objects.get(pairs[p + 2]));
+                resolved++;
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * recursive method to list every leaf, in the order collisionCheck() visits them
+     * @param leaves list to add the leaves to
+     */
+    private void collectLeaves(List<? super QuadTree<T>> leaves) {
+        if (!isSubdivided) {
+            leaves.add(this);
+            return;
+        }
+        for (QuadTree<T> node : nodes) {
+            node.collectLeaves(leaves);
+        }
+    }
+
+    /**
+     * binary heap of nodes and objects ordered by their distance from the point nearest() searches around
+     */
+    private static class SearchQueue {
+        private double[] keys = new double[64]; //distance of each entry
+        private Object[] entries = new Object[64]; //a node or an object
+        private boolean[] isNode = new boolean[64]; //true if the entry is a node
+        private int size;
+
+        void clear() {
+            Arrays.fill(entries, 0, size, null);
+            size = 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean peekIsNode() {
+            return isNode[0];
+        }
+
+        void push(double key, Object entry, boolean node) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                entries = Arrays.copyOf(entries, size * 2);
+                isNode = Arrays.copyOf(isNode, size * 2);
+            }
+            //move it up past the entries further away than it
+            int i = size++;
+            while (i > 0 && keys[(i - 1) / 2] > key) {
+                int parent = (i - 1) / 2;
+                set(i, keys[parent], entries[parent], isNode[parent]);
+                i = parent;
+            }
+            set(i, key, entry, node);
+        }
+
+        Object pop() {
+            Object top = entries[0];
+            size--;
+            double key = keys[size];
+            Object entry = entries[size];
+            boolean node = isNode[size];
+            entries[size] = null;
+            //move the last entry down from the top past the entries closer than it
+            int i = 0;
+            while (2 * i + 1 < size) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= key) {
+                    break;
+                }
+                set(i, keys[child], entries[child], isNode[child]);
+                i = child;
+            }
+            if (size > 0) {
+                set(i, key, entry, node);
+            }
+            return top;
+        }
+
+        private void set(int i, double key, Object entry, boolean node) {
+            keys[i] = key;
+            entries[i] = entry;
+            isNode[i] = node;
+        }
+    }
+
+    /**
+     * everything collisionCheck(pool) needs to search the leaves on a pool, kept between steps so that once its buffers
+     * have grown to fit, a search allocates nothing. The leaves are split into a few chunks per thread; the pool's threads
+     * and the calling thread all take chunks until none are left, so nobody has to join a task (which can allocate)
+     */
+    private static class ParallelSearch {
+        private final ForkJoinPool pool; //pool the chunks are searched on
+        private final ArrayList<QuadTree<?>> leaves = new ArrayList<>(); //every leaf, in the order collisionCheck() visits them
+        private final LeafChunk[] chunks; //ranges of leaves, in order
+        private final ChunkTaker[] takers; //one task per thread of the pool, handed to it again once it has finished
+        private final AtomicInteger next = new AtomicInteger(); //next chunk to take
+        private final AtomicInteger finished = new AtomicInteger(); //chunks searched (or given up on) so far this step
+        private final AtomicReference<Throwable> failure = new AtomicReference<>(); //first thing a search threw this step
+
+        ParallelSearch(ForkJoinPool pool) {
+            this.pool = pool;
+            chunks = new LeafChunk[pool.getParallelism() * 8];
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = new LeafChunk();
+            }
+            takers = new ChunkTaker[pool.getParallelism()];
+            for (int i = 0; i < takers.length; i++) {
+                takers[i] = new ChunkTaker(this);
+            }
+        }
+
+        /**
+         * searches every chunk of leaves and returns once all of them are done
+         * @throws RuntimeException or Error, the first one a search of a chunk threw, on whichever thread
+         */
+        void run() {
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i].from = (int)((long)leaves.size() * i / chunks.length);
+                chunks[i].to = (int)((long)leaves.size() * (i + 1) / chunks.length);
+            }
+            finished.set(0);
+            failure.set(null);
+            next.set(0);
+            for (ChunkTaker taker : takers) {
+                //a taker that hasn't run yet is still queued and will help when it does
+                if (taker.isDone()) {
+                    taker.reinitialize();
+                    pool.execute(taker);
+                }
+            }
+            take();
+            //every chunk is counted even if its search throws, so this always ends
+            while (finished.get() < chunks.length) {
+                Thread.yield();
+            }
+            Throwable thrown = failure.get();
+            if (thrown instanceof RuntimeException) {
+                throw (RuntimeException)thrown;
+            } else if (thrown instanceof Error) {
+                throw (Error)thrown;
+            } else if (thrown != null) {
+                throw new IllegalStateException(thrown);
+            }
+        }
+
+        /**
+         * searches chunks until there are none left to take, keeping what a search throws for run() instead of
+         * letting it end the task, where the pool would swallow it
+         */
+        void take() {
+            int c;
+            while ((c = next.getAndIncrement()) < chunks.length) {
+                try {
+                    chunks[c].search(leaves);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    finished.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * range of leaves searched together, with its own narrow phase and the touching pairs it found
+     */
+    private static class LeafChunk {
+        private final NarrowPhase narrow = new NarrowPhase(); //searches the chunk's leaves, kept between steps
+        private int[] pairs = new int[192]; //touching pairs found, as the leaf's index and two indices into its objects,
+                                            //or the leaf's index and -1, -1 for a leaf of sleeping balls that was skipped
+        private int count; //touching pairs (and skipped leaves) in pairs
+        private int from, to; //range of leaves in the chunk
+
+        /**
+         * finds the pairs of balls that touch in each leaf of the chunk, without changing them, in the order
+         * collisionCheck() checks them
+         * @param leaves every leaf
+         */
+        void search(List<QuadTree<?>> leaves) {
+            count = 0;
+            for (int l = from; l < to; l++) {
+                QuadTree<?> leaf = leaves.get(l);
+                if (leaf.objects.size() < 2) {
+                    continue;
+                }
+                if (leaf.isResting()) {
+                    //left for the calling thread to look at again, in case a ball in it is woken before then
+                    if (pairs.length < (count + 1) * 3) {
+                        pairs = Arrays.copyOf(pairs, pairs.length * 2);
+                    }
+                    pairs[count * 3] = l;
+                    pairs[count * 3 + 1] = -1;
+                    pairs[count * 3 + 2] = -1;
+                    count++;
+                    continue;
+                }
+                leaf.fill(narrow);
+                int touching = narrow.findPairs();
+                if (pairs.length < (count + touching) * 3) {
+                    pairs = Arrays.copyOf(pairs, Math.max((count + touching) * 3, pairs.length * 2));
+                }
+                for (int p = 0; p < touching; p++) {
+                    pairs[count * 3] = l;
+                    pairs[count * 3 + 1] = narrow.getFirst(p);
+                    pairs[count * 3 + 2] = narrow.getSecond(p);
+                    count++;
+                }
+            }
+        }
+    }
+
+    /**
+     * task that takes chunks for one thread of the pool
+     */
+    private static class ChunkTaker extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final ParallelSearch search;
+
+        ChunkTaker(ParallelSearch search) {
+            this.search = search;
+        }
+
+        @Override
+        protected void compute() {
+            search.take();
+        }
+    }
+
+    /**
+     * hands every object whose circle touches a rectangle to a visitor, once each, only going into nodes that overlap it
+     * objects are found by the box they were inserted with, so the tree should be built or updated since they last moved
+     * allocates nothing, so it can be called every frame
+     * @param minX left edge of the rectangle
+     * @param minY top edge of the rectangle
+     * @param maxX right edge of the rectangle
+     * @param maxY bottom edge of the rectangle
+     * @param visitor consumer to hand the objects to
+     */
+    public void query(double minX, double minY, double maxX, double maxY, Consumer<? super T> visitor) {
+        query(minX, minY, maxX, maxY, visitor, this);
+    }
+
+    /**
+     * recursive method to find the objects that touch a rectangle
+     * @param root root of the tree, a straddling object is only handed out by the leaf that owns a point of it
+     */
+    private void query(double minX, double minY, double maxX, double maxY, Consumer<? super T> visitor, QuadTree<T> root) {
+        //moved into the root, like the points owns() looks at, so objects that stick out of the root are still found
+        if (!inBounds(root.clampX(minX), root.clampY(minY), root.clampX(maxX), root.clampY(maxY))) {
+            return;
+        }
+        if (isSubdivided) {
+            for (QuadTree<T> node : nodes) {
+                node.query(minX, minY, maxX, maxY, visitor, root);
+            }
+            return;
+        }
+        for (int i = 0; i < objects.size(); i++) {
+            T o = objects.get(i);
+            double r = bounds.getRadius(o);
+            double cx = bounds.getPosX(o), cy = bounds.getPosY(o);
+            //distance from the centre to the closest point of the rectangle
+            double deltaX = cx - Math.max(minX, Math.min(maxX, cx));
+            double deltaY = cy - Math.max(minY, Math.min(maxY, cy));
+            if (deltaX * deltaX + deltaY * deltaY <= r * r && owns(i, minX, minY, root)) {
+                visitor.accept(o);
+            }
+        }
+    }
+
+    /**
+     * hands every object whose circle touches a circle to a visitor, once each, only going into nodes that come within
+     * its radius. Like query(), it goes by the boxes the objects were inserted with and allocates nothing
+     * @param cx x coordinate of the centre of the circle
+     * @param cy y coordinate of the centre of the circle
+     * @param radius radius of the circle, 0 for every object that covers the point
+     * @param visitor consumer to hand the objects to
+     */
+    public void queryRadius(double cx, double cy, double radius, Consumer<? super T> visitor) {
+        queryRadius(cx, cy, radius, visitor, this);
+    }
+
+    /**
+     * recursive method to find the objects that touch a circle
+     * @param root root of the tree, a straddling object is only handed out by the leaf that owns a point of it
+     */
+    private void queryRadius(double cx, double cy, double radius, Consumer<? super T> visitor, QuadTree<T> root) {
+        if (distance(root.clampX(cx), root.clampY(cy)) > radius) {
+            return;
+        }
+        if (isSubdivided) {
+            for (QuadTree<T> node : nodes) {
+                node.queryRadius(cx, cy, radius, visitor, root);
+            }
+            return;
+        }
+        for (int i = 0; i < objects.size(); i++) {
+            T o = objects.get(i);
+            double deltaX = bounds.getPosX(o) - cx;
+            double deltaY = bounds.getPosY(o) - cy;
+            double reach = radius + bounds.getRadius(o);
+            if (deltaX * deltaX + deltaY * deltaY <= reach * reach && owns(i, cx, cy, root)) {
+                visitor.accept(o);
+            }
+        }
+    }
+
+    /**
+     * hands the k objects closest to a point to a visitor, closest first, measured to the edge of each circle (0 if the
+     * point is inside it). Nodes and objects wait in one queue ordered by distance, and a node is only opened once nothing
+     * left in the queue is closer, so the search stops as soon as the k-th object comes out. The queue is kept on the
+     * root, so after the first few searches it allocates nothing
+     * @param px x coordinate of the point
+     * @param py y coordinate of the point
+     * @param k number of objects wanted
+     * @param visitor consumer to hand the objects to
+     * @return number of objects handed out, less than k if the tree holds fewer
+     */
+    @SuppressWarnings("unchecked")
+    public int nearest(double px, double py, int k, Consumer<? super T> visitor) {
+        if (queue == null) {
+            queue = new SearchQueue();
+        }
+        SearchQueue queue = this.queue;
+        queue.clear();
+        //nodes are measured from the point moved into the root, which is never further than an object that sticks out of it
+        double inX = clampX(px), inY = clampY(py);
+        queue.push(0, this, true);
+
+        int found = 0;
+        while (found < k && queue.size() > 0) {
+            boolean isNode = queue.peekIsNode();
+            Object entry = queue.pop();
+            if (!isNode) {
+                visitor.accept((T)entry);
+                found++;
+                continue;
+            }
+            QuadTree<T> node = (QuadTree<T>)entry;
+            if (node.isSubdivided) {
+                for (QuadTree<T> child : node.nodes) {
+                    queue.push(child.distance(inX, inY), child, true);
+                }
+                continue;
+            }
+            for (int i = 0; i < node.objects.size(); i++) {
+                T o = node.objects.get(i);
+                double deltaX = bounds.getPosX(o) - px;
+                double deltaY = bounds.getPosY(o) - py;
+                double centre = Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+                double r = bounds.getRadius(o);
+                //the closest point of the circle to the point, only the leaf that owns it queues the object
+                double qx = px, qy = py;
+                if (centre > r) {
+                    qx = px + deltaX * (centre - r) / centre;
+                    qy = py + deltaY * (centre - r) / centre;
+                }
+                if (node.owns(i, qx, qy, this)) {
+                    queue.push(Math.max(0, centre - r), o, false);
+                }
+            }
+        }
+        queue.clear(); //let go of the objects that were left
+        return found;
+    }
+
+    /**
+     * checks whether this leaf is the one that hands out one of its objects, so an object that straddles several leaves
+     * is only found once. The point is moved into the part of the object's box (as it was inserted) inside the root, then
+     * belongs to the one leaf that holds it. A point on a line between two leaves goes to the leaf on the inside of the
+     * box: update() doesn't put an object in a leaf its box only touches the edge of
+     * @param i index of the object in objects
+     * @param px x coordinate of the point
+     * @param py y coordinate of the point
+     * @param root root of the tree
+     * @return true if this leaf owns the point
+     */
+    private boolean owns(int i, double px, double py, QuadTree<T> root) {
+        double maxX = Math.min(boxes[i * 4 + 2], root.x + root.w);
+        double maxY = Math.min(boxes[i * 4 + 3], root.y + root.h);
+        px = Math.max(Math.max(boxes[i * 4], root.x), Math.min(maxX, px));
+        py = Math.max(Math.max(boxes[i * 4 + 1], root.y), Math.min(maxY, py));
+        boolean ownsX = px == maxX ? px > x && px <= x + w : px >= x && px < x + w;
+        boolean ownsY = py == maxY ? py > y && py <= y + h : py >= y && py < y + h;
+        return ownsX && ownsY;
+    }
+
+    /**
+     * @return x coordinate moved inside the quadtree's boundaries
+     */
+    private double clampX(double px) {
+        return Math.max(x, Math.min(x + w, px));
+    }
+
+    /**
+     * @return y coordinate moved inside the quadtree's boundaries
+     */
+    private double clampY(double py) {
+        return Math.max(y, Math.min(y + h, py));
+    }
+
+    /**
+     * @return distance from a point to the closest point of the quadtree's boundaries, 0 if the point is inside
+     */
+    private double distance(double px, double py) {
+        double deltaX = px - Math.max(x, Math.min(x + w, px));
+        double deltaY = py - Math.max(y, Math.min(y + h, py));
+        return Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+    }
+
+    /**
+     * private method to check whether a box overlaps the boundaries of the quadtree
+     * @return returns true if any part of the box is in the boundaries of the quad tree
+     */
+    private boolean inBounds(double minX, double minY, double maxX, double maxY) {
+        return maxX >= x && minX <= x + w && maxY >= y && minY <= y + h;
+    }
+
+    /**
+     * private method to check whether all of a circle's box is in the boundaries of the quadtree
+     * @param cx x coordinate of the centre
+     * @param cy y coordinate of the centre
+     * @param r half the side of the box
+     * @return returns true if no part of the box is outside the boundaries of the quad tree
+     */
+    private boolean fullyInBounds(double cx, double cy, double r) {
+        return cx - r >= x && cx + r <= x + w && cy - r >= y && cy + r <= y + h;
+    }
+
+    /**
+     * recursive method to count the nodes in use
+     * @return number of nodes in this subtree, including this one
+     */
+    public int getNodeCount() {
+        int count = 1;
+        if (isSubdivided) {
+            for (QuadTree<T> node : nodes) {
+                count += node.getNodeCount();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * recursive method to find the deepest node in use
+     * @return level of the deepest node in this subtree
+     */
+    public int getMaxDepth() {
+        int depth = level;
+        if (isSubdivided) {
+            for (QuadTree<T> node : nodes) {
+                depth = Math.max(depth, node.getMaxDepth());
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * recursive method to count the objects in the leaves, an object that straddles a line counts once for every leaf it is in
+     * @return number of objects stored in this subtree
+     */
+    public int getEntryCount() {
+        if (!isSubdivided) {
+            return objects.size();
+        }
+        int count = 0;
+        for (QuadTree<T> node : nodes) {
+            count += node.getEntryCount();
+        }
+        return count;
+    }
+
+    /**
+     * recursive method to count the pairs collisionCheck() checks, every pair of objects in each leaf
+     * @return number of pairs checked below this node
+     */
+    public long getCandidatePairs() {
+        if (!isSubdivided) {
+            long n = objects.size();
+            return n * (n - 1) / 2;
+        }
+        long count = 0;
+        for (QuadTree<T> node : nodes) {
+            count += node.getCandidatePairs();
+        }
+        return count;
+    }
+}
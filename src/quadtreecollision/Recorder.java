@@ -0,0 +1,277 @@
+/**
+ * [Recorder.java]
+ * Records a running world to a file, one frame per batch of steps, to be watched again with a Replay (e.g. to look at
+ * odd collisions frame by frame). Run it on the simulation thread after each batch of steps (e.g. as part of the
+ * Simulation's viewer): there it only copies every ball's centre, size and colour, rounded to 1/SCALE of a unit, into a
+ * Frame from a small pool. A writer thread of its own takes the frames off a bounded queue, encodes them and writes them.
+ * If the writer falls behind the pool runs dry and frames are dropped instead of making the simulation wait.
+ * Most frames only hold how far each ball moved since the frame before, as variable length integers (a byte for a
+ * move of up to 8 units), and every KEY_INTERVAL frames, or when the balls changed, a key frame holds everything,
+ * so a Replay can start from any key frame.
+ * The file is a header (int magic "QTCR", int version, int width, int height, int SCALE, int KEY_INTERVAL) and then
+ * frames of: int length of the rest of the frame, long step, byte KEY or DELTA, int number of balls, and per ball
+ * zigzag varints of x and y (and for a key frame varints of the size and the colour index), everything big endian
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+public class Recorder implements Runnable {
+    public static final int MAGIC = 0x51544352; //"QTCR" at the start of every recording
+    public static final int VERSION = 1; //version of the file layout, bumped whenever it changes
+    public static final int SCALE = 8; //positions and sizes are kept in 1/SCALE of a unit
+    public static final int KEY_INTERVAL = 60; //most frames between two key frames, so a replay never decodes more to seek
+    static final int HEADER = 24; //bytes before the first frame
+    static final byte KEY = 0; //a frame with every value in it
+    static final byte DELTA = 1; //a frame with how far each ball moved since the frame before
+    private static final int QUEUE = 4; //frames that can wait for the writer before frames are dropped
+
+    /**
+     * every ball of one step, rounded to 1/SCALE of a unit, ball i is the i-th entry of each array
+     */
+    public static final class Frame {
+        long step; //step of the world
+        int count; //number of balls
+        int[] x = new int[0], y = new int[0]; //centre of each ball
+        int[] size = new int[0]; //diameter of each ball
+        int[] colour = new int[0]; //index of each ball's colour in the palette
+
+        /**
+         * empties the frame and makes room for the balls of a step
+         * @param step step of the world
+         * @param count number of balls
+         */
+        public void start(long step, int count) {
+            this.step = step;
+            this.count = count;
+            if (x.length < count) {
+                int capacity = Math.max(count, x.length * 2);
+                x = new int[capacity];
+                y = new int[capacity];
+                size = new int[capacity];
+                colour = new int[capacity];
+            }
+        }
+
+        /**
+         * sets a ball
+         * @param i index of the ball
+         * @param centreX x coordinate of the centre
+         * @param centreY y coordinate of the centre
+         * @param diameter diameter of the ball
+         * @param colourIndex index of the colour in the palette
+         */
+        public void set(int i, double centreX, double centreY, double diameter, int colourIndex) {
+            x[i] = (int)Math.round(centreX * SCALE);
+            y[i] = (int)Math.round(centreY * SCALE);
+            size[i] = (int)Math.round(diameter * SCALE);
+            colour[i] = colourIndex;
+        }
+
+        /**
+         * @param other another frame
+         * @return true if both have the same balls with the same sizes and colours, so one can be stored as moves from the other
+         */
+        boolean sameBalls(Frame other) {
+            return count == other.count && Arrays.equals(size, 0, count, other.size, 0, count)
+                    && Arrays.equals(colour, 0, count, other.colour, 0, count);
+        }
+    }
+
+    private final Steppable world; //world being recorded
+    private final Consumer<Frame> capture; //copies the world into a frame, e.g. World::record
+    private final BlockingQueue<Frame> free = new ArrayBlockingQueue<>(QUEUE + 1); //frames ready to be filled
+    private final BlockingQueue<Frame> queue = new ArrayBlockingQueue<>(QUEUE + 1); //filled frames waiting for the writer
+    private final Frame end = new Frame(); //put on the queue to tell the writer to finish
+    private final FileChannel channel; //file being written
+    private final Thread writer; //thread the frames are encoded and written on
+    private long lastStep = -1; //step of the last frame taken
+    private volatile IOException failure; //why writing stopped, null while it hasn't
+    private long dropped; //frames dropped because the writer was behind
+    private long written; //frames written
+    private long bytes; //bytes written
+
+    /**
+     * Constructor, starts the writer thread and writes the header
+     * @param world world to record
+     * @param capture copies the world into a frame
+     * @param width width of the world
+     * @param height height of the world
+     * @param path file to write, replaced if it is there
+     * @throws IOException if the file can't be written
+     */
+    public Recorder(Steppable world, Consumer<Frame> capture, int width, int height, Path path) throws IOException {
+        this.world = world;
+        this.capture = capture;
+        for (int i = 0; i < QUEUE; i++) {
+            free.add(new Frame());
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        header.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(height).putInt(SCALE).putInt(KEY_INTERVAL).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        bytes = HEADER;
+        writer = new Thread(this::write, "recorder");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * takes a frame of the world if it has stepped since the last one, or drops it if the writer is behind
+     */
+    @Override
+    public void run() {
+        long step = world.getSteps();
+        if (step == lastStep || failure != null) {
+            return;
+        }
+        lastStep = step;
+        Frame frame = free.poll();
+        if (frame == null) {
+            dropped++;
+            return;
+        }
+        capture.accept(frame);
+        queue.add(frame);
+    }
+
+    /**
+     * the writer thread: encodes each frame against the one before it and writes it, until close()
+     */
+    private void write() {
+        Frame previous = new Frame(); //last frame written, the writer's own so the pool never runs dry because of it
+        byte[] buffer = new byte[1024];
+        int sinceKey = KEY_INTERVAL;
+        try {
+            while (true) {
+                Frame frame = queue.take();
+                if (frame == end) {
+                    break;
+                }
+                boolean key = sinceKey >= KEY_INTERVAL || !frame.sameBalls(previous);
+                sinceKey = key ? 1 : sinceKey + 1;
+
+                //room for the frame's head and the longest varints, five bytes per int
+                int needed = 17 + frame.count * (key ? 20 : 10);
+                if (buffer.length < needed) {
+                    buffer = new byte[Math.max(needed, buffer.length * 2)];
+                }
+                int at = 4; //length goes in front once it is known
+                at = putLong(buffer, at, frame.step);
+                buffer[at++] = key ? KEY : DELTA;
+                at = putInt(buffer, at, frame.count);
+                for (int i = 0; i < frame.count; i++) {
+                    if (key) {
+                        at = putVarint(buffer, at, zigzag(frame.x[i]));
+                        at = putVarint(buffer, at, zigzag(frame.y[i]));
+                        at = putVarint(buffer, at, frame.size[i]);
+                        at = putVarint(buffer, at, frame.colour[i]);
+                    } else {
+                        at = putVarint(buffer, at, zigzag(frame.x[i] - previous.x[i]));
+                        at = putVarint(buffer, at, zigzag(frame.y[i] - previous.y[i]));
+                    }
+                }
+                putInt(buffer, 0, at - 4);
+                ByteBuffer out = ByteBuffer.wrap(buffer, 0, at);
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+
+                //the frame becomes the one the next is compared with, and the old one goes back to be filled again
+                Frame old = previous;
+                previous = frame;
+                synchronized (this) {
+                    written++;
+                    bytes += at;
+                }
+                free.add(old);
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            failure = new IOException("recorder was interrupted", e);
+        }
+    }
+
+    /**
+     * writes the frames still waiting, closes the file and stops the writer thread, after the simulation has stopped
+     * @throws IOException if writing failed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void close() throws IOException, InterruptedException {
+        queue.put(end);
+        writer.join();
+        channel.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * @return frames dropped because the writer was behind, only read on the simulation thread or after it stopped
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    public synchronized long getWritten() {
+        return written;
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return v with its sign moved to the lowest bit, so small negative numbers stay small
+     */
+    static int zigzag(int v) {
+        return (v << 1) ^ (v >> 31);
+    }
+
+    /**
+     * undoes zigzag()
+     */
+    static int unzigzag(int v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /**
+     * puts an unsigned int seven bits per byte, lowest first, with the top bit set on every byte but the last
+     * @return index after the last byte
+     */
+    private static int putVarint(byte[] b, int at, int v) {
+        while ((v & ~0x7F) != 0) {
+            b[at++] = (byte)((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        b[at++] = (byte)v;
+        return at;
+    }
+
+    private static int putInt(byte[] b, int at, int v) {
+        b[at] = (byte)(v >>> 24);
+        b[at + 1] = (byte)(v >>> 16);
+        b[at + 2] = (byte)(v >>> 8);
+        b[at + 3] = (byte)v;
+        return at + 4;
+    }
+
+    private static int putLong(byte[] b, int at, long v) {
+        at = putInt(b, at, (int)(v >>> 32));
+        return putInt(b, at, (int)v);
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * [RenderSnapshot.java]
+ * A copy of everything needed to draw one step of a World: where each ball is, how big it is, its colour, and the lines
+ * of the tree or grid that found the collisions. It is made on the simulation thread and never changes afterwards,
+ * so another thread can draw it while the world carries on stepping.
+ * A snapshot can be of what one Camera sees: then it only holds the balls and lines on the screen (or a Heatmap instead
+ * of the balls when they are too small to see), still in world coordinates, and is drawn through that camera
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+public class RenderSnapshot {
+    private final long step; //step of the world this is a copy of
+    private final int count; //number of balls
+    private final double[] x, y; //top left corner of each ball (drawing coordinates)
+    private final double[] size; //diameter of each ball
+    private final Color[] colours; //colour of each ball
+    private final int[] lines; //four values per line: x1, y1, x2, y2
+    private final int lineCount; //number of lines
+    private final Camera camera; //camera the snapshot was taken for, null if it is drawn the size of the world
+    private final Heatmap heatmap; //drawn instead of the balls when zoomed far out, null to draw the balls
+
+    /**
+     * Constructor, copies the balls and collects the outline
+     * @param step step of the world being copied
+     * @param balls balls to copy, must not change while this runs
+     * @param outline hands out the lines of the tree or grid to the LineDrawer it is given, null for no lines
+     */
+    public RenderSnapshot(long step, List<BouncingBall> balls, Consumer<LineDrawer> outline) {
+        this(step, balls, outline, null, null);
+    }
+
+    /**
+     * Constructor, copies the balls a camera sees and collects the outline
+     * @param step step of the world being copied
+     * @param balls balls to copy (e.g. only the ones on the screen), must not change while this runs
+     * @param outline hands out the lines of the tree or grid to the LineDrawer it is given, null for no lines
+     * @param camera camera to draw through, null to draw the world at its own size
+     * @param heatmap density of the balls to draw instead of them, null to draw the balls
+     */
+    public RenderSnapshot(long step, List<BouncingBall> balls, Consumer<LineDrawer> outline, Camera camera, Heatmap heatmap) {
+        this.step = step;
+        this.camera = camera;
+        this.heatmap = heatmap;
+        count = balls.size();
+        x = new double[count];
+        y = new double[count];
+        size = new double[count];
+        colours = new Color[count];
+        for (int i = 0; i < count; i++) {
+            BouncingBall b = balls.get(i);
+            double r = b.getRadius();
+            x[i] = b.getPosX() - r;
+            y[i] = b.getPosY() - r;
+            size[i] = r * 2;
+            colours[i] = b.getColor();
+        }
+
+        LineList collected = new LineList();
+        if (outline != null) {
+            outline.accept(collected);
+        }
+        lines = collected.lines;
+        lineCount = collected.count;
+    }
+
+    /**
+     * Constructor, takes over arrays that already hold the balls instead of copying them (e.g. balls read back by a Replay)
+     * @param step step of the world the balls are from
+     * @param count number of balls
+     * @param x top left corner of each ball
+     * @param y top left corner of each ball
+     * @param size diameter of each ball
+     * @param colours colour of each ball
+     * @param camera camera to draw through, null to draw the world at its own size
+     * @param heatmap density of the balls to draw instead of them, null to draw the balls
+     */
+    public RenderSnapshot(long step, int count, double[] x, double[] y, double[] size, Color[] colours, Camera camera, Heatmap heatmap) {
+        this.step = step;
+        this.count = count;
+        this.x = x;
+        this.y = y;
+        this.size = size;
+        this.colours = colours;
+        this.camera = camera;
+        this.heatmap = heatmap;
+        lines = new int[0];
+        lineCount = 0;
+    }
+
+    /**
+     * draws the lines in white and then the balls over them, the same way Display always has, at the world's own size
+     * @param g Graphics object to draw with
+     */
+    public void draw(Graphics g) {
+        g.setColor(Color.WHITE);
+        outline(g::drawLine);
+        for (int i = 0; i < count; i++) {
+            g.setColor(colours[i]);
+            g.fillOval((int)x[i], (int)y[i], (int)Math.round(size[i]), (int)Math.round(size[i]));
+        }
+    }
+
+    /**
+     * @param other another snapshot, may be null
+     * @return true if both snapshots have exactly the same lines seen through the same camera, so an image of the lines can be reused
+     */
+    public boolean sameOutline(RenderSnapshot other) {
+        return other != null && Objects.equals(camera, other.camera) && other.lineCount == lineCount
+                && Arrays.equals(lines, 0, lineCount * 4, other.lines, 0, lineCount * 4);
+    }
+
+    /**
+     * hands the recorded lines out again
+     * @param drawer where to send the lines
+     */
+    public void outline(LineDrawer drawer) {
+        for (int i = 0; i < lineCount * 4; i += 4) {
+            drawer.drawLine(lines[i], lines[i + 1], lines[i + 2], lines[i + 3]);
+        }
+    }
+
+    /**
+     * @param i index of a ball
+     * @return x coordinate of the ball's top left corner
+     */
+    public double getX(int i) {
+        return x[i];
+    }
+
+    /**
+     * @param i index of a ball
+     * @return y coordinate of the ball's top left corner
+     */
+    public double getY(int i) {
+        return y[i];
+    }
+
+    /**
+     * @param i index of a ball
+     * @return diameter of the ball
+     */
+    public double getSize(int i) {
+        return size[i];
+    }
+
+    /**
+     * @param i index of a ball
+     * @return colour of the ball
+     */
+    public Color getColour(int i) {
+        return colours[i];
+    }
+
+    /**
+     * @return camera the snapshot was taken for, null if it is drawn the size of the world
+     */
+    public Camera getCamera() {
+        return camera;
+    }
+
+    /**
+     * @return density of the balls to draw instead of them, null if the balls are drawn
+     */
+    public Heatmap getHeatmap() {
+        return heatmap;
+    }
+
+    public long getStep() {
+        return step;
+    }
+
+    public int getBallCount() {
+        return count;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * collects lines into a growing array
+     */
+    private static class LineList implements LineDrawer {
+        private int[] lines = new int[64];
+        private int count;
+
+        @Override
+        public void drawLine(int x1, int y1, int x2, int y2) {
+            if (count * 4 + 4 > lines.length) {
+                lines = Arrays.copyOf(lines, lines.length * 2);
+            }
+            int i = count * 4;
+            lines[i] = x1;
+            lines[i + 1] = y1;
+            lines[i + 2] = x2;
+            lines[i + 3] = y2;
+            count++;
+        }
+    }
+}
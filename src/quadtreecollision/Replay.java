@@ -0,0 +1,317 @@
+/**
+ * [Replay.java]
+ * Plays back a file written by a Recorder without running any physics. Stepping it (e.g. with a Simulation at the tick
+ * rate the world ran at) moves on one frame, and a Display can show it like a live World. Any frame can be jumped to:
+ * opening the file finds where every frame starts, and seeking decodes forward from the key frame at or before it,
+ * which is never more than Recorder.KEY_INTERVAL frames. A recording that was cut off plays up to its last whole frame
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class Replay implements Steppable, Viewable {
+    private static final ArrayList<Color> COLOURS = new BallColourPalette().getColors(); //palette the colour indices are from
+
+    private final FileChannel channel; //the recording
+    private final int width, height; //size of the recorded world
+    private final int scale; //positions and sizes are in 1/scale of a unit
+    private final int frames; //whole frames in the file
+    private final long[] offsets; //where each frame starts in the file
+    private final long[] worldSteps; //step of the world each frame was taken at
+    private final boolean[] key; //true for the key frames
+
+    private ByteBuffer buffer = ByteBuffer.allocate(1024); //bytes of the frame being decoded
+    private int position; //index in the buffer of the next varint
+    private int current = -1; //index of the frame decoded last, -1 before the first
+    private int count; //number of balls in it
+    private int[] x = new int[0], y = new int[0], size = new int[0], colour = new int[0]; //its balls, as the Recorder rounded them
+    private int maxSize; //diameter of its largest ball
+    private boolean paused; //true to keep showing the same frame when stepped
+
+    /**
+     * Constructor, opens a recording and finds its frames
+     * @param path file written by a Recorder
+     * @throws IOException if the file can't be read, isn't a recording, or is a version this can't read
+     */
+    public Replay(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = read(0, Recorder.HEADER);
+            if (header.remaining() < Recorder.HEADER || header.getInt() != Recorder.MAGIC) {
+                throw new IOException(path + " is not a recording");
+            }
+            int version = header.getInt();
+            if (version != Recorder.VERSION) {
+                throw new IOException(path + " is recording version " + version + ", only version " + Recorder.VERSION + " can be read");
+            }
+            width = header.getInt();
+            height = header.getInt();
+            scale = header.getInt();
+            header.getInt(); //key frame interval, the frames say which ones are key frames
+
+            //walk from frame to frame by their lengths, stopping at a frame the file ends halfway through
+            long[] offsets = new long[64], worldSteps = new long[64];
+            boolean[] key = new boolean[64];
+            int frames = 0;
+            long at = Recorder.HEADER, end = channel.size();
+            while (at + 17 <= end) {
+                ByteBuffer head = read(at, 13);
+                int length = head.getInt();
+                if (at + 4 + length > end) {
+                    break;
+                }
+                if (frames == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, frames * 2);
+                    worldSteps = Arrays.copyOf(worldSteps, frames * 2);
+                    key = Arrays.copyOf(key, frames * 2);
+                }
+                offsets[frames] = at;
+                worldSteps[frames] = head.getLong();
+                key[frames] = head.get() == Recorder.KEY;
+                frames++;
+                at += 4 + length;
+            }
+            if (frames > 0 && !key[0]) {
+                throw new IOException(path + " doesn't start with a key frame");
+            }
+            this.frames = frames;
+            this.offsets = offsets;
+            this.worldSteps = worldSteps;
+            this.key = key;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        if (frames > 0) {
+            seek(0);
+        }
+    }
+
+    /**
+     * moves on one frame, unless paused or at the last frame
+     */
+    @Override
+    public synchronized void step() {
+        if (!paused && current + 1 < frames) {
+            decode(current + 1);
+        }
+    }
+
+    /**
+     * @return index of the frame being shown
+     */
+    @Override
+    public synchronized long getSteps() {
+        return current;
+    }
+
+    /**
+     * shows a frame, decoding forward from the key frame at or before it (or from the frame shown if that is closer)
+     * @param frame index of the frame, kept between the first and the last
+     */
+    public synchronized void seek(int frame) {
+        frame = Math.max(0, Math.min(frames - 1, frame));
+        int from = frame;
+        while (!key[from]) {
+            from--;
+        }
+        if (current >= from && current <= frame) {
+            from = current + 1; //already past the key frame, carry on from here
+        }
+        for (int i = from; i <= frame; i++) {
+            decode(i);
+        }
+    }
+
+    /**
+     * decodes a frame over the balls of the frame before it
+     * @param frame index of the frame, must be a key frame or come straight after the one decoded last
+     */
+    private void decode(int frame) {
+        try {
+            long at = offsets[frame];
+            int length = read(at, 4).getInt();
+            if (buffer.capacity() < length) {
+                buffer = ByteBuffer.allocate(Math.max(length, buffer.capacity() * 2));
+            }
+            buffer.clear().limit(length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, at + 4 + buffer.position()) < 0) {
+                    throw new IOException("recording ends in the middle of frame " + frame);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        byte[] b = buffer.array();
+        position = 13; //step, type and count come first
+        boolean isKey = b[8] == Recorder.KEY;
+        int n = ((b[9] & 0xFF) << 24) | ((b[10] & 0xFF) << 16) | ((b[11] & 0xFF) << 8) | (b[12] & 0xFF);
+        if (isKey) {
+            count = n;
+            if (x.length < n) {
+                x = new int[n];
+                y = new int[n];
+                size = new int[n];
+                colour = new int[n];
+            }
+            maxSize = 0;
+            for (int i = 0; i < n; i++) {
+                x[i] = Recorder.unzigzag(getVarint(b));
+                y[i] = Recorder.unzigzag(getVarint(b));
+                size[i] = getVarint(b);
+                colour[i] = getVarint(b);
+                maxSize = Math.max(maxSize, size[i]);
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                x[i] += Recorder.unzigzag(getVarint(b));
+                y[i] += Recorder.unzigzag(getVarint(b));
+            }
+        }
+        current = frame;
+    }
+
+    /**
+     * copies what a camera sees of the frame being shown, a heatmap when the balls would be too small to see
+     * @param camera camera to look through
+     * @return snapshot of the balls on the screen, with no outline since the tree isn't recorded
+     */
+    @Override
+    public synchronized RenderSnapshot snapshot(Camera camera) {
+        double minX = camera.getMinX(), minY = camera.getMinY(), maxX = camera.getMaxX(), maxY = camera.getMaxY();
+        long step = current >= 0 ? worldSteps[current] : 0;
+        if (maxSize / (double)scale * camera.getZoom() < World.HEATMAP_DIAMETER) {
+            Heatmap heatmap = new Heatmap(camera, World.HEATMAP_TILE);
+            for (int i = 0; i < count; i++) {
+                heatmap.add(x[i] / (double)scale, y[i] / (double)scale);
+            }
+            return new RenderSnapshot(step, 0, new double[0], new double[0], new double[0], new Color[0], camera, heatmap);
+        }
+
+        double[] left = new double[count], top = new double[count], diameter = new double[count];
+        Color[] colours = new Color[count];
+        int shown = 0;
+        for (int i = 0; i < count; i++) {
+            double r = size[i] / (2.0 * scale), cx = x[i] / (double)scale, cy = y[i] / (double)scale;
+            if (cx + r >= minX && cx - r <= maxX && cy + r >= minY && cy - r <= maxY) {
+                left[shown] = cx - r;
+                top[shown] = cy - r;
+                diameter[shown] = 2 * r;
+                colours[shown] = COLOURS.get(Math.floorMod(colour[i], COLOURS.size()));
+                shown++;
+            }
+        }
+        return new RenderSnapshot(step, shown, left, top, diameter, colours, camera, null);
+    }
+
+    /**
+     * stops or starts moving on when stepped
+     */
+    public synchronized void togglePaused() {
+        paused = !paused;
+    }
+
+    public synchronized boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * @return number of whole frames in the recording
+     */
+    public int getFrames() {
+        return frames;
+    }
+
+    /**
+     * @return step of the world the frame being shown was taken at
+     */
+    public synchronized long getWorldStep() {
+        return current >= 0 ? worldSteps[current] : 0;
+    }
+
+    /**
+     * @return number of balls in the frame being shown
+     */
+    public synchronized int getBallCount() {
+        return count;
+    }
+
+    /**
+     * @param i index of a ball in the frame being shown
+     * @return x coordinate of its centre, as the Recorder rounded it
+     */
+    public synchronized double getX(int i) {
+        return x[i] / (double)scale;
+    }
+
+    /**
+     * @param i index of a ball in the frame being shown
+     * @return y coordinate of its centre, as the Recorder rounded it
+     */
+    public synchronized double getY(int i) {
+        return y[i] / (double)scale;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * closes the file
+     * @throws IOException if closing failed
+     */
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * reads bytes from the file
+     * @param position where in the file to start
+     * @param length how many bytes
+     * @return the bytes, fewer if the file ends first
+     */
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(length);
+        while (bytes.hasRemaining()) {
+            if (channel.read(bytes, position + bytes.position()) < 0) {
+                break;
+            }
+        }
+        return bytes.flip();
+    }
+
+    /**
+     * reads a varint written by the Recorder at position, and moves position past it
+     * @param b bytes to read from
+     * @return the value
+     */
+    private int getVarint(byte[] b) {
+        int v = 0, shift = 0;
+        byte next;
+        do {
+            next = b[position++];
+            v |= (next & 0x7F) << shift;
+            shift += 7;
+        } while (next < 0);
+        return v;
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * [RollingHistogram.java]
+ * Keeps the last few hundred values of something measured every step (e.g. nanoseconds spent in a phase) in a ring,
+ * so the mean, percentiles and a histogram of recent steps can be read at any time without keeping every value.
+ * Adding a value is cheap and allocates nothing, the work is done when the values are read.
+ * Safe to add to on one thread and read on others
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.util.Arrays;
+
+public class RollingHistogram {
+    private final long[] values; //ring of the newest values
+    private int next; //where the next value goes
+    private int size; //number of values in the ring, up to its length
+    private long total; //number of values ever added
+
+    /**
+     * Constructor
+     * @param window number of newest values to keep
+     */
+    public RollingHistogram(int window) {
+        values = new long[window];
+    }
+
+    /**
+     * adds a value, pushing out the oldest one if the ring is full
+     * @param value value to add
+     */
+    public synchronized void add(long value) {
+        values[next] = value;
+        next = (next + 1) % values.length;
+        size = Math.min(size + 1, values.length);
+        total++;
+    }
+
+    /**
+     * empties the ring
+     */
+    public synchronized void clear() {
+        next = 0;
+        size = 0;
+        total = 0;
+    }
+
+    /**
+     * @return the newest value, 0 if there are none
+     */
+    public synchronized long last() {
+        return size == 0 ? 0 : values[(next - 1 + values.length) % values.length];
+    }
+
+    /**
+     * @return mean of the values in the ring, 0 if there are none
+     */
+    public synchronized double mean() {
+        if (size == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += values[i];
+        }
+        return (double)sum / size;
+    }
+
+    /**
+     * @return largest value in the ring, 0 if there are none
+     */
+    public synchronized long max() {
+        long max = 0;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    /**
+     * @param percent percentile to find, from 0 to 100
+     * @return smallest value that at least that percent of the values in the ring are less than or equal to, 0 if there are none
+     */
+    public synchronized long percentile(double percent) {
+        if (size == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(values, size);
+        Arrays.sort(sorted);
+        int index = (int)Math.ceil(percent / 100 * size) - 1;
+        return sorted[Math.max(0, Math.min(size - 1, index))];
+    }
+
+    /**
+     * counts the values in the ring in power of two buckets: bucket 0 holds values below 1, bucket k holds
+     * values from 2^(k-1) up to 2^k - 1
+     * @return count of each bucket, up to the highest one that isn't empty
+     */
+    public synchronized int[] buckets() {
+        int[] counts = new int[65];
+        int highest = 0;
+        for (int i = 0; i < size; i++) {
+            int bucket = values[i] <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(values[i]);
+            counts[bucket]++;
+            highest = Math.max(highest, bucket);
+        }
+        return Arrays.copyOf(counts, highest + 1);
+    }
+
+    /**
+     * @return the values in the ring, oldest first
+     */
+    public synchronized long[] values() {
+        long[] copy = new long[size];
+        int start = size < values.length ? 0 : next;
+        for (int i = 0; i < size; i++) {
+            copy[i] = values[(start + i) % values.length];
+        }
+        return copy;
+    }
+
+    /**
+     * @return number of values in the ring
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return number of values ever added, including the ones pushed out of the ring
+     */
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    public int getWindow() {
+        return values.length;
+    }
+}
@@ -0,0 +1,378 @@
+/**
+ * [Shard.java]
+ * One tile of a world cut into a grid of tiles (see ShardedWorld), with its own BallStore and IndexQuadTree.
+ * A tile owns the balls whose centres are inside it, and also holds ghosts: copies of the balls of other tiles whose
+ * centres are within a margin of it, so it can find every ball its own balls touch without asking anyone.
+ * The margin is more than 2 * ContactSolver.ROUNDS of the largest diameter, the furthest apart the centres of two
+ * touching balls can be, so every ball the ContactSolver looks at to bounce one of the tile's balls is there.
+ * Every step the tile rebuilds its tree over its balls and ghosts, bounces its own balls with a ContactSolver (which
+ * gives the same result however the world is cut up), moves them and throws the ghosts away. Then it sorts its balls
+ * out: one that has left the tile goes to the tile it is in now, and one within the margin of other tiles goes to them
+ * as a ghost. Nothing here knows how the balls get between tiles, ShardWorker sends them over a socket
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class Shard {
+    /**
+     * where the edges between the tiles are and which tiles each ball goes to, the same for every tile and the coordinator
+     */
+    public static final class Tiling {
+        final int width, height; //size of the world
+        final int columns, rows; //tiles across and down
+        final int margin; //how close to a tile a ball's centre has to be for the tile to get a ghost of it
+        private final int[] edgeX, edgeY; //left edge of each column and top edge of each row, then the world's width or height
+
+        /**
+         * Constructor
+         * @param width width of the world
+         * @param height height of the world
+         * @param columns tiles across
+         * @param rows tiles down
+         * @param margin how close to a tile a ball's centre has to be for the tile to get a ghost of it, more than
+         *               2 * ContactSolver.ROUNDS diameters of the largest ball
+         */
+        public Tiling(int width, int height, int columns, int rows, int margin) {
+            this.width = width;
+            this.height = height;
+            this.columns = columns;
+            this.rows = rows;
+            this.margin = margin;
+            edgeX = new int[columns + 1];
+            for (int c = 0; c <= columns; c++) {
+                edgeX[c] = (int)((long)width * c / columns);
+            }
+            edgeY = new int[rows + 1];
+            for (int r = 0; r <= rows; r++) {
+                edgeY[r] = (int)((long)height * r / rows);
+            }
+        }
+
+        public int getTiles() {
+            return columns * rows;
+        }
+
+        /**
+         * @param x x coordinate
+         * @return column that x is in, the first or last one for x outside the world
+         */
+        int column(double x) {
+            return find(edgeX, columns, x);
+        }
+
+        /**
+         * @param y y coordinate
+         * @return row that y is in, the first or last one for y outside the world
+         */
+        int row(double y) {
+            return find(edgeY, rows, y);
+        }
+
+        /**
+         * @return index of the last of the first count edges at or before v, guessed from evenly spaced edges and
+         *         then checked against the edges exactly, so every tile works out the same answer
+         */
+        private static int find(int[] edges, int count, double v) {
+            int i = (int)Math.max(0, Math.min(count - 1, Math.floor(v * count / edges[count])));
+            while (i > 0 && v < edges[i]) {
+                i--;
+            }
+            while (i + 1 < count && v >= edges[i + 1]) {
+                i++;
+            }
+            return i;
+        }
+
+        /**
+         * sends a ball to the tile its centre is in and as a ghost to every other tile within the margin of it
+         * @param balls store the ball is in
+         * @param i index of the ball in the store
+         * @param id the ball's id
+         * @param out a block for each tile to add the ball to
+         */
+        void route(BallStore balls, int i, int id, Block[] out) {
+            double cx = balls.getPosX(i), cy = balls.getPosY(i);
+            int owner = row(cy) * columns + column(cx);
+            int lastRow = row(cy + margin), lastColumn = column(cx + margin);
+            for (int r = row(cy - margin); r <= lastRow; r++) {
+                for (int c = column(cx - margin); c <= lastColumn; c++) {
+                    int tile = r * columns + c;
+                    out[tile].add(balls, i, id, tile == owner);
+                }
+            }
+        }
+
+        /**
+         * @return the part of the world a tile's tree has to cover: the tile and the margin around it, but not past the
+         *         world, so a pair of touching balls is found by the tile exactly when a tree over the whole world finds it
+         */
+        private int[] bounds(int tile) {
+            int c = tile % columns, r = tile / columns;
+            int minX = Math.max(0, edgeX[c] - margin), maxX = Math.min(width, edgeX[c + 1] + margin);
+            int minY = Math.max(0, edgeY[r] - margin), maxY = Math.min(height, edgeY[r + 1] + margin);
+            return new int[] {minX, minY, maxX - minX, maxY - minY};
+        }
+    }
+
+    /**
+     * balls on their way to a tile, exactly as a BallStore keeps them, with the id that keeps them in the same order
+     * everywhere and whether the tile owns them or only holds them as ghosts
+     */
+    public static final class Block {
+        static final int BALL_BYTES = 4 + 6 * 8 + 4 + 1; //bytes each ball takes up when written
+        private static final int CHUNK = 4096; //balls encoded or decoded at a time
+
+        private int count; //number of balls
+        private int[] id = new int[16]; //id of each ball
+        private double[] left = new double[16], top = new double[16]; //top left corner of each ball
+        private double[] vx = new double[16], vy = new double[16]; //velocity of each ball
+        private double[] size = new double[16], mass = new double[16]; //diameter and mass of each ball
+        private int[] colour = new int[16]; //index of each ball's colour in the palette
+        private boolean[] owned = new boolean[16]; //true if the tile owns the ball, false for a ghost
+        private final ByteBuffer bytes = ByteBuffer.allocate(CHUNK * BALL_BYTES); //a chunk of balls being written or read
+
+        public void clear() {
+            count = 0;
+        }
+
+        public int size() {
+            return count;
+        }
+
+        /**
+         * adds a ball from a store
+         * @param balls the store
+         * @param i index of the ball in the store
+         * @param id the ball's id
+         * @param owned true if the tile the block goes to owns the ball
+         */
+        void add(BallStore balls, int i, int id, boolean owned) {
+            int k = next();
+            this.id[k] = id;
+            left[k] = balls.getLeft(i);
+            top[k] = balls.getTop(i);
+            vx[k] = balls.getVx(i);
+            vy[k] = balls.getVy(i);
+            size[k] = balls.getSize(i);
+            mass[k] = balls.getMass(i);
+            colour[k] = balls.getColour(i);
+            this.owned[k] = owned;
+        }
+
+        /**
+         * @return index of a new ball at the end, after making room for it
+         */
+        private int next() {
+            if (count == id.length) {
+                int capacity = count * 2;
+                id = Arrays.copyOf(id, capacity);
+                left = Arrays.copyOf(left, capacity);
+                top = Arrays.copyOf(top, capacity);
+                vx = Arrays.copyOf(vx, capacity);
+                vy = Arrays.copyOf(vy, capacity);
+                size = Arrays.copyOf(size, capacity);
+                mass = Arrays.copyOf(mass, capacity);
+                colour = Arrays.copyOf(colour, capacity);
+                owned = Arrays.copyOf(owned, capacity);
+            }
+            return count++;
+        }
+
+        /**
+         * writes the balls as an int count and then BALL_BYTES per ball, so they can be passed on without reading them
+         * @param out stream to write to
+         */
+        public void write(DataOutputStream out) throws IOException {
+            out.writeInt(count);
+            for (int from = 0; from < count; from += CHUNK) {
+                int to = Math.min(count, from + CHUNK);
+                bytes.clear();
+                for (int k = from; k < to; k++) {
+                    bytes.putInt(id[k]).putDouble(left[k]).putDouble(top[k]).putDouble(vx[k]).putDouble(vy[k]);
+                    bytes.putDouble(size[k]).putDouble(mass[k]).putInt(colour[k]).put(owned[k] ? (byte)1 : 0);
+                }
+                out.write(bytes.array(), 0, bytes.position());
+            }
+        }
+
+        /**
+         * reads balls written by write() and adds them to the end
+         * @param in stream to read from
+         */
+        public void read(DataInputStream in) throws IOException {
+            int n = in.readInt();
+            for (int from = 0; from < n; from += CHUNK) {
+                int chunk = Math.min(n - from, CHUNK);
+                in.readFully(bytes.array(), 0, chunk * BALL_BYTES);
+                add(bytes.array(), chunk);
+            }
+        }
+
+        /**
+         * adds balls written by write() that were read without their count (e.g. by the ShardedWorld passing them on)
+         * @param written the balls, BALL_BYTES each
+         * @param n number of balls
+         */
+        void add(byte[] written, int n) {
+            ByteBuffer b = ByteBuffer.wrap(written);
+            for (int j = 0; j < n; j++) {
+                int k = next();
+                id[k] = b.getInt();
+                left[k] = b.getDouble();
+                top[k] = b.getDouble();
+                vx[k] = b.getDouble();
+                vy[k] = b.getDouble();
+                size[k] = b.getDouble();
+                mass[k] = b.getDouble();
+                colour[k] = b.getInt();
+                owned[k] = b.get() != 0;
+            }
+        }
+
+        /**
+         * copies the balls into a checkpoint, each at the index of its id, skipping ghosts
+         * @param c checkpoint with room for every id
+         */
+        void copyOwnedTo(Checkpoint c) {
+            for (int k = 0; k < count; k++) {
+                if (owned[k]) {
+                    int i = id[k];
+                    c.left[i] = left[k];
+                    c.top[i] = top[k];
+                    c.vx[i] = vx[k];
+                    c.vy[i] = vy[k];
+                    c.size[i] = size[k];
+                    c.mass[i] = mass[k];
+                    c.colour[i] = colour[k];
+                }
+            }
+        }
+    }
+
+    private final Tiling tiling; //how the world is cut up
+    private final int tile; //index of this tile, row by row
+    private final BallStore balls; //the tile's balls and ghosts for the step, in order of id
+    private final IndexQuadTree qt; //quadtree over the tile and its margin
+    private final ContactSolver solver = new ContactSolver(); //bounces the tile's balls
+    private int[] ids = new int[16]; //id of each ball in the store
+    private boolean[] owned = new boolean[16]; //true for the store's balls the tile owns
+    private final Block incoming = new Block(); //the tile's balls and ghosts for the next step, in no order
+    private final Block[] outgoing; //balls for each tile after the step, this tile's own go straight into incoming
+    private long[] order = new long[16]; //id << 32 | index in incoming, sorted to put the store in order of id
+    private int ownedCount; //balls the tile owns
+    private int ghostCount; //ghosts the tile held in the last step
+
+    /**
+     * Constructor, an empty tile
+     * @param tiling how the world is cut up
+     * @param tile index of this tile, row by row
+     * @param maxObjects max balls a node of the quadtree should contain before subdividing
+     * @param maxSubdivision max levels of subdivision
+     */
+    public Shard(Tiling tiling, int tile, int maxObjects, int maxSubdivision) {
+        this.tiling = tiling;
+        this.tile = tile;
+        balls = new BallStore(tiling.width, tiling.height, 0);
+        int[] b = tiling.bounds(tile);
+        qt = new IndexQuadTree(balls, b[0], b[1], b[2], b[3], maxObjects, maxSubdivision);
+        outgoing = new Block[tiling.getTiles()];
+        for (int t = 0; t < outgoing.length; t++) {
+            outgoing[t] = t == tile ? incoming : new Block();
+        }
+    }
+
+    /**
+     * reads balls and ghosts sent to the tile, to take part in the next step
+     * @param in stream with a block written by Block.write()
+     */
+    public void receive(DataInputStream in) throws IOException {
+        incoming.read(in);
+    }
+
+    /**
+     * advances the tile one step with the balls and ghosts it has received, and sorts its balls out for the next step
+     */
+    public void step() {
+        //put the balls in order of id, the order every tile and a single PackedWorld agree on
+        int n = incoming.count;
+        if (order.length < n) {
+            order = new long[Math.max(n, order.length * 2)];
+            ids = new int[order.length];
+            owned = new boolean[order.length];
+        }
+        for (int k = 0; k < n; k++) {
+            order[k] = (long)incoming.id[k] << 32 | k;
+        }
+        Arrays.sort(order, 0, n);
+        balls.clear();
+        ownedCount = 0;
+        for (int j = 0; j < n; j++) {
+            int k = (int)order[j];
+            balls.addExact(incoming.left[k], incoming.top[k], incoming.vx[k], incoming.vy[k], incoming.size[k], incoming.mass[k], incoming.colour[k]);
+            ids[j] = incoming.id[k];
+            owned[j] = incoming.owned[k];
+            if (owned[j]) {
+                ownedCount++;
+            }
+        }
+        ghostCount = n - ownedCount;
+
+        qt.clear();
+        qt.insertAll();
+        solver.solve(balls, qt);
+        balls.moveAll();
+
+        //the ghosts have done their job, send the tile's balls wherever they are needed next
+        for (Block block : outgoing) {
+            block.clear();
+        }
+        for (int i = 0; i < n; i++) {
+            if (owned[i]) {
+                tiling.route(balls, i, ids[i], outgoing);
+            }
+        }
+    }
+
+    /**
+     * writes the balls the last step sent to another tile
+     * @param tile index of the other tile
+     * @param out stream to write to
+     */
+    public void send(int tile, DataOutputStream out) throws IOException {
+        outgoing[tile].write(out);
+    }
+
+    /**
+     * writes the balls the tile owns (and the ghosts it is holding for the next step, marked as ghosts)
+     * @param out stream to write to
+     */
+    public void sendOwn(DataOutputStream out) throws IOException {
+        incoming.write(out);
+    }
+
+    public int getTile() {
+        return tile;
+    }
+
+    /**
+     * @return balls the tile owned in the last step
+     */
+    public int getOwnedCount() {
+        return ownedCount;
+    }
+
+    /**
+     * @return ghosts the tile held in the last step
+     */
+    public int getGhostCount() {
+        return ghostCount;
+    }
+}
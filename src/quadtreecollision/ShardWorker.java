@@ -0,0 +1,102 @@
+/**
+ * [ShardWorker.java]
+ * Runs one Shard for a ShardedWorld, taking orders over a socket. It can run as a thread next to the ShardedWorld, as
+ * a process the ShardedWorld starts, or by hand on another host: java -cp CLASSPATH quadtreecollision.ShardWorker HOST PORT
+ * Everything goes over one connection to the ShardedWorld, big endian, one order at a time:
+ *   INIT, int tile, int width, int height, int columns, int rows, int margin, int maxObjects, int maxSubdivision and a
+ *     block of the tile's first balls and ghosts
+ *   STEP, int number of blocks and the blocks of balls and ghosts the other tiles sent it. It steps and answers with a
+ *     block for every other tile in order (an empty one if it has nothing for it), int balls owned and int ghosts held
+ *   GET, answered with a block of the balls it owns and the ghosts it holds
+ *   QUIT, closes the connection
+ * where a block is an int count and then Shard.Block.BALL_BYTES bytes per ball
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+
+public class ShardWorker {
+    static final int INIT = 0; //sets the worker's tile up
+    static final int STEP = 1; //hands it the other tiles' balls and steps
+    static final int GET = 2; //asks for its balls
+    static final int QUIT = 3; //tells it to stop
+    static final int BUFFER = 1 << 16; //bytes buffered each way
+
+    /**
+     * connects to a ShardedWorld and runs a tile for it until it quits
+     * @param args host and port the ShardedWorld is listening on
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("usage: ShardWorker HOST PORT");
+        }
+        serve(new Socket(args[0], Integer.parseInt(args[1])));
+    }
+
+    /**
+     * runs a tile for a ShardedWorld until it quits or the connection is lost, then closes the socket
+     * @param socket connection to the ShardedWorld
+     * @throws IOException if the connection is lost
+     */
+    public static void serve(Socket socket) throws IOException {
+        try (socket) {
+            run(socket);
+        }
+    }
+
+    /**
+     * runs a tile for a ShardedWorld until it quits or the connection is lost, leaving the socket open
+     * @param socket connection to the ShardedWorld
+     * @throws IOException if the connection is lost
+     */
+    static void run(Socket socket) throws IOException {
+        socket.setTcpNoDelay(true);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), BUFFER));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), BUFFER));
+        Shard shard = null;
+        int tiles = 0;
+        while (true) {
+            int order = in.readInt();
+            if (order == QUIT) {
+                return;
+            }
+            if (order == INIT) {
+                int tile = in.readInt(), width = in.readInt(), height = in.readInt(), columns = in.readInt(), rows = in.readInt();
+                int margin = in.readInt(), maxObjects = in.readInt(), maxSubdivision = in.readInt();
+                Shard.Tiling tiling = new Shard.Tiling(width, height, columns, rows, margin);
+                tiles = tiling.getTiles();
+                shard = new Shard(tiling, tile, maxObjects, maxSubdivision);
+                shard.receive(in);
+            } else if (shard == null) {
+                throw new IOException("order " + order + " before INIT");
+            } else if (order == STEP) {
+                int blocks = in.readInt();
+                for (int i = 0; i < blocks; i++) {
+                    shard.receive(in);
+                }
+                shard.step();
+                for (int t = 0; t < tiles; t++) {
+                    if (t != shard.getTile()) {
+                        shard.send(t, out);
+                    }
+                }
+                out.writeInt(shard.getOwnedCount());
+                out.writeInt(shard.getGhostCount());
+                out.flush();
+            } else if (order == GET) {
+                shard.sendOwn(out);
+                out.flush();
+            } else {
+                throw new IOException("unknown order " + order);
+            }
+        }
+    }
+}
@@ -0,0 +1,382 @@
+/**
+ * [ShardedWorld.java]
+ * A world cut into a grid of tiles, each one a Shard run by its own ShardWorker: a thread in this JVM, a JVM of its own
+ * on this machine, or a worker started by hand on any host that can reach this one. The workers only talk to this
+ * class, over a socket each. Every step each worker is handed the balls and ghosts the other tiles sent it in the step
+ * before, steps its tile, and hands back what it has for each other tile, which is passed on as it is without being read.
+ * Collisions are resolved by a ContactSolver, so the world ends up exactly as a PackedWorld with setSimultaneous(true)
+ * and the same balls does, for any grid of tiles and wherever the workers run
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ShardedWorld implements Steppable {
+    private static final int CONNECT_TIMEOUT = 60_000; //milliseconds to wait for workers this class started to connect
+
+    /**
+     * where the workers run
+     */
+    public enum Workers {
+        THREADS, //a thread each in this JVM, over loopback sockets
+        PROCESSES, //a JVM each on this machine, started with the same class path
+        WAIT //started by hand, anywhere, with ShardWorker HOST PORT
+    }
+
+    /**
+     * the connection to one tile's worker, with what it sent for the other tiles in the last step
+     */
+    private static final class Link {
+        final Socket socket; //connection to the worker
+        final DataInputStream in; //from the worker
+        final DataOutputStream out; //to the worker
+        int[] counts; //balls it sent for each tile in the last step
+        byte[][] blocks; //the balls it sent for each tile, as written, passed on unread
+        int owned, ghosts; //balls the tile owned and ghosts it held in the last step
+
+        Link(Socket socket, int tiles) throws IOException {
+            this.socket = socket;
+            socket.setTcpNoDelay(true);
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), ShardWorker.BUFFER));
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), ShardWorker.BUFFER));
+            counts = new int[tiles];
+            blocks = new byte[tiles][0];
+        }
+    }
+
+    private final Shard.Tiling tiling; //how the world is cut up
+    private final int MAX_OBJECTS; //max balls a node of a tile's quadtree should contain before subdividing
+    private final int MAX_SUBDIVISION; //max levels of subdivision
+    private final int ballCount; //balls in the world
+    private final ServerSocket server; //where the workers connect
+    private final Link[] links; //a link to each tile's worker, row by row
+    private final List<Process> processes = new ArrayList<>(); //workers started as processes
+    private final ExecutorService pool; //talks to every worker at once
+    private int[][] nextCounts; //what each worker is sending in the step being taken, swapped with the links' when done
+    private byte[][][] nextBlocks;
+    private long steps; //number of steps taken
+    private long exchanged; //bytes passed between tiles in the last step
+    private final AtomicReference<Exception> workerFailure = new AtomicReference<>(); //what first stopped a worker thread
+
+    /**
+     * Constructor, starts the workers (or waits for them to connect) and hands each one its tile's balls
+     * @param balls starting balls, ball i keeps id i, so it comes back at index i of a checkpoint
+     * @param steps steps the world has already taken (e.g. when restored from a checkpoint)
+     * @param MAX_OBJECTS max balls a node of a tile's quadtree should contain before subdividing
+     * @param MAX_SUBDIVISION max levels of subdivision
+     * @param columns tiles across
+     * @param rows tiles down
+     * @param workers where to run the workers
+     * @param port port to listen on for the workers, 0 for any free port (not with Workers.WAIT)
+     * @throws IOException if the workers can't be started or reached
+     */
+    public ShardedWorld(BallStore balls, long steps, int MAX_OBJECTS, int MAX_SUBDIVISION, int columns, int rows, Workers workers, int port) throws IOException {
+        double maxSize = 0;
+        for (int i = 0; i < balls.size(); i++) {
+            maxSize = Math.max(maxSize, balls.getSize(i));
+        }
+        tiling = new Shard.Tiling(balls.getMaxX(), balls.getMaxY(), columns, rows,
+                2 * ContactSolver.ROUNDS * ((int)Math.floor(maxSize) + 1));
+        this.MAX_OBJECTS = MAX_OBJECTS;
+        this.MAX_SUBDIVISION = MAX_SUBDIVISION;
+        this.steps = steps;
+        ballCount = balls.size();
+        int tiles = tiling.getTiles();
+        links = new Link[tiles];
+        nextCounts = new int[tiles][tiles];
+        nextBlocks = new byte[tiles][tiles][0];
+        pool = Executors.newFixedThreadPool(tiles, r -> {
+            Thread t = new Thread(r, "shard link");
+            t.setDaemon(true);
+            return t;
+        });
+
+        server = new ServerSocket(port);
+        try {
+            start(workers, tiles);
+            if (workers != Workers.WAIT) {
+                server.setSoTimeout(CONNECT_TIMEOUT);
+            }
+            for (int t = 0; t < tiles; t++) {
+                links[t] = new Link(server.accept(), tiles);
+            }
+
+            //every tile starts with its balls and ghosts, worked out the same way the tiles do it after each step
+            Shard.Block[] first = new Shard.Block[tiles];
+            for (int t = 0; t < tiles; t++) {
+                first[t] = new Shard.Block();
+            }
+            for (int i = 0; i < balls.size(); i++) {
+                tiling.route(balls, i, i, first);
+            }
+            for (int t = 0; t < tiles; t++) {
+                DataOutputStream out = links[t].out;
+                out.writeInt(ShardWorker.INIT);
+                for (int v : new int[] {t, tiling.width, tiling.height, columns, rows, tiling.margin, MAX_OBJECTS, MAX_SUBDIVISION}) {
+                    out.writeInt(v);
+                }
+                first[t].write(out);
+                out.flush();
+                first[t] = null;
+            }
+        } catch (IOException e) {
+            close();
+            if (workerFailure.get() != null) {
+                e.addSuppressed(workerFailure.get());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * starts a worker for every tile, they connect to the server socket
+     */
+    private void start(Workers workers, int tiles) throws IOException {
+        int port = server.getLocalPort();
+        for (int t = 0; t < tiles; t++) {
+            if (workers == Workers.THREADS) {
+                Thread worker = new Thread(() -> {
+                    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                        try {
+                            ShardWorker.run(socket);
+                        } catch (IOException | RuntimeException e) {
+                            //kept before the socket closes, so it is there by the time step() sees the link drop
+                            workerFailure.compareAndSet(null, e);
+                        }
+                    } catch (IOException e) {
+                        workerFailure.compareAndSet(null, e); //never connected, the constructor gives up waiting for it
+                    }
+                }, "shard worker " + t);
+                worker.setDaemon(true);
+                worker.start();
+            } else if (workers == Workers.PROCESSES) {
+                String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+                processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                        ShardWorker.class.getName(), InetAddress.getLoopbackAddress().getHostAddress(), String.valueOf(port))
+                        .inheritIO().start());
+            }
+        }
+    }
+
+    /**
+     * advances the world by one step: every worker gets what the others sent it, steps its tile and sends back
+     * what it has for the others
+     */
+    @Override
+    public synchronized void step() {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < links.length; t++) {
+            int tile = t;
+            tasks.add(() -> {
+                exchange(tile);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> f : pool.invokeAll(tasks)) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while stepping the tiles", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw failed((IOException)e.getCause());
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+
+        //what the workers just sent goes out in the next step
+        long bytes = 0;
+        for (int t = 0; t < links.length; t++) {
+            int[] counts = links[t].counts;
+            byte[][] blocks = links[t].blocks;
+            links[t].counts = nextCounts[t];
+            links[t].blocks = nextBlocks[t];
+            nextCounts[t] = counts;
+            nextBlocks[t] = blocks;
+            for (int n : links[t].counts) {
+                bytes += (long)n * Shard.Block.BALL_BYTES;
+            }
+        }
+        exchanged = bytes;
+        steps++;
+    }
+
+    /**
+     * hands a worker the blocks the other workers sent for it in the last step, and reads what it sends back
+     * @param tile index of the worker's tile
+     */
+    private void exchange(int tile) throws IOException {
+        Link link = links[tile];
+        link.out.writeInt(ShardWorker.STEP);
+        link.out.writeInt(links.length - 1);
+        for (int t = 0; t < links.length; t++) {
+            if (t != tile) {
+                int n = links[t].counts[tile];
+                link.out.writeInt(n);
+                link.out.write(links[t].blocks[tile], 0, n * Shard.Block.BALL_BYTES);
+            }
+        }
+        link.out.flush();
+
+        for (int t = 0; t < links.length; t++) {
+            if (t != tile) {
+                int n = link.in.readInt();
+                if (nextBlocks[tile][t].length < n * Shard.Block.BALL_BYTES) {
+                    nextBlocks[tile][t] = new byte[n * Shard.Block.BALL_BYTES];
+                }
+                link.in.readFully(nextBlocks[tile][t], 0, n * Shard.Block.BALL_BYTES);
+                nextCounts[tile][t] = n;
+            }
+        }
+        link.owned = link.in.readInt();
+        link.ghosts = link.in.readInt();
+    }
+
+    /**
+     * copies the world so it can be saved, asking every worker for its balls, each ball at the index of its id
+     * @param reuse checkpoint that is no longer needed (e.g. already written), or null
+     * @return a checkpoint of the world as it is now, which PackedWorld.restore() carries on from exactly
+     */
+    public synchronized Checkpoint checkpoint(Checkpoint reuse) {
+        Checkpoint c = Checkpoint.reuse(reuse, tiling.width, tiling.height, MAX_OBJECTS, MAX_SUBDIVISION, steps, ballCount);
+        Shard.Block block = new Shard.Block();
+        try {
+            for (Link link : links) {
+                link.out.writeInt(ShardWorker.GET);
+                link.out.flush();
+                block.clear();
+                block.read(link.in);
+                block.copyOwnedTo(c);
+            }
+            //balls that changed tiles in the last step are still on their way to their new tile
+            for (Link link : links) {
+                for (int t = 0; t < links.length; t++) {
+                    block.clear();
+                    block.add(link.blocks[t], link.counts[t]);
+                    block.copyOwnedTo(c);
+                }
+            }
+        } catch (IOException e) {
+            throw failed(e);
+        }
+        return c;
+    }
+
+    /**
+     * @param e what went wrong talking to a worker
+     * @return the exception to throw for it, with what stopped the worker thread if one did
+     */
+    private UncheckedIOException failed(IOException e) {
+        Exception worker = workerFailure.get();
+        if (worker == null) {
+            return new UncheckedIOException(e);
+        }
+        UncheckedIOException failure = new UncheckedIOException("a shard worker failed: " + worker, e);
+        failure.addSuppressed(worker);
+        return failure;
+    }
+
+    public Checkpoint checkpoint() {
+        return checkpoint(null);
+    }
+
+    /**
+     * tells the workers to stop, waits for the ones this class started as processes, and stops listening
+     */
+    public synchronized void close() {
+        for (Link link : links) {
+            if (link == null) {
+                continue;
+            }
+            try {
+                link.out.writeInt(ShardWorker.QUIT);
+                link.out.flush();
+                link.socket.close();
+            } catch (IOException e) {
+                //the worker is gone already
+            }
+        }
+        pool.shutdown();
+        try {
+            server.close();
+        } catch (IOException e) {
+            //nothing is listening anyway
+        }
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                    process.destroy();
+                }
+            } catch (InterruptedException e) {
+                process.destroy();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public synchronized long getSteps() {
+        return steps;
+    }
+
+    public int getBallCount() {
+        return ballCount;
+    }
+
+    /**
+     * @return ghosts held across every tile in the last step, the balls simulated twice
+     */
+    public synchronized long getGhostCount() {
+        long ghosts = 0;
+        for (Link link : links) {
+            ghosts += link.ghosts;
+        }
+        return ghosts;
+    }
+
+    /**
+     * @return bytes of balls passed between tiles in the last step
+     */
+    public synchronized long getExchanged() {
+        return exchanged;
+    }
+
+    public int getTiles() {
+        return links.length;
+    }
+
+    public int getMargin() {
+        return tiling.margin;
+    }
+
+    public int getWidth() {
+        return tiling.width;
+    }
+
+    public int getHeight() {
+        return tiling.height;
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * [Simulation.java]
+ * Runs a World (or anything else Steppable) on its own thread with a fixed timestep, either paced to a tick rate or as fast as possible.
+ * A viewer (e.g. Display) can be attached to be told when new steps are ready, but nothing here needs a screen
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+public class Simulation implements Runnable {
+    private static final int MAX_STEPS_PER_FRAME = 5; //most steps to catch up on at once before giving up on the missed time
+
+    private final Steppable world; //world being simulated
+    private final int ticksPerSecond; //steps per second to run at, 0 or less runs unthrottled
+    private volatile boolean running; //true while the simulation thread should keep stepping
+    private volatile long maxSteps; //stop after this many steps, 0 or less runs forever
+    private volatile Runnable viewer; //called after every batch of steps, null if nothing is attached
+    private Thread thread; //thread the simulation runs on
+    private volatile Throwable failure; //what a step or the viewer threw to stop the thread, thrown again by join()
+
+    /**
+     * Constructor
+     * @param world world to simulate
+     * @param ticksPerSecond steps per second, 0 or less to step as fast as possible (e.g. for measuring)
+     */
+    public Simulation(Steppable world, int ticksPerSecond) {
+        this.world = world;
+        this.ticksPerSecond = ticksPerSecond;
+    }
+
+    /**
+     * attaches a viewer that is run after every batch of steps (e.g. to repaint a window)
+     * @param viewer viewer callback, or null to detach
+     */
+    public void setViewer(Runnable viewer) {
+        this.viewer = viewer;
+    }
+
+    /**
+     * stops the simulation on its own after a number of steps
+     * @param maxSteps steps to run for, 0 or less to run until stop() is called
+     */
+    public void setMaxSteps(long maxSteps) {
+        this.maxSteps = maxSteps;
+    }
+
+    /**
+     * starts stepping the world on a new thread
+     */
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this, "simulation");
+        thread.start();
+    }
+
+    /**
+     * asks the simulation thread to stop after the step it is currently on
+     */
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * waits for the simulation thread to finish
+     * @throws InterruptedException if interrupted while waiting
+     * @throws IllegalStateException if a step or the viewer threw and stopped the thread, with what it threw as the cause
+     */
+    public void join() throws InterruptedException {
+        Thread t;
+        synchronized (this) {
+            t = thread;
+        }
+        if (t != null) {
+            t.join();
+        }
+        Throwable f = failure;
+        if (f != null) {
+            throw new IllegalStateException("the simulation thread failed after step " + world.getSteps(), f);
+        }
+    }
+
+    /**
+     * the fixed timestep loop, steps the world at the tick rate and catches up (up to a limit) when it falls behind
+     */
+    @Override
+    public void run() {
+        long stepNanos = ticksPerSecond > 0 ? 1_000_000_000L / ticksPerSecond : 0;
+        long last = System.nanoTime();
+        long accumulator = 0; //time owed to the world that has not been stepped yet
+
+        try {
+            while (running && !isDone()) {
+                if (stepNanos == 0) { //unthrottled, just step
+                    world.step();
+                } else {
+                    long now = System.nanoTime();
+                    accumulator += now - last;
+                    last = now;
+
+                    //run as many fixed steps as the time allows
+                    int taken = 0;
+                    while (accumulator >= stepNanos && taken < MAX_STEPS_PER_FRAME && !isDone()) {
+                        world.step();
+                        accumulator -= stepNanos;
+                        taken++;
+                    }
+                    if (taken == MAX_STEPS_PER_FRAME) { //too far behind, drop the time instead of spiralling
+                        accumulator = 0;
+                    }
+                }
+
+                Runnable v = viewer;
+                if (v != null) {
+                    v.run();
+                }
+
+                if (stepNanos != 0) {
+                    //wait until the next step is due
+                    long wait = stepNanos - accumulator;
+                    if (wait > 0) {
+                        try {
+                            Thread.sleep(wait / 1_000_000L, (int)(wait % 1_000_000L));
+                        } catch (InterruptedException e) {
+                            running = false;
+                        }
+                    }
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            failure = e; //kept for join(), and still reported as the thread dies for anyone not joining it
+            throw e;
+        } finally {
+            running = false;
+        }
+    }
+
+    /**
+     * @return what a step or the viewer threw to stop the thread, null if nothing did
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * @return true if the step limit has been reached
+     */
+    private boolean isDone() {
+        return maxSteps > 0 && world.getSteps() >= maxSteps;
+    }
+
+    public Steppable getWorld() {
+        return world;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * [Spawner.java]
+ * Makes a large number of random balls at once from a single seed, spread evenly, in gaussian clusters or in a ring.
+ * The balls are made in fixed size chunks on every core, and each chunk draws from its own SplittableRandom split off
+ * the seed in chunk order, so the same seed always gives the same balls in the same order, whatever the number of threads
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+public class Spawner {
+    private static final int CHUNK = 1 << 14; //balls made from one random stream
+    private static final int CLUSTERS = 16; //gaussian clusters in a clustered scene
+    private static final double CLUSTER_SPREAD = 1 / 20.0; //standard deviation of a cluster, as a part of the world's shorter side
+    private static final double RING_RADIUS = 0.4; //radius of the ring, as a part of the world's shorter side
+    private static final double RING_SPREAD = 1 / 40.0; //standard deviation across the ring, as a part of the world's shorter side
+
+    /**
+     * how balls are spread over the world
+     */
+    public enum Distribution {
+        UNIFORM, //evenly over the whole world
+        CLUSTERS, //gaussian blobs around a few random centres, leaves most of the world empty
+        RING //a gaussian band around a circle in the middle of the world
+    }
+
+    /**
+     * somewhere to put the balls that are made, called from several threads at once but never twice for the same index
+     */
+    public interface Target {
+        /**
+         * @param i index of the ball, from 0 to the number of balls asked for
+         * @param centreX x coordinate of the centre of the ball
+         * @param centreY y coordinate of the centre of the ball
+         * @param vx x component of velocity
+         * @param vy y component of velocity
+         * @param radius radius of the ball
+         * @param mass mass of the ball
+         * @param colourIndex index of the colour in the palette
+         */
+        void set(int i, double centreX, double centreY, double vx, double vy, double radius, double mass, int colourIndex);
+    }
+
+    private final int width, height; //size of the world
+    private final long seed; //where every random number comes from
+    private final Distribution distribution; //how the balls are spread
+    private double minRadius = BouncingBall.DEFAULT_SIZE / 2.0; //smallest radius of a ball
+    private double maxRadius = BouncingBall.DEFAULT_SIZE / 2.0; //largest radius of a ball
+    private long spawned; //balls made so far, so a second spawn() carries on instead of repeating the first
+
+    /**
+     * Constructor
+     * @param width width of the world
+     * @param height height of the world
+     * @param seed seed of every random number
+     * @param distribution how to spread the balls
+     */
+    public Spawner(int width, int height, long seed, Distribution distribution) {
+        this.width = width;
+        this.height = height;
+        this.seed = seed;
+        this.distribution = distribution;
+    }
+
+    /**
+     * chooses the size of the balls, their mass goes with their area
+     * @param minRadius smallest radius
+     * @param maxRadius largest radius
+     */
+    public void setRadius(double minRadius, double maxRadius) {
+        this.minRadius = minRadius;
+        this.maxRadius = maxRadius;
+    }
+
+    /**
+     * makes balls in parallel
+     * @param count number of balls
+     * @return the balls, in the same order for the same seed
+     */
+    public BouncingBall[] spawn(int count) {
+        BouncingBall[] balls = new BouncingBall[count];
+        spawn(count, (i, x, y, vx, vy, radius, mass, colour) -> balls[i] = new BouncingBall(width, height, x, y, vx, vy, radius, mass, colour));
+        return balls;
+    }
+
+    /**
+     * makes balls in parallel and adds them to the end of a ball store
+     * @param store store to add the balls to
+     * @param count number of balls
+     */
+    public void spawn(BallStore store, int count) {
+        int first = store.reserve(count);
+        spawn(count, (i, x, y, vx, vy, radius, mass, colour) -> store.set(first + i, x, y, vx, vy, radius, mass, colour));
+    }
+
+    /**
+     * makes balls in parallel and hands each one to a target
+     * @param count number of balls
+     * @param target where to put them
+     */
+    public synchronized void spawn(int count, Target target) {
+        //the cluster centres only depend on the seed
+        SplittableRandom root = new SplittableRandom(seed);
+        double[] clusterX = new double[CLUSTERS];
+        double[] clusterY = new double[CLUSTERS];
+        for (int c = 0; c < CLUSTERS; c++) {
+            clusterX[c] = root.nextDouble() * width;
+            clusterY[c] = root.nextDouble() * height;
+        }
+
+        //one stream per chunk, split in order so chunk k gets the same stream every time, skipping the ones used before
+        long start = spawned / CHUNK;
+        int offset = (int)(spawned % CHUNK);
+        int chunks = (int)((offset + (long)count + CHUNK - 1) / CHUNK);
+        for (long k = 0; k < start; k++) {
+            root.split();
+        }
+        SplittableRandom[] streams = new SplittableRandom[chunks];
+        for (int k = 0; k < chunks; k++) {
+            streams[k] = root.split();
+        }
+        spawned += count;
+
+        IntStream.range(0, chunks).parallel().forEach(k -> {
+            SplittableRandom random = streams[k];
+            int from = k * CHUNK - offset; //index of the chunk's first ball in this spawn, less than 0 if made by the last spawn
+            int to = Math.min(count, from + CHUNK);
+            for (int i = from; i < to; i++) {
+                double radius = minRadius + (maxRadius - minRadius) * random.nextDouble();
+                double x, y;
+                switch (distribution) {
+                    case CLUSTERS: {
+                        int c = random.nextInt(CLUSTERS);
+                        double spread = Math.min(width, height) * CLUSTER_SPREAD;
+                        x = clusterX[c] + random.nextGaussian() * spread;
+                        y = clusterY[c] + random.nextGaussian() * spread;
+                        break;
+                    }
+                    case RING: {
+                        double angle = random.nextDouble() * 2 * Math.PI;
+                        double distance = Math.min(width, height) * (RING_RADIUS + random.nextGaussian() * RING_SPREAD);
+                        x = width / 2.0 + Math.cos(angle) * distance;
+                        y = height / 2.0 + Math.sin(angle) * distance;
+                        break;
+                    }
+                    default:
+                        x = random.nextDouble() * width;
+                        y = random.nextDouble() * height;
+                }
+                //same velocity range and palette as a random ball
+                double vx = random.nextInt(11) - 5;
+                double vy = random.nextInt(11) - 5;
+                int colour = random.nextInt(BallStore.PALETTE_SIZE);
+                if (i >= 0) {
+                    target.set(i, clamp(x, radius, width), clamp(y, radius, height), vx, vy, radius, BouncingBall.areaMass(radius), colour);
+                }
+            }
+        });
+    }
+
+    /**
+     * keeps a centre far enough inside the world for the whole ball to fit
+     */
+    private static double clamp(double v, double radius, int size) {
+        return Math.max(radius, Math.min(size - radius, v));
+    }
+}
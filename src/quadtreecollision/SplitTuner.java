@@ -0,0 +1,132 @@
+/**
+ * [SplitTuner.java]
+ * Picks how many objects a QuadTree node holds before it splits, level by level, and how deep the tree may go,
+ * from what the tree measurably costs instead of from constants. Splitting a leaf of n objects trades about n * n / 2
+ * pair checks for the checks in its four children, but every object that straddles a line between the children is
+ * stored (and kept up to date) once per child it touches. With d the average number of children each object ends up
+ * in (measured every time a node splits, separately for each level), the children check about n * n * d * d / 8 pairs
+ * and store n * d objects, so a split pays off once
+ *     pairCost * n * n * (4 - d * d) / 8 > entryCost * n * d
+ * where pairCost is the measured time per pair handed to the narrow phase and entryCost the measured time spent
+ * bringing the tree up to date per object stored. Levels where balls are big next to the nodes have a large d and so
+ * a high threshold, and once d reaches 2 splitting can never pay off, which sets the depth limit. A level nothing has
+ * split at yet has no d, so only the nodes one level past the deepest level that has been measured may split, and the
+ * limit grows one level at a time from there (otherwise the tree can cascade down to levels where every ball is in
+ * dozens of tiny leaves). Dense clusters still split deeper than sparse regions, because only their nodes fill up past
+ * the threshold
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.util.Arrays;
+
+public class SplitTuner {
+    private static final int MAX_LEVELS = 16; //deepest the tree can ever go, nodes are under a pixel wide long before this
+    private static final int MIN_OBJECTS = 2; //smallest threshold, a node of one object has no pairs to save
+    static final int MOST_OBJECTS = 256; //largest threshold
+    static final double LIMIT_DUPLICATION = 1.9; //levels that copy objects this much are not split at all
+    private static final double SMOOTHING = 0.05; //weight of each new measurement in the running averages
+
+    private final int[] maxObjects = new int[MAX_LEVELS + 1]; //threshold of each level, index 0 unused
+    private final double[] duplication = new double[MAX_LEVELS + 1]; //average children each object ends up in when a node of each level splits
+    private final boolean[] measured = new boolean[MAX_LEVELS + 1]; //true once a node of each level has split
+    private int maxDepth; //deepest level a node may be at
+    private double entryNanos; //average time per stored object per step spent bringing the tree up to date, 0 until measured
+    private double pairNanos; //average time per pair in the narrow phase, 0 until measured
+
+    /**
+     * Constructor
+     * @param maxObjects threshold every level starts with
+     * @param maxDepth depth limit to start with
+     */
+    public SplitTuner(int maxObjects, int maxDepth) {
+        Arrays.fill(this.maxObjects, Math.max(MIN_OBJECTS, Math.min(MOST_OBJECTS, maxObjects)));
+        Arrays.fill(duplication, 1);
+        this.maxDepth = Math.max(1, Math.min(MAX_LEVELS, maxDepth));
+    }
+
+    /**
+     * @param level level of a node, the root is 1
+     * @return number of objects the node holds before it splits
+     */
+    public int getMaxObjects(int level) {
+        return maxObjects[Math.max(1, Math.min(MAX_LEVELS, level))];
+    }
+
+    /**
+     * @return deepest level a node may be at
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * called by a node after it split and handed its objects to its children
+     * @param level level of the node that split
+     * @param objects objects the node held
+     * @param entries objects its children hold between them, straddling ones count once per child
+     */
+    public void recordSplit(int level, int objects, int entries) {
+        if (objects > 0 && level >= 1 && level <= MAX_LEVELS) {
+            duplication[level] += SMOOTHING * ((double)entries / objects - duplication[level]);
+            measured[level] = true;
+        }
+    }
+
+    /**
+     * called after every step with what the tree cost, updates the thresholds
+     * @param buildNanos time spent bringing the tree up to date (update, or clear and insert)
+     * @param entries objects stored in the tree, straddling ones count once per leaf
+     * @param narrowNanos time spent checking (and colliding) the pairs in the leaves
+     * @param pairs pairs the leaves handed out
+     */
+    public void observe(long buildNanos, long entries, long narrowNanos, long pairs) {
+        if (entries == 0 || pairs == 0) {
+            return;
+        }
+        entryNanos = average(entryNanos, (double)buildNanos / entries);
+        pairNanos = average(pairNanos, (double)narrowNanos / pairs);
+
+        //a level's threshold is where splitting starts to pay off
+        for (int level = 1; level <= MAX_LEVELS; level++) {
+            double d = duplication[level];
+            double threshold = d >= LIMIT_DUPLICATION ? MOST_OBJECTS : 8 * d * entryNanos / ((4 - d * d) * pairNanos);
+            maxObjects[level] = (int)Math.max(MIN_OBJECTS, Math.min(MOST_OBJECTS, Math.round(threshold)));
+        }
+
+        //the first level that can't pay off is as deep as it goes, and the first one that hasn't split yet may split once
+        int depth = MAX_LEVELS;
+        for (int level = 1; level < MAX_LEVELS; level++) {
+            if (!measured[level]) {
+                depth = level + 1;
+                break;
+            }
+            if (duplication[level] >= LIMIT_DUPLICATION) {
+                depth = level;
+                break;
+            }
+        }
+        maxDepth = depth;
+    }
+
+    /**
+     * @return the running average moved towards a new measurement, or the measurement if there was no average yet
+     */
+    private static double average(double average, double measurement) {
+        return average == 0 ? measurement : average + SMOOTHING * (measurement - average);
+    }
+
+    /**
+     * @return the threshold and duplication of each level down to the depth limit, and the measured costs
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(String.format("entry %.1f ns, pair %.1f ns, depth %d:", entryNanos, pairNanos, maxDepth));
+        for (int level = 1; level <= maxDepth; level++) {
+            text.append(String.format(" %d:%d(x%.2f)", level, maxObjects[level], duplication[level]));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,20 @@
+/**
+ * [Steppable.java]
+ * Anything a Simulation can advance one fixed step at a time
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+public interface Steppable {
+    /**
+     * advances by one fixed step
+     */
+    void step();
+
+    /**
+     * @return number of steps taken so far
+     */
+    long getSteps();
+}
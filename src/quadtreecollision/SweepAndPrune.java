@@ -0,0 +1,151 @@
+/**
+ * [SweepAndPrune.java]
+ * A broad phase that sorts the items by the left edge of their box and sweeps along x: an item can only touch the items
+ * after it whose left edge comes before its right edge, and only those are checked for overlapping in y.
+ * The sorted order is kept between builds and fixed up with an insertion sort, which is nearly free when items only
+ * move a little each step. Needs no cells or levels to tune, but does poorly when many items share the same x
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+public class SweepAndPrune<T> implements BroadPhase<T> {
+    private final Bounds<? super T> bounds; //where each item is and how big it is
+
+    private int count;
+    private Object[] items = new Object[0]; //items in the order of the list they were built from
+    private int[] order = new int[0], scratch = new int[0]; //indices of the items sorted by the left edge of their box
+    private double[] minX = new double[0], maxX = new double[0], minY = new double[0], maxY = new double[0]; //box of each item, in list order
+
+    /**
+     * Constructor
+     * @param bounds where each item is and how big it is
+     */
+    public SweepAndPrune(Bounds<? super T> bounds) {
+        this.bounds = bounds;
+    }
+
+    @Override
+    public void build(List<? extends T> list) {
+        //the old order is only worth keeping if it is the same list of items
+        boolean coherent = list.size() == count;
+        count = list.size();
+        if (order.length < count) {
+            int capacity = Math.max(count, order.length * 2);
+            items = new Object[capacity];
+            order = new int[capacity];
+            scratch = new int[capacity];
+            minX = new double[capacity];
+            maxX = new double[capacity];
+            minY = new double[capacity];
+            maxY = new double[capacity];
+            coherent = false;
+        }
+
+        for (int i = 0; i < count; i++) {
+            T item = list.get(i);
+            double r = bounds.getRadius(item);
+            items[i] = item;
+            minX[i] = bounds.getPosX(item) - r;
+            maxX[i] = bounds.getPosX(item) + r;
+            minY[i] = bounds.getPosY(item) - r;
+            maxY[i] = bounds.getPosY(item) + r;
+        }
+        Arrays.fill(items, count, items.length, null);
+
+        //fix up last step's order if it is nearly sorted, otherwise sort from scratch
+        if (!coherent || !insertionSort(count * 8L)) {
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            mergeSort();
+        }
+    }
+
+    /**
+     * sorts order by minX by moving each item back past the ones it has overtaken
+     * @param limit most moves to make before giving up
+     * @return true if it finished, false if the order was too far from sorted and was left half done
+     */
+    private boolean insertionSort(long limit) {
+        long moves = 0;
+        for (int i = 1; i < count; i++) {
+            int item = order[i];
+            double key = minX[item];
+            int j = i - 1;
+            while (j >= 0 && minX[order[j]] > key) {
+                order[j + 1] = order[j];
+                j--;
+                if (++moves > limit) {
+                    order[j + 1] = item;
+                    return false;
+                }
+            }
+            order[j + 1] = item;
+        }
+        return true;
+    }
+
+    /**
+     * sorts order by minX with a bottom up merge sort, for the first build or when too much has changed
+     */
+    private void mergeSort() {
+        int[] from = order, to = scratch;
+        for (int width = 1; width < count; width *= 2) {
+            for (int lo = 0; lo < count; lo += 2 * width) {
+                int middle = Math.min(lo + width, count);
+                int hi = Math.min(lo + 2 * width, count);
+                int a = lo, b = middle;
+                for (int k = lo; k < hi; k++) {
+                    if (a < middle && (b >= hi || minX[from[a]] <= minX[from[b]])) {
+                        to[k] = from[a++];
+                    } else {
+                        to[k] = from[b++];
+                    }
+                }
+            }
+            int[] temp = from;
+            from = to;
+            to = temp;
+        }
+        order = from;
+        scratch = to;
+    }
+
+    /**
+     * hands out each pair of items whose boxes overlap exactly once, the earlier one in the sweep first, except pairs of
+     * two resting items
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void findPairs(BiConsumer<? super T, ? super T> pairs) {
+        for (int i = 0; i < count; i++) {
+            int a = order[i];
+            double right = maxX[a];
+            for (int j = i + 1; j < count; j++) {
+                int b = order[j];
+                //every item from here on starts past the right edge of a
+                if (minX[b] > right) {
+                    break;
+                }
+                if (minY[b] <= maxY[a] && maxY[b] >= minY[a]
+                        && !(bounds.isResting((T)items[a]) && bounds.isResting((T)items[b]))) {
+                    pairs.accept((T)items[a], (T)items[b]);
+                }
+            }
+        }
+    }
+
+    /**
+     * there are no cells or nodes to hand out
+     * @param lines where the lines would be sent
+     */
+    @Override
+    public void outline(LineDrawer lines) {
+    }
+}
@@ -0,0 +1,284 @@
+/**
+ * [SweptSolver.java]
+ * Moves the balls of a World through a step with continuous collision detection. World.step() only looks for balls
+ * that overlap at the end of a step, so two balls that move further in a step than they are wide can pass straight
+ * through each other, and the only cure is more, smaller steps. Here every ball is put into a QuadTree by the circle
+ * its whole path over the step fits in, every pair the tree hands out is tested for the moment the two first touch, and
+ * the pairs are bounced in the order they hit, each at the moment it hits. A bounce changes where the two balls go
+ * next, and a ball's new path isn't checked against balls whose old paths were nowhere near it, so the step is cut into
+ * sub-steps that no ball moves further than the smallest ball's diameter in (at most setMaxSubSteps() of them, the
+ * last one takes whatever is left). The paths are wider than the balls, so the tree stops subdividing at nodes about
+ * as wide as an average path, short of MAX_SUBDIVISION if it has to. Balls bounce off the walls at the moment they
+ * reach them
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+public class SweptSolver {
+    public static final int DEFAULT_MAX_SUB_STEPS = 8; //most sub-steps a step is cut into unless told otherwise
+
+    private final int WIDTH, HEIGHT; //size of the world
+    private final int MAX_OBJECTS; //max paths a node of the quadtree should contain before subdividing
+    private final int MAX_SUBDIVISION; //max levels of subdivision
+    private final QuadTree<BouncingBall>[] trees; //a quadtree for every depth it can be limited to, made when first needed
+    private QuadTree<BouncingBall> tree; //the paths of the balls over the sub-step being taken, built again every sub-step
+    private double horizon; //length of the sub-step being taken, how far ahead the tree's circles reach
+    private int maxSubSteps = DEFAULT_MAX_SUB_STEPS; //most sub-steps a step is cut into
+
+    //impacts found in the sub-step, as a binary heap with the earliest first
+    private double[] times = new double[64]; //when each pair touches
+    private BouncingBall[] first = new BouncingBall[64], second = new BouncingBall[64]; //the two balls of each pair
+    private int impactCount;
+    private final BiConsumer<BouncingBall, BouncingBall> impactFinder = this::findImpact;
+
+    private int subSteps; //sub-steps the last step was cut into
+    private int bounces; //pairs bounced in the last step
+
+    /**
+     * where the path of a ball over the sub-step lies: the circle around the middle of the path that reaches both ends
+     */
+    private final Bounds<BouncingBall> paths = new Bounds<BouncingBall>() {
+        @Override
+        public double getPosX(BouncingBall b) {
+            return b.getPosX() + b.getVx() * horizon / 2;
+        }
+
+        @Override
+        public double getPosY(BouncingBall b) {
+            return b.getPosY() + b.getVy() * horizon / 2;
+        }
+
+        @Override
+        public double getRadius(BouncingBall b) {
+            return b.getRadius() + Math.sqrt(b.getVx() * b.getVx() + b.getVy() * b.getVy()) * horizon / 2;
+        }
+    };
+
+    /**
+     * Constructor
+     * @param width width of the world
+     * @param height height of the world
+     * @param MAX_OBJECTS max paths a node of the quadtree should contain before subdividing
+     * @param MAX_SUBDIVISION max levels of subdivision
+     */
+    @SuppressWarnings("unchecked")
+    public SweptSolver(int width, int height, int MAX_OBJECTS, int MAX_SUBDIVISION) {
+        WIDTH = width;
+        HEIGHT = height;
+        this.MAX_OBJECTS = MAX_OBJECTS;
+        this.MAX_SUBDIVISION = MAX_SUBDIVISION;
+        trees = (QuadTree<BouncingBall>[])new QuadTree<?>[MAX_SUBDIVISION + 1]; //only ever holds trees of BouncingBall
+        tree = tree(MAX_SUBDIVISION);
+    }
+
+    /**
+     * @param depth levels of subdivision, at most MAX_SUBDIVISION
+     * @return the quadtree that is limited to that many levels
+     */
+    private QuadTree<BouncingBall> tree(int depth) {
+        if (trees[depth] == null) {
+            trees[depth] = new QuadTree<>(1, 0, 0, WIDTH, HEIGHT, MAX_OBJECTS, depth, paths);
+        }
+        return trees[depth];
+    }
+
+    /**
+     * moves the balls through a step, bouncing every pair that meets on the way at the moment it meets,
+     * sleeping balls stay where they are unless something hits them
+     * @param balls the balls
+     * @param dt length of the step, 1 is one of World's regular steps
+     */
+    public void step(List<BouncingBall> balls, double dt) {
+        subSteps = 0;
+        bounces = 0;
+        double left = dt;
+        while (left > 0) {
+            double fastest = 0, smallest = Double.MAX_VALUE, speeds = 0, radii = 0;
+            for (int i = 0; i < balls.size(); i++) {
+                BouncingBall b = balls.get(i);
+                double speed = Math.sqrt(b.getVx() * b.getVx() + b.getVy() * b.getVy());
+                if (!b.isAsleep()) {
+                    fastest = Math.max(fastest, speed);
+                }
+                speeds += speed;
+                radii += b.getRadius();
+                smallest = Math.min(smallest, b.getRadius());
+            }
+
+            double h = left;
+            double travel = smallest * 2;
+            if (subSteps < maxSubSteps - 1 && fastest * h > travel) {
+                //as short as the fastest ball needs, but long enough to fit the rest of the step into what is left
+                h = Math.min(h, Math.max(travel / fastest, left / (maxSubSteps - subSteps)));
+            }
+
+            //leaves narrower than a path would only hold the same paths as their neighbours, so the tree stops
+            //subdividing at the level whose nodes are as wide as the average path
+            double path = balls.isEmpty() ? 0 : (2 * radii + speeds * h) / balls.size();
+            int depth = MAX_SUBDIVISION;
+            if (path > 0) {
+                depth = (int)Math.min(MAX_SUBDIVISION, Math.max(1, 1 + Math.floor(Math.log(Math.min(WIDTH, HEIGHT) / path) / Math.log(2))));
+            }
+            tree = tree(depth);
+            subStep(balls, h);
+            subSteps++;
+            left = h < left ? left - h : 0;
+        }
+    }
+
+    /**
+     * moves the balls through part of a step
+     * @param balls the balls
+     * @param h length of the sub-step
+     */
+    private void subStep(List<BouncingBall> balls, double h) {
+        horizon = h;
+        //every path moves along by a sub-step, so nearly every ball would have to be moved by update(), which is slower
+        tree.build(balls);
+        impactCount = 0;
+        tree.findPairs(impactFinder);
+
+        //each ball's position is kept where it would have had to start the sub-step from to be where it is now,
+        //at the time of the last bounce, going the way it is going now. A ball bounced at time t is moved to t,
+        //bounced, and moved back to time 0 along its new velocity
+        double now = 0;
+        while (impactCount > 0) {
+            BouncingBall a = first[0], b = second[0];
+            pop();
+            //a bounce since the pair was found may have turned either ball, so when they hit is worked out again
+            double t = a.timeOfImpact(b, now, h);
+            if (Double.isNaN(t)) {
+                continue;
+            }
+            if (impactCount > 0 && t > times[0]) {
+                push(t, a, b); //later than it was, something else hits first
+                continue;
+            }
+            now = t;
+            a.fly(t);
+            b.fly(t);
+            a.bounceOff(b);
+            a.fly(-t);
+            b.fly(-t);
+            bounces++;
+        }
+
+        for (int i = 0; i < balls.size(); i++) {
+            BouncingBall b = balls.get(i);
+            if (!b.isAsleep()) {
+                b.sweep(h);
+            }
+        }
+    }
+
+    /**
+     * keeps a pair the tree handed out if the two balls touch in the sub-step, a pair that shares several leaves is
+     * kept once per leaf, the copies find nothing left to do once the first has bounced them apart
+     */
+    private void findImpact(BouncingBall a, BouncingBall b) {
+        double t = a.timeOfImpact(b, 0, horizon);
+        if (!Double.isNaN(t)) {
+            push(t, a, b);
+        }
+    }
+
+    /**
+     * adds an impact to the heap
+     */
+    private void push(double t, BouncingBall a, BouncingBall b) {
+        if (impactCount == times.length) {
+            times = Arrays.copyOf(times, impactCount * 2);
+            first = Arrays.copyOf(first, impactCount * 2);
+            second = Arrays.copyOf(second, impactCount * 2);
+        }
+        int i = impactCount++;
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (times[parent] <= t) {
+                break;
+            }
+            move(parent, i);
+            i = parent;
+        }
+        times[i] = t;
+        first[i] = a;
+        second[i] = b;
+    }
+
+    /**
+     * removes the earliest impact from the heap
+     */
+    private void pop() {
+        int last = --impactCount;
+        double t = times[last];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= last) {
+                break;
+            }
+            if (child + 1 < last && times[child + 1] < times[child]) {
+                child++;
+            }
+            if (t <= times[child]) {
+                break;
+            }
+            move(child, i);
+            i = child;
+        }
+        move(last, i);
+        first[last] = null;
+        second[last] = null;
+    }
+
+    /**
+     * copies an impact to another place in the heap
+     */
+    private void move(int from, int to) {
+        times[to] = times[from];
+        first[to] = first[from];
+        second[to] = second[from];
+    }
+
+    /**
+     * chooses the most sub-steps a step is cut into, fewer is quicker when balls are fast, more catches more of the
+     * bounces that follow a bounce
+     * @param maxSubSteps most sub-steps, 1 to never cut a step up
+     */
+    public void setMaxSubSteps(int maxSubSteps) {
+        this.maxSubSteps = Math.max(1, maxSubSteps);
+    }
+
+    public int getMaxSubSteps() {
+        return maxSubSteps;
+    }
+
+    /**
+     * @return sub-steps the last step was cut into
+     */
+    public int getSubSteps() {
+        return subSteps;
+    }
+
+    /**
+     * @return pairs bounced off each other in the last step
+     */
+    public int getBounces() {
+        return bounces;
+    }
+
+    /**
+     * the quadtree of the balls' paths as of the last sub-step, callers that are not on the simulation thread must hold
+     * the world's lock
+     * @return the root of the quadtree
+     */
+    public QuadTree<BouncingBall> getQuadTree() {
+        return tree;
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * [UniformGrid.java]
+ * A broad phase that splits the world into equal square cells and files each item under the cell its centre is in.
+ * The cells are at least as wide as the largest item, so two items can only touch if their cells are next to each
+ * other. Items are sorted by cell with a counting sort into flat arrays every build, so there are no buckets to
+ * allocate. Works best when the items are spread out evenly and are about the same size
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+public class UniformGrid<T> implements BroadPhase<T> {
+    private final double x, y, w, h; //area covered by the grid, items outside it are filed under the nearest edge cell
+    private final double cellSize; //side of a cell asked for, 0 or less to fit it to the largest item
+    private final Bounds<? super T> bounds; //where each item is and how big it is
+
+    private double size; //side of the cells as of the last build
+    private int columns, rows; //number of cells across and down
+
+    //items sorted by cell, with their centres and radii in the same order
+    private int count;
+    private Object[] items = new Object[0];
+    private double[] cx = new double[0], cy = new double[0], r = new double[0];
+    private int[] cellOf = new int[0]; //cell of each item, in the order of the list
+    private int[] cellStart = new int[1]; //index of the first item of each cell, one extra entry at the end
+
+    /**
+     * Constructor
+     * @param x x coordinate of the grid's top-left corner
+     * @param y y coordinate of the grid's top-left corner
+     * @param w width of the grid
+     * @param h height of the grid
+     * @param cellSize side of a cell, made bigger if an item's diameter is larger. 0 or less to use the largest diameter
+     * @param bounds where each item is and how big it is
+     */
+    public UniformGrid(double x, double y, double w, double h, double cellSize, Bounds<? super T> bounds) {
+        this.x = x;
+        this.y = y;
+        this.w = w;
+        this.h = h;
+        this.cellSize = cellSize;
+        this.bounds = bounds;
+    }
+
+    @Override
+    public void build(List<? extends T> list) {
+        count = list.size();
+        if (cellOf.length < count) {
+            int capacity = Math.max(count, cellOf.length * 2);
+            items = new Object[capacity];
+            cx = new double[capacity];
+            cy = new double[capacity];
+            r = new double[capacity];
+            cellOf = new int[capacity];
+        }
+
+        //cells have to be at least as wide as the largest item, and there are no more of them than a few per item
+        double largest = 0;
+        for (int i = 0; i < count; i++) {
+            largest = Math.max(largest, bounds.getRadius(list.get(i)));
+        }
+        size = Math.max(cellSize, largest * 2);
+        size = Math.max(size, Math.sqrt(w * h / (4.0 * Math.max(count, 1))));
+        columns = Math.max(1, (int)Math.ceil(w / size));
+        rows = Math.max(1, (int)Math.ceil(h / size));
+        int cells = columns * rows;
+        if (cellStart.length < cells + 1) {
+            cellStart = new int[cells + 1];
+        } else {
+            Arrays.fill(cellStart, 0, cells + 1, 0);
+        }
+
+        //count the items in each cell, then turn the counts into where each cell starts
+        for (int i = 0; i < count; i++) {
+            T item = list.get(i);
+            int column = clamp((int)((bounds.getPosX(item) - x) / size), columns);
+            int row = clamp((int)((bounds.getPosY(item) - y) / size), rows);
+            cellOf[i] = row * columns + column;
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < cells; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+
+        //put each item in its cell's place, cellStart is moved along as it fills and shifted back afterwards
+        for (int i = 0; i < count; i++) {
+            T item = list.get(i);
+            int slot = cellStart[cellOf[i]]++;
+            items[slot] = item;
+            cx[slot] = bounds.getPosX(item);
+            cy[slot] = bounds.getPosY(item);
+            r[slot] = bounds.getRadius(item);
+        }
+        for (int c = cells; c > 0; c--) {
+            cellStart[c] = cellStart[c - 1];
+        }
+        cellStart[0] = 0;
+        Arrays.fill(items, count, items.length, null);
+    }
+
+    /**
+     * @return a column (or row) moved inside the grid
+     */
+    private static int clamp(int cell, int cells) {
+        return Math.max(0, Math.min(cells - 1, cell));
+    }
+
+    /**
+     * hands out each pair of items whose boxes overlap exactly once, except pairs of two resting items: each cell is
+     * checked with itself and with the four cells after it (east, and the three below), so every pair of neighbouring
+     * cells is checked once
+     */
+    @Override
+    public void findPairs(BiConsumer<? super T, ? super T> pairs) {
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int cell = row * columns + column;
+                if (cellStart[cell] == cellStart[cell + 1]) {
+                    continue;
+                }
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    //the rest of its own cell
+                    check(i, i + 1, cellStart[cell + 1], pairs);
+                    if (column + 1 < columns) {
+                        check(i, cellStart[cell + 1], cellStart[cell + 2], pairs);
+                    }
+                    if (row + 1 < rows) {
+                        int below = cell + columns;
+                        int from = column > 0 ? below - 1 : below;
+                        int to = column + 1 < columns ? below + 1 : below;
+                        check(i, cellStart[from], cellStart[to + 1], pairs);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * hands out item i paired with each item in a range whose box overlaps it, unless both are resting
+     */
+    @SuppressWarnings("unchecked")
+    private void check(int i, int from, int to, BiConsumer<? super T, ? super T> pairs) {
+        for (int j = from; j < to; j++) {
+            double reach = r[i] + r[j];
+            if (Math.abs(cx[j] - cx[i]) <= reach && Math.abs(cy[j] - cy[i]) <= reach
+                    && !(bounds.isResting((T)items[i]) && bounds.isResting((T)items[j]))) {
+                pairs.accept((T)items[i], (T)items[j]);
+            }
+        }
+    }
+
+    /**
+     * hands out the lines between the cells
+     * @param lines where to send the lines
+     */
+    @Override
+    public void outline(LineDrawer lines) {
+        for (int column = 1; column < columns; column++) {
+            int lineX = (int)(x + column * size);
+            lines.drawLine(lineX, (int)y, lineX, (int)(y + h));
+        }
+        for (int row = 1; row < rows; row++) {
+            int lineY = (int)(y + row * size);
+            lines.drawLine((int)x, lineY, (int)(x + w), lineY);
+        }
+    }
+
+    /**
+     * @return side of the cells as of the last build
+     */
+    public double getCellSize() {
+        return size;
+    }
+}
@@ -0,0 +1,27 @@
+/**
+ * [Viewable.java]
+ * Something a Display can show: a live World, or a Replay of a recorded one
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+public interface Viewable {
+    /**
+     * copies what a camera sees so it can be drawn on another thread
+     * @param camera camera to look through
+     * @return a snapshot of the balls on the screen
+     */
+    RenderSnapshot snapshot(Camera camera);
+
+    /**
+     * @return width of the world
+     */
+    int getWidth();
+
+    /**
+     * @return height of the world
+     */
+    int getHeight();
+}
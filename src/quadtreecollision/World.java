@@ -0,0 +1,751 @@
+/**
+ * [World.java]
+ * The simulation state: owns every BouncingBall and the QuadTree used to find collisions,
+ * and advances everything by one fixed step at a time. Does not touch the screen, so it can run headless
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+public class World implements Steppable, Viewable {
+    //constants
+    private final int WIDTH; //width of the world
+    private final int HEIGHT; //height of the world
+    private final int MAX_OBJECTS; //maximum objects for quadtree (threshold before subdivision)
+    private final int MAX_SUBDIVISION; //maximum levels the quadtree can be split into
+    private static final double TREE_MARGIN = 5; //slack around each ball in the quadtree, about one step of the fastest ball
+    private static final int SLEEP_STEPS = 30; //steps in a row a ball has to be slow before it falls asleep
+    static final double HEATMAP_DIAMETER = 2; //balls that would be drawn narrower than this many pixels are drawn as a heatmap instead
+    static final int HEATMAP_TILE = 8; //side of a heatmap tile in pixels
+    private static final double MIN_NODE_PIXELS = 4; //narrowest node whose lines are drawn
+    private static final double QUERY_BELOW = 0.25; //part of the world a view can show before going through every ball is quicker than a range query
+    private static final Comparator<BouncingBall> DRAWING_ORDER = Comparator.comparingInt(System::identityHashCode);
+
+    private ArrayList<BouncingBall> balls; //arraylist of all balls in the world
+    private QuadTree<BouncingBall> qt; //quadtree covering the whole world
+    private LooseQuadTree<BouncingBall> looseTree; //loose quadtree covering the whole world, used instead of qt in loose mode
+    private BroadPhase<BouncingBall> broadPhase; //built from every ball each step and used instead of qt or the loose quadtree, null to use them
+    private long steps; //number of steps taken since the world was created
+    private boolean incremental = true; //true to update the quadtree as balls move, false to clear and rebuild it every step
+    private boolean loose; //true to keep each ball in exactly one node of the loose quadtree instead of in qt
+    private double minRadius = BouncingBall.DEFAULT_SIZE / 2.0; //smallest radius of a new random ball
+    private double maxRadius = BouncingBall.DEFAULT_SIZE / 2.0; //largest radius of a new random ball
+    private double largestRadius; //radius of the largest ball in the world, 0 if there are none
+    private ForkJoinPool pool; //threads to search the quadtree leaves for collisions on, null to check on the stepping thread
+    private volatile FrameStats stats; //where each step is measured, null to not measure
+    private double sleepSpeed = -1; //balls this slow for SLEEP_STEPS steps fall asleep, less than 0 to never sleep
+    private SplitTuner tuner; //picks the quadtree's split thresholds from what it costs, null to use MAX_OBJECTS and MAX_SUBDIVISION
+    private double timeStep = 1; //how far each step moves the balls, in velocities, 1 is one whole velocity
+    private SweptSolver swept; //moves the balls and finds when they hit on the way, null to collide balls that overlap after a step
+
+    //touching pairs found while measuring a step, two balls per pair, and the pairs handed out to find them
+    private final ArrayList<BouncingBall> contacts = new ArrayList<>();
+    //balls snapshot(Camera) found on the screen, reused every time
+    private final ArrayList<BouncingBall> visible = new ArrayList<>();
+    private final Consumer<BouncingBall> addVisible = visible::add;
+    private final BiConsumer<BouncingBall, BouncingBall> contactFinder = this::findContact;
+    private long candidates;
+
+    /**
+     * Constructor
+     * @param WIDTH width of the world
+     * @param HEIGHT height of the world
+     * @param MAX_OBJECTS max objects the quadtree should contain before subdividing
+     * @param MAX_SUBDIVISION max levels of subdivision
+     */
+    public World(int WIDTH, int HEIGHT, int MAX_OBJECTS, int MAX_SUBDIVISION) {
+        //initialize variables
+        this.WIDTH = WIDTH;
+        this.HEIGHT = HEIGHT;
+        this.MAX_OBJECTS = MAX_OBJECTS;
+        this.MAX_SUBDIVISION = MAX_SUBDIVISION;
+        balls = new ArrayList<>();
+        qt = new QuadTree<>(1, 0, 0, WIDTH, HEIGHT, MAX_OBJECTS, MAX_SUBDIVISION); //root covers 0,0 to the world width and height
+        qt.setMargin(TREE_MARGIN);
+        looseTree = new LooseQuadTree<>(1, 0, 0, WIDTH, HEIGHT, MAX_OBJECTS, MAX_SUBDIVISION);
+    }
+
+    /**
+     * adds a new randomly placed ball to the world
+     * @return the ball that was added
+     */
+    public synchronized BouncingBall addBall() {
+        double radius = minRadius + (maxRadius - minRadius) * Math.random();
+        BouncingBall b = new BouncingBall(WIDTH, HEIGHT, radius);
+        balls.add(b);
+        largestRadius = Math.max(largestRadius, radius);
+        insertIntoTree(b);
+        return b;
+    }
+
+    /**
+     * adds a number of randomly placed balls to the world
+     * @param count number of balls to add
+     */
+    public synchronized void addBalls(int count) {
+        balls.ensureCapacity(balls.size() + count);
+        for (int i = 0; i < count; i++) {
+            addBall();
+        }
+    }
+
+    /**
+     * adds a number of balls made by a spawner, made in parallel and the same every time for the same seed
+     * @param spawner spawner to make the balls with
+     * @param count number of balls to add
+     */
+    public synchronized void addBalls(Spawner spawner, int count) {
+        BouncingBall[] added = spawner.spawn(count);
+        balls.addAll(Arrays.asList(added));
+        for (BouncingBall b : added) {
+            largestRadius = Math.max(largestRadius, b.getRadius());
+            insertIntoTree(b);
+        }
+    }
+
+    /**
+     * removes a ball from the world
+     * @param b ball to remove
+     * @return true if the ball was in the world
+     */
+    public synchronized boolean removeBall(BouncingBall b) {
+        if (!balls.remove(b)) {
+            return false;
+        }
+        if (b.getRadius() == largestRadius) {
+            //it may have been the largest, find the largest of the rest
+            largestRadius = 0;
+            for (BouncingBall other : balls) {
+                largestRadius = Math.max(largestRadius, other.getRadius());
+            }
+        }
+        if (broadPhase != null || swept != null) {
+            return true; //built from the list every step
+        }
+        if (loose) {
+            looseTree.remove(b);
+        } else {
+            qt.remove(b);
+        }
+        return true;
+    }
+
+    /**
+     * removes every ball and starts the step count again, so the world can be filled with a new scene of the same size.
+     * The quadtrees keep the nodes they have split into (see QuadTree.clear()), so the new scene reuses them instead of
+     * allocating its own
+     */
+    public synchronized void clear() {
+        balls.clear();
+        largestRadius = 0;
+        qt.clear();
+        looseTree.clear();
+        steps = 0;
+    }
+
+    /**
+     * chooses the size of new random balls, their mass goes with their area
+     * @param minRadius smallest radius
+     * @param maxRadius largest radius
+     */
+    public synchronized void setBallRadius(double minRadius, double maxRadius) {
+        this.minRadius = minRadius;
+        this.maxRadius = maxRadius;
+    }
+
+    /**
+     * chooses which kind of quadtree finds the collisions, the balls already in the world are moved over to it
+     * @param loose true to keep each ball in exactly one node of a loose quadtree,
+     *              false to put a ball in every node it overlaps (the original QuadTree)
+     */
+    public synchronized void setLoose(boolean loose) {
+        if (this.loose == loose) {
+            return;
+        }
+        this.loose = loose;
+        refillTrees();
+    }
+
+    /**
+     * chooses a broad phase to find the collisions instead of the quadtrees the world keeps up to date itself,
+     * it is built from every ball at the start of each step (e.g. a LinearQuadTree, UniformGrid or SweepAndPrune)
+     * @param broadPhase broad phase to use, null to go back to the regular or loose quadtree
+     */
+    public synchronized void setBroadPhase(BroadPhase<BouncingBall> broadPhase) {
+        if (this.broadPhase == broadPhase) {
+            return;
+        }
+        this.broadPhase = broadPhase;
+        refillTrees();
+    }
+
+    /**
+     * chooses whether balls are collided where they overlap after each step or where they meet on the way (see
+     * SweptSolver), which keeps fast balls and long steps (setTimeStep()) from passing through each other. Swept steps
+     * use the solver's own quadtree of the balls' paths instead of the regular or loose quadtree or broad phase,
+     * and aren't measured by setStats()
+     * @param swept true to find when the balls meet on the way
+     */
+    public synchronized void setSwept(boolean swept) {
+        if ((this.swept != null) == swept) {
+            return;
+        }
+        this.swept = swept ? new SweptSolver(WIDTH, HEIGHT, MAX_OBJECTS, MAX_SUBDIVISION) : null;
+        refillTrees();
+    }
+
+    /**
+     * @return what moves the balls in swept steps (e.g. to set how many sub-steps it can take), null if they aren't swept
+     */
+    public synchronized SweptSolver getSweptSolver() {
+        return swept;
+    }
+
+    /**
+     * chooses how far the balls move in each step, a longer step simulates more in each step for about the same work.
+     * Without setSwept() balls that move further than they are wide in a step can pass through each other
+     * @param timeStep how many of their velocities the balls move in a step, 1 is the original step
+     */
+    public synchronized void setTimeStep(double timeStep) {
+        this.timeStep = timeStep;
+    }
+
+    public synchronized double getTimeStep() {
+        return timeStep;
+    }
+
+    /**
+     * creates a broad phase for balls by name, to pass to setBroadPhase()
+     * @param name quadtree, linear, grid, sap, or cache (ContactCache), null for none
+     * @param width width of the world
+     * @param height height of the world
+     * @param maxObjects balls in a node before it splits, for the quadtrees
+     * @param maxSubdivision levels the quadtrees can split into
+     * @param cell side of a grid cell, 0 or less to fit it to the largest ball
+     * @return the broad phase, or null if no name was given
+     */
+    public static BroadPhase<BouncingBall> createBroadPhase(String name, int width, int height, int maxObjects, int maxSubdivision, double cell) {
+        if (name == null) {
+            return null;
+        }
+        switch (name) {
+            case "quadtree": return new QuadTree<>(1, 0, 0, width, height, maxObjects, maxSubdivision, Bounds.BALLS);
+            case "linear": return new LinearQuadTree<>(0, 0, width, height, maxObjects, maxSubdivision);
+            case "grid": return new UniformGrid<>(0, 0, width, height, cell, Bounds.BALLS);
+            case "sap": return new SweepAndPrune<>(Bounds.BALLS);
+            case "cache": return new ContactCache<>(0, 0, width, height, ContactCache.DEFAULT_SKIN);
+            default: throw new IllegalArgumentException("unknown broad phase " + name);
+        }
+    }
+
+    /**
+     * empties every tree and puts the balls back into the one in use
+     */
+    private void refillTrees() {
+        qt.clear();
+        looseTree.clear();
+        for (BouncingBall b : balls) {
+            insertIntoTree(b);
+        }
+    }
+
+    /**
+     * chooses how the quadtree is kept up to date every step
+     * @param incremental true to only move balls that left their node, false to clear and rebuild the whole tree
+     */
+    public synchronized void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    /**
+     * chooses how many threads search the quadtree for collisions, the results are the same for any number of threads
+     * only the regular quadtree is searched in parallel, the loose quadtree always checks on the stepping thread
+     * @param threads number of threads, 1 or less to check on the stepping thread
+     */
+    public synchronized void setThreads(int threads) {
+        if (pool != null) {
+            pool.shutdown();
+        }
+        pool = threads > 1 ? new ForkJoinPool(threads) : null;
+    }
+
+    /**
+     * lets balls that have been slow for a while fall asleep: they stop, aren't moved, and aren't collided with each other
+     * until a collision with a moving ball wakes them. They stay in the tree where they are instead of being moved or
+     * inserted again each step. With a speed of 0 only balls that have stopped fall asleep, which stops nothing that had
+     * not stopped already (though a tree rebuilt every step then checks the sleeping balls of a node first, so touching
+     * pairs can be collided in another order), with a higher speed slow balls are stopped
+     * @param sleepSpeed speed a ball has to stay at or below to fall asleep, less than 0 to keep every ball awake
+     */
+    public synchronized void setSleepSpeed(double sleepSpeed) {
+        this.sleepSpeed = sleepSpeed;
+        if (sleepSpeed < 0) {
+            for (BouncingBall b : balls) {
+                b.wake();
+            }
+        }
+    }
+
+    /**
+     * @return number of balls that are asleep
+     */
+    public synchronized int getSleepingCount() {
+        int sleeping = 0;
+        for (BouncingBall b : balls) {
+            if (b.isAsleep()) {
+                sleeping++;
+            }
+        }
+        return sleeping;
+    }
+
+    /**
+     * chooses whether the regular quadtree's split thresholds and depth limit are tuned as it runs (see SplitTuner)
+     * or fixed at MAX_OBJECTS and MAX_SUBDIVISION, which are where the tuning starts from. The balls already in the
+     * world are put back into the tree
+     * @param adaptive true to tune the thresholds
+     */
+    public synchronized void setAdaptive(boolean adaptive) {
+        if ((tuner != null) == adaptive) {
+            return;
+        }
+        tuner = adaptive ? new SplitTuner(MAX_OBJECTS, MAX_SUBDIVISION) : null;
+        qt.setTuner(tuner);
+        refillTrees();
+    }
+
+    /**
+     * @return the tuner picking the regular quadtree's thresholds, null if they are fixed
+     */
+    public synchronized SplitTuner getTuner() {
+        return tuner;
+    }
+
+    /**
+     * starts (or stops) measuring every step, see FrameStats. Measuring finds all of a step's touching pairs before
+     * colliding any of them, so the two can be timed apart. Colliding doesn't move balls, so the results are the same
+     * @param stats where to record the measurements, null to stop measuring
+     */
+    public synchronized void setStats(FrameStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * @return where the steps are measured, null if they aren't
+     */
+    public FrameStats getStats() {
+        return stats;
+    }
+
+    /**
+     * copies the world so it can be saved, quick enough to call between steps, e.g. from the simulation thread
+     * @return a checkpoint of the world as it is now
+     */
+    public Checkpoint checkpoint() {
+        return checkpoint(null);
+    }
+
+    /**
+     * copies the world so it can be saved, into an old checkpoint's arrays if they have room
+     * @param reuse checkpoint that is no longer needed (e.g. already written), or null
+     * @return a checkpoint of the world as it is now
+     */
+    public synchronized Checkpoint checkpoint(Checkpoint reuse) {
+        Checkpoint c = Checkpoint.reuse(reuse, WIDTH, HEIGHT, MAX_OBJECTS, MAX_SUBDIVISION, steps, balls.size());
+        for (int i = 0; i < balls.size(); i++) {
+            BouncingBall b = balls.get(i);
+            c.left[i] = b.getLeft();
+            c.top[i] = b.getTop();
+            c.vx[i] = b.getVx();
+            c.vy[i] = b.getVy();
+            c.size[i] = b.getSize();
+            c.mass[i] = b.getMass();
+            c.colour[i] = b.getColourIndex();
+            c.slowSteps[i] = b.getSlowSteps();
+            c.asleep[i] = (byte)(b.isAsleep() ? 1 : 0);
+        }
+        return c;
+    }
+
+    /**
+     * copies where every ball is into a frame for a Recorder, quick enough to call after every step
+     * @param frame frame to fill
+     */
+    public synchronized void record(Recorder.Frame frame) {
+        frame.start(steps, balls.size());
+        for (int i = 0; i < balls.size(); i++) {
+            BouncingBall b = balls.get(i);
+            frame.set(i, b.getPosX(), b.getPosY(), b.getSize(), b.getColourIndex());
+        }
+    }
+
+    /**
+     * makes a world from a checkpoint, with the same balls in the same order and the same number of steps taken.
+     * The quadtree is built again from the balls, so balls that share a leaf may be collided in a different order than
+     * the saved world would have
+     * @param c checkpoint to carry on from
+     * @return the world
+     */
+    public static World restore(Checkpoint c) {
+        World world = new World(c.getWidth(), c.getHeight(), c.getMaxObjects(), c.getMaxSubdivision());
+        world.balls.ensureCapacity(c.getCount());
+        for (int i = 0; i < c.getCount(); i++) {
+            BouncingBall b = BouncingBall.restore(c.getWidth(), c.getHeight(), c.left[i], c.top[i], c.vx[i], c.vy[i], c.size[i],
+                    c.mass[i], c.colour[i], c.asleep[i] != 0, c.slowSteps[i]);
+            world.balls.add(b);
+            world.largestRadius = Math.max(world.largestRadius, b.getRadius());
+            world.insertIntoTree(b);
+        }
+        world.steps = c.getSteps();
+        return world;
+    }
+
+    /**
+     * advances the world by one fixed step: brings the quadtree up to date, resolves collisions and moves every ball
+     */
+    @Override
+    public synchronized void step() {
+        if (swept != null) {
+            swept.step(balls, timeStep);
+            if (sleepSpeed >= 0) {
+                for (BouncingBall b : balls) {
+                    if (!b.isAsleep()) {
+                        b.settle(sleepSpeed, SLEEP_STEPS);
+                    }
+                }
+            }
+            steps++;
+            return;
+        }
+
+        FrameStats stats = this.stats;
+        boolean tuning = tuner != null && broadPhase == null && !loose;
+        boolean timed = stats != null || tuning;
+        long start = timed ? System.nanoTime() : 0;
+
+        if (broadPhase != null) {
+            //built from every ball each step
+            broadPhase.build(balls);
+        } else if (loose) {
+            if (incremental) {
+                looseTree.update();
+            } else if (sleepSpeed >= 0) {
+                //sleeping balls stay where they are, only the balls that are awake are inserted again
+                looseTree.clearMoving();
+                for (BouncingBall b : balls) {
+                    if (!b.isAsleep()) {
+                        looseTree.insert(b);
+                    }
+                }
+            } else {
+                looseTree.clear();
+                for (BouncingBall b : balls) {
+                    looseTree.insert(b);
+                }
+            }
+        } else if (incremental) {
+            //only move the balls that left their node since the last step, a sleeping ball never leaves its node
+            qt.update();
+        } else if (sleepSpeed >= 0) {
+            //sleeping balls stay where they are, only the balls that are awake are inserted again
+            qt.clearMoving();
+            for (BouncingBall b : balls) {
+                if (!b.isAsleep()) {
+                    qt.insert(b);
+                }
+            }
+        } else {
+            //first clear the tree so updated balls can be added
+            qt.clear();
+
+            //insert all the balls into the quadtree
+            for (BouncingBall b : balls) {
+                qt.insert(b);
+            }
+        }
+        long built = timed ? System.nanoTime() : 0;
+
+        //check for collisions
+        if (stats != null) {
+            measureCollisions(stats);
+        } else if (broadPhase != null) {
+            broadPhase.findPairs(BouncingBall::collide);
+        } else if (loose) {
+            looseTree.collisionCheck();
+        } else if (pool != null) {
+            qt.collisionCheck(pool);
+        } else {
+            qt.collisionCheck();
+        }
+        long collided = timed ? System.nanoTime() : 0;
+        if (tuning) {
+            tuner.observe(built - start, qt.getEntryCount(), collided - built, qt.getCandidatePairs());
+        }
+
+        //update and move the positions of the balls, sleeping balls stay where they are
+        for (BouncingBall b : balls) {
+            if (b.isAsleep()) {
+                continue;
+            }
+            b.move(timeStep);
+            if (sleepSpeed >= 0) {
+                b.settle(sleepSpeed, SLEEP_STEPS);
+            }
+        }
+
+        steps++;
+
+        if (stats != null) {
+            stats.record(FrameStats.Metric.BUILD, built - start);
+            stats.record(FrameStats.Metric.MOVE, System.nanoTime() - collided);
+            measureShape(stats);
+        }
+    }
+
+    /**
+     * checks for collisions like step() does while timing the search and the collisions apart and counting the pairs
+     * @param stats where to record the measurements
+     */
+    private void measureCollisions(FrameStats stats) {
+        if (broadPhase == null && !loose && pool != null) {
+            //the pool searches and collides in one go, so the collisions are timed as part of the search
+            long start = System.nanoTime();
+            int collided = qt.collisionCheck(pool);
+            stats.record(FrameStats.Metric.SEARCH, System.nanoTime() - start);
+            stats.record(FrameStats.Metric.COLLIDE, 0);
+            stats.record(FrameStats.Metric.CANDIDATES, qt.getCandidatePairs());
+            stats.record(FrameStats.Metric.COLLISIONS, collided);
+            return;
+        }
+
+        //find every touching pair first, in the order they would have been collided
+        long start = System.nanoTime();
+        candidates = 0;
+        if (broadPhase != null) {
+            broadPhase.findPairs(contactFinder);
+        } else if (loose) {
+            looseTree.findPairs(contactFinder);
+        } else {
+            qt.findPairs(contactFinder);
+        }
+        long found = System.nanoTime();
+
+        //then collide them
+        for (int i = 0; i < contacts.size(); i += 2) {
+            contacts.get(i).collide(contacts.get(i + 1));
+        }
+        stats.record(FrameStats.Metric.SEARCH, found - start);
+        stats.record(FrameStats.Metric.COLLIDE, System.nanoTime() - found);
+        stats.record(FrameStats.Metric.CANDIDATES, candidates);
+        stats.record(FrameStats.Metric.COLLISIONS, contacts.size() / 2);
+        contacts.clear();
+    }
+
+    /**
+     * counts a pair handed out by the broad phase and keeps it if the balls touch
+     */
+    private void findContact(BouncingBall a, BouncingBall b) {
+        candidates++;
+        if (a.touches(b)) {
+            contacts.add(a);
+            contacts.add(b);
+        }
+    }
+
+    /**
+     * records the shape of whichever tree found the collisions, the grid and sweep and prune have no nodes
+     * @param stats where to record the measurements
+     */
+    private void measureShape(FrameStats stats) {
+        long duplicates = 0;
+        int nodes = 0;
+        int depth = 0;
+        QuadTree<BouncingBall> tree = broadPhase == null && !loose ? qt : null;
+        if (broadPhase instanceof QuadTree) {
+            tree = (QuadTree<BouncingBall>)broadPhase;
+        }
+        if (tree != null) {
+            //balls outside the root aren't stored at all, so there can be fewer entries than balls
+            duplicates = Math.max(0, tree.getEntryCount() - balls.size());
+            nodes = tree.getNodeCount();
+            depth = tree.getMaxDepth();
+        } else if (broadPhase instanceof LinearQuadTree) {
+            nodes = ((LinearQuadTree<BouncingBall>)broadPhase).getNodeCount();
+            depth = ((LinearQuadTree<BouncingBall>)broadPhase).getMaxDepth();
+        } else if (broadPhase == null) {
+            nodes = looseTree.getNodeCount();
+            depth = looseTree.getMaxDepth();
+        }
+        stats.record(FrameStats.Metric.DUPLICATES, duplicates);
+        stats.record(FrameStats.Metric.NODES, nodes);
+        stats.record(FrameStats.Metric.DEPTH, depth);
+    }
+
+    /**
+     * inserts a ball into whichever quadtree is in use
+     * @param b ball to insert
+     */
+    private void insertIntoTree(BouncingBall b) {
+        if (broadPhase != null || swept != null) {
+            return; //built from the list at the start of every step
+        }
+        if (loose) {
+            looseTree.insert(b);
+        } else {
+            qt.insert(b);
+        }
+    }
+
+    /**
+     * copies the world as it is now so it can be drawn on another thread while the world keeps stepping
+     * @return a snapshot of the balls and the outline of whatever found the collisions
+     */
+    public synchronized RenderSnapshot snapshot() {
+        if (swept != null) {
+            return new RenderSnapshot(steps, balls, swept.getQuadTree()::outline);
+        }
+        if (broadPhase != null) {
+            return new RenderSnapshot(steps, balls, broadPhase::outline);
+        }
+        if (loose) {
+            return new RenderSnapshot(steps, balls, looseTree::outline);
+        }
+        return new RenderSnapshot(steps, balls, qt::outline);
+    }
+
+    /**
+     * copies what a camera sees so it can be drawn on another thread: only the balls and lines on the screen, found with
+     * a range query on the quadtree (other broad phases, swept steps, and views of most of the world, have their balls
+     * tested one by one, and other broad phases have their lines cut down to the screen). Lines of nodes too small to see are left out, and once even the largest ball would be too small to see they are
+     * counted into a Heatmap instead, so drawing costs what is on the screen rather than what is in the world
+     * @param camera camera to copy the view of
+     * @return a snapshot of the view
+     */
+    @Override
+    public synchronized RenderSnapshot snapshot(Camera camera) {
+        double minX = camera.getMinX(), minY = camera.getMinY(), maxX = camera.getMaxX(), maxY = camera.getMaxY();
+        boolean tree = broadPhase == null && !loose && swept == null;
+
+        //all of the world is on the screen, so there is nothing to leave out and the balls keep their drawing order
+        List<BouncingBall> shown = balls;
+        if (minX > 0 || minY > 0 || maxX < WIDTH || maxY < HEIGHT) {
+            visible.clear();
+            double seen = (Math.min(maxX, WIDTH) - Math.max(minX, 0)) * (Math.min(maxY, HEIGHT) - Math.max(minY, 0));
+            if (tree && seen < (double)WIDTH * HEIGHT * QUERY_BELOW) {
+                qt.query(minX, minY, maxX, maxY, addVisible);
+                //the tree hands them out leaf by leaf, put them in an order that doesn't change as they move between leaves
+                //so overlapping balls don't swap which one is on top
+                visible.sort(DRAWING_ORDER);
+            } else {
+                for (BouncingBall b : balls) {
+                    double r = b.getRadius();
+                    if (b.getPosX() + r >= minX && b.getPosX() - r <= maxX && b.getPosY() + r >= minY && b.getPosY() - r <= maxY) {
+                        visible.add(b);
+                    }
+                }
+            }
+            shown = visible;
+        }
+
+        Heatmap heatmap = null;
+        //goes by the largest ball there is rather than the radius new balls get, which spawners and checkpoints don't follow
+        if (largestRadius > 0 && largestRadius * 2 * camera.getZoom() < HEATMAP_DIAMETER) {
+            heatmap = new Heatmap(camera, HEATMAP_TILE);
+            for (BouncingBall b : shown) {
+                heatmap.add(b.getPosX(), b.getPosY());
+            }
+            shown = List.of();
+        }
+
+        Consumer<LineDrawer> outline;
+        if (tree) {
+            double minSize = MIN_NODE_PIXELS / camera.getZoom();
+            outline = lines -> qt.outline(minX, minY, maxX, maxY, minSize, lines);
+        } else if (swept != null) {
+            double minSize = MIN_NODE_PIXELS / camera.getZoom();
+            outline = lines -> swept.getQuadTree().outline(minX, minY, maxX, maxY, minSize, lines);
+        } else if (heatmap != null) {
+            outline = null; //a grid's lines would cover the heatmap
+        } else {
+            Consumer<LineDrawer> all = broadPhase != null ? broadPhase::outline : looseTree::outline;
+            outline = lines -> all.accept((x1, y1, x2, y2) -> {
+                if (Math.max(x1, x2) >= minX && Math.min(x1, x2) <= maxX && Math.max(y1, y2) >= minY && Math.min(y1, y2) <= maxY) {
+                    lines.drawLine(x1, y1, x2, y2);
+                }
+            });
+        }
+        return new RenderSnapshot(steps, shown, outline, camera, heatmap);
+    }
+
+    /**
+     * the balls in the world, callers that are not on the simulation thread must hold the world's lock while reading it
+     * @return list of all balls
+     */
+    public List<BouncingBall> getBalls() {
+        return balls;
+    }
+
+    /**
+     * the quadtree as built by the last step, callers that are not on the simulation thread must hold the world's lock
+     * @return the root of the quadtree
+     */
+    public QuadTree<BouncingBall> getQuadTree() {
+        return qt;
+    }
+
+    /**
+     * the loose quadtree, only kept up to date in loose mode. Callers that are not on the simulation thread must hold the world's lock
+     * @return the root of the loose quadtree
+     */
+    public LooseQuadTree<BouncingBall> getLooseQuadTree() {
+        return looseTree;
+    }
+
+    /**
+     * the broad phase as built by the last step. Callers that are not on the simulation thread must hold the world's lock
+     * @return the broad phase in use, null if the regular or loose quadtree is used
+     */
+    public BroadPhase<BouncingBall> getBroadPhase() {
+        return broadPhase;
+    }
+
+    public synchronized boolean isLoose() {
+        return loose;
+    }
+
+    public synchronized int getBallCount() {
+        return balls.size();
+    }
+
+    @Override
+    public synchronized long getSteps() {
+        return steps;
+    }
+
+    @Override
+    public int getWidth() {
+        return WIDTH;
+    }
+
+    @Override
+    public int getHeight() {
+        return HEIGHT;
+    }
+
+    public int getMaxObjects() {
+        return MAX_OBJECTS;
+    }
+
+    public int getMaxSubdivision() {
+        return MAX_SUBDIVISION;
+    }
+}
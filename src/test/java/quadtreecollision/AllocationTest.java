@@ -0,0 +1,113 @@
+/**
+ * [AllocationTest.java]
+ * Checks that steady-state quadtree collision checks allocate nothing, serial or on a ForkJoinPool, counting the bytes
+ * every thread taking part allocates with ThreadMXBean
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class AllocationTest {
+    private static final int WIDTH = 2000, HEIGHT = 2000;
+    private static final int WARM_UP = 300; //steps before measuring, for the JIT and for every buffer to reach its size
+    private static final int MEASURED = 200; //steps measured
+
+    private static com.sun.management.ThreadMXBean threads;
+
+    @BeforeAll
+    static void setUp() {
+        threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    /**
+     * @return bytes allocated so far by the calling thread and the first count given threads together, without
+     * allocating anything itself
+     */
+    private static long allocated(Thread[] workers, int count) {
+        long bytes = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for (int i = 0; i < count; i++) {
+            bytes += threads.getThreadAllocatedBytes(workers[i].getId());
+        }
+        return bytes;
+    }
+
+    /**
+     * @return a quadtree holding a crowded scene, kept up to date with update()
+     */
+    private static QuadTree<BouncingBall> tree(List<BouncingBall> balls) {
+        QuadTree<BouncingBall> qt = new QuadTree<>(1, 0, 0, WIDTH, HEIGHT, 5, 8);
+        qt.setMargin(5);
+        for (BouncingBall b : balls) {
+            qt.insert(b);
+        }
+        return qt;
+    }
+
+    @Test
+    void parallelCollisionCheckAllocatesNothing() {
+        Thread[] workers = new Thread[64]; //room for threads the pool replaces after they idle
+        int[] started = new int[1];
+        ForkJoinPool pool = new ForkJoinPool(4, p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            synchronized (workers) {
+                workers[started[0]++] = t;
+            }
+            return t;
+        }, null, false);
+        try {
+            List<BouncingBall> balls = TestScenes.balls(13, 5000, WIDTH, HEIGHT, 3, 9, Spawner.Distribution.CLUSTERS);
+            QuadTree<BouncingBall> qt = tree(balls);
+            long bytes = 0;
+            for (int step = 0; step < WARM_UP + MEASURED; step++) {
+                qt.update();
+                int count;
+                synchronized (workers) {
+                    count = started[0];
+                }
+                long before = allocated(workers, count);
+                qt.collisionCheck(pool);
+                long after = allocated(workers, count);
+                if (step >= WARM_UP) {
+                    bytes += after - before;
+                }
+                TestScenes.move(balls);
+            }
+            assertEquals(0, bytes, "bytes allocated by " + MEASURED + " parallel collision checks");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void serialCollisionCheckAllocatesNothing() {
+        List<BouncingBall> balls = TestScenes.balls(14, 5000, WIDTH, HEIGHT, 3, 9, Spawner.Distribution.CLUSTERS);
+        QuadTree<BouncingBall> qt = tree(balls);
+        Thread[] none = new Thread[0];
+        long bytes = 0;
+        for (int step = 0; step < WARM_UP + MEASURED; step++) {
+            qt.update();
+            long before = allocated(none, 0);
+            qt.collisionCheck();
+            long after = allocated(none, 0);
+            if (step >= WARM_UP) {
+                bytes += after - before;
+            }
+            TestScenes.move(balls);
+        }
+        assertEquals(0, bytes, "bytes allocated by " + MEASURED + " serial collision checks");
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * [BatchTest.java]
+ * Checks that a scene list line stands for every combination of its values in order, that a range is only written
+ * out as its scenes are asked for, and that a scene that fails, even with an Error, is thrown from run()
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchTest {
+    private static Iterator<Batch.Scene> read(String list) {
+        return Batch.read(new BufferedReader(new StringReader(list)));
+    }
+
+    @Test
+    void lineStandsForEveryCombinationInOrder() {
+        Iterator<Batch.Scene> scenes = read("# a sweep\n\n--seed 5,1..3 --loose --balls 10,20\n--steps 7\n");
+        List<String> options = new ArrayList<>();
+        while (scenes.hasNext()) {
+            options.add(scenes.next().getOptions());
+        }
+        assertEquals(List.of(
+                "--seed 5 --loose --balls 10", "--seed 5 --loose --balls 20",
+                "--seed 1 --loose --balls 10", "--seed 1 --loose --balls 20",
+                "--seed 2 --loose --balls 10", "--seed 2 --loose --balls 20",
+                "--seed 3 --loose --balls 10", "--seed 3 --loose --balls 20",
+                "--steps 7"), options);
+    }
+
+    @Test
+    void hugeRangeIsOnlyWrittenOutAsItIsRead() {
+        //written out up front, a hundred million values would take gigabytes before the first scene
+        Iterator<Batch.Scene> scenes = read("--balls 1,2 --seed 1..100000000,-5\n");
+        for (long k = 0; k < 3; k++) {
+            assertEquals("--balls 1 --seed " + (k + 1), scenes.next().getOptions());
+        }
+        Batch.Scene scene = scenes.next();
+        assertEquals(3, scene.getIndex());
+        assertEquals("--balls 1 --seed 4", scene.getOptions());
+    }
+
+    @Test
+    void emptyRangeIsRejected() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> read("--seed 5..1\n").hasNext());
+        assertTrue(e.getMessage().contains("line 1"), e.getMessage());
+    }
+
+    @Test
+    void failedSceneIsThrownFromRun() throws InterruptedException {
+        //the middle scene can't make its balls, the others run
+        List<Batch.Result> results = new ArrayList<>();
+        try (Batch batch = new Batch(2)) {
+            Iterator<Batch.Scene> scenes = read("--balls 20 --steps 5 --world 200:200\n--balls -1 --steps 5\n");
+            assertThrows(RuntimeException.class, () -> batch.run(scenes, results::add));
+        }
+        assertEquals(1, results.size());
+    }
+
+    @Test
+    void errorInASceneIsThrownFromRun() throws InterruptedException {
+        //more balls than an array can hold, an OutOfMemoryError thrown before anything is allocated
+        List<Batch.Result> results = new ArrayList<>();
+        try (Batch batch = new Batch(2)) {
+            Iterator<Batch.Scene> scenes = read("--balls 2147483647 --steps 5\n--balls 20 --steps 5 --world 200:200\n");
+            assertThrows(OutOfMemoryError.class, () -> batch.run(scenes, results::add));
+        }
+        assertTrue(results.size() <= 1);
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * [CheckpointTest.java]
+ * Checks that a checkpoint comes back from its file exactly as it was written, that worlds restored from one carry on
+ * from where they were saved, and that failed writes and broken files are reported
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CheckpointTest {
+    private static final int WIDTH = 900, HEIGHT = 600;
+
+    @TempDir
+    Path folder;
+
+    /**
+     * fails unless two checkpoints hold the same world, ball for ball
+     */
+    private static void assertSame(Checkpoint expected, Checkpoint actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        assertEquals(expected.getMaxObjects(), actual.getMaxObjects());
+        assertEquals(expected.getMaxSubdivision(), actual.getMaxSubdivision());
+        assertEquals(expected.getSteps(), actual.getSteps());
+        int count = expected.getCount();
+        assertEquals(count, actual.getCount());
+        double[][] expectedColumns = {expected.left, expected.top, expected.vx, expected.vy, expected.size, expected.mass};
+        double[][] actualColumns = {actual.left, actual.top, actual.vx, actual.vy, actual.size, actual.mass};
+        for (int c = 0; c < expectedColumns.length; c++) {
+            for (int i = 0; i < count; i++) {
+                assertEquals(expectedColumns[c][i], actualColumns[c][i], "column " + c + " ball " + i);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            assertEquals(expected.colour[i], actual.colour[i], "colour of ball " + i);
+            assertEquals(expected.slowSteps[i], actual.slowSteps[i], "slow steps of ball " + i);
+            assertEquals(expected.asleep[i], actual.asleep[i], "sleep of ball " + i);
+        }
+    }
+
+    @Test
+    void worldRoundTripsThroughAFile() throws IOException {
+        //a sparse scene of slow-to-sleep balls, so some are asleep and some are part way there when it is saved
+        World world = new World(WIDTH, HEIGHT, 5, 8);
+        world.setSleepSpeed(4);
+        Spawner spawner = new Spawner(WIDTH, HEIGHT, 28, Spawner.Distribution.UNIFORM);
+        spawner.setRadius(2, 4);
+        world.addBalls(spawner, 400);
+        for (int step = 0; step < 45; step++) {
+            world.step();
+        }
+        assertTrue(world.getSleepingCount() > 0, "some balls should be asleep to save their state");
+
+        Checkpoint saved = world.checkpoint();
+        Path file = folder.resolve("world.qtc");
+        saved.write(file);
+        Checkpoint read = Checkpoint.read(file);
+        assertSame(saved, read);
+
+        World restored = World.restore(read);
+        assertEquals(world.getSteps(), restored.getSteps());
+        assertEquals(world.getSleepingCount(), restored.getSleepingCount());
+        assertArrayEquals(TestScenes.state(world.getBalls()), TestScenes.state(restored.getBalls()));
+        assertSame(saved, restored.checkpoint());
+    }
+
+    @Test
+    void packedWorldCarriesOnExactly() throws IOException {
+        PackedWorld world = new PackedWorld(WIDTH, HEIGHT, 5, 8, 2000);
+        Spawner spawner = new Spawner(WIDTH, HEIGHT, 29, Spawner.Distribution.UNIFORM);
+        spawner.setRadius(3, 9);
+        world.addBalls(spawner, 2000);
+        for (int step = 0; step < 100; step++) {
+            world.step();
+        }
+        Path file = folder.resolve("packed.qtc");
+        world.checkpoint().write(file);
+        PackedWorld restored = PackedWorld.restore(Checkpoint.read(file));
+        for (int step = 0; step < 100; step++) {
+            world.step();
+            restored.step();
+        }
+        assertSame(world.checkpoint(), restored.checkpoint());
+    }
+
+    @Test
+    void checkpointerReplacesTheFileAndReportsAFailedWrite() throws Exception {
+        World world = new World(WIDTH, HEIGHT, 5, 8);
+        world.addBalls(500);
+        Path file = folder.resolve("saved.qtc");
+        Checkpointer checkpointer = new Checkpointer(world, world::checkpoint, file, 10);
+        for (int step = 0; step < 50; step++) {
+            world.step();
+            checkpointer.run();
+        }
+        checkpointer.save();
+        checkpointer.close();
+        assertSame(world.checkpoint(), Checkpoint.read(file));
+        assertFalse(Files.exists(folder.resolve("saved.qtc.partial")));
+
+        //a folder that isn't there can't be written to
+        Checkpointer failing = new Checkpointer(world, world::checkpoint, folder.resolve("missing").resolve("saved.qtc"), 10);
+        failing.save();
+        assertThrows(IOException.class, failing::close);
+        assertTrue(failing.getFailure() != null);
+        failing.save();
+        assertEquals(1, failing.getSaved(), "no more checkpoints are taken once one has failed");
+    }
+
+    @Test
+    void readRejectsBrokenFiles() throws IOException {
+        World world = new World(WIDTH, HEIGHT, 5, 8);
+        world.addBalls(100);
+        Path file = folder.resolve("broken.qtc");
+        world.checkpoint().write(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+        assertThrows(IOException.class, () -> Checkpoint.read(file));
+
+        Files.write(file, new byte[100]);
+        assertThrows(IOException.class, () -> Checkpoint.read(file));
+        Files.write(file, new byte[3]);
+        assertThrows(IOException.class, () -> Checkpoint.read(file));
+    }
+}
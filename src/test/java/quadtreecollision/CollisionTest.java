@@ -0,0 +1,178 @@
+/**
+ * [CollisionTest.java]
+ * Checks the collision maths on random pairs of balls: the trig-free parallel case against the formula with the angle of
+ * collision it replaced, BallStore.collide() against BouncingBall.collide(), and NarrowPhase against testing every pair
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CollisionTest {
+    private static final int WIDTH = 1000, HEIGHT = 1000;
+    private static final int PAIRS = 200000; //random pairs tried by each test
+    private static final double EPSILON = 1e-12; //largest difference in velocity allowed, relative to the fastest speed of the pair
+
+    /**
+     * @return a ball centred on a point, with a random velocity, radius and mass
+     */
+    private static BouncingBall ball(Random random, double centreX, double centreY, boolean sameMass) {
+        double radius = 1 + random.nextDouble() * 15;
+        double mass = sameMass ? 1 : 0.1 + random.nextDouble() * 10;
+        return new BouncingBall(WIDTH, HEIGHT, centreX, centreY, random.nextDouble() * 10 - 5, random.nextDouble() * 10 - 5,
+                radius, mass, 0);
+    }
+
+    /**
+     * @return two balls placed at a random angle from each other, from well inside touching to a little apart. Now and
+     *         then they are exactly in line on an axis, and now and then both are moving parallel to an axis
+     */
+    private static BouncingBall[] pair(Random random, boolean sameMass) {
+        BouncingBall a = ball(random, 500, 500, sameMass);
+        BouncingBall b = ball(random, 0, 0, sameMass);
+        double angle = random.nextInt(8) == 0 ? random.nextInt(4) * Math.PI / 2 : random.nextDouble() * 2 * Math.PI;
+        double distance = (a.getRadius() + b.getRadius()) * (0.2 + random.nextDouble());
+        double avx = a.getVx(), avy = a.getVy(), bvx = b.getVx(), bvy = b.getVy();
+        switch (random.nextInt(3)) {
+            case 0: avx = 0; bvx = 0; break;
+            case 1: avy = 0; bvy = 0; break;
+            default: break;
+        }
+        return new BouncingBall[] {
+                new BouncingBall(WIDTH, HEIGHT, 500, 500, avx, avy, a.getRadius(), a.getMass(), 0),
+                new BouncingBall(WIDTH, HEIGHT, 500 + distance * Math.cos(angle), 500 + distance * Math.sin(angle),
+                        bvx, bvy, b.getRadius(), b.getMass(), 0)};
+    }
+
+    /**
+     * @return the velocities (vx, vy of a then of b) the parallel case gave before it dropped the trig, found through the
+     *         angle of collision
+     */
+    private static double[] trigBounce(BouncingBall a, BouncingBall b) {
+        double deltaX = b.getPosX() - a.getPosX();
+        double deltaY = b.getPosY() - a.getPosY();
+        double m1 = a.getMass(), m2 = b.getMass();
+
+        double aCollision = Math.atan(deltaY / deltaX);
+        double vxp = a.getVx() * Math.cos(aCollision) + a.getVy() * Math.sin(aCollision);
+        double vyp = a.getVy() * Math.cos(aCollision);
+        double vxbp = b.getVx() * Math.cos(aCollision) + b.getVy() * Math.sin(aCollision);
+        double vybp = b.getVy() * Math.cos(aCollision);
+        double s2 = ((m1 - m2) * vxp + 2 * m2 * vxbp) / (m1 + m2);
+        double sb2 = ((m2 - m1) * vxbp + 2 * m1 * vxp) / (m1 + m2);
+
+        return new double[] {s2 * Math.cos(aCollision) - vyp * Math.sin(aCollision),
+                s2 * Math.sin(aCollision) + vyp * Math.cos(aCollision),
+                sb2 * Math.cos(aCollision) - vybp * Math.sin(aCollision),
+                sb2 * Math.sin(aCollision) + vybp * Math.cos(aCollision)};
+    }
+
+    /**
+     * @return true if the balls are touching and heading towards each other, so collide() changes them
+     */
+    private static boolean approaching(BouncingBall a, BouncingBall b) {
+        double deltaX = b.getPosX() - a.getPosX();
+        double deltaY = b.getPosY() - a.getPosY();
+        return a.touches(b) && deltaX * (b.getVx() - a.getVx()) + deltaY * (b.getVy() - a.getVy()) < 0;
+    }
+
+    private static double fastest(BouncingBall a, BouncingBall b) {
+        return Math.max(1, Math.max(Math.hypot(a.getVx(), a.getVy()), Math.hypot(b.getVx(), b.getVy())));
+    }
+
+    @Test
+    void parallelCaseMatchesTheTrigFormula() {
+        Random random = new Random(22);
+        int checked = 0;
+        for (int n = 0; n < PAIRS; n++) {
+            boolean sameMass = random.nextBoolean();
+            BouncingBall[] pair = pair(random, sameMass);
+            BouncingBall a = pair[0], b = pair[1];
+            boolean parallel = (a.getVx() == 0 && b.getVx() == 0) || (a.getVy() == 0 && b.getVy() == 0);
+            if (!parallel || !approaching(a, b)) {
+                continue;
+            }
+            double[] expected = trigBounce(a, b);
+            double tolerance = EPSILON * fastest(a, b);
+            a.collide(b);
+            assertEquals(expected[0], a.getVx(), tolerance, "pair " + n);
+            assertEquals(expected[1], a.getVy(), tolerance, "pair " + n);
+            assertEquals(expected[2], b.getVx(), tolerance, "pair " + n);
+            assertEquals(expected[3], b.getVy(), tolerance, "pair " + n);
+            checked++;
+        }
+        assertTrue(checked > PAIRS / 10, checked + " pairs bounced in the parallel case");
+    }
+
+    @Test
+    void storeCollidesLikeBouncingBall() {
+        Random random = new Random(23);
+        BallStore store = new BallStore(WIDTH, HEIGHT, 2);
+        int bounced = 0;
+        for (int n = 0; n < PAIRS; n++) {
+            boolean sameMass = random.nextBoolean();
+            BouncingBall[] pair = pair(random, sameMass);
+            BouncingBall a = pair[0], b = pair[1];
+            store.clear();
+            store.add(a.getPosX(), a.getPosY(), a.getVx(), a.getVy(), a.getRadius(), a.getMass(), 0);
+            store.add(b.getPosX(), b.getPosY(), b.getVx(), b.getVy(), b.getRadius(), b.getMass(), 0);
+            boolean changes = approaching(a, b);
+
+            double tolerance = EPSILON * fastest(a, b);
+            a.collide(b);
+            store.collide(0, 1);
+            assertEquals(a.getVx(), store.getVx(0), tolerance, "pair " + n);
+            assertEquals(a.getVy(), store.getVy(0), tolerance, "pair " + n);
+            assertEquals(b.getVx(), store.getVx(1), tolerance, "pair " + n);
+            assertEquals(b.getVy(), store.getVy(1), tolerance, "pair " + n);
+            if (changes) {
+                bounced++;
+            }
+        }
+        assertTrue(bounced > PAIRS / 4, bounced + " pairs bounced");
+    }
+
+    @Test
+    void narrowPhaseFindsTheTouchingPairs() {
+        Random random = new Random(24);
+        NarrowPhase narrow = new NarrowPhase();
+        for (int bucket = 0; bucket < 5000; bucket++) {
+            //buckets from empty to bigger than its first arrays, packed tightly enough that many balls touch
+            List<BouncingBall> balls = new ArrayList<>();
+            int count = random.nextInt(60);
+            double spread = 10 + random.nextDouble() * 100;
+            for (int i = 0; i < count; i++) {
+                balls.add(ball(random, 500 + random.nextDouble() * spread, 500 + random.nextDouble() * spread, true));
+            }
+            if (count > 0 && random.nextBoolean()) {
+                //one exactly touching another on an axis, the closest call there is
+                BouncingBall a = balls.get(0);
+                balls.add(new BouncingBall(WIDTH, HEIGHT, a.getPosX() + 2 * a.getRadius(), a.getPosY(), 0, 0, a.getRadius(), 1, 0));
+            }
+
+            narrow.clear();
+            for (BouncingBall b : balls) {
+                narrow.add(b);
+            }
+            Set<Long> found = new HashSet<>();
+            int pairs = narrow.findPairs();
+            for (int p = 0; p < pairs; p++) {
+                assertTrue(narrow.getFirst(p) < narrow.getSecond(p));
+                found.add(TestScenes.key(narrow.getFirst(p), narrow.getSecond(p), balls.size()));
+            }
+            assertEquals(pairs, found.size(), "bucket " + bucket + " has a pair twice");
+            assertEquals(TestScenes.touching(balls), found, "bucket " + bucket);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * [ContactCacheTest.java]
+ * Checks that a ContactCache, refreshing only the lists of balls that have moved far enough, still hands out every
+ * touching pair exactly once, and leaves out only pairs of two sleeping balls
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContactCacheTest {
+    private static final int WIDTH = 1000, HEIGHT = 700;
+
+    @Test
+    void findsEveryTouchingPairOnce() {
+        for (Spawner.Distribution distribution : Spawner.Distribution.values()) {
+            List<BouncingBall> balls = TestScenes.balls(19, 2500, WIDTH, HEIGHT, 1, 16, distribution);
+            ContactCache<BouncingBall> cache = new ContactCache<>(0, 0, WIDTH, HEIGHT, ContactCache.DEFAULT_SKIN);
+            for (int step = 0; step < 200; step++) {
+                cache.build(balls);
+                assertEquals(TestScenes.touching(balls), TestScenes.found(balls, cache::findPairs), distribution + " step " + step);
+                assertEquals(0, TestScenes.duplicates(balls, cache::findPairs), distribution + " step " + step);
+                TestScenes.move(balls);
+            }
+        }
+    }
+
+    @Test
+    void findsEveryPairAgainWhenTheBallsAreReordered() {
+        List<BouncingBall> balls = TestScenes.balls(20, 2000, WIDTH, HEIGHT, 2, 10, Spawner.Distribution.CLUSTERS);
+        ContactCache<BouncingBall> cache = new ContactCache<>(0, 0, WIDTH, HEIGHT, ContactCache.DEFAULT_SKIN);
+        Random random = new Random(20);
+        for (int step = 0; step < 30; step++) {
+            if (step % 5 == 0) {
+                Collections.shuffle(balls, random);
+            }
+            cache.build(balls);
+            assertEquals(TestScenes.touching(balls), TestScenes.found(balls, cache::findPairs), "step " + step);
+            TestScenes.move(balls);
+        }
+    }
+
+    @Test
+    void leavesOutOnlyPairsOfSleepingBalls() {
+        List<BouncingBall> balls = TestScenes.balls(21, 2000, WIDTH, HEIGHT, 2, 10, Spawner.Distribution.CLUSTERS);
+        ContactCache<BouncingBall> cache = new ContactCache<>(0, 0, WIDTH, HEIGHT, ContactCache.DEFAULT_SKIN);
+        //put every other ball to sleep where it is
+        for (int i = 0; i < balls.size(); i += 2) {
+            balls.get(i).settle(Double.MAX_VALUE, 1);
+        }
+        for (int step = 0; step < 50; step++) {
+            cache.build(balls);
+            Set<Long> expected = TestScenes.touchingAwake(balls);
+            assertTrue(expected.size() > 0);
+            assertEquals(expected, TestScenes.found(balls, cache::findPairs), "step " + step);
+            TestScenes.move(balls);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * [ContactSolverTest.java]
+ * Checks that ContactSolver keeps momentum and energy, bounces a lone pair the way collide() does, and that a world cut
+ * into tiles ends up ball for ball where a PackedWorld solving the same way does
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContactSolverTest {
+    private static final int WIDTH = 1000, HEIGHT = 1000;
+    private static final double EPSILON = 1e-9; //largest change in momentum or energy allowed, relative to the total
+
+    /**
+     * @return total momentum across, total momentum down, total kinetic energy and total mass of the balls
+     */
+    private static double[] totals(BallStore balls) {
+        double[] totals = new double[4];
+        for (int i = 0; i < balls.size(); i++) {
+            double m = balls.getMass(i), vx = balls.getVx(i), vy = balls.getVy(i);
+            totals[0] += m * vx;
+            totals[1] += m * vy;
+            totals[2] += m * (vx * vx + vy * vy) / 2;
+            totals[3] += m;
+        }
+        return totals;
+    }
+
+    @Test
+    void keepsMomentumAndEnergy() {
+        //crowded, with every mass different, so many balls touch several others at once. No velocity is exactly 0, which
+        //would take the parallel case that collide() has never kept momentum in
+        Random random = new Random(31);
+        BallStore balls = new BallStore(WIDTH, HEIGHT, 3000);
+        for (int i = 0; i < 3000; i++) {
+            balls.add(8 + random.nextDouble() * (WIDTH - 16), 8 + random.nextDouble() * (HEIGHT - 16),
+                    random.nextDouble() * 10 - 5, random.nextDouble() * 10 - 5, 3 + random.nextDouble() * 5,
+                    0.5 + random.nextDouble() * 3, 0);
+        }
+        IndexQuadTree qt = new IndexQuadTree(balls, 0, 0, WIDTH, HEIGHT, 8, 6);
+        ContactSolver solver = new ContactSolver();
+
+        int changed = 0;
+        for (int step = 0; step < 50; step++) {
+            qt.clear();
+            qt.insertAll();
+            double[] before = totals(balls);
+            solver.solve(balls, qt);
+            double[] after = totals(balls);
+            double momentum = Math.sqrt(2 * before[2] * before[3]); //the most momentum that energy could carry
+            assertEquals(before[0], after[0], EPSILON * momentum, "momentum across in step " + step);
+            assertEquals(before[1], after[1], EPSILON * momentum, "momentum down in step " + step);
+            assertEquals(before[2], after[2], EPSILON * before[2], "energy in step " + step);
+            if (before[0] != after[0] || before[2] != after[2]) {
+                changed++;
+            }
+            balls.moveAll();
+        }
+        assertTrue(changed > 40, "only " + changed + " steps bounced anything");
+    }
+
+    @Test
+    void lonePairBouncesLikeCollide() {
+        Random random = new Random(32);
+        BallStore solved = new BallStore(WIDTH, HEIGHT, 2);
+        BallStore collided = new BallStore(WIDTH, HEIGHT, 2);
+        IndexQuadTree qt = new IndexQuadTree(solved, 0, 0, WIDTH, HEIGHT, 8, 6);
+        ContactSolver solver = new ContactSolver();
+        for (int n = 0; n < 10000; n++) {
+            double radius = 1 + random.nextDouble() * 15, otherRadius = 1 + random.nextDouble() * 15;
+            double angle = random.nextDouble() * 2 * Math.PI;
+            double distance = (radius + otherRadius) * (0.2 + random.nextDouble());
+            double[] ball = {500, 500, random.nextDouble() * 10 - 5, random.nextDouble() * 10 - 5, radius,
+                    random.nextBoolean() ? 1 : 0.1 + random.nextDouble() * 10};
+            double[] other = {500 + distance * Math.cos(angle), 500 + distance * Math.sin(angle),
+                    random.nextDouble() * 10 - 5, random.nextDouble() * 10 - 5, otherRadius,
+                    random.nextBoolean() ? 1 : 0.1 + random.nextDouble() * 10};
+            for (BallStore store : new BallStore[] {solved, collided}) {
+                store.clear();
+                store.add(ball[0], ball[1], ball[2], ball[3], ball[4], ball[5], 0);
+                store.add(other[0], other[1], other[2], other[3], other[4], other[5], 0);
+            }
+
+            qt.clear();
+            qt.insertAll();
+            solver.solve(solved, qt);
+            collided.collide(0, 1);
+            for (int i = 0; i < 2; i++) {
+                assertEquals(collided.getVx(i), solved.getVx(i), "pair " + n);
+                assertEquals(collided.getVy(i), solved.getVy(i), "pair " + n);
+            }
+        }
+    }
+
+    @Test
+    void shardedWorldMatchesPackedWorld() throws IOException {
+        PackedWorld packed = new PackedWorld(WIDTH, HEIGHT, 8, 6, 0);
+        Spawner spawner = new Spawner(WIDTH, HEIGHT, 33, Spawner.Distribution.CLUSTERS);
+        spawner.setRadius(3, 9);
+        packed.addBalls(spawner, 2000);
+        packed.setSimultaneous(true);
+        ShardedWorld sharded = new ShardedWorld(PackedWorld.restore(packed.checkpoint()).getBalls(), 0, 8, 6, 3, 2,
+                ShardedWorld.Workers.THREADS, 0);
+        try {
+            for (int step = 0; step < 200; step++) {
+                packed.step();
+                sharded.step();
+            }
+            Checkpoint expected = packed.checkpoint(), actual = sharded.checkpoint();
+            assertEquals(expected.getCount(), actual.getCount());
+            for (int i = 0; i < expected.getCount(); i++) {
+                assertEquals(expected.left[i], actual.left[i], "ball " + i);
+                assertEquals(expected.top[i], actual.top[i], "ball " + i);
+                assertEquals(expected.vx[i], actual.vx[i], "ball " + i);
+                assertEquals(expected.vy[i], actual.vy[i], "ball " + i);
+            }
+        } finally {
+            sharded.close();
+        }
+    }
+}
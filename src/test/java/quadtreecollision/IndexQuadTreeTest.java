@@ -0,0 +1,77 @@
+/**
+ * [IndexQuadTreeTest.java]
+ * Checks that an IndexQuadTree over a BallStore finds every touching pair, and that stepping the store through it
+ * gives exactly what stepping the same balls as BouncingBalls through a QuadTree does
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IndexQuadTreeTest {
+    private static final int WIDTH = 901, HEIGHT = 677;
+
+    /**
+     * @return the balls a Spawner with these arguments makes, in a store
+     */
+    private static BallStore store(long seed, int count, double minRadius, double maxRadius, Spawner.Distribution distribution) {
+        Spawner spawner = new Spawner(WIDTH, HEIGHT, seed, distribution);
+        spawner.setRadius(minRadius, maxRadius);
+        BallStore store = new BallStore(WIDTH, HEIGHT, count);
+        spawner.spawn(store, count);
+        return store;
+    }
+
+    @Test
+    void findsEveryTouchingPair() {
+        for (Spawner.Distribution distribution : Spawner.Distribution.values()) {
+            BallStore store = store(7, 1500, 2, 14, distribution);
+            List<BouncingBall> balls = TestScenes.balls(7, 1500, WIDTH, HEIGHT, 2, 14, distribution);
+            IndexQuadTree tree = new IndexQuadTree(store, 0, 0, WIDTH, HEIGHT, 5, 8);
+            for (int step = 0; step < 50; step++) {
+                tree.clear();
+                tree.insertAll();
+                Set<Long> found = new HashSet<>();
+                tree.findContacts((a, b) -> found.add(TestScenes.key(a, b, store.size())));
+                assertEquals(TestScenes.touchingInside(balls, WIDTH, HEIGHT), found, distribution + " step " + step);
+                store.moveAll();
+                TestScenes.move(balls);
+            }
+        }
+    }
+
+    @Test
+    void stepsLikeTheObjectPath() {
+        BallStore store = store(8, 2000, 3, 9, Spawner.Distribution.CLUSTERS);
+        List<BouncingBall> balls = TestScenes.balls(8, 2000, WIDTH, HEIGHT, 3, 9, Spawner.Distribution.CLUSTERS);
+        IndexQuadTree tree = new IndexQuadTree(store, 0, 0, WIDTH, HEIGHT, 5, 8);
+        QuadTree<BouncingBall> qt = new QuadTree<>(1, 0, 0, WIDTH, HEIGHT, 5, 8);
+        for (int step = 0; step < 300; step++) {
+            tree.clear();
+            tree.insertAll();
+            tree.collisionCheck();
+            store.moveAll();
+
+            qt.build(balls);
+            qt.collisionCheck();
+            TestScenes.move(balls);
+        }
+        double[] packed = new double[store.size() * 4];
+        for (int i = 0; i < store.size(); i++) {
+            packed[i * 4] = store.getPosX(i);
+            packed[i * 4 + 1] = store.getPosY(i);
+            packed[i * 4 + 2] = store.getVx(i);
+            packed[i * 4 + 3] = store.getVy(i);
+        }
+        assertArrayEquals(TestScenes.state(balls), packed);
+    }
+}
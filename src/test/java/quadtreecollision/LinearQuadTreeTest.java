@@ -0,0 +1,51 @@
+/**
+ * [LinearQuadTreeTest.java]
+ * Checks that a LinearQuadTree hands out every touching pair exactly once, including balls outside its root and balls
+ * stacked on the same centre
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LinearQuadTreeTest {
+    private static final int WIDTH = 1000, HEIGHT = 750;
+
+    @Test
+    void findsEveryTouchingPairOnce() {
+        for (Spawner.Distribution distribution : Spawner.Distribution.values()) {
+            List<BouncingBall> balls = TestScenes.balls(11, 3000, WIDTH, HEIGHT, 1, 16, distribution);
+            LinearQuadTree<BouncingBall> tree = new LinearQuadTree<>(0, 0, WIDTH, HEIGHT, 5, 10);
+            for (int step = 0; step < 50; step++) {
+                tree.build(balls);
+                assertEquals(TestScenes.touching(balls), TestScenes.found(balls, tree::findPairs), distribution + " step " + step);
+                assertEquals(0, TestScenes.duplicates(balls, tree::findPairs), distribution + " step " + step);
+                TestScenes.move(balls);
+            }
+        }
+    }
+
+    @Test
+    void keepsBallsOutsideTheRootAndOnTheSameCentre() {
+        List<BouncingBall> balls = TestScenes.balls(12, 500, WIDTH, HEIGHT, 4, 8, Spawner.Distribution.UNIFORM);
+        for (int i = 0; i < 20; i++) {
+            //a stack of balls on one centre, more than a leaf holds and more than can ever be split apart
+            balls.add(new BouncingBall(WIDTH, HEIGHT, 300, 300, 0, 0, 5, 1, 0));
+        }
+        for (int i = 0; i < 30; i++) {
+            //balls in a row past the right and bottom edges, touching their neighbours
+            balls.add(new BouncingBall(WIDTH, HEIGHT, WIDTH + 20 + i * 9, 100, 0, 0, 5, 1, 0));
+            balls.add(new BouncingBall(WIDTH, HEIGHT, 100 + i * 9, -40, 0, 0, 5, 1, 0));
+        }
+        LinearQuadTree<BouncingBall> tree = new LinearQuadTree<>(0, 0, WIDTH, HEIGHT, 5, 8);
+        tree.build(balls);
+        assertEquals(TestScenes.touching(balls), TestScenes.found(balls, tree::findPairs));
+        assertEquals(0, TestScenes.duplicates(balls, tree::findPairs));
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * [LooseQuadTreeTest.java]
+ * Checks that a LooseQuadTree, rebuilt or kept up to date with update(), hands out every touching pair and no pair twice,
+ * and that one rebuilt around its sleeping balls with clearMoving() leaves out only pairs of two sleeping balls
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LooseQuadTreeTest {
+    private static final int WIDTH = 1000, HEIGHT = 700;
+
+    @Test
+    void updateFindsEveryTouchingPair() {
+        for (Spawner.Distribution distribution : Spawner.Distribution.values()) {
+            //very different sizes, which the loose tree keeps at different depths
+            List<BouncingBall> balls = TestScenes.balls(5, 1500, WIDTH, HEIGHT, 1, 30, distribution);
+            LooseQuadTree<BouncingBall> tree = new LooseQuadTree<>(1, 0, 0, WIDTH, HEIGHT, 5, 8);
+            for (BouncingBall b : balls) {
+                tree.insert(b);
+            }
+            for (int step = 0; step < 100; step++) {
+                tree.update();
+                assertEquals(TestScenes.touching(balls), TestScenes.found(balls, tree::findPairs), distribution + " step " + step);
+                assertEquals(balls.size(), tree.size());
+                TestScenes.move(balls);
+            }
+        }
+    }
+
+    @Test
+    void rebuiltTreeHandsOutNoPairTwice() {
+        List<BouncingBall> balls = TestScenes.balls(6, 2000, WIDTH, HEIGHT, 2, 12, Spawner.Distribution.CLUSTERS);
+        LooseQuadTree<BouncingBall> tree = new LooseQuadTree<>(1, 0, 0, WIDTH, HEIGHT, 4, 8);
+        for (int step = 0; step < 20; step++) {
+            tree.clear();
+            for (BouncingBall b : balls) {
+                tree.insert(b);
+            }
+            assertEquals(0, TestScenes.duplicates(balls, tree::findPairs), "step " + step);
+            assertEquals(TestScenes.touching(balls), TestScenes.found(balls, tree::findPairs), "step " + step);
+            TestScenes.move(balls);
+        }
+    }
+
+    @Test
+    void leavesOutOnlyPairsOfSleepingBalls() {
+        List<BouncingBall> balls = TestScenes.balls(7, 2000, WIDTH, HEIGHT, 1, 30, Spawner.Distribution.CLUSTERS);
+        LooseQuadTree<BouncingBall> tree = new LooseQuadTree<>(1, 0, 0, WIDTH, HEIGHT, 5, 8);
+        //put every other ball to sleep where it is
+        for (int i = 0; i < balls.size(); i += 2) {
+            balls.get(i).settle(Double.MAX_VALUE, 1);
+        }
+        for (BouncingBall b : balls) {
+            tree.insert(b);
+        }
+        for (int step = 0; step < 50; step++) {
+            //the sleeping balls stay in the tree, the rest are inserted again
+            tree.clearMoving();
+            for (BouncingBall b : balls) {
+                if (!b.isAsleep()) {
+                    tree.insert(b);
+                }
+            }
+            Set<Long> expected = TestScenes.touchingAwake(balls);
+            assertTrue(expected.size() > 0);
+            assertEquals(expected, TestScenes.found(balls, tree::findPairs), "step " + step);
+            assertEquals(0, TestScenes.duplicates(balls, tree::findPairs), "step " + step);
+            assertEquals(balls.size(), tree.size());
+            TestScenes.move(balls);
+            //now and then some wake up, and some fall asleep where they moved to, which may be out of their node
+            if (step % 10 == 5) {
+                for (int i = step % 7; i < balls.size(); i += 7) {
+                    BouncingBall b = balls.get(i);
+                    if (b.isAsleep()) {
+                        b.wake();
+                    } else {
+                        b.settle(Double.MAX_VALUE, 1);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * [ParallelCollisionTest.java]
+ * Checks that searching the quadtree leaves on a ForkJoinPool gives exactly the results of searching them on one thread,
+ * with or without sleeping balls, and that a search that throws on the pool is thrown from collisionCheck() instead of hanging it
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelCollisionTest {
+    private static final int WIDTH = 1200, HEIGHT = 800;
+
+    @Test
+    void poolCollidesLikeOneThread() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (Spawner.Distribution distribution : Spawner.Distribution.values()) {
+                List<BouncingBall> serial = TestScenes.balls(9, 2500, WIDTH, HEIGHT, 2, 10, distribution);
+                List<BouncingBall> parallel = TestScenes.balls(9, 2500, WIDTH, HEIGHT, 2, 10, distribution);
+                QuadTree<BouncingBall> serialTree = new QuadTree<>(1, 0, 0, WIDTH, HEIGHT, 5, 8);
+                QuadTree<BouncingBall> parallelTree = new QuadTree<>(1, 0, 0, WIDTH, HEIGHT, 5, 8);
+                for (int step = 0; step < 100; step++) {
+                    serialTree.build(serial);
+                    serialTree.collisionCheck();
+                    parallelTree.build(parallel);
+                    parallelTree.collisionCheck(pool);
+                    assertArrayEquals(TestScenes.state(serial), TestScenes.state(parallel), distribution + " step " + step);
+                    TestScenes.move(serial);
+                    TestScenes.move(parallel);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void worldStepsTheSameOnAnyNumberOfThreads() {
+        double[] expected = null;
+        for (int threads : new int[] {1, 2, 3, 8}) {
+            World world = new World(WIDTH, HEIGHT, 5, 8);
+            world.setBallRadius(3, 12);
+            world.setThreads(threads);
+            Spawner spawner = new Spawner(WIDTH, HEIGHT, 10, Spawner.Distribution.CLUSTERS);
+            spawner.setRadius(3, 12);
+            world.addBalls(spawner, 2000);
+            for (int step = 0; step < 200; step++) {
+                world.step();
+            }
+            world.setThreads(1);
+            double[] state = TestScenes.state(world.getBalls());
+            if (expected == null) {
+                expected = state;
+            } else {
+                assertArrayEquals(expected, state, threads + " threads");
+            }
+            assertEquals(200, world.getSteps());
+        }
+    }
+
+    @Test
+    void sleepingWorldStepsTheSameOnAnyNumberOfThreads() {
+        //leaves of sleeping balls are skipped by the search, and have to be looked at again if a ball in them is woken
+        for (boolean incremental : new boolean[] {true, false}) {
+            double[] expected = null;
+            for (int threads : new int[] {1, 2, 8}) {
+                //sparse and slow enough for a few hundred balls to be asleep at any time, with the rest waking them
+                World world = new World(WIDTH, HEIGHT, 5, 8);
+                world.setBallRadius(2, 6);
+                world.setIncremental(incremental);
+                world.setSleepSpeed(6);
+                world.setThreads(threads);
+                Spawner spawner = new Spawner(WIDTH, HEIGHT, 11, Spawner.Distribution.CLUSTERS);
+                spawner.setRadius(2, 6);
+                world.addBalls(spawner, 1000);
+                for (int step = 0; step < 300; step++) {
+                    world.step();
+                }
+                world.setThreads(1);
+                assertTrue(world.getSleepingCount() > 0, "nothing fell asleep");
+                double[] state = TestScenes.state(world.getBalls());
+                if (expected == null) {
+                    expected = state;
+                } else {
+                    assertArrayEquals(expected, state, threads + " threads, incremental " + incremental);
+                }
+            }
+        }
+    }
+
+    @Test
+    void searchThatThrowsOnThePoolIsThrownFromCollisionCheck() {
+        //circles that aren't balls, which the leaf search can't read, so every chunk with a full leaf throws
+        Bounds<double[]> circles = new Bounds<double[]>() {
+            @Override
+            public double getPosX(double[] c) {
+                return c[0];
+            }
+
+            @Override
+            public double getPosY(double[] c) {
+                return c[1];
+            }
+
+            @Override
+            public double getRadius(double[] c) {
+                return c[2];
+            }
+        };
+        Random random = new Random(12);
+        QuadTree<double[]> qt = new QuadTree<>(1, 0, 0, WIDTH, HEIGHT, 5, 8, circles);
+        for (int i = 0; i < 2000; i++) {
+            qt.insert(new double[] {10 + random.nextDouble() * (WIDTH - 20), 10 + random.nextDouble() * (HEIGHT - 20), 5});
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                assertThrows(ClassCastException.class, () -> qt.collisionCheck(pool));
+                //and the next search starts afresh, without waiting on chunks from the one that failed
+                assertThrows(ClassCastException.class, () -> qt.collisionCheck(pool));
+            });
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * [QuadTreeTest.java]
+ * Checks that a QuadTree kept up to date with update() hands out every touching pair, like one built from scratch, and
+ * that one rebuilt around its sleeping balls with clearMoving() leaves out only pairs of two sleeping balls
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuadTreeTest {
+    private static final int WIDTH = 801, HEIGHT = 599; //odd sizes, so the children don't split evenly
+
+    @Test
+    void updateFindsEveryTouchingPair() {
+        for (Spawner.Distribution distribution : Spawner.Distribution.values()) {
+            List<BouncingBall> balls = TestScenes.balls(3, 1500, WIDTH, HEIGHT, 2, 12, distribution);
+            QuadTree<BouncingBall> qt = new QuadTree<>(1, 0, 0, WIDTH, HEIGHT, 5, 8);
+            qt.setMargin(5);
+            for (BouncingBall b : balls) {
+                qt.insert(b);
+            }
+            for (int step = 0; step < 100; step++) {
+                qt.update();
+                Set<Long> expected = TestScenes.touching(balls);
+                assertEquals(expected, TestScenes.found(balls, qt::findPairs), distribution + " step " + step);
+                TestScenes.move(balls);
+            }
+        }
+    }
+
+    @Test
+    void removedBallsAreLeftOut() {
+        List<BouncingBall> balls = TestScenes.balls(4, 800, WIDTH, HEIGHT, 5, 5, Spawner.Distribution.CLUSTERS);
+        QuadTree<BouncingBall> qt = new QuadTree<>(1, 0, 0, WIDTH, HEIGHT, 4, 7);
+        for (BouncingBall b : balls) {
+            qt.insert(b);
+        }
+        for (int step = 0; step < 100; step++) {
+            if (step % 10 == 0) {
+                //every tenth step a tenth of the balls go, so the nodes they leave behind get merged
+                for (int i = 0; i < 80 && !balls.isEmpty(); i++) {
+                    assertTrue(qt.remove(balls.remove(balls.size() / 2)));
+                }
+            }
+            TestScenes.move(balls);
+            qt.update();
+            assertEquals(TestScenes.touching(balls), TestScenes.found(balls, qt::findPairs), "step " + step);
+        }
+    }
+
+    @Test
+    void leavesOutOnlyPairsOfSleepingBalls() {
+        List<BouncingBall> balls = TestScenes.balls(5, 2000, WIDTH, HEIGHT, 2, 10, Spawner.Distribution.CLUSTERS);
+        QuadTree<BouncingBall> qt = new QuadTree<>(1, 0, 0, WIDTH, HEIGHT, 5, 8);
+        qt.setMargin(5);
+        //put every other ball to sleep where it is
+        for (int i = 0; i < balls.size(); i += 2) {
+            balls.get(i).settle(Double.MAX_VALUE, 1);
+        }
+        for (BouncingBall b : balls) {
+            qt.insert(b);
+        }
+        for (int step = 0; step < 50; step++) {
+            //the sleeping balls stay in the tree, the rest are inserted again
+            qt.clearMoving();
+            for (BouncingBall b : balls) {
+                if (!b.isAsleep()) {
+                    qt.insert(b);
+                }
+            }
+            Set<Long> expected = TestScenes.touchingAwake(balls);
+            assertTrue(expected.size() > 0);
+            assertEquals(expected, TestScenes.found(balls, qt::findPairs), "step " + step);
+            TestScenes.move(balls);
+            //now and then some wake up, and some fall asleep where they moved to, away from the box they were inserted with
+            if (step % 10 == 5) {
+                for (int i = step % 7; i < balls.size(); i += 7) {
+                    BouncingBall b = balls.get(i);
+                    if (b.isAsleep()) {
+                        b.wake();
+                    } else {
+                        b.settle(Double.MAX_VALUE, 1);
+                    }
+                }
+            }
+        }
+    }
+}
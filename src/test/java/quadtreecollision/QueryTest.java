@@ -0,0 +1,151 @@
+/**
+ * [QueryTest.java]
+ * Checks QuadTree's rectangle, radius and nearest queries against scanning every ball, on built and updated trees
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryTest {
+    private static final int WIDTH = 1000, HEIGHT = 700;
+    private static final int QUERIES = 100; //queries of each kind per step
+
+    /**
+     * @return the balls found, in the order found, failing if one is found twice
+     */
+    private static List<BouncingBall> once(List<BouncingBall> found) {
+        Map<BouncingBall, Boolean> seen = new IdentityHashMap<>();
+        for (BouncingBall b : found) {
+            assertTrue(seen.put(b, true) == null, "a ball was found twice");
+        }
+        return found;
+    }
+
+    /**
+     * @return the balls sorted by their place in the list, to compare without caring about the order found in
+     */
+    private static List<Integer> indices(List<BouncingBall> balls, List<BouncingBall> found) {
+        Map<BouncingBall, Integer> index = new IdentityHashMap<>();
+        for (int i = 0; i < balls.size(); i++) {
+            index.put(balls.get(i), i);
+        }
+        List<Integer> indices = new ArrayList<>();
+        for (BouncingBall b : found) {
+            indices.add(index.get(b));
+        }
+        Collections.sort(indices);
+        return indices;
+    }
+
+    private static double distance(BouncingBall b, double px, double py) {
+        double deltaX = b.getPosX() - px;
+        double deltaY = b.getPosY() - py;
+        return Math.max(0, Math.sqrt(deltaX * deltaX + deltaY * deltaY) - b.getRadius());
+    }
+
+    /**
+     * runs every kind of query at random places, some of them partly or wholly outside the world, against a scan of
+     * the balls the tree holds
+     */
+    private static void check(List<BouncingBall> balls, QuadTree<BouncingBall> tree, Random random, String where) {
+        List<BouncingBall> held = new ArrayList<>();
+        for (BouncingBall b : balls) {
+            if (!TestScenes.outside(b, WIDTH, HEIGHT)) {
+                held.add(b);
+            }
+        }
+        for (int q = 0; q < QUERIES; q++) {
+            double x1 = random.nextDouble() * (WIDTH + 200) - 100, y1 = random.nextDouble() * (HEIGHT + 200) - 100;
+            double x2 = x1 + random.nextDouble() * 300, y2 = y1 + random.nextDouble() * 300;
+
+            //rectangle
+            List<BouncingBall> expected = new ArrayList<>();
+            for (BouncingBall b : held) {
+                double deltaX = b.getPosX() - Math.max(x1, Math.min(x2, b.getPosX()));
+                double deltaY = b.getPosY() - Math.max(y1, Math.min(y2, b.getPosY()));
+                if (deltaX * deltaX + deltaY * deltaY <= b.getRadius() * b.getRadius()) {
+                    expected.add(b);
+                }
+            }
+            List<BouncingBall> found = new ArrayList<>();
+            tree.query(x1, y1, x2, y2, found::add);
+            assertEquals(indices(balls, expected), indices(balls, once(found)), where + " rectangle " + q);
+
+            //circle, now and then only a point
+            double radius = random.nextInt(5) == 0 ? 0 : random.nextDouble() * 150;
+            expected.clear();
+            for (BouncingBall b : held) {
+                double deltaX = b.getPosX() - x1;
+                double deltaY = b.getPosY() - y1;
+                double reach = radius + b.getRadius();
+                if (deltaX * deltaX + deltaY * deltaY <= reach * reach) {
+                    expected.add(b);
+                }
+            }
+            found.clear();
+            tree.queryRadius(x1, y1, radius, found::add);
+            assertEquals(indices(balls, expected), indices(balls, once(found)), where + " circle " + q);
+
+            //nearest, compared by distance since balls the same distance away can come out either way round
+            int k = 1 + random.nextInt(20);
+            double[] scanned = new double[held.size()];
+            for (int i = 0; i < held.size(); i++) {
+                scanned[i] = distance(held.get(i), x1, y1);
+            }
+            Arrays.sort(scanned);
+            found.clear();
+            int count = tree.nearest(x1, y1, k, found::add);
+            assertEquals(Math.min(k, held.size()), count, where + " nearest " + q);
+            double[] distances = new double[count];
+            for (int i = 0; i < count; i++) {
+                distances[i] = distance(once(found).get(i), x1, y1);
+            }
+            assertArrayEquals(Arrays.copyOf(scanned, count), distances, where + " nearest " + q);
+        }
+    }
+
+    @Test
+    void queriesMatchAScanOfABuiltTree() {
+        Random random = new Random(25);
+        for (Spawner.Distribution distribution : Spawner.Distribution.values()) {
+            List<BouncingBall> balls = TestScenes.balls(25, 2000, WIDTH, HEIGHT, 1, 20, distribution);
+            QuadTree<BouncingBall> tree = new QuadTree<>(1, 0, 0, WIDTH, HEIGHT, 5, 8);
+            for (int step = 0; step < 20; step++) {
+                tree.build(balls);
+                check(balls, tree, random, distribution + " step " + step);
+                TestScenes.move(balls);
+            }
+        }
+    }
+
+    @Test
+    void queriesMatchAScanOfAnUpdatedTree() {
+        Random random = new Random(26);
+        List<BouncingBall> balls = TestScenes.balls(26, 2000, WIDTH, HEIGHT, 2, 12, Spawner.Distribution.CLUSTERS);
+        QuadTree<BouncingBall> tree = new QuadTree<>(1, 0, 0, WIDTH, HEIGHT, 5, 8);
+        tree.setMargin(5);
+        for (BouncingBall b : balls) {
+            tree.insert(b);
+        }
+        for (int step = 0; step < 40; step++) {
+            tree.update();
+            check(balls, tree, random, "step " + step);
+            TestScenes.move(balls);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * [RecorderTest.java]
+ * Checks that a recorded world replays with every ball where the Recorder rounded it to, played through or seeked to in
+ * any order, across key frames and changes in the number of balls
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class RecorderTest {
+    private static final int WIDTH = 800, HEIGHT = 600;
+    private static final int STEPS = 400; //steps recorded, several key intervals
+
+    @TempDir
+    Path folder;
+
+    /**
+     * @return every ball's centre as the recorder rounds it, x and y per ball
+     */
+    private static double[] rounded(World world) {
+        double[] centres = new double[world.getBallCount() * 2];
+        for (int i = 0; i < world.getBallCount(); i++) {
+            BouncingBall b = world.getBalls().get(i);
+            centres[i * 2] = Math.round(b.getPosX() * Recorder.SCALE) / (double)Recorder.SCALE;
+            centres[i * 2 + 1] = Math.round(b.getPosY() * Recorder.SCALE) / (double)Recorder.SCALE;
+        }
+        return centres;
+    }
+
+    /**
+     * fails unless the frame the replay shows is the world as it was at that frame's step
+     */
+    private static void assertShows(Map<Long, double[]> recorded, Replay replay) {
+        double[] expected = recorded.get(replay.getWorldStep());
+        assertNotNull(expected, "step " + replay.getWorldStep() + " was never recorded");
+        assertEquals(expected.length / 2, replay.getBallCount(), "frame " + replay.getSteps());
+        for (int i = 0; i < replay.getBallCount(); i++) {
+            assertEquals(expected[i * 2], replay.getX(i), "frame " + replay.getSteps() + " ball " + i);
+            assertEquals(expected[i * 2 + 1], replay.getY(i), "frame " + replay.getSteps() + " ball " + i);
+        }
+    }
+
+    @Test
+    void replayShowsEveryRecordedFrame() throws Exception {
+        World world = new World(WIDTH, HEIGHT, 5, 8);
+        Spawner spawner = new Spawner(WIDTH, HEIGHT, 30, Spawner.Distribution.CLUSTERS);
+        spawner.setRadius(2, 10);
+        world.addBalls(spawner, 1500);
+        Path file = folder.resolve("run.qtr");
+        Recorder recorder = new Recorder(world, world::record, WIDTH, HEIGHT, file);
+
+        //what the world looked like at every step, frames the writer was too slow for are dropped and never looked up
+        Map<Long, double[]> recorded = new HashMap<>();
+        for (int step = 0; step < STEPS; step++) {
+            if (step == 150) {
+                world.addBalls(spawner, 50); //the next frame has to be a key frame
+            }
+            if (step == 250) {
+                world.removeBall(world.getBalls().get(0));
+            }
+            world.step();
+            recorded.put(world.getSteps(), rounded(world));
+            recorder.run();
+        }
+        recorder.close();
+        assertEquals(STEPS, recorder.getWritten() + recorder.getDropped());
+
+        Replay replay = new Replay(file);
+        try {
+            assertEquals(recorder.getWritten(), replay.getFrames());
+            //played through from the start
+            for (int frame = 0; frame < replay.getFrames(); frame++) {
+                replay.step();
+                assertShows(recorded, replay);
+            }
+            //and jumped around in, back and forth
+            Random random = new Random(30);
+            for (int seek = 0; seek < 200; seek++) {
+                replay.seek(random.nextInt(replay.getFrames()));
+                assertShows(recorded, replay);
+            }
+        } finally {
+            replay.close();
+        }
+    }
+}
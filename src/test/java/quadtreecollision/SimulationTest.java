@@ -0,0 +1,83 @@
+/**
+ * [SimulationTest.java]
+ * Checks that a Simulation runs to its step limit, and that a step that throws stops the thread and is thrown again
+ * from join()
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SimulationTest {
+    /**
+     * counts its steps, and throws instead of taking one step
+     */
+    private static final class Failing implements Steppable {
+        private final long failAt; //step that throws, 0 for none
+        private final RuntimeException thrown = new IllegalArgumentException("step failed");
+        private long steps;
+
+        Failing(long failAt) {
+            this.failAt = failAt;
+        }
+
+        @Override
+        public void step() {
+            if (steps + 1 == failAt) {
+                throw thrown;
+            }
+            steps++;
+        }
+
+        @Override
+        public long getSteps() {
+            return steps;
+        }
+    }
+
+    @Test
+    void runsToItsStepLimit() throws InterruptedException {
+        Failing world = new Failing(0);
+        Simulation simulation = new Simulation(world, 0);
+        simulation.setMaxSteps(500);
+        simulation.start();
+        simulation.join();
+        assertEquals(500, world.getSteps());
+        assertFalse(simulation.isRunning());
+        assertNull(simulation.getFailure());
+    }
+
+    @Test
+    void stepThatThrowsIsThrownFromJoin() {
+        Failing world = new Failing(40);
+        Simulation simulation = new Simulation(world, 0);
+        simulation.setMaxSteps(500);
+        simulation.start();
+        IllegalStateException e = assertThrows(IllegalStateException.class, simulation::join);
+        assertSame(world.thrown, e.getCause());
+        assertSame(world.thrown, simulation.getFailure());
+        assertFalse(simulation.isRunning());
+        assertEquals(39, world.getSteps());
+    }
+
+    @Test
+    void viewerThatThrowsIsThrownFromJoin() {
+        Simulation simulation = new Simulation(new Failing(0), 0);
+        RuntimeException thrown = new IllegalStateException("viewer failed");
+        simulation.setViewer(() -> {
+            throw thrown;
+        });
+        simulation.start();
+        IllegalStateException e = assertThrows(IllegalStateException.class, simulation::join);
+        assertSame(thrown, e.getCause());
+        assertFalse(simulation.isRunning());
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * [SplitTunerTest.java]
+ * Checks SplitTuner against known costs: the threshold of each level is where a split pays off, a level that copies
+ * its objects too much is never split, and the depth limit only lets the first level that hasn't split yet split once
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SplitTunerTest {
+    private static final int SPLITS = 2000; //splits recorded per level, enough for the running average to settle on the ratio
+
+    /**
+     * records splits of a level until its duplication has settled on entries / objects
+     */
+    private static void split(SplitTuner tuner, int level, int objects, int entries) {
+        for (int i = 0; i < SPLITS; i++) {
+            tuner.recordSplit(level, objects, entries);
+        }
+    }
+
+    /**
+     * @return the threshold a level with duplication d should get, 8 * d * entry / ((4 - d * d) * pair), rounded
+     */
+    private static int threshold(double d, double entryNanos, double pairNanos) {
+        return (int)Math.round(8 * d * entryNanos / ((4 - d * d) * pairNanos));
+    }
+
+    @Test
+    void thresholdsAreWhereASplitPaysOff() {
+        SplitTuner tuner = new SplitTuner(5, 8);
+        split(tuner, 1, 100, 120); //d = 1.2
+        split(tuner, 2, 100, 150); //d = 1.5
+        //10 ns per stored object and 4 ns per pair, the first measurement is taken as it is
+        tuner.observe(10_000, 1000, 4_000, 1000);
+
+        assertEquals(9, tuner.getMaxObjects(1)); //8 * 1.2 * 10 / (2.56 * 4) = 9.4
+        assertEquals(17, tuner.getMaxObjects(2)); //8 * 1.5 * 10 / (1.75 * 4) = 17.1
+        assertEquals(threshold(1.2, 10, 4), tuner.getMaxObjects(1));
+        assertEquals(threshold(1.5, 10, 4), tuner.getMaxObjects(2));
+        //a level that hasn't split yet is taken to copy nothing, d = 1
+        assertEquals(threshold(1, 10, 4), tuner.getMaxObjects(3));
+
+        //pairs costing more make splitting pay off sooner, down to the smallest threshold
+        SplitTuner expensivePairs = new SplitTuner(5, 8);
+        split(expensivePairs, 1, 100, 120);
+        expensivePairs.observe(1_000, 1000, 500_000, 1000);
+        assertEquals(2, expensivePairs.getMaxObjects(1));
+    }
+
+    @Test
+    void levelThatCopiesTooMuchNeverSplits() {
+        SplitTuner tuner = new SplitTuner(5, 8);
+        split(tuner, 1, 100, 120);
+        split(tuner, 2, 100, 150);
+        split(tuner, 3, 100, (int)Math.ceil(100 * SplitTuner.LIMIT_DUPLICATION) + 5); //d past the limit
+        split(tuner, 4, 100, 110);
+        tuner.observe(10_000, 1000, 5_000, 1000);
+
+        assertEquals(SplitTuner.MOST_OBJECTS, tuner.getMaxObjects(3));
+        assertEquals(threshold(1.1, 10, 5), tuner.getMaxObjects(4));
+        //nodes of level 3 can't split, so none are deeper, whatever deeper levels measured
+        assertEquals(3, tuner.getMaxDepth());
+    }
+
+    @Test
+    void depthGrowsOneLevelPastTheDeepestMeasured() {
+        SplitTuner tuner = new SplitTuner(5, 12);
+        tuner.observe(10_000, 1000, 5_000, 1000);
+        assertEquals(2, tuner.getMaxDepth()); //nothing has split, the root may split once
+
+        for (int level = 1; level <= 5; level++) {
+            split(tuner, level, 100, 120);
+            tuner.observe(10_000, 1000, 5_000, 1000);
+            //the nodes one level past the deepest measured may split, so nodes may be one level below those
+            assertEquals(level + 2, tuner.getMaxDepth(), "measured down to level " + level);
+        }
+    }
+}
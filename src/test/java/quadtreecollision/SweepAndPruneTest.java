@@ -0,0 +1,66 @@
+/**
+ * [SweepAndPruneTest.java]
+ * Checks that SweepAndPrune hands out every touching pair exactly once, both when its sorted order is fixed up from the
+ * last build and when the list changes and it sorts from scratch, and that it leaves out only pairs of two sleeping balls
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SweepAndPruneTest {
+    private static final int WIDTH = 1000, HEIGHT = 700;
+
+    @Test
+    void findsEveryTouchingPairOnce() {
+        for (Spawner.Distribution distribution : Spawner.Distribution.values()) {
+            List<BouncingBall> balls = TestScenes.balls(17, 3000, WIDTH, HEIGHT, 1, 16, distribution);
+            SweepAndPrune<BouncingBall> sap = new SweepAndPrune<>(Bounds.BALLS);
+            for (int step = 0; step < 50; step++) {
+                sap.build(balls);
+                assertEquals(TestScenes.touching(balls), TestScenes.found(balls, sap::findPairs), distribution + " step " + step);
+                assertEquals(0, TestScenes.duplicates(balls, sap::findPairs), distribution + " step " + step);
+                TestScenes.move(balls);
+            }
+        }
+    }
+
+    @Test
+    void sortsAgainWhenTheListChanges() {
+        List<BouncingBall> balls = TestScenes.balls(18, 2000, WIDTH, HEIGHT, 2, 10, Spawner.Distribution.CLUSTERS);
+        SweepAndPrune<BouncingBall> sap = new SweepAndPrune<>(Bounds.BALLS);
+        for (int step = 0; step < 20; step++) {
+            //drop a ball from the front every step, so every index now points at a different ball
+            balls.remove(0);
+            sap.build(balls);
+            assertEquals(TestScenes.touching(balls), TestScenes.found(balls, sap::findPairs), "step " + step);
+            assertEquals(0, TestScenes.duplicates(balls, sap::findPairs), "step " + step);
+            TestScenes.move(balls);
+        }
+    }
+
+    @Test
+    void leavesOutOnlyPairsOfSleepingBalls() {
+        List<BouncingBall> balls = TestScenes.balls(24, 2000, WIDTH, HEIGHT, 2, 10, Spawner.Distribution.CLUSTERS);
+        SweepAndPrune<BouncingBall> sap = new SweepAndPrune<>(Bounds.BALLS);
+        //put every other ball to sleep where it is
+        for (int i = 0; i < balls.size(); i += 2) {
+            balls.get(i).settle(Double.MAX_VALUE, 1);
+        }
+        for (int step = 0; step < 20; step++) {
+            sap.build(balls);
+            Set<Long> expected = TestScenes.touchingAwake(balls);
+            assertTrue(expected.size() > 0);
+            assertEquals(expected, TestScenes.found(balls, sap::findPairs), "step " + step);
+            TestScenes.move(balls);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * [SweptSolverTest.java]
+ * Checks timeOfImpact() against scanning the paths of random pairs in small time steps, and that SweptSolver bounces
+ * balls that move further than they are wide in a step instead of letting them pass through each other
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SweptSolverTest {
+    private static final int WIDTH = 1000, HEIGHT = 1000;
+    private static final int PAIRS = 20000; //random pairs tried
+    private static final int SCAN = 1000; //times looked at along each pair's paths
+    private static final double EPSILON = 1e-9; //largest gap allowed between two balls said to touch
+
+    /**
+     * @return how far apart the edges of two balls are a length of time from now, flying in straight lines, less than 0
+     *         if they overlap
+     */
+    private static double gap(BouncingBall a, BouncingBall b, double t) {
+        double deltaX = b.getPosX() - a.getPosX() + (b.getVx() - a.getVx()) * t;
+        double deltaY = b.getPosY() - a.getPosY() + (b.getVy() - a.getVy()) * t;
+        return Math.sqrt(deltaX * deltaX + deltaY * deltaY) - a.getRadius() - b.getRadius();
+    }
+
+    /**
+     * @return true if two balls are getting closer a length of time from now
+     */
+    private static boolean closing(BouncingBall a, BouncingBall b, double t) {
+        double deltaVx = b.getVx() - a.getVx(), deltaVy = b.getVy() - a.getVy();
+        double deltaX = b.getPosX() - a.getPosX() + deltaVx * t;
+        double deltaY = b.getPosY() - a.getPosY() + deltaVy * t;
+        return deltaX * deltaVx + deltaY * deltaVy < 0;
+    }
+
+    @Test
+    void timeOfImpactMatchesAScan() {
+        Random random = new Random(41);
+        int hits = 0, misses = 0;
+        for (int n = 0; n < PAIRS; n++) {
+            double radius = 1 + random.nextDouble() * 10, otherRadius = 1 + random.nextDouble() * 10;
+            double angle = random.nextDouble() * 2 * Math.PI, distance = random.nextDouble() * 80;
+            BouncingBall a = new BouncingBall(WIDTH, HEIGHT, 500, 500, random.nextDouble() * 40 - 20,
+                    random.nextDouble() * 40 - 20, radius, 1, 0);
+            BouncingBall b = new BouncingBall(WIDTH, HEIGHT, 500 + distance * Math.cos(angle), 500 + distance * Math.sin(angle),
+                    random.nextDouble() * 40 - 20, random.nextDouble() * 40 - 20, otherRadius, 1, 0);
+            double from = random.nextBoolean() ? 0 : random.nextDouble() / 2, to = from + random.nextDouble();
+
+            double t = a.timeOfImpact(b, from, to);
+            //the first time looked at where they touch while getting closer, the impact is no later than that
+            double first = Double.NaN;
+            for (int i = 0; i <= SCAN && Double.isNaN(first); i++) {
+                double time = from + (to - from) * i / SCAN;
+                if (gap(a, b, time) <= 0 && closing(a, b, time)) {
+                    first = time;
+                }
+            }
+
+            if (Double.isNaN(t)) {
+                assertTrue(Double.isNaN(first), "pair " + n + " touches at " + first + " but no impact was found");
+                misses++;
+                continue;
+            }
+            hits++;
+            assertTrue(t >= from && t <= to, "pair " + n + " hits at " + t + ", outside " + from + " to " + to);
+            assertTrue(closing(a, b, t), "pair " + n + " is moving apart at " + t);
+            if (gap(a, b, from) <= 0) {
+                assertEquals(from, t, "pair " + n + " overlaps already");
+            } else {
+                assertEquals(0, gap(a, b, t), EPSILON * (1 + distance), "pair " + n);
+                //between the scanned times before it they never touched
+                for (int i = 0; i <= SCAN; i++) {
+                    double time = from + (to - from) * i / SCAN;
+                    if (time < t) {
+                        assertTrue(gap(a, b, time) > 0, "pair " + n + " touches at " + time + " before " + t);
+                    }
+                }
+            }
+            if (!Double.isNaN(first)) {
+                assertTrue(t <= first, "pair " + n + " touches at " + first + " before " + t);
+            }
+        }
+        assertTrue(hits > PAIRS / 20 && misses > PAIRS / 20, hits + " hits and " + misses + " misses");
+    }
+
+    @Test
+    void headOnBallsBounceInsteadOfPassingThrough() {
+        //each moves 30 in a step and is 4 wide, so after one step of moving they would have swapped sides
+        BouncingBall a = new BouncingBall(WIDTH, HEIGHT, 100, 500, 30, 0, 2, 1, 0);
+        BouncingBall b = new BouncingBall(WIDTH, HEIGHT, 140, 500, -30, 0, 2, 1, 0);
+        List<BouncingBall> balls = new ArrayList<>(List.of(a, b));
+        SweptSolver solver = new SweptSolver(WIDTH, HEIGHT, 5, 8);
+
+        solver.step(balls, 1);
+        //they touch when the 36 between them has closed at 60 a step, at 0.6, and spend the rest of the step going back
+        assertEquals(1, solver.getBounces());
+        assertEquals(-30, a.getVx(), EPSILON);
+        assertEquals(30, b.getVx(), EPSILON);
+        assertEquals(106, a.getPosX(), EPSILON);
+        assertEquals(134, b.getPosX(), EPSILON);
+        assertEquals(500, a.getPosY(), EPSILON);
+        assertEquals(500, b.getPosY(), EPSILON);
+    }
+
+    @Test
+    void fastCrowdNeverEndsAStepPassedThrough() {
+        //pairs heading straight at each other, some of them far faster than they are wide, each pair on its own row
+        Random random = new Random(42);
+        List<BouncingBall> balls = new ArrayList<>();
+        for (int row = 0; row < 40; row++) {
+            double speed = 1 + random.nextDouble() * 40, radius = 1 + random.nextDouble() * 4;
+            double x = 300 + random.nextDouble() * 400, apart = 2 * radius + random.nextDouble() * speed;
+            balls.add(new BouncingBall(WIDTH, HEIGHT, x, 20 + row * 24, speed, 0, radius, 1, 0));
+            balls.add(new BouncingBall(WIDTH, HEIGHT, x + apart, 20 + row * 24, -speed, 0, radius, 1, 0));
+        }
+        SweptSolver solver = new SweptSolver(WIDTH, HEIGHT, 5, 8);
+
+        solver.step(balls, 1);
+        for (int row = 0; row < 40; row++) {
+            BouncingBall left = balls.get(2 * row), right = balls.get(2 * row + 1);
+            assertTrue(left.getPosX() < right.getPosX(), "row " + row + " passed through each other");
+            assertTrue(left.getVx() < 0 && right.getVx() > 0, "row " + row + " did not bounce");
+        }
+    }
+}
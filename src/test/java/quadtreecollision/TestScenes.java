@@ -0,0 +1,146 @@
+/**
+ * [TestScenes.java]
+ * Seeded scenes for the tests and the brute force answers to check the broad phases against
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+final class TestScenes {
+    private TestScenes() {
+    }
+
+    /**
+     * @return balls made by a Spawner, the same every time for the same arguments
+     */
+    static List<BouncingBall> balls(long seed, int count, int width, int height, double minRadius, double maxRadius, Spawner.Distribution distribution) {
+        Spawner spawner = new Spawner(width, height, seed, distribution);
+        spawner.setRadius(minRadius, maxRadius);
+        return new ArrayList<>(Arrays.asList(spawner.spawn(count)));
+    }
+
+    /**
+     * @return every pair of balls that touches, checked one pair at a time, as keys made by key()
+     */
+    static Set<Long> touching(List<BouncingBall> balls) {
+        Set<Long> pairs = new HashSet<>();
+        for (int i = 0; i < balls.size(); i++) {
+            for (int j = i + 1; j < balls.size(); j++) {
+                if (balls.get(i).touches(balls.get(j))) {
+                    pairs.add(key(i, j, balls.size()));
+                }
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * @return every pair of balls that touches, leaving out pairs of two sleeping balls
+     */
+    static Set<Long> touchingAwake(List<BouncingBall> balls) {
+        Set<Long> pairs = touching(balls);
+        pairs.removeIf(key -> balls.get((int)(key / balls.size())).isAsleep()
+                && balls.get((int)(key % balls.size())).isAsleep());
+        return pairs;
+    }
+
+    /**
+     * @return every pair of balls that touches, leaving out balls that have moved entirely out of the world (a ball
+     *         can overshoot a wall for a step), which the quadtrees don't hold
+     */
+    static Set<Long> touchingInside(List<BouncingBall> balls, int width, int height) {
+        Set<Long> pairs = touching(balls);
+        pairs.removeIf(key -> outside(balls.get((int)(key / balls.size())), width, height)
+                || outside(balls.get((int)(key % balls.size())), width, height));
+        return pairs;
+    }
+
+    /**
+     * @return true if no part of a ball is inside the world
+     */
+    static boolean outside(BouncingBall b, int width, int height) {
+        double r = b.getRadius();
+        return b.getPosX() + r < 0 || b.getPosX() - r > width || b.getPosY() + r < 0 || b.getPosY() - r > height;
+    }
+
+    /**
+     * @param balls the balls the pairs are made of
+     * @param finder hands every candidate pair to the consumer it is given, e.g. a broad phase's findPairs
+     * @return the candidate pairs that touch, as keys made by key()
+     */
+    static Set<Long> found(List<BouncingBall> balls, Consumer<BiConsumer<BouncingBall, BouncingBall>> finder) {
+        Map<BouncingBall, Integer> index = new IdentityHashMap<>();
+        for (int i = 0; i < balls.size(); i++) {
+            index.put(balls.get(i), i);
+        }
+        Set<Long> pairs = new HashSet<>();
+        finder.accept((a, b) -> {
+            if (a.touches(b)) {
+                pairs.add(key(index.get(a), index.get(b), balls.size()));
+            }
+        });
+        return pairs;
+    }
+
+    /**
+     * @param balls the balls the pairs are made of
+     * @param finder hands every candidate pair to the consumer it is given
+     * @return how many times a pair was handed out again after the first time
+     */
+    static int duplicates(List<BouncingBall> balls, Consumer<BiConsumer<BouncingBall, BouncingBall>> finder) {
+        Map<BouncingBall, Integer> index = new IdentityHashMap<>();
+        for (int i = 0; i < balls.size(); i++) {
+            index.put(balls.get(i), i);
+        }
+        Set<Long> seen = new HashSet<>();
+        int[] duplicates = {0};
+        finder.accept((a, b) -> {
+            if (!seen.add(key(index.get(a), index.get(b), balls.size()))) {
+                duplicates[0]++;
+            }
+        });
+        return duplicates[0];
+    }
+
+    /**
+     * @return the same key for a pair whichever way round it is given
+     */
+    static long key(int a, int b, int count) {
+        return (long)Math.min(a, b) * count + Math.max(a, b);
+    }
+
+    /**
+     * moves every ball by a step
+     */
+    static void move(List<BouncingBall> balls) {
+        for (BouncingBall b : balls) {
+            b.move();
+        }
+    }
+
+    /**
+     * @return every ball's position and velocity, to compare two runs exactly
+     */
+    static double[] state(List<BouncingBall> balls) {
+        double[] state = new double[balls.size() * 4];
+        for (int i = 0; i < balls.size(); i++) {
+            BouncingBall b = balls.get(i);
+            state[i * 4] = b.getPosX();
+            state[i * 4 + 1] = b.getPosY();
+            state[i * 4 + 2] = b.getVx();
+            state[i * 4 + 3] = b.getVy();
+        }
+        return state;
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * [UniformGridTest.java]
+ * Checks that a UniformGrid hands out every touching pair exactly once, with cells fitted to the largest ball or set
+ * smaller than it, and leaves out only pairs of two sleeping balls
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UniformGridTest {
+    private static final int WIDTH = 1000, HEIGHT = 700;
+
+    @Test
+    void findsEveryTouchingPairOnce() {
+        for (Spawner.Distribution distribution : Spawner.Distribution.values()) {
+            for (double cellSize : new double[] {0, 5}) {
+                List<BouncingBall> balls = TestScenes.balls(15, 3000, WIDTH, HEIGHT, 1, 16, distribution);
+                UniformGrid<BouncingBall> grid = new UniformGrid<>(0, 0, WIDTH, HEIGHT, cellSize, Bounds.BALLS);
+                for (int step = 0; step < 50; step++) {
+                    grid.build(balls);
+                    String where = distribution + " cell " + cellSize + " step " + step;
+                    assertEquals(TestScenes.touching(balls), TestScenes.found(balls, grid::findPairs), where);
+                    assertEquals(0, TestScenes.duplicates(balls, grid::findPairs), where);
+                    TestScenes.move(balls);
+                }
+            }
+        }
+    }
+
+    @Test
+    void keepsBallsOutsideTheGrid() {
+        List<BouncingBall> balls = TestScenes.balls(16, 300, WIDTH, HEIGHT, 4, 8, Spawner.Distribution.UNIFORM);
+        for (int i = 0; i < 30; i++) {
+            //balls in a row past the right and top edges, touching their neighbours
+            balls.add(new BouncingBall(WIDTH, HEIGHT, WIDTH + 20 + i * 9, 100, 0, 0, 5, 1, 0));
+            balls.add(new BouncingBall(WIDTH, HEIGHT, 100 + i * 9, -40, 0, 0, 5, 1, 0));
+        }
+        UniformGrid<BouncingBall> grid = new UniformGrid<>(0, 0, WIDTH, HEIGHT, 0, Bounds.BALLS);
+        grid.build(balls);
+        assertEquals(TestScenes.touching(balls), TestScenes.found(balls, grid::findPairs));
+        assertEquals(0, TestScenes.duplicates(balls, grid::findPairs));
+    }
+
+    @Test
+    void leavesOutOnlyPairsOfSleepingBalls() {
+        List<BouncingBall> balls = TestScenes.balls(23, 2000, WIDTH, HEIGHT, 2, 10, Spawner.Distribution.CLUSTERS);
+        UniformGrid<BouncingBall> grid = new UniformGrid<>(0, 0, WIDTH, HEIGHT, 0, Bounds.BALLS);
+        //put every other ball to sleep where it is
+        for (int i = 0; i < balls.size(); i += 2) {
+            balls.get(i).settle(Double.MAX_VALUE, 1);
+        }
+        for (int step = 0; step < 20; step++) {
+            grid.build(balls);
+            Set<Long> expected = TestScenes.touchingAwake(balls);
+            assertTrue(expected.size() > 0);
+            assertEquals(expected, TestScenes.found(balls, grid::findPairs), "step " + step);
+            TestScenes.move(balls);
+        }
+    }
+}
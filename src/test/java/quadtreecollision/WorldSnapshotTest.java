@@ -0,0 +1,63 @@
+/**
+ * [WorldSnapshotTest.java]
+ * Checks that a World only draws a view as a heatmap once even its largest ball would be too small to see, whichever
+ * way the balls got into the world
+ * @author Dora Su
+ * October 17 2026
+ */
+
+package quadtreecollision;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class WorldSnapshotTest {
+    private static final int WIDTH = 1000, HEIGHT = 1000;
+    //far enough out that a ball of the default size is under HEATMAP_DIAMETER pixels across, but one of radius 20 isn't
+    private static final Camera FAR = new Camera(WIDTH / 2.0, HEIGHT / 2.0, 0.08, 80, 80);
+
+    /**
+     * @return a world of small balls from setBallRadius() and a few big ones from a spawner
+     */
+    private static World world() {
+        World world = new World(WIDTH, HEIGHT, 5, 8);
+        world.addBalls(200);
+        Spawner spawner = new Spawner(WIDTH, HEIGHT, 27, Spawner.Distribution.UNIFORM);
+        spawner.setRadius(20, 20);
+        world.addBalls(spawner, 3);
+        return world;
+    }
+
+    @Test
+    void goesByTheLargestBallInTheWorld() {
+        World world = world();
+        assertNull(world.snapshot(FAR).getHeatmap());
+
+        //once the big ones are gone, the view is a heatmap again
+        List<BouncingBall> big = new ArrayList<>();
+        for (BouncingBall b : world.getBalls()) {
+            if (b.getRadius() == 20) {
+                big.add(b);
+            }
+        }
+        for (BouncingBall b : big) {
+            assertNull(world.snapshot(FAR).getHeatmap());
+            world.removeBall(b);
+        }
+        assertNotNull(world.snapshot(FAR).getHeatmap());
+    }
+
+    @Test
+    void restoredWorldGoesByItsLargestBall() {
+        World world = World.restore(world().checkpoint());
+        assertNull(world.snapshot(FAR).getHeatmap());
+        world.clear();
+        world.addBalls(10);
+        assertNotNull(world.snapshot(FAR).getHeatmap());
+    }
+}